@@ -0,0 +1,207 @@
+package com.github.mygreen.cellformatter;
+
+
+/**
+ * シートや範囲をまとめてフォーマットした結果を、列ごとに保持するクラス。
+ * <p>セルごとに{@link CellFormatResult}を保持せずに、列ごとに値、文字列、文字色、セルの種類を
+ *    プリミティブ型の配列で保持します。分析用のツールなどに列単位で渡す場合に利用します。</p>
+ * <p>列や行のインデックス番号は、シート上の位置（0から始まる）で指定します。</p>
+ *
+ * <pre class="highlight"><code class="java">
+ * POICellFormatter cellFormatter = new POICellFormatter();
+ *
+ * CellFormatColumns columns = cellFormatter.formatSheetAsColumns(sheet, Locale.JAPANESE);
+ * FormattedColumn column = columns.getColumn(2);
+ * for(int r=column.getFirstRow(); r &lt; column.getFirstRow() + column.getRowCount(); r++) {
+ *     if(column.isValid(r)) {
+ *         double value = column.getValue(r);
+ *     }
+ * }
+ * </code></pre>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class CellFormatColumns {
+
+    /**
+     * 先頭の行のインデックス番号
+     */
+    private final int firstRow;
+
+    /**
+     * 先頭の列のインデックス番号
+     */
+    private final int firstColumn;
+
+    /**
+     * 行数
+     */
+    private final int rowCount;
+
+    /**
+     * 列ごとの結果
+     */
+    private final FormattedColumn[] columns;
+
+    /**
+     * 結果を保持する列かどうか。nullの場合は全ての列。
+     */
+    private final boolean[] included;
+
+    /**
+     * 範囲を指定してインスタンスを作成する。
+     * @param firstRow 先頭の行のインデックス番号
+     * @param firstColumn 先頭の列のインデックス番号
+     * @param rowCount 行数
+     * @param columnCount 列数
+     */
+    CellFormatColumns(final int firstRow, final int firstColumn, final int rowCount, final int columnCount) {
+        this(firstRow, firstColumn, rowCount, columnCount, null);
+    }
+
+    /**
+     * 範囲と、結果を保持する列を指定してインスタンスを作成する。
+     * @param firstRow 先頭の行のインデックス番号
+     * @param firstColumn 先頭の列のインデックス番号
+     * @param rowCount 行数
+     * @param columnCount 列数
+     * @param columnIndexes 結果を保持する列のインデックス番号。nullの場合は全ての列。
+     */
+    CellFormatColumns(final int firstRow, final int firstColumn, final int rowCount, final int columnCount,
+            final int[] columnIndexes) {
+        this.firstRow = firstRow;
+        this.firstColumn = firstColumn;
+        this.rowCount = rowCount;
+        this.columns = new FormattedColumn[columnCount];
+        if(columnIndexes == null) {
+            this.included = null;
+        } else {
+            this.included = new boolean[columnCount];
+            for(int columnIndex : columnIndexes) {
+                included[columnIndex - firstColumn] = true;
+            }
+        }
+    }
+
+    /**
+     * 結果を保持する列かどうか判定する。
+     * @param offset 列の位置
+     * @return true:結果を保持する列の場合。
+     */
+    private boolean isIncluded(final int offset) {
+        return included == null || included[offset];
+    }
+
+    /**
+     * 1行分の結果を設定する。
+     * <p>行の順番に設定する必要がある。
+     * @param rowIndex 行のインデックス番号
+     * @param results 列ごとの結果。物理的に存在しないセルの要素はnull。
+     */
+    void setRow(final int rowIndex, final CellFormatResult[] results) {
+        setRow(rowIndex, firstColumn, results);
+    }
+
+    /**
+     * 1行分の結果を、配列の先頭に対応する列を指定して設定する。
+     * <p>行の順番に設定する必要がある。
+     *    <br>列は、最初に結果を設定するときに作成する。</p>
+     * @param rowIndex 行のインデックス番号
+     * @param startColumn 結果の配列の先頭に対応する列のインデックス番号
+     * @param results 列ごとの結果。物理的に存在しないセルの要素はnull。
+     */
+    void setRow(final int rowIndex, final int startColumn, final CellFormatResult[] results) {
+        final int offset = startColumn - firstColumn;
+        for(int i=0; i < results.length; i++) {
+            if(results[i] == null || !isIncluded(offset + i)) {
+                continue;
+            }
+
+            FormattedColumn column = columns[offset + i];
+            if(column == null) {
+                column = new FormattedColumn(startColumn + i, firstRow, rowCount);
+                columns[offset + i] = column;
+            }
+            column.set(rowIndex, results[i]);
+        }
+    }
+
+    /**
+     * 全ての行の結果を設定した後に呼び出す。
+     * <p>結果が1つもない列は、値を保持しない列として作成する。
+     */
+    void complete() {
+        for(int i=0; i < columns.length; i++) {
+            if(columns[i] != null) {
+                columns[i].complete();
+            } else if(isIncluded(i)) {
+                columns[i] = new FormattedColumn(firstColumn + i, firstRow, rowCount);
+            }
+        }
+    }
+
+    /**
+     * 列の結果を取得する。
+     * @param columnIndex 列のインデックス番号（0から始まる）。
+     * @return 列の結果。射影を指定してフォーマットした場合、対象外の列はnullを返す。
+     * @throws IndexOutOfBoundsException 範囲外の列の場合
+     */
+    public FormattedColumn getColumn(final int columnIndex) {
+        final int offset = columnIndex - firstColumn;
+        if(offset < 0 || offset >= columns.length) {
+            throw new IndexOutOfBoundsException("columnIndex : " + columnIndex);
+        }
+        return columns[offset];
+    }
+
+    /**
+     * 先頭の行のインデックス番号を取得する。
+     * @return 先頭の行のインデックス番号（0から始まる）。
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * 最後の行のインデックス番号を取得する。
+     * @return 最後の行のインデックス番号（0から始まる）。行が存在しない場合は、{@link #getFirstRow()}-1を返す。
+     */
+    public int getLastRow() {
+        return firstRow + rowCount - 1;
+    }
+
+    /**
+     * 先頭の列のインデックス番号を取得する。
+     * @return 先頭の列のインデックス番号（0から始まる）。
+     */
+    public int getFirstColumn() {
+        return firstColumn;
+    }
+
+    /**
+     * 最後の列のインデックス番号を取得する。
+     * @return 最後の列のインデックス番号（0から始まる）。列が存在しない場合は、{@link #getFirstColumn()}-1を返す。
+     */
+    public int getLastColumn() {
+        return firstColumn + columns.length - 1;
+    }
+
+    /**
+     * 行数を取得する。
+     * @return 物理的に存在しない行も含めた行数。
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 列数を取得する。
+     * @return 物理的に存在しない列も含めた列数。
+     */
+    public int getColumnCount() {
+        return columns.length;
+    }
+
+}
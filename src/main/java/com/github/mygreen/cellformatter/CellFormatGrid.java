@@ -0,0 +1,274 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Arrays;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * シートや範囲をまとめてフォーマットした結果を保持するクラス。
+ * <p>物理的に存在する行のみを保持し、存在しない行や、行内で存在しないセルの結果は保持しません。
+ *    <br>それらのセルの結果を取得した場合は、空セルの結果{@link CellFormatResult#BLANK}を返します。</p>
+ * <p>行や列のインデックス番号は、シート上の位置（0から始まる）で指定します。</p>
+ * <p>各行は、行内で物理的に存在する先頭のセルから最後のセルまでの結果のみを保持するため、
+ *    行ごとにセルの範囲が異なるシートでも、範囲全体の列数分の領域は確保しません。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class CellFormatGrid {
+
+    /**
+     * 先頭の行のインデックス番号
+     */
+    private final int firstRow;
+
+    /**
+     * 先頭の列のインデックス番号
+     */
+    private final int firstColumn;
+
+    /**
+     * 列数
+     */
+    private final int columnCount;
+
+    /**
+     * 行ごとの結果。存在しない行はnull。
+     */
+    private final CellFormatResult[][] rows;
+
+    /**
+     * 行ごとの、結果の配列の先頭に対応する列の、{@link #firstColumn}からの位置
+     */
+    private final int[] columnOffsets;
+
+    /**
+     * 範囲を指定してインスタンスを作成する。
+     * @param firstRow 先頭の行のインデックス番号
+     * @param firstColumn 先頭の列のインデックス番号
+     * @param rowCount 行数
+     * @param columnCount 列数
+     */
+    CellFormatGrid(final int firstRow, final int firstColumn, final int rowCount, final int columnCount) {
+        this.firstRow = firstRow;
+        this.firstColumn = firstColumn;
+        this.columnCount = columnCount;
+        this.rows = new CellFormatResult[rowCount][];
+        this.columnOffsets = new int[rowCount];
+    }
+
+    /**
+     * 1行分の結果を設定する。
+     * <p>異なる行であれば、複数のスレッドから設定することができます。
+     * @param rowIndex 行のインデックス番号
+     * @param results 先頭の列からの、列ごとの結果。配列はそのまま保持します。
+     */
+    void setRow(final int rowIndex, final CellFormatResult[] results) {
+        setRow(rowIndex, firstColumn, results);
+    }
+
+    /**
+     * 1行分の結果を、配列の先頭に対応する列を指定して設定する。
+     * <p>異なる行であれば、複数のスレッドから設定することができます。
+     * @param rowIndex 行のインデックス番号
+     * @param startColumn 結果の配列の先頭に対応する列のインデックス番号
+     * @param results 列ごとの結果。配列はそのまま保持します。
+     */
+    void setRow(final int rowIndex, final int startColumn, final CellFormatResult[] results) {
+        rows[rowIndex - firstRow] = results;
+        columnOffsets[rowIndex - firstRow] = startColumn - firstColumn;
+    }
+
+    /**
+     * 1行分の結果のうち、物理的に存在する先頭のセルから最後のセルまでをコピーして設定する。
+     * <p>{@link CellFormatRowHandler}から受け取った、使い回される配列を保持する場合に使用します。
+     * @param rowIndex 行のインデックス番号
+     * @param startColumn 結果の配列の先頭に対応する列のインデックス番号
+     * @param results 列ごとの結果。物理的に存在しないセルの要素はnull。
+     */
+    void copyRow(final int rowIndex, final int startColumn, final CellFormatResult[] results) {
+
+        int from = 0;
+        while(from < results.length && results[from] == null) {
+            from++;
+        }
+
+        int to = results.length;
+        while(to > from && results[to - 1] == null) {
+            to--;
+        }
+
+        setRow(rowIndex, startColumn + from, Arrays.copyOfRange(results, from, to));
+    }
+
+    /**
+     * セルのフォーマット結果を取得する。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @param columnIndex 列のインデックス番号（0から始まる）。
+     * @return 範囲外のセルや、物理的に存在しないセルの場合は、空セルの結果{@link CellFormatResult#BLANK}を返す。
+     */
+    public CellFormatResult get(final int rowIndex, final int columnIndex) {
+
+        final CellFormatResult[] results = getRow(rowIndex);
+        if(results == null) {
+            return CellFormatResult.BLANK;
+        }
+
+        final int index = columnIndex - firstColumn - columnOffsets[rowIndex - firstRow];
+        if(index < 0 || index >= results.length || results[index] == null) {
+            return CellFormatResult.BLANK;
+        }
+
+        return results[index];
+    }
+
+    /**
+     * セルのフォーマットした文字列を取得する。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @param columnIndex 列のインデックス番号（0から始まる）。
+     * @return 範囲外のセルや、物理的に存在しないセルの場合は、空文字を返す。
+     */
+    public String getText(final int rowIndex, final int columnIndex) {
+        return get(rowIndex, columnIndex).getText();
+    }
+
+    /**
+     * 行が物理的に存在するかどうか。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @return true:範囲内に物理的に存在するセルを含む行の場合。
+     */
+    public boolean hasRow(final int rowIndex) {
+        return getRow(rowIndex) != null;
+    }
+
+    /**
+     * 1行分の結果を取得する。
+     * @param rowIndex 行のインデックス番号
+     * @return 存在しない場合はnullを返す。
+     */
+    private CellFormatResult[] getRow(final int rowIndex) {
+        final int index = rowIndex - firstRow;
+        if(index < 0 || index >= rows.length) {
+            return null;
+        }
+        return rows[index];
+    }
+
+    /**
+     * 物理的に存在する行の結果を、行の順番にハンドラに渡す。
+     * <p>{@link POICellFormatter#formatRange(org.apache.poi.ss.usermodel.Sheet, org.apache.poi.ss.util.CellRangeAddress, java.util.Locale, CellFormatRowHandler)}
+     *    と同じ形式で結果を受け取るため、スナップショットなどの結果を、行単位の処理にそのまま渡すことができます。</p>
+     * <p>結果の配列は、先頭の列から最後の列までの列数分となります。
+     *    行内の一部の列のみを保持している場合は、使い回す配列に展開して渡します。</p>
+     * @param handler 行ごとの結果を受け取るハンドラ
+     * @throws IllegalArgumentException {@literal handler == null.}
+     */
+    public void forEachRow(final CellFormatRowHandler handler) {
+        ArgUtils.notNull(handler, "handler");
+
+        CellFormatResult[] buffer = null;
+        for(int i=0; i < rows.length; i++) {
+            final CellFormatResult[] results = rows[i];
+            if(results == null) {
+                continue;
+            }
+
+            if(columnOffsets[i] == 0 && results.length == columnCount) {
+                handler.handleRow(firstRow + i, firstColumn, results);
+                continue;
+            }
+
+            if(buffer == null) {
+                buffer = new CellFormatResult[columnCount];
+            } else {
+                Arrays.fill(buffer, null);
+            }
+            System.arraycopy(results, 0, buffer, columnOffsets[i], results.length);
+            handler.handleRow(firstRow + i, firstColumn, buffer);
+        }
+    }
+
+    /**
+     * 列ごとに結果を保持する形式に変換する。
+     * <p>{@link POICellFormatter#formatSnapshot(SheetSnapshot, java.util.Locale)}などで取得した結果を、
+     *    列単位で扱う場合に利用します。</p>
+     * @return 列ごとのフォーマット結果
+     */
+    public CellFormatColumns toColumns() {
+
+        final CellFormatColumns columns = new CellFormatColumns(firstRow, firstColumn, rows.length, columnCount);
+        for(int i=0; i < rows.length; i++) {
+            if(rows[i] != null) {
+                columns.setRow(firstRow + i, firstColumn + columnOffsets[i], rows[i]);
+            }
+        }
+        columns.complete();
+
+        return columns;
+    }
+
+    /**
+     * 先頭の行のインデックス番号を取得する。
+     * @return 先頭の行のインデックス番号（0から始まる）。
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * 最後の行のインデックス番号を取得する。
+     * @return 最後の行のインデックス番号（0から始まる）。行が存在しない場合は、{@link #getFirstRow()}-1を返す。
+     */
+    public int getLastRow() {
+        return firstRow + rows.length - 1;
+    }
+
+    /**
+     * 先頭の列のインデックス番号を取得する。
+     * @return 先頭の列のインデックス番号（0から始まる）。
+     */
+    public int getFirstColumn() {
+        return firstColumn;
+    }
+
+    /**
+     * 最後の列のインデックス番号を取得する。
+     * @return 最後の列のインデックス番号（0から始まる）。列が存在しない場合は、{@link #getFirstColumn()}-1を返す。
+     */
+    public int getLastColumn() {
+        return firstColumn + columnCount - 1;
+    }
+
+    /**
+     * 行数を取得する。
+     * @return 物理的に存在しない行も含めた行数。
+     */
+    public int getRowCount() {
+        return rows.length;
+    }
+
+    /**
+     * 列数を取得する。
+     * @return 物理的に存在しない列も含めた列数。
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * 物理的に存在した行の数を取得する。
+     * @return 結果を保持している行の数。
+     */
+    public int getPhysicalRowCount() {
+        int count = 0;
+        for(CellFormatResult[] results : rows) {
+            if(results != null) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+}
@@ -2,6 +2,7 @@ package com.github.mygreen.cellformatter;
 
 import java.util.Date;
 import java.util.TimeZone;
+import java.util.function.Supplier;
 
 import com.github.mygreen.cellformatter.lang.MSColor;
 
@@ -9,13 +10,29 @@ import com.github.mygreen.cellformatter.lang.MSColor;
 /**
  * フォーマット結果を保持するクラス。
  * <p>条件に色が付与されている場合などの情報を保持する。
+ * <p>空セルなどの常に同じ内容となる結果は、共有された変更不可のインスタンス（{@link #BLANK}など）を返す場合があります。
+ *    <br>変更不可のインスタンスの値を設定しようとすると、{@link UnsupportedOperationException}がスローされます。</p>
+ * <p>文字列の作成を遅延させた結果の場合、セクションや文字色などはフォーマット時に決定し、
+ *    文字列は{@link #getText()}を最初に呼び出したときに作成します。</p>
  * 
- * @version 0.6
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
 public class CellFormatResult {
     
+    /**
+     * 空セルの結果。変更不可。
+     * @since 0.13
+     */
+    public static final CellFormatResult BLANK = unmodifiable(FormatCellType.Blank, null, "");
+    
+    /**
+     * 種類が不明なセルの結果。変更不可。
+     * @since 0.13
+     */
+    public static final CellFormatResult UNKNOWN = unmodifiable(FormatCellType.Unknown, null, "");
+    
     /**
      * フォーマットする際に使用した値
      */
@@ -26,6 +43,11 @@ public class CellFormatResult {
      */
     private String text;
     
+    /**
+     * フォーマット後の値を遅延して作成する処理。作成済みの場合はnull。
+     */
+    private Supplier<String> deferredText;
+    
     /**
      * フォーマット後の色。nullの場合がある。
      */
@@ -79,12 +101,10 @@ public class CellFormatResult {
      */
     public Date getValueAsDate(final TimeZone tz) {
         long time = ((Date) value).getTime();
-        long offset;
-        if(tz == null) {
-            offset = TimeZone.getDefault().getRawOffset();
-        } else {
-            offset = tz.getRawOffset();
-        }
+        final TimeZone zone = (tz == null ? TimeZone.getDefault() : tz);
+        
+        // 夏時間の期間は、標準時との差を含めたオフセットを使用する。
+        long offset = zone.getOffset(time - zone.getRawOffset());
         
         return new Date(time - offset);
     }
@@ -181,9 +201,14 @@ public class CellFormatResult {
     
     /**
      * フォーマットした文字列を取得する
-     * @return フォーマットした文字列。
+     * <p>文字列の作成を遅延させている場合は、最初の呼び出し時に作成します。
+     * @return フォーマットした文字列。文字列を作成せずに分類のみを行った結果の場合は、nullを返す。
      */
     public String getText() {
+        if(deferredText != null) {
+            this.text = deferredText.get();
+            this.deferredText = null;
+        }
         return text;
     }
     
@@ -193,6 +218,26 @@ public class CellFormatResult {
      */
     public void setText(String text) {
         this.text = text;
+        this.deferredText = null;
+    }
+    
+    /**
+     * フォーマットした文字列を作成する処理を設定し、文字列の作成を{@link #getText()}の呼び出し時まで遅延させる。
+     * @since 0.13
+     * @param deferredText 文字列を作成する処理。
+     */
+    public void setDeferredText(Supplier<String> deferredText) {
+        this.text = null;
+        this.deferredText = deferredText;
+    }
+    
+    /**
+     * 文字列の作成を遅延させているかどうか。
+     * @since 0.13
+     * @return true:まだ文字列を作成していない場合。
+     */
+    public boolean isTextDeferred() {
+        return deferredText != null;
     }
     
     /**
@@ -228,4 +273,116 @@ public class CellFormatResult {
     public void setCellType(FormatCellType cellType) {
         this.cellType = cellType;
     }
+    
+    /**
+     * 値を変更可能かどうか。
+     * @since 0.13
+     * @return false:共有された変更不可のインスタンスの場合。
+     */
+    public boolean isModifiable() {
+        return true;
+    }
+    
+    /**
+     * 他の結果の内容を全て設定する。
+     * <p>コピー元の文字列の作成を遅延させている場合は、作成する処理をコピーします。
+     * @since 0.13
+     * @param other コピー元の結果
+     * @return 自身のインスタンス。
+     * @throws UnsupportedOperationException 変更不可のインスタンスの場合。
+     */
+    public CellFormatResult copyFrom(final CellFormatResult other) {
+        setValue(other.getValue());
+        if(other.deferredText != null) {
+            setDeferredText(other.deferredText);
+        } else {
+            setText(other.text);
+        }
+        setTextColor(other.getTextColor());
+        setSectionPattern(other.getSectionPattern());
+        setCellType(other.getCellType());
+        return this;
+    }
+    
+    /**
+     * 変更不可の結果を作成する。
+     * @since 0.13
+     * @param cellType セルの種類
+     * @param value フォーマット対象の値
+     * @param text フォーマットした文字列
+     * @return 変更不可の結果
+     */
+    static CellFormatResult unmodifiable(final FormatCellType cellType, final Object value, final String text) {
+        return new UnmodifiableResult(cellType, value, text);
+    }
+    
+    /**
+     * 結果の内容をコピーした、変更不可の結果を作成する。
+     * <p>コピー元の文字列の作成を遅延させている場合は、コピーする時点で文字列を作成します。
+     *    <br>変更不可の結果は複数のスレッドで共有されるため、参照時に状態が変わらないようにします。</p>
+     * @since 0.13
+     * @param result コピー元の結果
+     * @return 変更不可の結果。コピー元が変更不可の場合は、そのまま返す。
+     */
+    static CellFormatResult unmodifiable(final CellFormatResult result) {
+        if(!result.isModifiable()) {
+            return result;
+        }
+        return new UnmodifiableResult(result);
+    }
+    
+    /**
+     * 変更不可の結果。
+     * <p>空セルやエラーセルなどの、共有する結果として使用する。
+     */
+    private static class UnmodifiableResult extends CellFormatResult {
+        
+        UnmodifiableResult(final FormatCellType cellType, final Object value, final String text) {
+            super.setCellType(cellType);
+            super.setValue(value);
+            super.setText(text);
+        }
+        
+        UnmodifiableResult(final CellFormatResult other) {
+            this(other.getCellType(), other.getValue(), other.getText());
+            super.setTextColor(other.getTextColor());
+            super.setSectionPattern(other.getSectionPattern());
+        }
+        
+        @Override
+        public void setValue(Object value) {
+            throw new UnsupportedOperationException("unmodifiable result.");
+        }
+        
+        @Override
+        public void setText(String text) {
+            throw new UnsupportedOperationException("unmodifiable result.");
+        }
+        
+        @Override
+        public void setDeferredText(Supplier<String> deferredText) {
+            throw new UnsupportedOperationException("unmodifiable result.");
+        }
+        
+        @Override
+        public void setTextColor(MSColor textColor) {
+            throw new UnsupportedOperationException("unmodifiable result.");
+        }
+        
+        @Override
+        public void setSectionPattern(String sectionPattern) {
+            throw new UnsupportedOperationException("unmodifiable result.");
+        }
+        
+        @Override
+        public void setCellType(FormatCellType cellType) {
+            throw new UnsupportedOperationException("unmodifiable result.");
+        }
+        
+        @Override
+        public boolean isModifiable() {
+            return false;
+        }
+        
+    }
 }
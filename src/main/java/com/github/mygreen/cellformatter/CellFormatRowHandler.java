@@ -0,0 +1,26 @@
+package com.github.mygreen.cellformatter;
+
+
+/**
+ * シートや範囲をまとめてフォーマットした結果を、行単位で受け取るためのインタフェース。
+ * <p>{@link POICellFormatter#formatRange(org.apache.poi.ss.usermodel.Sheet, org.apache.poi.ss.util.CellRangeAddress, java.util.Locale, CellFormatRowHandler)}
+ *    などで利用し、全ての結果を保持せずに、行ごとに処理する場合に利用します。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+@FunctionalInterface
+public interface CellFormatRowHandler {
+
+    /**
+     * 1行分のフォーマット結果を受け取る。
+     * <p>物理的に存在しない行や、範囲内にセルが存在しない行に対しては呼び出されません。</p>
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @param firstColumn 結果の配列の先頭に対応する列のインデックス番号（0から始まる）。
+     * @param results 列ごとのフォーマット結果。物理的に存在しないセルの要素はnullとなる。
+     *        配列は次の行で使い回すため、保持する場合はコピーしてください。
+     */
+    void handleRow(int rowIndex, int firstColumn, CellFormatResult[] results);
+
+}
@@ -2,11 +2,14 @@ package com.github.mygreen.cellformatter;
 
 import java.util.Locale;
 
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
+
 
 /**
  * セルのフォーマッタの共通インタフェース
  *
- * @version 0.10
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -31,6 +34,83 @@ public abstract class CellFormatter {
      */
     public abstract CellFormatResult format(final CommonCell cell, final Locale locale);
 
+    /**
+     * セルの値をロケールを指定してフォーマットし、呼び出し元が保持する結果に格納する。
+     * <p>標準の実装は、{@link #format(CommonCell, Locale)}の結果をコピーします。
+     *    結果のインスタンスを作成しない場合は、サブクラスで上書きします。</p>
+     * @since 0.13
+     * @param cell フォーマット対象のセル。
+     * @param locale ロケール。指定しない場合は、実行環境のロケールが設定される。
+     * @param target フォーマットした結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     * @throws IllegalArgumentException {@literal cell == null or target == null.}
+     */
+    public CellFormatResult format(final CommonCell cell, final Locale locale, final CellFormatResult target) {
+        ArgUtils.notNull(target, "target");
+        return target.copyFrom(format(cell, locale));
+    }
+
+    /**
+     * セルの値を分類する。
+     * <p>一致したセクションや文字色、セルの種類、値のみを決定し、フォーマットした文字列は作成しません。
+     *    そのため、結果の{@link CellFormatResult#getText()}はnullを返します。</p>
+     * @since 0.13
+     * @param cell 分類対象のセル。
+     * @param locale ロケール。指定しない場合は、実行環境のロケールが設定される。
+     * @return 分類した結果。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    public CellFormatResult classify(final CommonCell cell, final Locale locale) {
+        return classify(cell, locale, new CellFormatResult());
+    }
+
+    /**
+     * セルの値を分類し、呼び出し元が保持する結果に格納する。
+     * <p>標準の実装は、フォーマットした結果から文字列を除いてコピーします。
+     *    文字列を作成せずに分類する場合は、サブクラスで上書きします。</p>
+     * @since 0.13
+     * @param cell 分類対象のセル。
+     * @param locale ロケール。指定しない場合は、実行環境のロケールが設定される。
+     * @param target 分類した結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     * @throws IllegalArgumentException {@literal cell == null or target == null.}
+     */
+    public CellFormatResult classify(final CommonCell cell, final Locale locale, final CellFormatResult target) {
+        format(cell, locale, target);
+        target.setText(null);
+        return target;
+    }
+
+    /**
+     * セルの値をフォーマットした文字列の作成を遅延させて、呼び出し元が保持する結果に格納する。
+     * <p>一致したセクションや文字色は直ちに決定し、文字列は{@link CellFormatResult#getText()}の最初の呼び出し時に作成します。
+     *    <br>標準の実装は、{@link #format(CommonCell, Locale, CellFormatResult)}と同じく直ちに文字列を作成します。</p>
+     * @since 0.13
+     * @param cell フォーマット対象のセル。
+     * @param locale ロケール。指定しない場合は、実行環境のロケールが設定される。
+     * @param target フォーマットした結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     * @throws IllegalArgumentException {@literal cell == null or target == null.}
+     */
+    public CellFormatResult formatLazily(final CommonCell cell, final Locale locale, final CellFormatResult target) {
+        return format(cell, locale, target);
+    }
+
+    /**
+     * セルの値をロケールを指定してフォーマットし、UTF-8のバイト列として書き込む。
+     * <p>標準の実装は、フォーマットした文字列を変換して書き込みます。
+     *    文字列を作成せずに書き込む場合は、サブクラスで上書きします。</p>
+     * @since 0.13
+     * @param cell フォーマット対象のセル。
+     * @param locale ロケール。指定しない場合は、実行環境のロケールが設定される。
+     * @param sink 書き込み先。
+     * @throws IllegalArgumentException {@literal cell == null or sink == null.}
+     */
+    public void formatTo(final CommonCell cell, final Locale locale, final Utf8Sink sink) {
+        ArgUtils.notNull(sink, "sink");
+        sink.append(format(cell, locale).getText());
+    }
+
     /**
      * 書式を取得する
      * @since 0.10
@@ -0,0 +1,207 @@
+package com.github.mygreen.cellformatter;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * シートをまとめてフォーマットする際に、対象とする列と行を指定するためのクラス。
+ * <p>{@link POICellFormatter#formatSheet(org.apache.poi.ss.usermodel.Sheet, CellProjection, java.util.Locale)}などで指定すると、
+ *    対象外の列と行のセルは参照せず、フォーマッタの取得やフォーマットも行いません。
+ *    <br>一部の列のみを抽出する場合や、先頭の行のみをプレビューする場合に利用します。</p>
+ * <ul>
+ *   <li>列は、インデックス番号（{@link #columns(int...)}）、または見出しの行の文字列（{@link #headers(String...)}）で指定します。
+ *       指定しない場合は、全ての列が対象となります。</li>
+ *   <li>行は、範囲（{@link #rows(int, int)}）と、間引く間隔（{@link #stride(int)}）で指定します。</li>
+ * </ul>
+ *
+ * <pre class="highlight"><code class="java">
+ * POICellFormatter cellFormatter = new POICellFormatter();
+ *
+ * // 見出しが「日付」「金額」の列を、先頭から1万行分取得する。
+ * CellProjection projection = new CellProjection()
+ *         .headers("日付", "金額")
+ *         .rows(1, 10000);
+ *
+ * CellFormatGrid grid = cellFormatter.formatSheet(sheet, projection, Locale.JAPANESE);
+ * </code></pre>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class CellProjection {
+
+    /**
+     * 対象の列のインデックス番号
+     */
+    private int[] columnIndexes;
+
+    /**
+     * 対象の列の見出し
+     */
+    private String[] headerNames;
+
+    /**
+     * 見出しの行のインデックス番号
+     */
+    private int headerRow = 0;
+
+    /**
+     * 先頭の行
+     */
+    private int firstRow = -1;
+
+    /**
+     * 最後の行
+     */
+    private int lastRow = -1;
+
+    /**
+     * 行を間引く間隔
+     */
+    private int stride = 1;
+
+    /**
+     * 対象の列をインデックス番号で指定する。
+     * <p>{@link #headers(String...)}の指定は解除されます。
+     * @param columnIndexes 列のインデックス番号（0から始まる）。指定した順番で出力する場合に使用します。
+     * @return 自身のインスタンス
+     * @throws IllegalArgumentException {@literal columnIndexes == null || columnIndexes.length == 0} または、負の値を含む場合。
+     */
+    public CellProjection columns(final int... columnIndexes) {
+        ArgUtils.notNull(columnIndexes, "columnIndexes");
+        if(columnIndexes.length == 0) {
+            throw new IllegalArgumentException("columnIndexes should not be empty.");
+        }
+        for(int columnIndex : columnIndexes) {
+            ArgUtils.notMin(columnIndex, 0, "columnIndexes");
+        }
+
+        this.columnIndexes = columnIndexes.clone();
+        this.headerNames = null;
+        return this;
+    }
+
+    /**
+     * 対象の列を見出しの文字列で指定する。
+     * <p>見出しの行のセルをフォーマットした文字列と、前後の空白を除いて比較します。
+     *    <br>{@link #columns(int...)}の指定は解除されます。</p>
+     * @param headerNames 見出しの文字列
+     * @return 自身のインスタンス
+     * @throws IllegalArgumentException {@literal headerNames == null || headerNames.length == 0}
+     */
+    public CellProjection headers(final String... headerNames) {
+        ArgUtils.notEmpty(headerNames, "headerNames");
+
+        this.headerNames = headerNames.clone();
+        this.columnIndexes = null;
+        return this;
+    }
+
+    /**
+     * 見出しの行を指定する。
+     * @param headerRow 行のインデックス番号（0から始まる）。初期値は0。
+     * @return 自身のインスタンス
+     * @throws IllegalArgumentException {@literal headerRow < 0}
+     */
+    public CellProjection headerRow(final int headerRow) {
+        ArgUtils.notMin(headerRow, 0, "headerRow");
+
+        this.headerRow = headerRow;
+        return this;
+    }
+
+    /**
+     * 対象の行の範囲を指定する。
+     * <p>指定しない場合、見出しで列を指定したときは見出しの次の行から、それ以外のときはシートの先頭の行から、最後の行までとなります。
+     * @param firstRow 先頭の行のインデックス番号（0から始まる）。
+     * @param lastRow 最後の行のインデックス番号（0から始まる）。負の値の場合は、シートの最後の行まで。
+     * @return 自身のインスタンス
+     * @throws IllegalArgumentException {@literal firstRow < 0}、または{@literal lastRow}が0以上で{@literal firstRow}より小さい場合。
+     */
+    public CellProjection rows(final int firstRow, final int lastRow) {
+        ArgUtils.notMin(firstRow, 0, "firstRow");
+        if(lastRow >= 0 && lastRow < firstRow) {
+            throw new IllegalArgumentException(String.format("lastRow cannot be smaller than %d", firstRow));
+        }
+
+        this.firstRow = firstRow;
+        this.lastRow = lastRow;
+        return this;
+    }
+
+    /**
+     * 行を間引く間隔を指定する。
+     * <p>先頭の行から、指定した間隔ごとの行のみを対象とします。
+     * @param stride 間隔。1の場合は全ての行。初期値は1。
+     * @return 自身のインスタンス
+     * @throws IllegalArgumentException {@literal stride < 1}
+     */
+    public CellProjection stride(final int stride) {
+        ArgUtils.notMin(stride, 1, "stride");
+
+        this.stride = stride;
+        return this;
+    }
+
+    /**
+     * 実際の先頭の行を取得する。
+     * @return 見出しで列を指定し、行の範囲を指定していない場合は、見出しの次の行。
+     *         それ以外で行の範囲を指定していない場合は-1。
+     */
+    int getEffectiveFirstRow() {
+        if(firstRow < 0 && headerNames != null) {
+            return headerRow + 1;
+        }
+        return firstRow;
+    }
+
+    /**
+     * 対象の列のインデックス番号を取得する。
+     * @return インデックス番号で指定していない場合はnull。
+     */
+    public int[] getColumnIndexes() {
+        return columnIndexes != null ? columnIndexes.clone() : null;
+    }
+
+    /**
+     * 対象の列の見出しを取得する。
+     * @return 見出しで指定していない場合はnull。
+     */
+    public String[] getHeaderNames() {
+        return headerNames != null ? headerNames.clone() : null;
+    }
+
+    /**
+     * 見出しの行のインデックス番号を取得する。
+     * @return 初期値は0。
+     */
+    public int getHeaderRow() {
+        return headerRow;
+    }
+
+    /**
+     * 先頭の行のインデックス番号を取得する。
+     * @return 指定していない場合は-1。
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * 最後の行のインデックス番号を取得する。
+     * @return 指定していない場合は-1。
+     */
+    public int getLastRow() {
+        return lastRow;
+    }
+
+    /**
+     * 行を間引く間隔を取得する。
+     * @return 初期値は1。
+     */
+    public int getStride() {
+        return stride;
+    }
+
+}
@@ -0,0 +1,422 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * シート単位で、セルのフォーマット結果をキャッシュするクラス。
+ * <p>見出しの行や、ラベルの検索、結合セルなど、同じセルを何度も参照する場合に利用します。
+ *    <br>結果は、行、列、ロケールの組み合わせごとに保持し、2回目以降の参照では、
+ *    結合セルの探索や数式の評価、フォーマットを行わずに、保持している結果を返します。</p>
+ * <p>保持している結果は、次の場合に自動的に破棄して、フォーマットし直します。</p>
+ * <ul>
+ *   <li>セルのインスタンスが入れ替わった場合。</li>
+ *   <li>セルの種類、スタイルのインデックス番号が変わった場合。</li>
+ *   <li>数値、ブール値、エラーのセルの値が変わった場合。数式のセルは、キャッシュされている計算結果の種類や値が変わった場合。</li>
+ *   <li>結合されている空セルの場合は、値を持つセルについても上記が変わった場合。</li>
+ * </ul>
+ * <p>結果を返すたびの検証を軽くするため、文字列の取得が必要な値は比較しません。
+ *    文字列のセルの値や数式の文字列を変更した場合、数式が参照しているセルの値を変更した場合、結合の範囲を変更した場合は、
+ *    自動的には破棄されないため、{@link #invalidate(int, int)}や{@link #invalidateAll()}で明示的に破棄してください。</p>
+ * <p>返す結果は変更不可のインスタンスです。
+ *    <br>状態を持つため、スレッドセーフではありません。</p>
+ *
+ * <pre class="highlight"><code class="java">
+ * POICellFormatter cellFormatter = new POICellFormatter();
+ * CellResultCache cache = new CellResultCache(cellFormatter, sheet);
+ *
+ * // 同じセルを何度参照しても、フォーマットは1回のみ。
+ * String header = cache.formatAsString(0, 1, Locale.JAPANESE);
+ * </code></pre>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class CellResultCache {
+
+    /**
+     * フォーマットに使用するフォーマッタ
+     */
+    private final POICellFormatter cellFormatter;
+
+    /**
+     * 対象のシート
+     */
+    private final Sheet sheet;
+
+    /**
+     * フォーマット中に使い回すセルのラッパー
+     */
+    private final ReusablePOICell adapter = new ReusablePOICell();
+
+    /**
+     * セルの位置をキーとした結果。キーは{@link #key(int, int)}で作成する。
+     */
+    private final Map<Long, Entry> entries = new HashMap<>();
+
+    /**
+     * 保持している結果の件数
+     */
+    private int size;
+
+    /**
+     * 保持している結果を返した回数
+     */
+    private long hitCount;
+
+    /**
+     * フォーマットした回数
+     */
+    private long missCount;
+
+    /**
+     * フォーマッタと対象のシートを指定してインスタンスを作成する。
+     * @param cellFormatter フォーマットに使用するフォーマッタ
+     * @param sheet 対象のシート
+     * @throws IllegalArgumentException {@literal cellFormatter == null || sheet == null.}
+     */
+    public CellResultCache(final POICellFormatter cellFormatter, final Sheet sheet) {
+        ArgUtils.notNull(cellFormatter, "cellFormatter");
+        ArgUtils.notNull(sheet, "sheet");
+
+        this.cellFormatter = cellFormatter;
+        this.sheet = sheet;
+    }
+
+    /**
+     * 位置を指定して、セルの値を文字列として取得する。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @param columnIndex 列のインデックス番号（0から始まる）。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした文字列。セルが存在しない場合は、空文字を返す。
+     */
+    public String formatAsString(final int rowIndex, final int columnIndex, final Locale locale) {
+        return format(rowIndex, columnIndex, locale).getText();
+    }
+
+    /**
+     * 位置を指定して、セルの値を取得する。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @param columnIndex 列のインデックス番号（0から始まる）。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return 変更不可のフォーマット結果。セルが存在しない場合は、空セルとして値を返す。
+     */
+    public CellFormatResult format(final int rowIndex, final int columnIndex, final Locale locale) {
+
+        final Row row = sheet.getRow(rowIndex);
+        final Cell cell = row != null ? row.getCell(columnIndex) : null;
+        if(cell == null) {
+            return CellFormatResult.BLANK;
+        }
+
+        return format(cell, locale);
+    }
+
+    /**
+     * セルの値を取得する。
+     * @param cell フォーマット対象のセル。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return 変更不可のフォーマット結果。cellがnullの場合、空セルとして値を返す。
+     * @throws IllegalArgumentException 対象のシート以外のセルの場合。
+     */
+    public CellFormatResult format(final Cell cell, final Locale locale) {
+
+        if(cell == null) {
+            return CellFormatResult.BLANK;
+        }
+
+        if(cell.getSheet() != sheet) {
+            throw new IllegalArgumentException(String.format("cell '%s' is not in the sheet '%s'.",
+                    new POICell(cell).getCellAddress(), sheet.getSheetName()));
+        }
+
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        final Long key = key(cell.getRowIndex(), cell.getColumnIndex());
+
+        // ロケールごとの結果をたどり、一致しない結果は破棄する。
+        Entry head = entries.get(key);
+        Entry prev = null;
+        for(Entry entry = head; entry != null; entry = entry.next) {
+            if(!entry.locale.equals(runtimeLocale)) {
+                prev = entry;
+                continue;
+            }
+
+            if(entry.isValid(cell)) {
+                hitCount++;
+                return entry.result;
+            }
+
+            if(prev == null) {
+                head = entry.next;
+            } else {
+                prev.next = entry.next;
+            }
+            size--;
+            break;
+        }
+
+        missCount++;
+
+        final CellFormatResult result;
+        CellStamp valueStamp = null;
+        if(cell.getCellType() == CellType.BLANK && cellFormatter.isConsiderMergedCell()) {
+            // 結合の範囲の探索は1回のみとし、見つけた値を持つセルを直接フォーマットする。
+            final Cell valueCell = cellFormatter.findMergedValueCell(cell, adapter);
+            if(valueCell != null) {
+                result = CellFormatResult.unmodifiable(cellFormatter.format(valueCell, runtimeLocale, adapter));
+                valueStamp = new CellStamp(valueCell);
+            } else {
+                result = CellFormatResult.BLANK;
+            }
+
+        } else {
+            result = CellFormatResult.unmodifiable(cellFormatter.format(cell, runtimeLocale, adapter));
+        }
+
+        final Entry entry = new Entry(runtimeLocale, result, new CellStamp(cell), valueStamp);
+        entry.next = head;
+        entries.put(key, entry);
+        size++;
+
+        return result;
+    }
+
+    /**
+     * セルの結果を破棄する。
+     * <p>全てのロケールの結果を破棄します。また、数式の評価結果の情報も破棄します。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @param columnIndex 列のインデックス番号（0から始まる）。
+     */
+    public void invalidate(final int rowIndex, final int columnIndex) {
+
+        for(Entry entry = entries.remove(key(rowIndex, columnIndex)); entry != null; entry = entry.next) {
+            size--;
+        }
+        adapter.reset();
+    }
+
+    /**
+     * 行の全てのセルの結果を破棄する。
+     * <p>全てのロケールの結果を破棄します。また、数式の評価結果の情報も破棄します。
+     * <p>保持している全ての結果をたどるため、保持している件数に比例した時間がかかります。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     */
+    public void invalidateRow(final int rowIndex) {
+
+        for(Iterator<Map.Entry<Long, Entry>> itr = entries.entrySet().iterator(); itr.hasNext(); ) {
+            final Map.Entry<Long, Entry> item = itr.next();
+            if((int) (item.getKey() >>> 32) != rowIndex) {
+                continue;
+            }
+
+            for(Entry entry = item.getValue(); entry != null; entry = entry.next) {
+                size--;
+            }
+            itr.remove();
+        }
+        adapter.reset();
+    }
+
+    /**
+     * 全ての結果を破棄する。
+     * <p>結合セルの範囲や、数式の評価結果の情報も破棄します。
+     */
+    public void invalidateAll() {
+        entries.clear();
+        size = 0;
+        adapter.reset();
+    }
+
+    /**
+     * 対象のシートを取得する。
+     * @return 対象のシート
+     */
+    public Sheet getSheet() {
+        return sheet;
+    }
+
+    /**
+     * 保持している結果の件数を取得する。
+     * @return 行、列、ロケールの組み合わせの件数
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 保持している結果を返した回数を取得する。
+     * @return 回数
+     */
+    public long getHitCount() {
+        return hitCount;
+    }
+
+    /**
+     * 結果を保持していないため、フォーマットした回数を取得する。
+     * @return 回数
+     */
+    public long getMissCount() {
+        return missCount;
+    }
+
+    /**
+     * セルの位置から、結果のキーを作成する。
+     * @param rowIndex 行のインデックス番号
+     * @param columnIndex 列のインデックス番号
+     * @return 上位32ビットに行、下位32ビットに列を格納した値
+     */
+    private static long key(final int rowIndex, final int columnIndex) {
+        return (long) rowIndex << 32 | (columnIndex & 0xFFFFFFFFL);
+    }
+
+    /**
+     * ロケールごとの結果。
+     */
+    private static final class Entry {
+
+        private final Locale locale;
+
+        private final CellFormatResult result;
+
+        /**
+         * フォーマット対象のセルの状態
+         */
+        private final CellStamp stamp;
+
+        /**
+         * 結合されている空セルの場合、値を持つセルの状態。それ以外はnull。
+         */
+        private final CellStamp valueStamp;
+
+        /**
+         * 同じセルの他のロケールの結果
+         */
+        private Entry next;
+
+        Entry(final Locale locale, final CellFormatResult result, final CellStamp stamp, final CellStamp valueStamp) {
+            this.locale = locale;
+            this.result = result;
+            this.stamp = stamp;
+            this.valueStamp = valueStamp;
+        }
+
+        /**
+         * 結果を作成したときから、セルの状態が変わっていないかどうか。
+         * @param cell フォーマット対象のセル
+         * @return true:変わっていない場合。
+         */
+        boolean isValid(final Cell cell) {
+
+            if(!stamp.matches(cell)) {
+                return false;
+            }
+
+            if(valueStamp != null) {
+                final Row row = cell.getSheet().getRow(valueStamp.rowIndex);
+                return valueStamp.matches(row != null ? row.getCell(valueStamp.columnIndex) : null);
+            }
+
+            return true;
+        }
+
+    }
+
+    /**
+     * 結果を作成したときのセルの状態。
+     */
+    private static final class CellStamp {
+
+        private final Cell cell;
+
+        private final int rowIndex;
+
+        private final int columnIndex;
+
+        private final CellType type;
+
+        private final int styleIndex;
+
+        private final Object value;
+
+        CellStamp(final Cell cell) {
+            this.cell = cell;
+            this.rowIndex = cell.getRowIndex();
+            this.columnIndex = cell.getColumnIndex();
+            this.type = cell.getCellType();
+            this.styleIndex = cell.getCellStyle().getIndex();
+            this.value = valueOf(cell, type);
+        }
+
+        /**
+         * セルの状態が一致するかどうか。
+         * @param current 現在のセル
+         * @return true:インスタンス、種類、スタイル、文字列以外の値が一致する場合。
+         */
+        boolean matches(final Cell current) {
+            if(current != cell) {
+                return false;
+            }
+
+            final CellType currentType = current.getCellType();
+            return currentType == type
+                    && current.getCellStyle().getIndex() == styleIndex
+                    && Objects.equals(valueOf(current, currentType), value);
+        }
+
+        /**
+         * 比較に使用するセルの値を取得する。
+         * <p>文字列の取得は行わないため、文字列のセルの場合はnullを返す。
+         * @param cell 対象のセル
+         * @param type セルの種類
+         * @return 数式の場合は、キャッシュされている計算結果の値。計算結果が文字列の場合は、計算結果の種類。
+         */
+        private static Object valueOf(final Cell cell, final CellType type) {
+            switch(type) {
+                case NUMERIC:
+                case BOOLEAN:
+                case ERROR:
+                    return primitiveValueOf(cell, type);
+                case FORMULA:
+                    final CellType resultType = cell.getCachedFormulaResultType();
+                    final Object result = primitiveValueOf(cell, resultType);
+                    return result != null ? result : resultType;
+                default:
+                    return null;
+            }
+        }
+
+        /**
+         * 文字列以外の値を取得する。
+         * @param cell 対象のセル
+         * @param type 値の種類
+         * @return 数値、ブール値、エラー以外の場合はnull。
+         */
+        private static Object primitiveValueOf(final Cell cell, final CellType type) {
+            switch(type) {
+                case NUMERIC:
+                    return cell.getNumericCellValue();
+                case BOOLEAN:
+                    return cell.getBooleanCellValue();
+                case ERROR:
+                    return cell.getErrorCellValue();
+                default:
+                    return null;
+            }
+        }
+
+    }
+
+}
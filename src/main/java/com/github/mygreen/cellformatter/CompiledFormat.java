@@ -0,0 +1,448 @@
+package com.github.mygreen.cellformatter;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.Locale;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
+
+
+/**
+ * 解析済みのフォーマッタとロケールを結びつけた書式。
+ * <p>{@link ObjectCellFormatter#compile(String, Locale)}からインスタンスを作成します。</p>
+ * <p>フォーマッタの解決を事前に済ませているため、同じ書式で繰り返しフォーマットする場合に利用します。
+ *    <br>不変なクラスのため、複数のスレッドから利用可能です。</p>
+ * <p>数値は、セルのインスタンスを作成せずに、直接フォーマッタに渡します。
+ *    <br>日時などのその他の型は、一致するセクションによって数値と日時のどちらとしても参照されるため、
+ *    値ごとに仮想的なセルを作成してフォーマットします。</p>
+ *
+ * <pre class="highlight"><code class="java">
+ * ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+ * CompiledFormat format = cellFormatter.compile("#,##0.0_);[Red]\\(#,##0.0\\)", Locale.JAPAN);
+ *
+ * String text = format.formatAsString(-1234.5);
+ * CellFormatResult result = format.format(-1234.5);
+ * </code></pre>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public final class CompiledFormat {
+
+    /**
+     * 書式
+     */
+    private final String pattern;
+
+    /**
+     * 書式に対するフォーマッタ
+     */
+    private final CellFormatter formatter;
+
+    /**
+     * ユーザ定義のフォーマッタの場合、数値を直接渡すためのフォーマッタ。それ以外の場合はnull。
+     */
+    private final CustomFormatter customFormatter;
+
+    /**
+     * フォーマットするロケール
+     */
+    private final Locale locale;
+
+    /**
+     * 書式とフォーマッタ、ロケールを指定してインスタンスを作成する。
+     * @param pattern 書式
+     * @param formatter 書式に対するフォーマッタ
+     * @param locale フォーマットするロケール
+     * @throws IllegalArgumentException {@literal pattern == null || pattern.length() == 0}.
+     * @throws IllegalArgumentException {@literal formatter == null or locale == null}.
+     */
+    CompiledFormat(final String pattern, final CellFormatter formatter, final Locale locale) {
+        ArgUtils.notEmpty(pattern, "pattern");
+        ArgUtils.notNull(formatter, "formatter");
+        ArgUtils.notNull(locale, "locale");
+
+        this.pattern = pattern;
+        this.formatter = formatter;
+        this.customFormatter = formatter instanceof CustomFormatter ? (CustomFormatter) formatter : null;
+        this.locale = locale;
+    }
+
+    /**
+     * 数値をフォーマットする。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final double value) {
+        if(customFormatter != null) {
+            return customFormatter.formatNumber(value, locale, new CellFormatResult());
+        }
+        return formatter.format(new DoubleCell(value, pattern), locale);
+    }
+
+    /**
+     * 数値をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final double value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 数値をフォーマットし、UTF-8のバイト列として書き込む。
+     * @since 0.13
+     * @param value フォーマット対象の値。
+     * @param sink 書き込み先。
+     * @throws IllegalArgumentException {@literal sink == null}
+     */
+    public void formatTo(final double value, final Utf8Sink sink) {
+        if(customFormatter != null) {
+            ArgUtils.notNull(sink, "sink");
+            customFormatter.formatNumberTo(value, locale, sink);
+            return;
+        }
+        formatter.formatTo(new DoubleCell(value, pattern), locale, sink);
+    }
+
+    /**
+     * 数値をフォーマットする。
+     * <p>Excelの数値と同様に、double型に変換した値をフォーマットします。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final long value) {
+        return format((double) value);
+    }
+
+    /**
+     * 数値をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final long value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 日付型をフォーマットする。
+     * @param value フォーマット対象の値。タイムゾーンを含んだ値を指定します。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public CellFormatResult format(final Date value) {
+        return formatter.format(new DateCell(value, pattern), locale);
+    }
+
+    /**
+     * 日付型をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。タイムゾーンを含んだ値を指定します。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public String formatAsString(final Date value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 日付型をフォーマットし、UTF-8のバイト列として書き込む。
+     * @since 0.13
+     * @param value フォーマット対象の値。タイムゾーンを含んだ値を指定します。
+     * @param sink 書き込み先。
+     * @throws IllegalArgumentException {@literal value == null || sink == null}
+     */
+    public void formatTo(final Date value, final Utf8Sink sink) {
+        formatter.formatTo(new DateCell(value, pattern), locale, sink);
+    }
+
+    /**
+     * 日時型{@link LocalDateTime}をフォーマットする。
+     * @param value フォーマット対象の値。タイムゾーンを持たない値を指定します。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public CellFormatResult format(final LocalDateTime value) {
+        return formatter.format(new LocalDateTimeCell(value, pattern), locale);
+    }
+
+    /**
+     * 日時型{@link LocalDateTime}をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。タイムゾーンを持たない値を指定します。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public String formatAsString(final LocalDateTime value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 日付型{@link LocalDate}をフォーマットする。
+     * @param value フォーマット対象の値。時刻は{@literal 0:00:00}として扱います。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public CellFormatResult format(final LocalDate value) {
+        return formatter.format(new LocalDateCell(value, pattern), locale);
+    }
+
+    /**
+     * 日付型{@link LocalDate}をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。時刻は{@literal 0:00:00}として扱います。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public String formatAsString(final LocalDate value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 時刻型{@link LocalTime}をフォーマットする。
+     * @param value フォーマット対象の値。日付は基準日として扱います。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public CellFormatResult format(final LocalTime value) {
+        return formatter.format(new LocalTimeCell(value, pattern), locale);
+    }
+
+    /**
+     * 時刻型{@link LocalTime}をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。日付は基準日として扱います。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public String formatAsString(final LocalTime value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 経過時間{@link Duration}をフォーマットする。
+     * @param value フォーマット対象の値。{@literal [h]:mm}などの経過時間の書式を想定しています。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public CellFormatResult format(final Duration value) {
+        return formatter.format(new DurationCell(value, pattern), locale);
+    }
+
+    /**
+     * 経過時間{@link Duration}をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。{@literal [h]:mm}などの経過時間の書式を想定しています。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public String formatAsString(final Duration value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 文字列型をフォーマットする。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public CellFormatResult format(final String value) {
+        return formatter.format(new TextCell(value, pattern), locale);
+    }
+
+    /**
+     * 文字列型をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     * @throws IllegalArgumentException {@literal value == null}
+     */
+    public String formatAsString(final String value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 文字列型をフォーマットし、UTF-8のバイト列として書き込む。
+     * @since 0.13
+     * @param value フォーマット対象の値。
+     * @param sink 書き込み先。
+     * @throws IllegalArgumentException {@literal value == null || sink == null}
+     */
+    public void formatTo(final String value, final Utf8Sink sink) {
+        formatter.formatTo(new TextCell(value, pattern), locale, sink);
+    }
+
+    /**
+     * ブール型をフォーマットする。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final boolean value) {
+        return formatter.format(new BooleanCell(value, pattern), locale);
+    }
+
+    /**
+     * ブール型をフォーマットし、結果を直接文字列として取得する。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final boolean value) {
+        return format(value).getText();
+    }
+
+    /**
+     * 複数の数値をまとめてフォーマットする。
+     * @param values フォーマット対象の値。
+     * @param offset フォーマットを開始する値の位置。
+     * @param length フォーマットする値の個数。
+     * @param results フォーマットした文字列の格納先。{@literal values[offset + i]}の結果を{@literal results[i]}に格納します。
+     * @param colors 値ごとの文字色のインデックス番号の格納先。色の指定がない場合は{@literal -1}を格納します。
+     *        nullの場合は、格納しません。
+     * @throws IllegalArgumentException {@literal values == null || results == null}
+     * @throws IllegalArgumentException 位置と個数が配列の範囲外の場合。
+     * @see CustomFormatter#format(double[], int, int, Locale, String[], short[])
+     */
+    public void format(final double[] values, final int offset, final int length, final String[] results, final short[] colors) {
+
+        if(formatter instanceof CustomFormatter) {
+            ((CustomFormatter) formatter).format(values, offset, length, locale, results, colors);
+            return;
+        }
+
+        ArgUtils.notNull(values, "values");
+        ArgUtils.notNull(results, "results");
+        for(int i=0; i < length; i++) {
+            setResult(format(values[offset + i]), results, colors, i);
+        }
+    }
+
+    /**
+     * 複数の数値をまとめてフォーマットする。
+     * <p>Excelの数値と同様に、double型に変換した値をフォーマットします。
+     * @param values フォーマット対象の値。
+     * @param offset フォーマットを開始する値の位置。
+     * @param length フォーマットする値の個数。
+     * @param results フォーマットした文字列の格納先。{@literal values[offset + i]}の結果を{@literal results[i]}に格納します。
+     * @param colors 値ごとの文字色のインデックス番号の格納先。色の指定がない場合は{@literal -1}を格納します。
+     *        nullの場合は、格納しません。
+     * @throws IllegalArgumentException {@literal values == null || results == null}
+     * @throws IllegalArgumentException 位置と個数が配列の範囲外の場合。
+     * @see CustomFormatter#format(long[], int, int, Locale, String[], short[])
+     */
+    public void format(final long[] values, final int offset, final int length, final String[] results, final short[] colors) {
+
+        if(formatter instanceof CustomFormatter) {
+            ((CustomFormatter) formatter).format(values, offset, length, locale, results, colors);
+            return;
+        }
+
+        ArgUtils.notNull(values, "values");
+        ArgUtils.notNull(results, "results");
+        for(int i=0; i < length; i++) {
+            setResult(format(values[offset + i]), results, colors, i);
+        }
+    }
+
+    /**
+     * 複数の日時をまとめてフォーマットする。
+     * <p>配列の要素がnullの場合は、空セルとして空文字を格納します。
+     * @param values フォーマット対象の値。タイムゾーンを含んだ値を指定します。
+     * @param offset フォーマットを開始する値の位置。
+     * @param length フォーマットする値の個数。
+     * @param results フォーマットした文字列の格納先。{@literal values[offset + i]}の結果を{@literal results[i]}に格納します。
+     * @param colors 値ごとの文字色のインデックス番号の格納先。色の指定がない場合は{@literal -1}を格納します。
+     *        nullの場合は、格納しません。
+     * @throws IllegalArgumentException {@literal values == null || results == null}
+     * @throws IllegalArgumentException 位置と個数が配列の範囲外の場合。
+     * @see CustomFormatter#format(Date[], int, int, Locale, String[], short[])
+     */
+    public void format(final Date[] values, final int offset, final int length, final String[] results, final short[] colors) {
+
+        if(formatter instanceof CustomFormatter) {
+            ((CustomFormatter) formatter).format(values, offset, length, locale, results, colors);
+            return;
+        }
+
+        ArgUtils.notNull(values, "values");
+        ArgUtils.notNull(results, "results");
+        for(int i=0; i < length; i++) {
+            final Date value = values[offset + i];
+            if(value == null) {
+                results[i] = "";
+                if(colors != null) {
+                    colors[i] = -1;
+                }
+                continue;
+            }
+            setResult(format(value), results, colors, i);
+        }
+    }
+
+    /**
+     * 複数の数値をまとめてフォーマットし、1つの文字バッファに連結して格納する。
+     * @param values フォーマット対象の値。
+     * @param offset フォーマットを開始する値の位置。
+     * @param length フォーマットする値の個数。
+     * @param buffer フォーマットした文字列を追加するバッファ。
+     * @param ends 値ごとの結果のバッファ上の終了位置の格納先。
+     * @param colors 値ごとの文字色のインデックス番号の格納先。色の指定がない場合は{@literal -1}を格納します。
+     *        nullの場合は、格納しません。
+     * @throws IllegalArgumentException {@literal values == null || buffer == null || ends == null}
+     * @throws IllegalArgumentException 位置と個数が配列の範囲外の場合。
+     * @see CustomFormatter#format(double[], int, int, Locale, StringBuilder, int[], short[])
+     */
+    public void format(final double[] values, final int offset, final int length,
+            final StringBuilder buffer, final int[] ends, final short[] colors) {
+
+        if(formatter instanceof CustomFormatter) {
+            ((CustomFormatter) formatter).format(values, offset, length, locale, buffer, ends, colors);
+            return;
+        }
+
+        ArgUtils.notNull(values, "values");
+        ArgUtils.notNull(buffer, "buffer");
+        ArgUtils.notNull(ends, "ends");
+        for(int i=0; i < length; i++) {
+            final CellFormatResult result = format(values[offset + i]);
+            buffer.append(result.getText());
+            ends[i] = buffer.length();
+            if(colors != null) {
+                colors[i] = result.getTextColor() != null ? result.getTextColor().getIndex() : -1;
+            }
+        }
+    }
+
+    /**
+     * まとめてフォーマットする際の、1つの値の結果を格納する。
+     */
+    private static void setResult(final CellFormatResult result, final String[] results, final short[] colors, final int index) {
+        results[index] = result.getText();
+        if(colors != null) {
+            colors[index] = result.getTextColor() != null ? result.getTextColor().getIndex() : -1;
+        }
+    }
+
+    /**
+     * 書式を取得する。
+     * @return 作成時に指定した書式。
+     */
+    public String getPattern() {
+        return pattern;
+    }
+
+    /**
+     * 結びつけられたフォーマッタを取得する。
+     * @return ロケールによって切り替わるフォーマッタの場合は、切り替え後のフォーマッタ。
+     */
+    public CellFormatter getFormatter() {
+        return formatter;
+    }
+
+    /**
+     * フォーマットするロケールを取得する。
+     * @return 作成時に指定したロケール。
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+}
@@ -13,6 +13,7 @@ import org.slf4j.LoggerFactory;
 import com.github.mygreen.cellformatter.callback.Callback;
 import com.github.mygreen.cellformatter.lang.ArgUtils;
 import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
 import com.github.mygreen.cellformatter.term.DateTerm;
 import com.github.mygreen.cellformatter.term.Term;
 
@@ -20,7 +21,7 @@ import com.github.mygreen.cellformatter.term.Term;
 /**
  * ユーザ定義型の日時を解釈するフォーマッタ
  *
- * @version 0.10
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -66,36 +67,196 @@ public class ConditionDateFormatter extends ConditionFormatter {
         return getOperator().isMatch(value);
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>1900年始まりの日時として判定します。</p>
+     * @since 0.13
+     */
+    @Override
+    boolean isMatchNumber(final double value) {
+        final long zeroTime = ExcelDateUtils.getExcelZeroDateTime(false);
+        return getOperator().isMatch(ExcelDateUtils.convertJavaDate(value, false).getTime() - zeroTime);
+    }
+
     @Override
     public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale) {
+        return format(cell, runtimeLocale, new CellFormatResult());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale, final CellFormatResult target) {
         ArgUtils.notNull(cell, "date");
 
-        final Date date = cell.getDateCellValue();
+        classify(cell, target);
+        target.setText(formatDate((Date) target.getValue(), cell.isDateStart1904(), runtimeLocale));
+
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult classify(final CommonCell cell, final CellFormatResult target) {
+        ArgUtils.notNull(cell, "date");
+
+        target.setValue(cell.getDateCellValue());
+        target.setText(null);
+        target.setTextColor(getColor());
+        target.setSectionPattern(getPattern());
+        target.setCellType(FormatCellType.Date);
+
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>1900年始まりの日時として分類します。</p>
+     * @since 0.13
+     */
+    @Override
+    CellFormatResult classifyNumber(final double value, final CellFormatResult target) {
+
+        target.setValue(ExcelDateUtils.convertJavaDate(value, false));
+        target.setText(null);
+        target.setTextColor(getColor());
+        target.setSectionPattern(getPattern());
+        target.setCellType(FormatCellType.Date);
+
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>文字列の作成時には、セルではなく値を参照するため、セルのインスタンスを使い回すことができます。</p>
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult formatLazily(final CommonCell cell, final Locale runtimeLocale, final CellFormatResult target) {
+
+        classify(cell, target);
+
+        final Date date = (Date) target.getValue();
+        final boolean dateStart1904 = cell.isDateStart1904();
+        target.setDeferredText(() -> formatDate(date, dateStart1904, runtimeLocale));
+
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    public String formatAsString(final CommonCell cell, final Locale runtimeLocale) {
+        ArgUtils.notNull(cell, "date");
+
+        return formatDate(cell.getDateCellValue(), cell.isDateStart1904(), runtimeLocale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>適用対象のコールバックがない場合は、日時以外の項の結果を直接書き込みます。</p>
+     * @since 0.13
+     */
+    @Override
+    public void formatTo(final CommonCell cell, final Locale runtimeLocale, final Utf8Sink sink) {
+        ArgUtils.notNull(cell, "date");
+
+        formatDateTo(cell.getDateCellValue(), cell.isDateStart1904(), runtimeLocale, sink);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>1900年始まりの日時としてフォーマットします。</p>
+     * @since 0.13
+     */
+    @Override
+    String formatNumberAsString(final double value, final Locale runtimeLocale) {
+        return formatDate(ExcelDateUtils.convertJavaDate(value, false), false, runtimeLocale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>1900年始まりの日時としてフォーマットします。</p>
+     * @since 0.13
+     */
+    @Override
+    void formatNumberTo(final double value, final Locale runtimeLocale, final Utf8Sink sink) {
+        formatDateTo(ExcelDateUtils.convertJavaDate(value, false), false, runtimeLocale, sink);
+    }
+
+    /**
+     * 日時を各項の書式に従い、UTF-8のバイト列として書き込む。
+     * <p>適用対象のコールバックがない場合は、日時以外の項の結果を直接書き込みます。</p>
+     * @param date 標準時に変換した日時
+     * @param dateStart1904 1904年始まりかどうか
+     * @param runtimeLocale 実行時のロケール
+     * @param sink 書き込み先
+     */
+    private void formatDateTo(final Date date, final boolean dateStart1904, final Locale runtimeLocale, final Utf8Sink sink) {
+
+        final boolean applyCallback = hasApplicableCallback(runtimeLocale);
+
         final Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("GMT-00:00"));
         cal.setTime(date);
 
-        // 各項の処理
-        StringBuilder sb = new StringBuilder();
         for(Term<Calendar> term : terms) {
-            final String formatValue;
-            if(term instanceof DateTerm) {
-                formatValue = ((DateTerm) term).format(cal, getLocale(), runtimeLocale, cell.isDateStart1904());
+            if(applyCallback) {
+                final String formatValue = formatTerm(term, cal, dateStart1904, runtimeLocale);
+                sink.append(applyFormatCallback(cal, formatValue, runtimeLocale, term));
+
+            } else if(term instanceof DateTerm) {
+                sink.append(((DateTerm) term).format(cal, getLocale(), runtimeLocale, dateStart1904));
+
             } else {
-                formatValue = term.format(cal, getLocale(), runtimeLocale);
+                term.formatTo(cal, getLocale(), runtimeLocale, sink);
             }
-            sb.append(applyFormatCallback(cal, formatValue, runtimeLocale, term));
         }
 
-        String value = sb.toString();
+    }
 
-        final CellFormatResult result = new CellFormatResult();
-        result.setValue(date);
-        result.setText(value);
-        result.setTextColor(getColor());
-        result.setSectionPattern(getPattern());
-        result.setCellType(FormatCellType.Date);
+    /**
+     * 日時を各項の書式に従い文字列にする。
+     * @param date 標準時に変換した日時
+     * @param dateStart1904 1904年始まりかどうか
+     * @param runtimeLocale 実行時のロケール
+     * @return フォーマットした文字列
+     */
+    private String formatDate(final Date date, final boolean dateStart1904, final Locale runtimeLocale) {
 
-        return result;
+        final Calendar cal = Calendar.getInstance(TimeZone.getTimeZone("GMT-00:00"));
+        cal.setTime(date);
+
+        // 各項の処理
+        StringBuilder sb = new StringBuilder();
+        for(Term<Calendar> term : terms) {
+            final String formatValue = formatTerm(term, cal, dateStart1904, runtimeLocale);
+            sb.append(applyFormatCallback(cal, formatValue, runtimeLocale, term));
+        }
+
+        return sb.toString();
+    }
+
+    /**
+     * 項の書式に従い日時を文字列にする。
+     * @param term 書式の項
+     * @param cal 日時
+     * @param dateStart1904 1904年始まりかどうか
+     * @param runtimeLocale 実行時のロケール
+     * @return フォーマットした文字列
+     */
+    private String formatTerm(final Term<Calendar> term, final Calendar cal, final boolean dateStart1904, final Locale runtimeLocale) {
+        if(term instanceof DateTerm) {
+            return ((DateTerm) term).format(cal, getLocale(), runtimeLocale, dateStart1904);
+        } else {
+            return term.format(cal, getLocale(), runtimeLocale);
+        }
     }
 
     @SuppressWarnings({"rawtypes", "unchecked"})
@@ -9,6 +9,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.KeywordMatcher;
 import com.github.mygreen.cellformatter.lang.Utils;
 import com.github.mygreen.cellformatter.term.AsteriskTerm;
 import com.github.mygreen.cellformatter.term.DateTerm;
@@ -24,6 +25,7 @@ import com.github.mygreen.cellformatter.tokenizer.TokenStore;
 
 /**
  * 書式を解析して{@link ConditionDateFormatter}のインスタンスを作成するクラス。
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -70,10 +72,20 @@ public class ConditionDateFormatterFactory extends ConditionFormatterFactory<Con
     };
     
     /**
-     * {@link #DATE_TERM_CHARS}を、検索用に並び替えたもの。
-     * ・フォーマットのキーワードを①文字列の長い順、辞書順に並び変え、比較していく。
+     * {@link #DATE_DECISTION_CHARS}を、検索用のトライ木にしたもの。
      */
-    private static final List<String> SORTED_DATE_CHARS = Utils.reverse(DATE_TERM_CHARS);
+    private static final KeywordMatcher DATE_DECISTION_MATCHER = new KeywordMatcher(DATE_DECISTION_CHARS, true);
+
+    /**
+     * {@link #DATE_TERM_CHARS}を、検索用のトライ木にしたもの。
+     * ・フォーマットのキーワードの中で、最も長く一致するものを切り出す。
+     */
+    private static final KeywordMatcher DATE_TERM_MATCHER = new KeywordMatcher(DATE_TERM_CHARS, true);
+
+    /**
+     * 12時間表示のキーワード
+     */
+    private static final String[] AM_PM_CHARS = {"am/pm", "a/p"};
     
     /**
      * 経過時間の時刻のパターン
@@ -87,29 +99,49 @@ public class ConditionDateFormatterFactory extends ConditionFormatterFactory<Con
      */
     public boolean isDatePattern(final TokenStore store) {
         
-        if(store.containsInFactor("General")) {
-            return false;
-        }
-        
-        if(store.containsAnyInFactorIgnoreCase(DATE_DECISTION_CHARS)) {
-            return true;
-        }
-        
-        // [h][m][s]の形式のチェック
+        boolean containsDateChars = false;
         for(Token token : store.getTokens()) {
-            if(!(token instanceof Token.Condition)) {
-                continue;
-            }
             
-            final Token.Condition condition = token.asCondition();
-            final String value = condition.getValue();
-            if(PATTERN_ELAPSED_TIME.matcher(value).matches()) {
-                return true;
+            if(token instanceof Token.Factor) {
+                final String value = token.getValue();
+                if(value.contains("General")) {
+                    return false;
+                }
+                
+                if(!containsDateChars && isDateFactor(value)) {
+                    containsDateChars = true;
+                }
+                
+            } else if(token instanceof Token.Condition) {
+                // [h][m][s]の形式のチェック
+                if(!containsDateChars && isElapsedTimeCondition(token.asCondition())) {
+                    containsDateChars = true;
+                }
             }
             
         }
         
-        return false;
+        return containsDateChars;
+    }
+    
+    /**
+     * 因子が日時の書式を決定するキーワードを含むかどうか。
+     * @since 0.13
+     * @param factor 判定対象の因子の値
+     * @return true:日時のキーワードを含む場合。
+     */
+    boolean isDateFactor(final String factor) {
+        return DATE_DECISTION_MATCHER.containsAny(factor);
+    }
+    
+    /**
+     * {@literal '[h]'}などの経過時間の条件式かどうか。
+     * @since 0.13
+     * @param token 判定対象のトークン
+     * @return true:経過時間の条件式の場合。
+     */
+    boolean isElapsedTimeCondition(final Token.Condition token) {
+        return PATTERN_ELAPSED_TIME.matcher(token.getValue()).matches();
     }
     
     /**
@@ -124,6 +156,9 @@ public class ConditionDateFormatterFactory extends ConditionFormatterFactory<Con
         
         final ConditionDateFormatter formatter = new ConditionDateFormatter(store.getConcatenatedToken());
         
+        // 12時間表示かどうか
+        final boolean halfHour = store.containsAnyInFactorIgnoreCase(AM_PM_CHARS);
+        
         for(Token token : store.getTokens()) {
             
             if(token instanceof Token.Condition) {
@@ -131,7 +166,7 @@ public class ConditionDateFormatterFactory extends ConditionFormatterFactory<Con
                 final Token.Condition conditionToken = token.asCondition();
                 final String condition = conditionToken.getCondition();
                 
-                if(PATTERN_ELAPSED_TIME.matcher(token.getValue()).matches()) {
+                if(isElapsedTimeCondition(conditionToken)) {
                     // [h][m][s]などの経過時刻のパターン
                     if(Utils.startsWithIgnoreCase(condition, "h")) {
                         formatter.addTerm(DateTerm.elapsedHour(condition));
@@ -186,7 +221,7 @@ public class ConditionDateFormatterFactory extends ConditionFormatterFactory<Con
                     if(item instanceof Token.Formatter) {
                         final String formatterItem = item.asFormatter().getValue();
                         
-                        if(Utils.equalsAnyIgnoreCase(formatterItem, new String[]{"am/pm", "a/p"})) {
+                        if(Utils.equalsAnyIgnoreCase(formatterItem, AM_PM_CHARS)) {
                             formatter.addTerm(DateTerm.amPm(formatterItem));
                             
                         } else if(Utils.startsWithIgnoreCase(formatterItem, "w")) {
@@ -218,7 +253,6 @@ public class ConditionDateFormatterFactory extends ConditionFormatterFactory<Con
                             formatter.addTerm(DateTerm.weekNameForOO(formatterItem));
                             
                         } else if(Utils.startsWithIgnoreCase(formatterItem, "h")) {
-                            final boolean halfHour = store.containsAnyInFactorIgnoreCase(new String[]{"am/pm", "a/p"});
                             formatter.addTerm(DateTerm.hour(formatterItem, halfHour));
                             
                         } else if(Utils.startsWithIgnoreCase(formatterItem, "s")) {
@@ -268,15 +302,8 @@ public class ConditionDateFormatterFactory extends ConditionFormatterFactory<Con
         StringBuilder noTermChar = new StringBuilder(); // フォーマット以外の文字列を積む。
         while(idx < itemLength) {
             
-            String matchChars = null;
-            for(String chars : SORTED_DATE_CHARS) {
-                if(Utils.startsWithIgnoreCase(item, chars, idx)) {
-                    matchChars = item.substring(idx, idx + chars.length());
-                    break;
-                }
-            }
-            
-            if(matchChars == null) {
+            final int matchLength = DATE_TERM_MATCHER.matchLength(item, idx);
+            if(matchLength == 0) {
                 // フォーマットでない場合は、文字列としてバッファに追加する。
                 noTermChar.append(item.charAt(idx));
                 idx++;
@@ -287,8 +314,8 @@ public class ConditionDateFormatterFactory extends ConditionFormatterFactory<Con
                     noTermChar = new StringBuilder();
                 }
                 
-                list.add(Token.formatter(matchChars));
-                idx += matchChars.length();
+                list.add(Token.formatter(item.substring(idx, idx + matchLength)));
+                idx += matchLength;
                 
             }
         }
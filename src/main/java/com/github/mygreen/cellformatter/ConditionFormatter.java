@@ -8,13 +8,14 @@ import java.util.concurrent.CopyOnWriteArrayList;
 import com.github.mygreen.cellformatter.callback.Callback;
 import com.github.mygreen.cellformatter.lang.MSColor;
 import com.github.mygreen.cellformatter.lang.MSLocale;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
 
 
 /**
  * Excelのユーザ定義の各条件式を表現するための抽象クラス。
  * <p>区切り文字';'で区切られたもの。
  * 
- * @version 0.3
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -73,6 +74,137 @@ public abstract class ConditionFormatter {
      */
     public abstract CellFormatResult format(CommonCell cell, Locale runtimeLocale);
     
+    /**
+     * ロケールを指定して値フォーマットし、呼び出し元が保持する結果に格納する。
+     * <p>標準の実装は、{@link #format(CommonCell, Locale)}の結果をコピーします。
+     * @since 0.13
+     * @param cell フォーマット対象のセル。
+     * @param runtimeLocale 実行時のロケール。nullの場合は、実行環境のロケールが指定される。
+     * @param target フォーマット結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     */
+    public CellFormatResult format(CommonCell cell, Locale runtimeLocale, CellFormatResult target) {
+        return target.copyFrom(format(cell, runtimeLocale));
+    }
+    
+    /**
+     * 値を分類し、呼び出し元が保持する結果に格納する。
+     * <p>値、文字色、セクションの書式、セルの種類のみを設定し、フォーマットした文字列は作成しません。
+     *    <br>標準の実装は、フォーマットした結果から文字列を除きます。</p>
+     * @since 0.13
+     * @param cell 分類対象のセル。
+     * @param target 分類結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     */
+    public CellFormatResult classify(CommonCell cell, CellFormatResult target) {
+        format(cell, Locale.getDefault(), target);
+        target.setText(null);
+        return target;
+    }
+    
+    /**
+     * 値を分類し、フォーマットした文字列の作成を{@link CellFormatResult#getText()}の呼び出し時まで遅延させる。
+     * <p>標準の実装は、直ちに文字列を作成します。
+     * @since 0.13
+     * @param cell フォーマット対象のセル。
+     * @param runtimeLocale 実行時のロケール。nullの場合は、実行環境のロケールが指定される。
+     * @param target フォーマット結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     */
+    public CellFormatResult formatLazily(CommonCell cell, Locale runtimeLocale, CellFormatResult target) {
+        return format(cell, runtimeLocale, target);
+    }
+    
+    /**
+     * ロケールを指定して値をフォーマットし、結果を文字列として取得する。
+     * <p>{@link CellFormatResult}が不要な場合に、結果のオブジェクトを作成せずにフォーマットする。
+     * @since 0.13
+     * @param cell フォーマット対象のセル。
+     * @param runtimeLocale 実行時のロケール。nullの場合は、実行環境のロケールが指定される。
+     * @return フォーマットした文字列。
+     */
+    public String formatAsString(CommonCell cell, Locale runtimeLocale) {
+        return format(cell, runtimeLocale).getText();
+    }
+    
+    /**
+     * ロケールを指定して値をフォーマットし、UTF-8のバイト列として書き込む。
+     * <p>標準の実装は、{@link #formatAsString(CommonCell, Locale)}の結果を書き込みます。
+     * @since 0.13
+     * @param cell フォーマット対象のセル。
+     * @param runtimeLocale 実行時のロケール。nullの場合は、実行環境のロケールが指定される。
+     * @param sink 書き込み先。
+     */
+    public void formatTo(CommonCell cell, Locale runtimeLocale, Utf8Sink sink) {
+        sink.append(formatAsString(cell, runtimeLocale));
+    }
+    
+    /**
+     * 実行時のロケールで適用対象となるコールバックがあるかどうか。
+     * <p>コールバックは文字列全体を変換するため、項ごとにバイト列として書き込めるかの判定に使用します。
+     * @since 0.13
+     * @param runtimeLocale 実行時のロケール。
+     * @return true:適用対象のコールバックがある場合。
+     */
+    protected boolean hasApplicableCallback(final Locale runtimeLocale) {
+        
+        final Locale locale = getLocale() != null ? getLocale().getLocale() : runtimeLocale;
+        for(Callback<?> callback : callbacks) {
+            if(callback.isApplicable(locale)) {
+                return true;
+            }
+        }
+        
+        return false;
+    }
+    
+    /**
+     * セルを作成せずに、数値が条件に一致するかどうか判定する。
+     * <p>標準の実装は、値から{@link DoubleCell}を作成して{@link #isMatch(CommonCell)}で判定します。
+     * @since 0.13
+     * @param value 判定対象の数値。
+     * @return true:一致する。
+     */
+    boolean isMatchNumber(final double value) {
+        return isMatch(new DoubleCell(value, (short)0));
+    }
+    
+    /**
+     * セルを作成せずに、数値を分類し、呼び出し元が保持する結果に格納する。
+     * <p>標準の実装は、値から{@link DoubleCell}を作成して{@link #classify(CommonCell, CellFormatResult)}で分類します。
+     * @since 0.13
+     * @param value 分類対象の数値。
+     * @param target 分類結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     */
+    CellFormatResult classifyNumber(final double value, final CellFormatResult target) {
+        return classify(new DoubleCell(value, (short)0), target);
+    }
+    
+    /**
+     * セルを作成せずに、数値をフォーマットし、結果を文字列として取得する。
+     * <p>標準の実装は、値から{@link DoubleCell}を作成して{@link #formatAsString(CommonCell, Locale)}でフォーマットします。
+     * @since 0.13
+     * @param value フォーマット対象の数値。
+     * @param runtimeLocale 実行時のロケール。
+     * @return フォーマットした文字列。
+     */
+    String formatNumberAsString(final double value, final Locale runtimeLocale) {
+        return formatAsString(new DoubleCell(value, (short)0), runtimeLocale);
+    }
+    
+    /**
+     * セルを作成せずに、数値をフォーマットし、UTF-8のバイト列として書き込む。
+     * <p>標準の実装は、値から{@link DoubleCell}を作成して{@link #formatTo(CommonCell, Locale, Utf8Sink)}で書き込みます。
+     * @since 0.13
+     * @param value フォーマット対象の数値。
+     * @param runtimeLocale 実行時のロケール。
+     * @param sink 書き込み先。
+     */
+    void formatNumberTo(final double value, final Locale runtimeLocale, final Utf8Sink sink) {
+        formatTo(new DoubleCell(value, (short)0), runtimeLocale, sink);
+    }
+    
     /**
      * 種類が'日時'のフォーマッタかどうか。
      * @return
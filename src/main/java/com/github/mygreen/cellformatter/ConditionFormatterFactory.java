@@ -20,7 +20,7 @@ import com.github.mygreen.cellformatter.tokenizer.TokenStore;
  * 条件付きの書式の組み立てるための抽象クラス。
  * <p>主にテンプレートメソッドの実装を行う。
  *
- * @version 0.10
+ * @version 0.13
  * @author T.TSUCHIE
  * @param <F> 組み立てるフォーマッタクラス
  */
@@ -112,6 +112,59 @@ public abstract class ConditionFormatterFactory<F> {
         return PATTERN_CONDITION_INDEX_COLOR.matcher(token.getValue()).matches();
     }
 
+    /**
+     * 同じ意味となる条件式を、同じ値に正規化する。
+     * <ul>
+     *   <li>{@literal '[>=100.0]'}などの演算子の条件式は、数値の表記を統一する。</li>
+     *   <li>{@literal '[$-0411]'}などのロケールの条件式は、16進数の表記を統一する。</li>
+     *   <li>{@literal '[RED]'}などの色の条件式は、色の名前の表記を統一する。</li>
+     * </ul>
+     * <p>値として解釈できない条件式は、そのままの値を返す。
+     * @since 0.13
+     * @param token 正規化対象の条件式のトークン。
+     * @return 正規化した条件式。
+     */
+    static String getCanonicalCondition(final Token.Condition token) {
+
+        final String value = token.getValue();
+
+        try {
+            Matcher matcher = PATTERN_CONDITION_OPERATOR.matcher(value);
+            if(matcher.matches()) {
+                return "[" + matcher.group(1) + Double.valueOf(matcher.group(2)) + "]";
+            }
+
+            matcher = PATTERN_CONDITION_LOCALE.matcher(value);
+            if(matcher.matches()) {
+                return "[$-" + Integer.toHexString(Integer.valueOf(matcher.group(1), 16)).toUpperCase() + "]";
+            }
+
+            matcher = PATTERN_CONDITION_LOCALE_SYMBOL.matcher(value);
+            if(matcher.matches()) {
+                return "[$" + matcher.group(1) + "-" + Integer.toHexString(Integer.valueOf(matcher.group(2), 16)).toUpperCase() + "]";
+            }
+
+            if(PATTERN_CONDITION_DBNUM.matcher(value).matches()) {
+                return value;
+            }
+
+            final MSColor color = MSColor.valueOfKnownColor(token.getCondition());
+            if(color != null) {
+                return "[" + color.getName() + "]";
+            }
+
+            matcher = PATTERN_CONDITION_INDEX_COLOR.matcher(value);
+            if(matcher.matches()) {
+                return "[Color" + Short.valueOf(matcher.group(2)) + "]";
+            }
+
+        } catch(NumberFormatException e) {
+            // 値として解釈できない場合
+        }
+
+        return value;
+    }
+
     /**
      * {@literal '[<=1000]'}などの数値の条件を組み立てる
      * @param formatter 現在の組み立て中のフォーマッタのインスタンス。
@@ -5,6 +5,7 @@ import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.github.mygreen.cellformatter.callback.Callback;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
 import com.github.mygreen.cellformatter.number.FormattedNumber;
 import com.github.mygreen.cellformatter.number.NumberFactory;
 import com.github.mygreen.cellformatter.term.NumberTerm;
@@ -14,7 +15,7 @@ import com.github.mygreen.cellformatter.tokenizer.Token;
 
 /**
  * 数値のフォーマッタ
- * @version 0.10
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -45,15 +46,141 @@ public class ConditionNumberFormatter extends ConditionFormatter {
             return false;
         }
 
-        final double value = cell.getNumberCellValue();
+        return isMatchNumber(cell.getNumberCellValue());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    boolean isMatchNumber(final double value) {
         return getOperator().isMatch(value);
     }
 
-    @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale) {
+        return format(cell, runtimeLocale, new CellFormatResult());
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale, final CellFormatResult target) {
+
+        classify(cell, target);
+        target.setText(formatNumber(cell.getNumberCellValue(), runtimeLocale));
+
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult classify(final CommonCell cell, final CellFormatResult target) {
+        return classifyNumber(cell.getNumberCellValue(), target);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    CellFormatResult classifyNumber(final double value, final CellFormatResult target) {
+
+        target.setValue(value);
+        target.setText(null);
+        target.setTextColor(getColor());
+        target.setSectionPattern(getPattern());
+        target.setCellType(FormatCellType.Number);
+
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>文字列の作成時には、セルではなく値を参照するため、セルのインスタンスを使い回すことができます。</p>
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult formatLazily(final CommonCell cell, final Locale runtimeLocale, final CellFormatResult target) {
 
         final double number = cell.getNumberCellValue();
+
+        classify(cell, target);
+        target.setDeferredText(() -> formatNumber(number, runtimeLocale));
+
+        return target;
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    @Override
+    public String formatAsString(final CommonCell cell, final Locale runtimeLocale) {
+        return formatNumber(cell.getNumberCellValue(), runtimeLocale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>適用対象のコールバックがない場合は、各項の結果を直接書き込みます。</p>
+     * @since 0.13
+     */
+    @Override
+    public void formatTo(final CommonCell cell, final Locale runtimeLocale, final Utf8Sink sink) {
+        formatNumberTo(cell.getNumberCellValue(), runtimeLocale, sink);
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    String formatNumberAsString(final double value, final Locale runtimeLocale) {
+        return formatNumber(value, runtimeLocale);
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>適用対象のコールバックがない場合は、各項の結果を直接書き込みます。</p>
+     * @since 0.13
+     */
+    @Override
+    void formatNumberTo(final double number, final Locale runtimeLocale, final Utf8Sink sink) {
+
+        if(hasApplicableCallback(runtimeLocale)) {
+            // 漢数字などへの変換は、文字列全体に対して行う。
+            sink.append(formatNumber(number, runtimeLocale));
+            return;
+        }
+
+        final FormattedNumber numObj = numberFactory.create(number);
+        if(getOperator().equals(ConditionOperator.ALL) && numObj.isNegative()) {
+            //条件がALLの時に符号を付ける。
+            sink.append('-');
+        }
+
+        for(Term<FormattedNumber> term : terms) {
+            term.formatTo(numObj, getLocale(), runtimeLocale, sink);
+        }
+
+    }
+
+    /**
+     * 数値を各項の書式に従い文字列にする。
+     * @param number フォーマット対象の数値
+     * @param runtimeLocale 実行時のロケール
+     * @return フォーマットした文字列
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private String formatNumber(final double number, final Locale runtimeLocale) {
+
         final FormattedNumber numObj = numberFactory.create(number);
 
         final StringBuilder sb = new StringBuilder();
@@ -86,14 +213,7 @@ public class ConditionNumberFormatter extends ConditionFormatter {
             value = callback.call(number, value, locale, null);
         }
 
-        final CellFormatResult result = new CellFormatResult();
-        result.setValue(number);
-        result.setText(value);
-        result.setTextColor(getColor());
-        result.setSectionPattern(getPattern());
-        result.setCellType(FormatCellType.Number);
-
-        return result;
+        return value;
     }
 
     /**
@@ -8,6 +8,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.KeywordMatcher;
 import com.github.mygreen.cellformatter.lang.Utils;
 import com.github.mygreen.cellformatter.number.FormattedNumber;
 import com.github.mygreen.cellformatter.number.NumberFactory;
@@ -27,7 +28,7 @@ import com.github.mygreen.cellformatter.tokenizer.TokenStore;
 /**
  * {@link ConditionNumberFormatter}のインスタンスを作成するクラス。
  *
- * @version 0.10
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -76,10 +77,15 @@ public class ConditionNumberFormatterFactory extends ConditionFormatterFactory<C
     );
 
     /**
-     * {@link #NUMBER_TERM_CHARS}を、検索用に並び替えたもの。
-     * ・フォーマットのキーワードを①文字列の長い順、辞書順に並び変え、比較していく。
+     * {@link #NUMBER_DECISTION_CHARS}を、検索用のトライ木にしたもの。
      */
-    private static final List<String> SORTED_NUMBER_TERM_CHARS = Utils.reverse(NUMBER_TERM_CHARS);
+    private static final KeywordMatcher NUMBER_DECISTION_MATCHER = new KeywordMatcher(NUMBER_DECISTION_CHARS, false);
+
+    /**
+     * {@link #NUMBER_TERM_CHARS}を、検索用のトライ木にしたもの。
+     * ・フォーマットのキーワードの中で、最も長く一致するものを切り出す。
+     */
+    private static final KeywordMatcher NUMBER_TERM_MATCHER = new KeywordMatcher(NUMBER_TERM_CHARS, true);
 
     /**
      * 数値の書式かどうか判定する。
@@ -87,7 +93,14 @@ public class ConditionNumberFormatterFactory extends ConditionFormatterFactory<C
      * @return
      */
     public boolean isNumberPattern(final TokenStore store) {
-        return store.containsAnyInFactor(NUMBER_DECISTION_CHARS);
+
+        for(Token token : store.getTokens()) {
+            if(token instanceof Token.Factor && NUMBER_DECISTION_MATCHER.containsAny(token.getValue())) {
+                return true;
+            }
+        }
+
+        return false;
     }
 
     @Override
@@ -206,21 +219,15 @@ public class ConditionNumberFormatterFactory extends ConditionFormatterFactory<C
 
         while(idx < itemLength) {
 
-            String matchChars = null;
-            for(String chars : SORTED_NUMBER_TERM_CHARS) {
-                if(Utils.startsWithIgnoreCase(item, chars, idx)) {
-                    matchChars = item.substring(idx, idx + chars.length());
-                    break;
-                }
-            }
-
-            if(matchChars == null) {
+            final int matchLength = NUMBER_TERM_MATCHER.matchLength(item, idx);
+            if(matchLength == 0) {
                 // フォーマット出ない場合は、文字列としてバッファに追加する。
                 noTermChar.append(item.charAt(idx));
                 idx++;
 
             } else {
                 // 数値の書式の場合
+                final String matchChars = item.substring(idx, idx + matchLength);
 
                 if(noTermChar.length() > 0) {
                     // 今まで積んだバッファを、文字列として分割する。
@@ -234,9 +241,9 @@ public class ConditionNumberFormatterFactory extends ConditionFormatterFactory<C
                     digits.append(matchChars);
 
                     for(int i=idx+1; i < itemLength; i++) {
-                        final String str = String.valueOf(item.charAt(i));
-                        if(Utils.equalsAny(str, DIGITS_CHARS)) {
-                            digits.append(str);
+                        final char c = item.charAt(i);
+                        if(c >= '0' && c <= '9') {
+                            digits.append(c);
                         } else {
                             break;
                         }
@@ -4,13 +4,14 @@ import java.util.List;
 import java.util.Locale;
 import java.util.concurrent.CopyOnWriteArrayList;
 
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
 import com.github.mygreen.cellformatter.term.Term;
 
 
 /**
  * Excelのテキスト表示のフォーマットと処理を行うクラス。
  * <p>書式中に'@'を含むもの。
- * @version 0.3
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -40,37 +41,102 @@ public class ConditionTextFormatter extends ConditionFormatter {
     
     @Override
     public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale) {
+        return format(cell, runtimeLocale, new CellFormatResult());
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale, final CellFormatResult result) {
         
-        final String value;
-        if(cell.isBoolean()) {
-            value = String.valueOf(cell.getBooleanCellValue()).toUpperCase();
-        } else {
-            value = cell.getTextCellValue();
-        }
-        
-        final StringBuilder sb = new StringBuilder();
+        classify(cell, result);
+        result.setText(formatText(getTextValue(cell), runtimeLocale));
         
-        for(Term<String> term : terms) {
-            sb.append(term.format(value, getLocale(), runtimeLocale));
-        }
+        return result;
         
-        String text = sb.toString();
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult classify(final CommonCell cell, final CellFormatResult result) {
         
-        final CellFormatResult result = new CellFormatResult();
         if(cell.isBoolean()) {
             result.setValue(cell.getBooleanCellValue());
             result.setCellType(FormatCellType.Boolean);
         } else {
-            result.setValue(value);
+            result.setValue(cell.getTextCellValue());
             result.setCellType(FormatCellType.Text);
         }
         
-        result.setText(text);
+        result.setText(null);
         result.setTextColor(getColor());
         result.setSectionPattern(getPattern());
         
         return result;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>文字列の作成時には、セルではなく値を参照するため、セルのインスタンスを使い回すことができます。</p>
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult formatLazily(final CommonCell cell, final Locale runtimeLocale, final CellFormatResult result) {
+        
+        final String value = getTextValue(cell);
+        
+        classify(cell, result);
+        result.setDeferredText(() -> formatText(value, runtimeLocale));
+        
+        return result;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    public void formatTo(final CommonCell cell, final Locale runtimeLocale, final Utf8Sink sink) {
+        
+        final String value = getTextValue(cell);
+        for(Term<String> term : terms) {
+            term.formatTo(value, getLocale(), runtimeLocale, sink);
+        }
+    }
+    
+    /**
+     * フォーマット対象の文字列を取得する。
+     * @param cell フォーマット対象のセル
+     * @return ブール型の場合は、大文字の文字列表現。
+     */
+    private String getTextValue(final CommonCell cell) {
+        if(cell.isBoolean()) {
+            return String.valueOf(cell.getBooleanCellValue()).toUpperCase();
+        } else {
+            return cell.getTextCellValue();
+        }
+    }
+    
+    /**
+     * 文字列を各項の書式に従いフォーマットする。
+     * @param value フォーマット対象の文字列
+     * @param runtimeLocale 実行時のロケール
+     * @return フォーマットした文字列
+     */
+    private String formatText(final String value, final Locale runtimeLocale) {
+        
+        final StringBuilder sb = new StringBuilder();
+        
+        for(Term<String> term : terms) {
+            sb.append(term.format(value, getLocale(), runtimeLocale));
+        }
         
+        return sb.toString();
     }
     
     /**
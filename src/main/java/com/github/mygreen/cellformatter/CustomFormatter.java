@@ -1,10 +1,15 @@
 package com.github.mygreen.cellformatter;
 
+import java.util.Date;
 import java.util.List;
 import java.util.Locale;
+import java.util.TimeZone;
 import java.util.concurrent.CopyOnWriteArrayList;
 
 import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
+import com.github.mygreen.cellformatter.lang.MSColor;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
 import com.github.mygreen.cellformatter.number.NumberFactory;
 import com.github.mygreen.cellformatter.term.NumberTerm;
 import com.github.mygreen.cellformatter.term.TextTerm;
@@ -16,7 +21,7 @@ import com.github.mygreen.cellformatter.tokenizer.Token;
  * ユーザ定義の書式を表現するフォーマッタ。
  * <p>{@link CustomFormatterFactory}からインスタンスを作成する。
  *
- * @version 0.10
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -53,7 +58,19 @@ public class CustomFormatter extends CellFormatter {
     /**
      * 条件付きのフォーマッタ
      */
-    private List<ConditionFormatter> conditionFormatters = new CopyOnWriteArrayList<>();
+    private final List<ConditionFormatter> conditionFormatters;
+
+    /**
+     * セクションごとの書式のパターン。
+     * <p>解析済みの条件付きのフォーマッタを共有する場合に、フォーマット結果に設定する元の書式のパターン。
+     *    共有しない場合はnull。</p>
+     */
+    private final String[] sectionPatterns;
+
+    /**
+     * 値ごとのフォーマット結果のキャッシュ。nullの場合はキャッシュしない。
+     */
+    private volatile FormatMemo memo;
 
     /**
      * 書式を指定してインスタンスを作成する。
@@ -61,6 +78,22 @@ public class CustomFormatter extends CellFormatter {
      */
     public CustomFormatter(final String pattern) {
         this.pattern = pattern;
+        this.conditionFormatters = new CopyOnWriteArrayList<>();
+        this.sectionPatterns = null;
+    }
+
+    /**
+     * 解析済みのフォーマッタの条件付きのフォーマッタを共有して、インスタンスを作成する。
+     * <p>書式のパターンと、フォーマット結果のセクションの書式は、共有元ではなく指定した値となります。
+     * @since 0.13
+     * @param pattern ユーザ定義の書式。
+     * @param compiled 条件付きのフォーマッタの共有元。
+     * @param sectionPatterns セクションごとの書式のパターン。共有元の条件付きのフォーマッタと同じ順番。
+     */
+    CustomFormatter(final String pattern, final CustomFormatter compiled, final String[] sectionPatterns) {
+        this.pattern = pattern;
+        this.conditionFormatters = compiled.conditionFormatters;
+        this.sectionPatterns = sectionPatterns;
     }
 
     @Override
@@ -68,9 +101,16 @@ public class CustomFormatter extends CellFormatter {
 
         ArgUtils.notNull(cell, "cell");
 
+        final FormatMemo.Entry entry = lookupMemo(cell, runtimeLocale);
+        if(entry != null) {
+            final CellFormatResult result = entry.formatter.classify(cell, new CellFormatResult());
+            result.setText(entry.text);
+            return applySectionPattern(entry.formatter, result);
+        }
+
         for(ConditionFormatter formatter : conditionFormatters) {
             if(formatter.isMatch(cell)) {
-                return formatter.format(cell, runtimeLocale);
+                return applySectionPattern(formatter, formatter.format(cell, runtimeLocale));
             }
         }
 
@@ -91,6 +131,485 @@ public class CustomFormatter extends CellFormatter {
 
     }
 
+    /**
+     * {@inheritDoc}
+     * <p>一致した条件付きのフォーマッタが、格納先に直接結果を設定します。</p>
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult format(final CommonCell cell, final Locale runtimeLocale, final CellFormatResult target) {
+
+        ArgUtils.notNull(cell, "cell");
+        ArgUtils.notNull(target, "target");
+
+        final FormatMemo.Entry entry = lookupMemo(cell, runtimeLocale);
+        if(entry != null) {
+            entry.formatter.classify(cell, target);
+            target.setText(entry.text);
+            return applySectionPattern(entry.formatter, target);
+        }
+
+        final ConditionFormatter formatter = matchConditionFormatter(cell);
+        return applySectionPattern(formatter, formatter.format(cell, runtimeLocale, target));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>一致した条件付きのフォーマッタのセクションと文字色を設定し、文字列の作成は行いません。</p>
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult classify(final CommonCell cell, final Locale runtimeLocale, final CellFormatResult target) {
+
+        ArgUtils.notNull(cell, "cell");
+        ArgUtils.notNull(target, "target");
+
+        final ConditionFormatter formatter = matchConditionFormatter(cell);
+        return applySectionPattern(formatter, formatter.classify(cell, target));
+    }
+
+    /**
+     * {@inheritDoc}
+     * @since 0.13
+     */
+    @Override
+    public CellFormatResult formatLazily(final CommonCell cell, final Locale runtimeLocale, final CellFormatResult target) {
+
+        ArgUtils.notNull(cell, "cell");
+        ArgUtils.notNull(target, "target");
+
+        final ConditionFormatter formatter = matchConditionFormatter(cell);
+        return applySectionPattern(formatter, formatter.formatLazily(cell, runtimeLocale, target));
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>一致した条件付きのフォーマッタが、各項の結果を直接書き込みます。</p>
+     * @since 0.13
+     */
+    @Override
+    public void formatTo(final CommonCell cell, final Locale runtimeLocale, final Utf8Sink sink) {
+
+        ArgUtils.notNull(cell, "cell");
+        ArgUtils.notNull(sink, "sink");
+
+        final FormatMemo.Entry entry = lookupMemo(cell, runtimeLocale);
+        if(entry != null) {
+            sink.append(entry.text);
+            return;
+        }
+
+        matchConditionFormatter(cell).formatTo(cell, runtimeLocale, sink);
+    }
+
+    /**
+     * セルを作成せずに、数値をフォーマットする。
+     * <p>{@link CompiledFormat}などで、プリミティブ型の数値をフォーマットする際に利用します。
+     *    <br>日時の書式の場合は、1900年始まりの日時としてフォーマットします。</p>
+     * @since 0.13
+     * @param value フォーマット対象の数値。
+     * @param runtimeLocale 実行時のロケール。
+     * @param target フォーマット結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     */
+    CellFormatResult formatNumber(final double value, final Locale runtimeLocale, final CellFormatResult target) {
+
+        final FormatMemo.Entry entry = lookupMemo(value, runtimeLocale);
+        if(entry != null) {
+            entry.formatter.classifyNumber(value, target);
+            target.setText(entry.text);
+            return applySectionPattern(entry.formatter, target);
+        }
+
+        final ConditionFormatter formatter = matchConditionFormatter(value);
+        formatter.classifyNumber(value, target);
+        target.setText(formatter.formatNumberAsString(value, runtimeLocale));
+        return applySectionPattern(formatter, target);
+    }
+
+    /**
+     * セルを作成せずに、数値を分類し、フォーマットした文字列の作成を{@link CellFormatResult#getText()}の呼び出し時まで遅延させる。
+     * @since 0.13
+     * @param value フォーマット対象の数値。
+     * @param runtimeLocale 実行時のロケール。
+     * @param target フォーマット結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     */
+    CellFormatResult formatNumberLazily(final double value, final Locale runtimeLocale, final CellFormatResult target) {
+
+        final ConditionFormatter formatter = matchConditionFormatter(value);
+        formatter.classifyNumber(value, target);
+        target.setDeferredText(() -> formatter.formatNumberAsString(value, runtimeLocale));
+        return applySectionPattern(formatter, target);
+    }
+
+    /**
+     * セルを作成せずに、数値をフォーマットし、UTF-8のバイト列として書き込む。
+     * @since 0.13
+     * @param value フォーマット対象の数値。
+     * @param runtimeLocale 実行時のロケール。
+     * @param sink 書き込み先。
+     */
+    void formatNumberTo(final double value, final Locale runtimeLocale, final Utf8Sink sink) {
+
+        final FormatMemo.Entry entry = lookupMemo(value, runtimeLocale);
+        if(entry != null) {
+            sink.append(entry.text);
+            return;
+        }
+
+        matchConditionFormatter(value).formatNumberTo(value, runtimeLocale, sink);
+    }
+
+    /**
+     * 条件付きのフォーマッタを共有している場合に、フォーマット結果のセクションの書式を元の書式に置き換える。
+     * @param formatter 一致した条件付きのフォーマッタ
+     * @param result フォーマット結果
+     * @return 引数で指定したフォーマット結果
+     */
+    private CellFormatResult applySectionPattern(final ConditionFormatter formatter, final CellFormatResult result) {
+
+        if(sectionPatterns == null) {
+            return result;
+        }
+
+        for(int i=0; i < sectionPatterns.length && i < conditionFormatters.size(); i++) {
+            if(conditionFormatters.get(i) == formatter) {
+                result.setSectionPattern(sectionPatterns[i]);
+                break;
+            }
+        }
+
+        return result;
+    }
+
+    /**
+     * キャッシュから数値をフォーマットした結果を取得する。
+     * <p>キャッシュにない場合は、フォーマットしてキャッシュに登録する。
+     * @param value フォーマット対象の数値
+     * @param runtimeLocale 実行時のロケール
+     * @return キャッシュが無効な場合はnullを返す。
+     */
+    private FormatMemo.Entry lookupMemo(final double value, final Locale runtimeLocale) {
+
+        final FormatMemo memo = this.memo;
+        if(memo == null) {
+            return null;
+        }
+
+        final FormatMemo.Entry entry = memo.get(value, runtimeLocale);
+        if(entry != null) {
+            return entry;
+        }
+
+        final ConditionFormatter formatter = matchConditionFormatter(value);
+        return memo.put(value, runtimeLocale, formatter, formatter.formatNumberAsString(value, runtimeLocale));
+    }
+
+    /**
+     * キャッシュからフォーマットした結果を取得する。
+     * <p>キャッシュにない場合は、フォーマットしてキャッシュに登録する。
+     * @param cell フォーマット対象のセル
+     * @param runtimeLocale 実行時のロケール
+     * @return キャッシュが無効な場合や、キャッシュの対象外の値の場合はnullを返す。
+     */
+    private FormatMemo.Entry lookupMemo(final CommonCell cell, final Locale runtimeLocale) {
+
+        final FormatMemo memo = this.memo;
+        if(memo == null) {
+            return null;
+        }
+
+        if(cell.isNumber()) {
+            final double value = cell.getNumberCellValue();
+            final FormatMemo.Entry entry = memo.get(value, runtimeLocale);
+            if(entry != null) {
+                return entry;
+            }
+
+            final ConditionFormatter formatter = matchConditionFormatter(cell);
+            return memo.put(value, runtimeLocale, formatter, formatter.formatAsString(cell, runtimeLocale));
+
+        } else if(cell.isText()) {
+            final String value = cell.getTextCellValue();
+            if(value == null || value.length() > FormatMemo.MAX_TEXT_LENGTH) {
+                return null;
+            }
+
+            final FormatMemo.Entry entry = memo.get(value, runtimeLocale);
+            if(entry != null) {
+                return entry;
+            }
+
+            final ConditionFormatter formatter = matchConditionFormatter(cell);
+            return memo.put(value, runtimeLocale, formatter, formatter.formatAsString(cell, runtimeLocale));
+        }
+
+        return null;
+    }
+
+    /**
+     * セルに一致する条件付きのフォーマッタを取得する。
+     * <p>一致するものがない場合は、デフォルトのフォーマッタから取得する。
+     * @param cell 判定対象のセル
+     * @return 一致した条件付きのフォーマッタ
+     * @throws NoMatchConditionFormatterException 一致するフォーマッタがない場合
+     */
+    private ConditionFormatter matchConditionFormatter(final CommonCell cell) {
+
+        for(ConditionFormatter formatter : conditionFormatters) {
+            if(formatter.isMatch(cell)) {
+                return formatter;
+            }
+        }
+
+        if(this != DEFAULT_FORMATTER && (cell.isText() || cell.isNumber())) {
+            return DEFAULT_FORMATTER.matchConditionFormatter(cell);
+        }
+
+        throw new NoMatchConditionFormatterException(cell, String.format(
+                "not match format for cell : '%s'", cell.getCellAddress()));
+
+    }
+
+    /**
+     * 数値に一致する条件付きのフォーマッタを取得する。
+     * <p>一致するものがない場合は、デフォルトのフォーマッタから取得する。
+     * @param value 判定対象の数値
+     * @return 一致した条件付きのフォーマッタ
+     * @throws NoMatchConditionFormatterException 一致するフォーマッタがない場合
+     */
+    private ConditionFormatter matchConditionFormatter(final double value) {
+
+        for(ConditionFormatter formatter : conditionFormatters) {
+            if(formatter.isMatchNumber(value)) {
+                return formatter;
+            }
+        }
+
+        if(this != DEFAULT_FORMATTER) {
+            return DEFAULT_FORMATTER.matchConditionFormatter(value);
+        }
+
+        final CommonCell cell = new DoubleCell(value, (short)0);
+        throw new NoMatchConditionFormatterException(cell, String.format(
+                "not match format for cell : '%s'", cell.getCellAddress()));
+
+    }
+
+    /**
+     * 複数の数値をまとめてフォーマットする。
+     * <p>セルや{@link CellFormatResult}のインスタンスを値ごとに作成せずに、フォーマットした文字列のみを取得します。
+     *    <br>列単位など、同じ書式の値を大量にフォーマットする場合に利用します。</p>
+     * @since 0.13
+     * @param values フォーマット対象の値。
+     * @param offset フォーマットを開始する値の位置。
+     * @param length フォーマットする値の個数。
+     * @param runtimeLocale 実行時のロケール。
+     * @param results フォーマットした文字列の格納先。{@literal values[offset + i]}の結果を{@literal results[i]}に格納します。
+     * @param colors 値ごとの文字色のインデックス番号の格納先。色の指定がない場合は{@literal -1}を格納します。
+     *        nullの場合は、格納しません。
+     * @throws IllegalArgumentException {@literal values == null || results == null}
+     * @throws IllegalArgumentException 位置と個数が配列の範囲外の場合。
+     */
+    public void format(final double[] values, final int offset, final int length, final Locale runtimeLocale,
+            final String[] results, final short[] colors) {
+
+        ArgUtils.notNull(values, "values");
+        checkRange(values.length, offset, length, results, colors);
+
+        final ConditionFormatter[] formatters = getConditionFormatterArray();
+        final BatchCell cell = new BatchCell();
+        for(int i=0; i < length; i++) {
+            cell.setNumber(values[offset + i]);
+            formatBatchCell(formatters, cell, runtimeLocale, results, colors, i);
+        }
+
+    }
+
+    /**
+     * 複数の数値をまとめてフォーマットする。
+     * <p>Excelの数値と同様に、double型に変換した値をフォーマットします。
+     * @since 0.13
+     * @param values フォーマット対象の値。
+     * @param offset フォーマットを開始する値の位置。
+     * @param length フォーマットする値の個数。
+     * @param runtimeLocale 実行時のロケール。
+     * @param results フォーマットした文字列の格納先。{@literal values[offset + i]}の結果を{@literal results[i]}に格納します。
+     * @param colors 値ごとの文字色のインデックス番号の格納先。色の指定がない場合は{@literal -1}を格納します。
+     *        nullの場合は、格納しません。
+     * @throws IllegalArgumentException {@literal values == null || results == null}
+     * @throws IllegalArgumentException 位置と個数が配列の範囲外の場合。
+     */
+    public void format(final long[] values, final int offset, final int length, final Locale runtimeLocale,
+            final String[] results, final short[] colors) {
+
+        ArgUtils.notNull(values, "values");
+        checkRange(values.length, offset, length, results, colors);
+
+        final ConditionFormatter[] formatters = getConditionFormatterArray();
+        final BatchCell cell = new BatchCell();
+        for(int i=0; i < length; i++) {
+            cell.setNumber((double) values[offset + i]);
+            formatBatchCell(formatters, cell, runtimeLocale, results, colors, i);
+        }
+
+    }
+
+    /**
+     * 複数の日時をまとめてフォーマットする。
+     * <p>配列の要素がnullの場合は、空セルとして空文字を格納します。
+     * @since 0.13
+     * @param values フォーマット対象の値。タイムゾーンを含んだ値を指定します。
+     * @param offset フォーマットを開始する値の位置。
+     * @param length フォーマットする値の個数。
+     * @param runtimeLocale 実行時のロケール。
+     * @param results フォーマットした文字列の格納先。{@literal values[offset + i]}の結果を{@literal results[i]}に格納します。
+     * @param colors 値ごとの文字色のインデックス番号の格納先。色の指定がない場合は{@literal -1}を格納します。
+     *        nullの場合は、格納しません。
+     * @throws IllegalArgumentException {@literal values == null || results == null}
+     * @throws IllegalArgumentException 位置と個数が配列の範囲外の場合。
+     */
+    public void format(final Date[] values, final int offset, final int length, final Locale runtimeLocale,
+            final String[] results, final short[] colors) {
+
+        ArgUtils.notNull(values, "values");
+        checkRange(values.length, offset, length, results, colors);
+
+        final ConditionFormatter[] formatters = getConditionFormatterArray();
+        final BatchCell cell = new BatchCell();
+        for(int i=0; i < length; i++) {
+            final Date value = values[offset + i];
+            if(value == null) {
+                results[i] = "";
+                if(colors != null) {
+                    colors[i] = -1;
+                }
+                continue;
+            }
+
+            cell.setDate(value);
+            formatBatchCell(formatters, cell, runtimeLocale, results, colors, i);
+        }
+
+    }
+
+    /**
+     * 複数の数値をまとめてフォーマットし、1つの文字バッファに連結して格納する。
+     * <p>値ごとに文字列のインスタンスを作成せずに、連結した結果の終了位置のみを記録します。
+     *    <br>{@literal i}番目の結果は、{@literal buffer}の{@literal ends[i-1]}(先頭の場合は、呼び出し時のバッファの長さ)から
+     *    {@literal ends[i]}までの範囲となります。</p>
+     * @since 0.13
+     * @param values フォーマット対象の値。
+     * @param offset フォーマットを開始する値の位置。
+     * @param length フォーマットする値の個数。
+     * @param runtimeLocale 実行時のロケール。
+     * @param buffer フォーマットした文字列を追加するバッファ。
+     * @param ends 値ごとの結果のバッファ上の終了位置の格納先。
+     * @param colors 値ごとの文字色のインデックス番号の格納先。色の指定がない場合は{@literal -1}を格納します。
+     *        nullの場合は、格納しません。
+     * @throws IllegalArgumentException {@literal values == null || buffer == null || ends == null}
+     * @throws IllegalArgumentException 位置と個数が配列の範囲外の場合。
+     */
+    public void format(final double[] values, final int offset, final int length, final Locale runtimeLocale,
+            final StringBuilder buffer, final int[] ends, final short[] colors) {
+
+        ArgUtils.notNull(values, "values");
+        ArgUtils.notNull(buffer, "buffer");
+        ArgUtils.notNull(ends, "ends");
+        checkRange(values.length, offset, length);
+        ArgUtils.notMax(length, ends.length, "length");
+        if(colors != null) {
+            ArgUtils.notMax(length, colors.length, "length");
+        }
+
+        final ConditionFormatter[] formatters = getConditionFormatterArray();
+        final BatchCell cell = new BatchCell();
+        for(int i=0; i < length; i++) {
+            cell.setNumber(values[offset + i]);
+
+            final ConditionFormatter formatter = findConditionFormatter(formatters, cell);
+            buffer.append(formatter.formatAsString(cell, runtimeLocale));
+            ends[i] = buffer.length();
+            if(colors != null) {
+                colors[i] = getColorIndex(formatter);
+            }
+        }
+
+    }
+
+    /**
+     * まとめてフォーマットする際の、位置と個数を検証する。
+     */
+    private static void checkRange(final int valueLength, final int offset, final int length,
+            final String[] results, final short[] colors) {
+
+        ArgUtils.notNull(results, "results");
+        checkRange(valueLength, offset, length);
+        ArgUtils.notMax(length, results.length, "length");
+        if(colors != null) {
+            ArgUtils.notMax(length, colors.length, "length");
+        }
+    }
+
+    /**
+     * まとめてフォーマットする際の、値の配列に対する位置と個数を検証する。
+     */
+    private static void checkRange(final int valueLength, final int offset, final int length) {
+        ArgUtils.notMin(offset, 0, "offset");
+        ArgUtils.notMin(length, 0, "length");
+        ArgUtils.notMax(offset, valueLength - length, "offset");
+    }
+
+    /**
+     * 1つの値をフォーマットし、結果を格納する。
+     */
+    private void formatBatchCell(final ConditionFormatter[] formatters, final BatchCell cell, final Locale runtimeLocale,
+            final String[] results, final short[] colors, final int index) {
+
+        final ConditionFormatter formatter = findConditionFormatter(formatters, cell);
+        results[index] = formatter.formatAsString(cell, runtimeLocale);
+        if(colors != null) {
+            colors[index] = getColorIndex(formatter);
+        }
+    }
+
+    /**
+     * 数値のセルに一致する条件付きのフォーマッタを取得する。
+     * <p>一致するものがない場合は、{@link #format(CommonCell, Locale)}と同様に、デフォルトのフォーマッタの条件を返す。
+     */
+    private ConditionFormatter findConditionFormatter(final ConditionFormatter[] formatters, final BatchCell cell) {
+
+        for(ConditionFormatter formatter : formatters) {
+            if(formatter.isMatch(cell)) {
+                return formatter;
+            }
+        }
+
+        if(this == DEFAULT_FORMATTER) {
+            throw new NoMatchConditionFormatterException(cell, String.format(
+                    "not match format for cell : '%s'", cell.getCellAddress()));
+        }
+
+        return DEFAULT_FORMATTER.findConditionFormatter(DEFAULT_FORMATTER.getConditionFormatterArray(), cell);
+    }
+
+    /**
+     * 繰り返し処理するために、条件付きのフォーマッタを配列として取得する。
+     */
+    private ConditionFormatter[] getConditionFormatterArray() {
+        return conditionFormatters.toArray(new ConditionFormatter[conditionFormatters.size()]);
+    }
+
+    /**
+     * 条件付きのフォーマッタの文字色のインデックス番号を取得する。
+     * @return 色の指定がない場合は、{@literal -1}を返す。
+     */
+    private static short getColorIndex(final ConditionFormatter formatter) {
+        final MSColor color = formatter.getColor();
+        return color != null ? color.getIndex() : -1;
+    }
+
     @Override
     public String getPattern(Locale locale) {
         return pattern;
@@ -146,6 +665,62 @@ public class CustomFormatter extends CellFormatter {
      */
     public void addConditionFormatter(ConditionFormatter formatter) {
         this.conditionFormatters.add(formatter);
+
+        final FormatMemo memo = this.memo;
+        if(memo != null) {
+            // 結果が変わるため、キャッシュを作り直す。
+            setMemoSize(memo.getMaxSize());
+        }
+    }
+
+    /**
+     * 値ごとのフォーマット結果をキャッシュするかどうか、その件数の上限を設定する。
+     * <p>同じ値を繰り返しフォーマットする場合に、キャッシュした文字列を返します。
+     *    キャッシュのキーは、値と実行時のロケールです。初期状態ではキャッシュしません。</p>
+     * <p>日時の書式を含む場合は、結果が値以外（1904年始まりかどうかなど）にも依存するため、
+     *    キャッシュの上限を設定してもキャッシュしません。</p>
+     * <p>キャッシュする件数は、複数のスレッドからフォーマットする場合でも上限を超えません。
+     *    上限に達した場合は、参照された頻度の低いものから上限の3/4になるまで破棄します。</p>
+     * @since 0.13
+     * @param maxSize キャッシュする件数の上限。0以下の場合はキャッシュしない。
+     */
+    public void setMemoSize(final int maxSize) {
+        if(maxSize <= 0 || !isMemoizable()) {
+            this.memo = null;
+        } else {
+            this.memo = new FormatMemo(maxSize);
+        }
+    }
+
+    /**
+     * 値ごとのフォーマット結果のキャッシュを取得する。
+     * <p>キャッシュの参照回数などの統計情報を取得する場合に利用します。
+     * @since 0.13
+     * @return キャッシュしない場合はnullを返す。
+     */
+    public FormatMemo getMemo() {
+        return memo;
+    }
+
+    /**
+     * 値ごとのフォーマット結果をキャッシュできるかどうか。
+     * <p>日時の書式を含む場合は、結果が値以外にも依存するため、キャッシュできません。
+     * @since 0.13
+     * @return true:キャッシュできる場合。
+     */
+    public boolean isMemoizable() {
+        if(this == DEFAULT_FORMATTER) {
+            // 共有のインスタンスのため、キャッシュしない。
+            return false;
+        }
+
+        for(ConditionFormatter formatter : conditionFormatters) {
+            if(formatter.getType() == FormatterType.Date) {
+                return false;
+            }
+        }
+
+        return true;
     }
 
     /**
@@ -156,4 +731,89 @@ public class CustomFormatter extends CellFormatter {
         return conditionFormatters;
     }
 
+    /**
+     * まとめてフォーマットする際に、値を入れ替えながら使い回すセル。
+     * <p>1回の呼び出しの中でのみ使用するため、スレッドセーフではない。
+     */
+    private static class BatchCell implements CommonCell {
+
+        /** 数値として設定した値 */
+        private double number;
+
+        /** 日時として設定した値。数値を設定した場合はnull。 */
+        private Date date;
+
+        void setNumber(final double number) {
+            this.number = number;
+            this.date = null;
+        }
+
+        void setDate(final Date date) {
+            this.date = date;
+        }
+
+        @Override
+        public short getFormatIndex() {
+            return -1;
+        }
+
+        @Override
+        public String getFormatPattern() {
+            return null;
+        }
+
+        @Override
+        public boolean isText() {
+            return false;
+        }
+
+        @Override
+        public boolean isBoolean() {
+            return false;
+        }
+
+        @Override
+        public boolean isNumber() {
+            return true;
+        }
+
+        @Override
+        public String getTextCellValue() {
+            throw new IllegalStateException("not match value type.");
+        }
+
+        @Override
+        public boolean getBooleanCellValue() {
+            throw new IllegalStateException("not match value type.");
+        }
+
+        @Override
+        public double getNumberCellValue() {
+            if(date != null) {
+                return ExcelDateUtils.convertExcelNumber(date, false);
+            }
+            return number;
+        }
+
+        @Override
+        public Date getDateCellValue() {
+            if(date != null) {
+                // DateCellと同様に、タイムゾーン分を考慮して、標準時にする。
+                return new Date(date.getTime() + TimeZone.getDefault().getOffset(date.getTime()));
+            }
+            return ExcelDateUtils.convertJavaDate(number, false);
+        }
+
+        @Override
+        public boolean isDateStart1904() {
+            return false;
+        }
+
+        @Override
+        public String getCellAddress() {
+            return "A1";
+        }
+
+    }
+
 }
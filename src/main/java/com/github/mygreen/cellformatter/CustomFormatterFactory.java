@@ -10,7 +10,7 @@ import com.github.mygreen.cellformatter.tokenizer.TokenStore;
 /**
  * ユーザ定義の書式を解析して、{@link CustomFormatter}のインスタンスを作成するクラス。
  * 
- * @version 0.9.2
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -29,9 +29,31 @@ public class CustomFormatterFactory {
      * @throws CustomFormatterParseException 書式が不正な場合にスローされる。
      */
     public CustomFormatter create(final String pattern) {
+        return create(pattern, tokenize(pattern));
+    }
+    
+    /**
+     * 書式をトークンに分割する。
+     * <p>分割した結果は、{@link #create(String, TokenStore)}や{@link #createCanonicalKey(String, TokenStore)}で
+     *    共通に使用し、同じ書式を何度も分割しないようにします。
+     * @since 0.13
+     * @param pattern ユーザ定義の書式
+     * @return 分割したトークン
+     */
+    TokenStore tokenize(final String pattern) {
+        return new CustomFormatTokenizer().parse(pattern);
+    }
+    
+    /**
+     * トークンに分割済みの書式を元に、{@link CustomFormatter}のインスタンスを作成する。
+     * @since 0.13
+     * @param pattern ユーザ定義の書式
+     * @param allStore 書式を分割したトークン
+     * @return 指定したユーザ定義に対するフォーマッタ。
+     * @throws CustomFormatterParseException 書式が不正な場合にスローされる。
+     */
+    CustomFormatter create(final String pattern, final TokenStore allStore) {
         
-        final CustomFormatTokenizer tokenizer = new CustomFormatTokenizer();
-        final TokenStore allStore = tokenizer.parse(pattern);
         if(allStore.getTokens().isEmpty()) {
             // 標準のフォーマッタ
             return CustomFormatter.DEFAULT_FORMATTER;
@@ -52,16 +74,14 @@ public class CustomFormatterFactory {
         for(TokenStore section : sections) {
             
             final ConditionFormatter conditionFormatter;
-            if(textFormatterFactory.isTextPattern(section)) {
+            final FormatterType type = classifySection(section);
+            if(type == FormatterType.Text) {
                 conditionFormatter = textFormatterFactory.create(section);
                 containsTextFormatter = true;
                 
-            } else if(dateFormatterFactory.isDatePattern(section)) {
+            } else if(type == FormatterType.Date) {
                 conditionFormatter = dateFormatterFactory.create(section);
                 
-            } else if(numberFormatterFactory.isNumberPattern(section)) {
-                conditionFormatter = numberFormatterFactory.create(section);
-                
             } else {
                 conditionFormatter = numberFormatterFactory.create(section);
                 
@@ -152,5 +172,144 @@ public class CustomFormatterFactory {
         
         return formatter;
     }
+    
+    /**
+     * 書式を正規化したキーを作成する。
+     * <p>次の違いのみの書式は、同じキーとなる。
+     * <ul>
+     *   <li>{@literal '\-'}と{@literal '"-"'}などの、エスケープ文字と引用符による文字列の表記の違い。
+     *       <br>連続する文字列や、空の文字列{@literal '""'}も同じものとして扱う。</li>
+     *   <li>{@literal '[Red]'}と{@literal '[RED]'}などの、条件式の表記の違い。
+     *       <br>詳細は、{@link ConditionFormatterFactory#getCanonicalCondition(Token.Condition)}を参照。</li>
+     *   <li>標準の書式{@literal 'General'}の大文字・小文字の違い。</li>
+     * </ul>
+     * 
+     * @since 0.13
+     * @param pattern ユーザ定義の書式
+     * @return 正規化したキー。
+     */
+    public String createCanonicalKey(final String pattern) {
+        
+        if(pattern == null || pattern.equalsIgnoreCase("General")) {
+            return (pattern == null ? "" : "General");
+        }
+        
+        return createCanonicalKey(pattern, tokenize(pattern));
+    }
+    
+    /**
+     * トークンに分割済みの書式を正規化したキーを作成する。
+     * <p>正規化の規則は、{@link #createCanonicalKey(String)}と同じです。
+     * @since 0.13
+     * @param pattern ユーザ定義の書式
+     * @param store 書式を分割したトークン
+     * @return 正規化したキー。
+     */
+    String createCanonicalKey(final String pattern, final TokenStore store) {
+        
+        if(pattern == null || pattern.equalsIgnoreCase("General")) {
+            return (pattern == null ? "" : "General");
+        }
+        
+        final StringBuilder key = new StringBuilder(pattern.length());
+        for(Token token : store.getTokens()) {
+            
+            if(token instanceof Token.Word) {
+                // 文字列は、1文字ずつエスケープした形式にする
+                appendEscapedChars(key, token.asWord().getWord());
+                
+            } else if(token instanceof Token.EscapedChar) {
+                appendEscapedChars(key, token.asEscapedChar().getChar());
+                
+            } else if(token instanceof Token.Condition) {
+                key.append(ConditionFormatterFactory.getCanonicalCondition(token.asCondition()));
+                
+            } else {
+                key.append(token.getValue());
+            }
+        }
+        
+        return key.toString();
+        
+    }
+    
+    /**
+     * 正規化したキーが同じフォーマッタと、解析済みの条件付きのフォーマッタを共有するインスタンスを作成する。
+     * <p>作成したフォーマッタの{@link CustomFormatter#getPattern()}や、フォーマット結果の
+     *    {@link CellFormatResult#getSectionPattern()}は、共有元ではなく指定した書式の値となります。
+     * @since 0.13
+     * @param pattern ユーザ定義の書式
+     * @param allStore 書式を分割したトークン
+     * @param compiled 正規化したキーが同じ、解析済みのフォーマッタ
+     * @return 条件付きのフォーマッタを共有したフォーマッタ。
+     */
+    CustomFormatter createShared(final String pattern, final TokenStore allStore, final CustomFormatter compiled) {
+        
+        if(compiled == CustomFormatter.DEFAULT_FORMATTER) {
+            return compiled;
+        }
+        
+        final List<TokenStore> sections = allStore.split(Token.SYMBOL_SEMI_COLON);
+        final String[] sectionPatterns = new String[sections.size()];
+        for(int i=0; i < sectionPatterns.length; i++) {
+            sectionPatterns[i] = sections.get(i).getConcatenatedToken();
+        }
+        
+        return new CustomFormatter(pattern, compiled, sectionPatterns);
+    }
+    
+    private static void appendEscapedChars(final StringBuilder sb, final String str) {
+        final int length = str.length();
+        for(int i=0; i < length; i++) {
+            sb.append('\\').append(str.charAt(i));
+        }
+    }
+    
+    /**
+     * セクションの書式の種類を判定する。
+     * <p>{@link ConditionTextFormatterFactory#isTextPattern(TokenStore)}、
+     *    {@link ConditionDateFormatterFactory#isDatePattern(TokenStore)}の順に判定した結果と同じだが、
+     *    トークンの走査は1回のみ行う。
+     *    <br>数値の書式でない場合も、数値のフォーマッタとして扱うため、数値の書式かどうかは判定しない。
+     * 
+     * @since 0.13
+     * @param section 判定対象のセクション
+     * @return 書式の種類
+     */
+    private FormatterType classifySection(final TokenStore section) {
+        
+        boolean containsGeneral = false;
+        boolean containsDateChars = false;
+        
+        for(Token token : section.getTokens()) {
+            
+            if(token instanceof Token.Factor) {
+                final String value = token.getValue();
+                if(value.indexOf('@') >= 0) {
+                    return FormatterType.Text;
+                }
+                
+                if(!containsGeneral && value.contains("General")) {
+                    containsGeneral = true;
+                }
+                
+                if(!containsGeneral && !containsDateChars && dateFormatterFactory.isDateFactor(value)) {
+                    containsDateChars = true;
+                }
+                
+            } else if(token instanceof Token.Condition) {
+                if(!containsDateChars && dateFormatterFactory.isElapsedTimeCondition(token.asCondition())) {
+                    containsDateChars = true;
+                }
+            }
+            
+        }
+        
+        if(containsDateChars && !containsGeneral) {
+            return FormatterType.Date;
+        }
+        
+        return FormatterType.Number;
+    }
 
 }
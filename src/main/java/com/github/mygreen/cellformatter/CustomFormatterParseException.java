@@ -4,7 +4,7 @@ package com.github.mygreen.cellformatter;
 /**
  * パース時に書式が不正と判断する場合にスローされる例外。
  * 
- * @version 0.2
+ * @version 0.13
  * @since 0.2
  * @author T.TSUCHIE
  *
@@ -27,6 +27,19 @@ public class CustomFormatterParseException extends RuntimeException {
         this.pattern = pattern;
     }
     
+    /**
+     * スタックトレースを記録するかどうかを指定してインスタンスを作成する。
+     * <p>既に失敗したことが分かっている書式を、再度通知する場合などに利用する。
+     * @since 0.13
+     * @param pattern 問題となった書式。
+     * @param message エラーメッセージ。
+     * @param writableStackTrace スタックトレースを記録するかどうか。
+     */
+    public CustomFormatterParseException(final String pattern, final String message, final boolean writableStackTrace) {
+        super(message, null, false, writableStackTrace);
+        this.pattern = pattern;
+    }
+    
     /**
      * 書式を取得する。
      * @return
@@ -108,8 +108,9 @@ public class DateCell extends ObjectCell<Date> {
     @Override
     public Date getDateCellValue() {
         
-        // タイムゾーン分を考慮して、標準時にする。
-        return new Date(getValue().getTime() + TimeZone.getDefault().getRawOffset());
+        // タイムゾーン分を考慮して、標準時にする。夏時間の期間は、その日時のオフセットを使用する。
+        final long time = getValue().getTime();
+        return new Date(time + TimeZone.getDefault().getOffset(time));
     }
     
     @Override
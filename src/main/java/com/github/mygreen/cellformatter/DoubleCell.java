@@ -0,0 +1,211 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Date;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
+
+/**
+ * プリミティブ型の数値を直接扱うための仮想的なセル。
+ * <p>{@link NumberCell}と異なり、ラッパークラスに変換せずに、double型のまま値を保持します。</p>
+ * <p>long型などの整数は、double型に変換した値を指定します。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class DoubleCell implements CommonCell {
+
+    /**
+     * 値
+     */
+    private final double value;
+
+    /**
+     * フォーマットのインデックス
+     */
+    private final short formatIndex;
+
+    /**
+     * フォーマットの書式
+     */
+    private final String formatPattern;
+
+    /** 日付の始まりが1904年開始かどうか */
+    private final boolean dateStart1904;
+
+    /**
+     * 値と書式のインデックス番号を指定するコンストラクタ。
+     * <p>フォーマットの書式は、{@literal null}になります。
+     * @param value フォーマット対象の値。
+     * @param formatIndex 書式のインデックス番号。
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     */
+    public DoubleCell(final double value, final short formatIndex) {
+        this(value, formatIndex, false);
+    }
+
+    /**
+     * 値とその書式を指定するコンストラクタ。
+     * <p>フォーマットのインデックス番号は、存在しないことを示す{@literal -1}となります。
+     * @param value フォーマット対象の値。
+     * @param formatPattern Excelの書式。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public DoubleCell(final double value, final String formatPattern) {
+        this(value, formatPattern, false);
+    }
+
+    /**
+     * 値と、書式のインデックス番号、書式を指定するコンストラクタ。
+     * @param value フォーマット対象の値。
+     * @param formatIndex フォーマットのインデックス番号。
+     * @param formatPattern Excelの書式。
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public DoubleCell(final double value, final short formatIndex, final String formatPattern) {
+        this(value, formatIndex, formatPattern, false);
+    }
+
+    /**
+     * 値と書式のインデックス番号を指定するコンストラクタ。
+     * <p>フォーマットの書式は、{@literal null}になります。
+     * @param value フォーマット対象の値。
+     * @param formatIndex 書式のインデックス番号。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     */
+    public DoubleCell(final double value, final short formatIndex, final boolean dateStart1904) {
+        ArgUtils.notMin(formatIndex, (short)0, "formatIndex");
+
+        this.value = value;
+        this.formatIndex = formatIndex;
+        this.formatPattern = null;
+        this.dateStart1904 = dateStart1904;
+    }
+
+    /**
+     * 値とその書式を指定するコンストラクタ。
+     * <p>フォーマットのインデックス番号は、存在しないことを示す{@literal -1}となります。
+     * @param value フォーマット対象の値。
+     * @param formatPattern Excelの書式。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public DoubleCell(final double value, final String formatPattern, final boolean dateStart1904) {
+        ArgUtils.notEmpty(formatPattern, "formatPattern");
+
+        this.value = value;
+        this.formatIndex = (short)-1;
+        this.formatPattern = formatPattern;
+        this.dateStart1904 = dateStart1904;
+    }
+
+    /**
+     * 値と、書式のインデックス番号、書式を指定するコンストラクタ。
+     * @param value フォーマット対象の値。
+     * @param formatIndex フォーマットのインデックス番号。
+     * @param formatPattern Excelの書式。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public DoubleCell(final double value, final short formatIndex, final String formatPattern, final boolean dateStart1904) {
+        ArgUtils.notMin(formatIndex, (short)0, "formatIndex");
+        ArgUtils.notEmpty(formatPattern, "formatPattern");
+
+        this.value = value;
+        this.formatIndex = formatIndex;
+        this.formatPattern = formatPattern;
+        this.dateStart1904 = dateStart1904;
+    }
+
+    /**
+     * 設定した値を取得します。
+     * @return コンストラクタで渡された値。
+     */
+    public double getValue() {
+        return value;
+    }
+
+    @Override
+    public short getFormatIndex() {
+        return formatIndex;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>コンストラクタで指定したフォーマットを返します。
+     */
+    @Override
+    public String getFormatPattern() {
+        return formatPattern;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isText() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public boolean isBoolean() {
+        return false;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>常に{@literal true}を返します。
+     */
+    @Override
+    public boolean isNumber() {
+        return true;
+    }
+
+    /**
+     * このメソッドを呼ぶと{@link IllegalStateException}をスローします。
+     */
+    @Override
+    public String getTextCellValue() {
+        throw new IllegalStateException("not match value type.");
+    }
+
+    /**
+     * このメソッドを呼ぶと{@link IllegalStateException}をスローします。
+     */
+    @Override
+    public boolean getBooleanCellValue() {
+        throw new IllegalStateException("not match value type.");
+    }
+
+    @Override
+    public double getNumberCellValue() {
+        return value;
+    }
+
+    @Override
+    public Date getDateCellValue() {
+        return ExcelDateUtils.convertJavaDate(value, isDateStart1904());
+    }
+
+    @Override
+    public boolean isDateStart1904() {
+        return dateStart1904;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>常に、'A1'を返します。
+     */
+    @Override
+    public String getCellAddress() {
+        return "A1";
+    }
+
+}
@@ -0,0 +1,318 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+
+
+/**
+ * {@link CustomFormatter}で、同じ値をフォーマットした結果の文字列を保持するキャッシュ。
+ * <p>値（数値の場合はビット列、文字列の場合は文字列そのもの）と実行時のロケールをキーとして、
+ *    一致したセクションとフォーマットした文字列を保持します。</p>
+ * <p>保持する件数には上限があり、上限に達した場合は上限の3/4になるまで、参照された頻度の低いものから破棄します。
+ *    頻度が同じ場合は、先に保持したものから破棄します。
+ *    <br>破棄の後には残った全ての頻度を半分にするため、以前に頻繁に参照された値もいずれ破棄の対象になります。</p>
+ * <p>スレッドセーフです。保持する件数は、複数のスレッドから追加する場合でも上限を超えません。
+ *    <br>ただし、参照された頻度は複数のスレッドから同時に更新すると数え漏れがあるため、おおよその値となります。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class FormatMemo {
+
+    /**
+     * キャッシュの対象とする文字列の最大の長さ
+     */
+    static final int MAX_TEXT_LENGTH = 64;
+
+    /**
+     * 保持する件数の上限
+     */
+    private final int maxSize;
+
+    /**
+     * 保持している結果
+     */
+    private final Map<Key, Entry> entries;
+
+    /**
+     * キャッシュから取得できた回数
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * キャッシュから取得できなかった回数
+     */
+    private final LongAdder missCount = new LongAdder();
+
+    /**
+     * 保持した順序。追加と破棄はロックを取得して行うため、同期しない。
+     */
+    private long sequence;
+
+    /**
+     * 保持する件数の上限を指定してインスタンスを作成する。
+     * @param maxSize 保持する件数の上限。
+     * @throws IllegalArgumentException {@literal maxSize < 1}
+     */
+    public FormatMemo(final int maxSize) {
+        ArgUtils.notMin(maxSize, 1, "maxSize");
+        this.maxSize = maxSize;
+        this.entries = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    }
+
+    /**
+     * 数値に対する結果を取得する。
+     * @param value 数値
+     * @param locale 実行時のロケール
+     * @return 保持していない場合はnullを返す。
+     */
+    Entry get(final double value, final Locale locale) {
+        return get(new Key(Double.doubleToLongBits(value), null, locale));
+    }
+
+    /**
+     * 文字列に対する結果を取得する。
+     * @param value 文字列
+     * @param locale 実行時のロケール
+     * @return 保持していない場合はnullを返す。
+     */
+    Entry get(final String value, final Locale locale) {
+        return get(new Key(0L, value, locale));
+    }
+
+    private Entry get(final Key key) {
+        final Entry entry = entries.get(key);
+        if(entry == null) {
+            missCount.increment();
+            return null;
+        }
+
+        hitCount.increment();
+        entry.frequency++;
+        return entry;
+    }
+
+    /**
+     * 数値に対する結果を保持する。
+     * @param value 数値
+     * @param locale 実行時のロケール
+     * @param formatter 一致したセクションのフォーマッタ
+     * @param text フォーマットした文字列
+     * @return 保持した結果
+     */
+    Entry put(final double value, final Locale locale, final ConditionFormatter formatter, final String text) {
+        return put(new Key(Double.doubleToLongBits(value), null, locale), new Entry(formatter, text));
+    }
+
+    /**
+     * 文字列に対する結果を保持する。
+     * @param value 文字列
+     * @param locale 実行時のロケール
+     * @param formatter 一致したセクションのフォーマッタ
+     * @param text フォーマットした文字列
+     * @return 保持した結果
+     */
+    Entry put(final String value, final Locale locale, final ConditionFormatter formatter, final String text) {
+        return put(new Key(0L, value, locale), new Entry(formatter, text));
+    }
+
+    private synchronized Entry put(final Key key, final Entry entry) {
+        if(entries.containsKey(key)) {
+            return entry;
+        }
+
+        if(entries.size() >= maxSize) {
+            evict();
+        }
+        entry.sequence = sequence++;
+        entries.put(key, entry);
+        return entry;
+    }
+
+    /**
+     * 参照された頻度の低いものを破棄する。
+     * <p>上限の3/4以下になるまで、頻度の低いもの、頻度が同じ場合は先に保持したものから破棄し、
+     *    残ったものの頻度を半分にする。
+     * <p>ロックを取得した状態で呼び出すこと。
+     */
+    private void evict() {
+
+        final int threshold = maxSize - Math.max(maxSize / 4, 1);
+        final List<Map.Entry<Key, Entry>> candidates = new ArrayList<>(entries.entrySet());
+        if(candidates.size() <= threshold) {
+            return;
+        }
+
+        // 並び替え中に頻度が更新されないよう、現在の値を控えておく。
+        for(Map.Entry<Key, Entry> candidate : candidates) {
+            final Entry entry = candidate.getValue();
+            entry.snapshot = entry.frequency;
+        }
+        candidates.sort(EVICTION_ORDER);
+
+        final int removeCount = candidates.size() - threshold;
+        for(int i=0; i < removeCount; i++) {
+            entries.remove(candidates.get(i).getKey());
+        }
+
+        for(int i=removeCount; i < candidates.size(); i++) {
+            final Entry entry = candidates.get(i).getValue();
+            entry.frequency = entry.snapshot >>> 1;
+        }
+
+    }
+
+    /**
+     * 破棄する順序。頻度の低いもの、頻度が同じ場合は先に保持したものから破棄する。
+     */
+    private static final Comparator<Map.Entry<Key, Entry>> EVICTION_ORDER = (o1, o2) -> {
+        final Entry e1 = o1.getValue();
+        final Entry e2 = o2.getValue();
+        if(e1.snapshot != e2.snapshot) {
+            return Integer.compare(e1.snapshot, e2.snapshot);
+        }
+        return Long.compare(e1.sequence, e2.sequence);
+    };
+
+    /**
+     * 保持している結果を全て破棄する。
+     * <p>取得できた回数などの統計情報はそのまま残します。
+     */
+    public void clear() {
+        entries.clear();
+    }
+
+    /**
+     * 保持している件数を取得する。
+     * @return 保持している件数
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 保持する件数の上限を取得する。
+     * @return 保持する件数の上限
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * キャッシュから取得できた回数を取得する。
+     * @return キャッシュから取得できた回数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+    /**
+     * キャッシュから取得できなかった回数を取得する。
+     * @return キャッシュから取得できなかった回数
+     */
+    public long getMissCount() {
+        return missCount.sum();
+    }
+
+    /**
+     * キャッシュから取得できた割合を取得する。
+     * @return 0.0～1.0の値。一度も参照していない場合は0.0を返す。
+     */
+    public double getHitRatio() {
+        final long hit = getHitCount();
+        final long total = hit + getMissCount();
+        return total == 0L ? 0.0d : (double) hit / total;
+    }
+
+    /**
+     * キャッシュのキー
+     */
+    private static final class Key {
+
+        /** 数値のビット列 */
+        private final long bits;
+
+        /** 文字列。数値の場合はnull */
+        private final String text;
+
+        /** 実行時のロケール */
+        private final Locale locale;
+
+        private final int hashCode;
+
+        Key(final long bits, final String text, final Locale locale) {
+            this.bits = bits;
+            this.text = text;
+            this.locale = locale;
+
+            int result = Long.hashCode(bits);
+            result = 31 * result + (text == null ? 0 : text.hashCode());
+            result = 31 * result + (locale == null ? 0 : locale.hashCode());
+            this.hashCode = result;
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+
+        @Override
+        public boolean equals(final Object obj) {
+            if(this == obj) {
+                return true;
+            }
+            if(!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key other = (Key) obj;
+            if(bits != other.bits) {
+                return false;
+            }
+            if(text == null ? other.text != null : !text.equals(other.text)) {
+                return false;
+            }
+            return locale == null ? other.locale == null : locale.equals(other.locale);
+        }
+
+    }
+
+    /**
+     * 保持している結果
+     */
+    static final class Entry {
+
+        /** 一致したセクションのフォーマッタ */
+        final ConditionFormatter formatter;
+
+        /** フォーマットした文字列 */
+        final String text;
+
+        /**
+         * 参照された頻度。
+         * <p>複数のスレッドから更新されるため、おおよその値となる。
+         */
+        volatile int frequency = 1;
+
+        /** 保持した順序 */
+        long sequence;
+
+        /** 破棄の際に控えた頻度 */
+        int snapshot;
+
+        Entry(final ConditionFormatter formatter, final String text) {
+            this.formatter = formatter;
+            this.text = text;
+        }
+
+    }
+
+}
@@ -0,0 +1,382 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Arrays;
+import java.util.Date;
+
+import com.github.mygreen.cellformatter.lang.MSColor;
+
+
+/**
+ * 1列分のフォーマット結果を、種類ごとのプリミティブ型の配列で保持するクラス。
+ * <p>{@link CellFormatColumns}から取得します。</p>
+ * <ul>
+ *   <li>値は{@code double}の配列で保持します。日時の場合は{@link CellFormatResult#getValueAsDate()}の
+ *       {@link Date#getTime()}の値、
+ *       ブール値の場合は1または0、エラーの場合はエラーコードを保持します。
+ *       文字列や空セルの場合は{@link Double#NaN}となります。</li>
+ *   <li>フォーマットした文字列は、1つの文字の配列に連結し、行ごとの開始位置を保持します。</li>
+ *   <li>文字色はインデックス番号、セルの種類は{@link FormatCellType}の序数で保持します。</li>
+ *   <li>空セルかどうかは、ビットの配列で保持します。</li>
+ * </ul>
+ * <p>行のインデックス番号は、シート上の位置（0から始まる）で指定します。</p>
+ * <p>配列は、最初に値を設定した行から最後に値を設定した行までの範囲のみ保持します。
+ *    範囲外の行は、物理的に存在しないセルとして扱います。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class FormattedColumn {
+
+    /** セルの種類の一覧 */
+    private static final FormatCellType[] CELL_TYPES = FormatCellType.values();
+
+    /**
+     * 列のインデックス番号
+     */
+    private final int columnIndex;
+
+    /**
+     * 先頭の行のインデックス番号
+     */
+    private final int firstRow;
+
+    /**
+     * 行数
+     */
+    private final int rowCount;
+
+    /**
+     * 配列の初期の要素数
+     */
+    private static final int INITIAL_CAPACITY = 16;
+
+    /**
+     * 配列の先頭に対応する行の位置。値を設定していない場合は-1。
+     */
+    private int dataOffset = -1;
+
+    /**
+     * 配列に保持している行数。最初に値を設定した行から、最後に値を設定した行まで。
+     */
+    private int dataSize;
+
+    /**
+     * 値
+     */
+    private double[] values;
+
+    /**
+     * セルの種類の序数
+     */
+    private byte[] types;
+
+    /**
+     * 文字色のインデックス番号。文字色がない場合は-1。
+     */
+    private short[] colors;
+
+    /**
+     * 空セルでないかどうかのビットの配列
+     */
+    private long[] validity;
+
+    /**
+     * 各行の文字列の開始位置。要素数は保持している行数+1。
+     */
+    private int[] textOffsets;
+
+    /**
+     * 連結した文字列
+     */
+    private char[] textBuffer;
+
+    /**
+     * 連結した文字列の長さ
+     */
+    private int textLength;
+
+    /**
+     * 列の範囲を指定してインスタンスを作成する。
+     * <p>配列は、最初に値を設定したときに作成します。
+     * @param columnIndex 列のインデックス番号
+     * @param firstRow 先頭の行のインデックス番号
+     * @param rowCount 行数
+     */
+    FormattedColumn(final int columnIndex, final int firstRow, final int rowCount) {
+        this.columnIndex = columnIndex;
+        this.firstRow = firstRow;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * セルのフォーマット結果を設定する。
+     * <p>行の順番に設定する必要がある。
+     * @param rowIndex 行のインデックス番号
+     * @param result フォーマット結果
+     */
+    void set(final int rowIndex, final CellFormatResult result) {
+
+        if(dataOffset < 0) {
+            this.dataOffset = rowIndex - firstRow;
+            allocate(Math.min(INITIAL_CAPACITY, rowCount - dataOffset));
+        }
+
+        final int offset = rowIndex - firstRow - dataOffset;
+        if(offset >= values.length) {
+            allocate(Math.min(Math.max(values.length * 2, offset + 1), rowCount - dataOffset));
+        }
+
+        fillTextOffsets(offset);
+
+        final FormatCellType cellType = result.getCellType();
+        types[offset] = (byte) cellType.ordinal();
+        if(cellType != FormatCellType.Blank) {
+            validity[offset >>> 6] |= 1L << offset;
+        }
+
+        final Object value = result.getValue();
+        if(value instanceof Number) {
+            values[offset] = ((Number) value).doubleValue();
+        } else if(value instanceof Date) {
+            // フォーマット用の日時は、デフォルトのタイムゾーン分ずれているため戻す。
+            values[offset] = result.getValueAsDate().getTime();
+        } else if(value instanceof Boolean) {
+            values[offset] = ((Boolean) value) ? 1.0d : 0.0d;
+        }
+
+        if(result.getTextColor() != null) {
+            colors[offset] = result.getTextColor().getIndex();
+        }
+
+        final String text = result.getText();
+        if(text != null) {
+            if(textLength + text.length() > textBuffer.length) {
+                this.textBuffer = Arrays.copyOf(textBuffer, Math.max(textBuffer.length * 2, textLength + text.length()));
+            }
+            text.getChars(0, text.length(), textBuffer, textLength);
+            textLength += text.length();
+        }
+
+        textOffsets[offset + 1] = textLength;
+        this.dataSize = offset + 1;
+    }
+
+    /**
+     * 配列の要素数を変更する。
+     * <p>追加した要素は、空セルの値で初期化する。
+     * @param capacity 変更後の要素数
+     */
+    private void allocate(final int capacity) {
+
+        if(values == null) {
+            this.values = new double[capacity];
+            Arrays.fill(values, Double.NaN);
+            this.types = new byte[capacity];
+            Arrays.fill(types, (byte) FormatCellType.Blank.ordinal());
+            this.colors = new short[capacity];
+            Arrays.fill(colors, (short) -1);
+            this.validity = new long[(capacity + 63) / 64];
+            this.textOffsets = new int[capacity + 1];
+            this.textBuffer = new char[64];
+            return;
+        }
+
+        final int oldCapacity = values.length;
+        this.values = Arrays.copyOf(values, capacity);
+        this.types = Arrays.copyOf(types, capacity);
+        this.colors = Arrays.copyOf(colors, capacity);
+        if(capacity > oldCapacity) {
+            Arrays.fill(values, oldCapacity, capacity, Double.NaN);
+            Arrays.fill(types, oldCapacity, capacity, (byte) FormatCellType.Blank.ordinal());
+            Arrays.fill(colors, oldCapacity, capacity, (short) -1);
+        }
+        this.validity = Arrays.copyOf(validity, (capacity + 63) / 64);
+        this.textOffsets = Arrays.copyOf(textOffsets, capacity + 1);
+    }
+
+    /**
+     * 全ての結果を設定した後に、配列を値を設定した行の範囲に切り詰める。
+     */
+    void complete() {
+        if(values == null) {
+            return;
+        }
+
+        if(values.length > dataSize) {
+            allocate(dataSize);
+        }
+        this.textBuffer = Arrays.copyOf(textBuffer, textLength);
+    }
+
+    /**
+     * 設定していない行の文字列の開始位置を設定する。
+     * @param offset 設定する前の行の位置
+     */
+    private void fillTextOffsets(final int offset) {
+        for(int i=dataSize; i < offset; i++) {
+            textOffsets[i + 1] = textLength;
+        }
+    }
+
+    /**
+     * 配列の位置を取得する。
+     * @param rowIndex 行のインデックス番号
+     * @return 配列の位置。値を保持していない行の場合は-1。
+     * @throws IndexOutOfBoundsException 範囲外の行の場合
+     */
+    private int offsetOf(final int rowIndex) {
+        final int offset = rowIndex - firstRow;
+        if(offset < 0 || offset >= rowCount) {
+            throw new IndexOutOfBoundsException("rowIndex : " + rowIndex);
+        }
+
+        if(dataOffset < 0 || offset < dataOffset || offset - dataOffset >= dataSize) {
+            return -1;
+        }
+        return offset - dataOffset;
+    }
+
+    /**
+     * 値を取得する。
+     * <p>日時の場合は、デフォルトのタイムゾーンの日時として解釈したエポックミリ秒です。
+     *    {@link CellFormatResult#getValueAsDate()}の{@link Date#getTime()}と同じ値になり、
+     *    {@code new Date((long) getValue(rowIndex))}で日時に戻せます。</p>
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @return 文字列や空セルの場合は{@link Double#NaN}を返す。
+     * @throws IndexOutOfBoundsException 範囲外の行の場合
+     */
+    public double getValue(final int rowIndex) {
+        final int offset = offsetOf(rowIndex);
+        return offset < 0 ? Double.NaN : values[offset];
+    }
+
+    /**
+     * フォーマットした文字列を取得する。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @return 空セルの場合は空文字を返す。
+     * @throws IndexOutOfBoundsException 範囲外の行の場合
+     */
+    public String getText(final int rowIndex) {
+        final int offset = offsetOf(rowIndex);
+        if(offset < 0) {
+            return "";
+        }
+        return new String(textBuffer, textOffsets[offset], textOffsets[offset + 1] - textOffsets[offset]);
+    }
+
+    /**
+     * フォーマットした文字列の長さを取得する。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @return 文字列の長さ
+     * @throws IndexOutOfBoundsException 範囲外の行の場合
+     */
+    public int getTextLength(final int rowIndex) {
+        final int offset = offsetOf(rowIndex);
+        return offset < 0 ? 0 : textOffsets[offset + 1] - textOffsets[offset];
+    }
+
+    /**
+     * フォーマットした文字列を、指定した{@link StringBuilder}に追加する。
+     * <p>文字列のインスタンスを作成せずに取得する場合に利用します。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @param sb 追加先
+     * @return 引数で指定した追加先
+     * @throws IndexOutOfBoundsException 範囲外の行の場合
+     */
+    public StringBuilder appendText(final int rowIndex, final StringBuilder sb) {
+        final int offset = offsetOf(rowIndex);
+        if(offset < 0) {
+            return sb;
+        }
+        return sb.append(textBuffer, textOffsets[offset], textOffsets[offset + 1] - textOffsets[offset]);
+    }
+
+    /**
+     * セルの種類を取得する。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @return 物理的に存在しないセルの場合は{@link FormatCellType#Blank}を返す。
+     * @throws IndexOutOfBoundsException 範囲外の行の場合
+     */
+    public FormatCellType getCellType(final int rowIndex) {
+        final int offset = offsetOf(rowIndex);
+        return offset < 0 ? FormatCellType.Blank : CELL_TYPES[types[offset]];
+    }
+
+    /**
+     * 文字色のインデックス番号を取得する。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @return 文字色がない場合は-1を返す。
+     * @throws IndexOutOfBoundsException 範囲外の行の場合
+     */
+    public short getColorIndex(final int rowIndex) {
+        final int offset = offsetOf(rowIndex);
+        return offset < 0 ? -1 : colors[offset];
+    }
+
+    /**
+     * 文字色を取得する。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @return 文字色がない場合はnullを返す。
+     * @throws IndexOutOfBoundsException 範囲外の行の場合
+     */
+    public MSColor getTextColor(final int rowIndex) {
+        final short index = getColorIndex(rowIndex);
+        return index < 0 ? null : MSColor.valueOfIndexColor(index);
+    }
+
+    /**
+     * 空セルでないかどうか。
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @return true:値を持つセルの場合。空セルや、物理的に存在しないセルの場合はfalse。
+     * @throws IndexOutOfBoundsException 範囲外の行の場合
+     */
+    public boolean isValid(final int rowIndex) {
+        final int offset = offsetOf(rowIndex);
+        if(offset < 0) {
+            return false;
+        }
+        return (validity[offset >>> 6] & (1L << offset)) != 0L;
+    }
+
+    /**
+     * 空セルでないセルの数を取得する。
+     * @return 値を持つセルの数
+     */
+    public int getValidCount() {
+        if(validity == null) {
+            return 0;
+        }
+
+        int count = 0;
+        for(long bits : validity) {
+            count += Long.bitCount(bits);
+        }
+        return count;
+    }
+
+    /**
+     * 列のインデックス番号を取得する。
+     * @return 列のインデックス番号（0から始まる）。
+     */
+    public int getColumnIndex() {
+        return columnIndex;
+    }
+
+    /**
+     * 先頭の行のインデックス番号を取得する。
+     * @return 先頭の行のインデックス番号（0から始まる）。
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * 行数を取得する。
+     * @return 物理的に存在しない行も含めた行数。
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+}
@@ -1,20 +1,38 @@
 package com.github.mygreen.cellformatter;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
 import com.github.mygreen.cellformatter.lang.MessageResolver;
+import com.github.mygreen.cellformatter.tokenizer.TokenStore;
 
 
 /**
  * セルのフォーマッタを解決するクラス。
  * <p>解析したフォーマットをキャッシュし、性能を向上する。
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
 public class FormatterResolver {
     
+    private static final Logger logger = LoggerFactory.getLogger(FormatterResolver.class);
+    
     private static final MessageResolver messageResolver = new MessageResolver("com.github.mygreen.cellformatter.format");
     
     /**
@@ -42,6 +60,46 @@ public class FormatterResolver {
      */
     private Map<String, CellFormatter> patternFormatterMap = new ConcurrentHashMap<>();
     
+    /**
+     * 正規化した書式のキーとフォーマッターのマップ
+     */
+    private Map<String, CustomFormatter> canonicalFormatterMap = new ConcurrentHashMap<>();
+    
+    /**
+     * 正規化した書式が同じ場合に、解析済みのフォーマッタを共有するかどうか。
+     */
+    private boolean shareEquivalentFormatter = true;
+    
+    /**
+     * 解析済みのフォーマッタを共有した回数
+     */
+    private final AtomicLong sharedFormatterCount = new AtomicLong();
+    
+    /**
+     * 解析に失敗した書式のパターンとエラーメッセージのマップ
+     */
+    private Map<String, String> failedPatternMap = new ConcurrentHashMap<>();
+    
+    /**
+     * 解析に失敗した書式の場合に、標準の書式{@link CustomFormatter#DEFAULT_FORMATTER}で代替するかどうか。
+     */
+    private boolean fallbackToGeneral = false;
+    
+    /**
+     * 新たに作成したフォーマッタで、値ごとのフォーマット結果をキャッシュする件数の上限。
+     */
+    private int memoSize = 0;
+    
+    /**
+     * 書式の解析に失敗した回数
+     */
+    private final AtomicLong parseFailureCount = new AtomicLong();
+    
+    /**
+     * 解析に失敗した書式を、キャッシュから判定した回数
+     */
+    private final AtomicLong failedPatternHitCount = new AtomicLong();
+    
     /**
      * インスタンスを作成する。
      * <p>ビルドインフォーマットなどのキャッシュ情報を予め登録する。
@@ -63,6 +121,12 @@ public class FormatterResolver {
         // パターン指定の指定のフォーマッタの初期化
         patternFormatterMap.clear();
         
+        // 正規化した書式のフォーマッタの初期化
+        canonicalFormatterMap.clear();
+        
+        // 解析に失敗した書式の初期化
+        failedPatternMap.clear();
+        
     }
     
     /**
@@ -196,14 +260,171 @@ public class FormatterResolver {
     
     /**
      * パターンを指定して新たに書式を作成する。
+     * <p>{@link #isShareEquivalentFormatter()}がtrueの場合、正規化すると同じになる書式を解析済みであれば、
+     *    その解析済みのセクションを共有したフォーマッタを返す。正規化の規則は{@link CustomFormatterFactory#createCanonicalKey(String)}を参照。
+     * <p>解析に失敗した書式は記録しておき、同じ書式に対しては再度解析を行わない。
+     *    <br>{@link #isFallbackToGeneral()}がtrueの場合、解析に失敗した書式は、標準の書式で代替する。
      * @param formatPattern 書式パターン。
      * @return パースしたフォーマッタ。
+     * @throws CustomFormatterParseException 書式が不正な場合にスローされる。
+     *         以前に解析に失敗した書式の場合は、スタックトレースを記録しない。
      */
     public CellFormatter createFormatter(final String formatPattern) {
         
-        final CellFormatter formatter = customFormatterFactory.create(formatPattern);
-        return formatter;
+        final String key = (formatPattern == null ? "" : formatPattern);
+        final String failedMessage = failedPatternMap.get(key);
+        if(failedMessage != null) {
+            failedPatternHitCount.incrementAndGet();
+            if(fallbackToGeneral) {
+                return CustomFormatter.DEFAULT_FORMATTER;
+            }
+            throw new CustomFormatterParseException(formatPattern, failedMessage, false);
+        }
         
+        try {
+            if(!shareEquivalentFormatter) {
+                return applyMemoSize(customFormatterFactory.create(formatPattern));
+            }
+            
+            // 書式の分割は1回のみ行い、キーの作成と解析で共通に使用する。
+            final TokenStore store = customFormatterFactory.tokenize(formatPattern);
+            final String canonicalKey = customFormatterFactory.createCanonicalKey(formatPattern, store);
+            CustomFormatter compiled = canonicalFormatterMap.get(canonicalKey);
+            if(compiled == null) {
+                final CustomFormatter formatter = applyMemoSize(customFormatterFactory.create(formatPattern, store));
+                compiled = canonicalFormatterMap.putIfAbsent(canonicalKey, formatter);
+                if(compiled == null) {
+                    return formatter;
+                }
+            }
+            
+            sharedFormatterCount.incrementAndGet();
+            return applyMemoSize(customFormatterFactory.createShared(formatPattern, store, compiled));
+            
+        } catch(CustomFormatterParseException e) {
+            parseFailureCount.incrementAndGet();
+            failedPatternMap.put(key, String.valueOf(e.getMessage()));
+            
+            if(fallbackToGeneral) {
+                logger.warn("fail parse format pattern '{}', so use general format instead : {}", formatPattern, e.getMessage());
+                return CustomFormatter.DEFAULT_FORMATTER;
+            }
+            
+            throw e;
+        }
+        
+    }
+    
+    /**
+     * 作成したフォーマッタに、値ごとのフォーマット結果をキャッシュする件数の上限を設定する。
+     * @param formatter 作成したフォーマッタ
+     * @return 引数で指定したフォーマッタ
+     */
+    private CustomFormatter applyMemoSize(final CustomFormatter formatter) {
+        if(memoSize > 0) {
+            formatter.setMemoSize(memoSize);
+        }
+        return formatter;
+    }
+    
+    /**
+     * 以前に解析に失敗した書式パターンかどうか。
+     * @since 0.13
+     * @param formatPattern 検証対象の書式パターン。
+     * @return true:解析に失敗した書式パターンとして記録されている場合。
+     */
+    public boolean isFailedPattern(final String formatPattern) {
+        final String key = (formatPattern == null ? "" : formatPattern);
+        return failedPatternMap.containsKey(key);
+    }
+    
+    /**
+     * 書式の解析に失敗した回数を取得する。
+     * <p>記録済みの書式として判定したものは含まない。
+     * @since 0.13
+     * @return 解析に失敗した回数
+     */
+    public long getParseFailureCount() {
+        return parseFailureCount.get();
+    }
+    
+    /**
+     * 解析に失敗した書式を、解析を行わずに記録から判定した回数を取得する。
+     * @since 0.13
+     * @return 記録から判定した回数
+     */
+    public long getFailedPatternHitCount() {
+        return failedPatternHitCount.get();
+    }
+    
+    /**
+     * 正規化した書式が同じであるために、解析を行わずに既存のフォーマッタのセクションを共有した回数を取得する。
+     * @since 0.13
+     * @return 共有した回数
+     */
+    public long getSharedFormatterCount() {
+        return sharedFormatterCount.get();
+    }
+    
+    /**
+     * 正規化した書式が同じ場合に、解析済みのフォーマッタを共有するかどうか。
+     * <p>共有する場合、解析済みのセクションごとのフォーマッタのみを共有し、書式ごとにフォーマッタのインスタンスを作成します。
+     *    そのため、{@link CellFormatter#getPattern()}や、フォーマット結果の{@link CellFormatResult#getSectionPattern()}は、
+     *    元の書式の値となります。</p>
+     * @since 0.13
+     * @return true:共有する。初期値はtrue。
+     */
+    public boolean isShareEquivalentFormatter() {
+        return shareEquivalentFormatter;
+    }
+    
+    /**
+     * 正規化した書式が同じ場合に、解析済みのフォーマッタを共有するかどうかを設定する。
+     * @since 0.13
+     * @param shareEquivalentFormatter true:共有する。
+     */
+    public void setShareEquivalentFormatter(boolean shareEquivalentFormatter) {
+        this.shareEquivalentFormatter = shareEquivalentFormatter;
+    }
+    
+    /**
+     * 解析に失敗した書式の場合に、標準の書式で代替するかどうか。
+     * @since 0.13
+     * @return true:標準の書式で代替する。初期値はfalse。
+     */
+    public boolean isFallbackToGeneral() {
+        return fallbackToGeneral;
+    }
+    
+    /**
+     * 解析に失敗した書式の場合に、標準の書式で代替するかどうかを設定する。
+     * @since 0.13
+     * @param fallbackToGeneral true:標準の書式で代替し、例外をスローしない。
+     */
+    public void setFallbackToGeneral(boolean fallbackToGeneral) {
+        this.fallbackToGeneral = fallbackToGeneral;
+    }
+    
+    /**
+     * 新たに作成したフォーマッタで、値ごとのフォーマット結果をキャッシュする件数の上限を取得する。
+     * @since 0.13
+     * @return キャッシュする件数の上限。初期値は0で、キャッシュしない。
+     */
+    public int getMemoSize() {
+        return memoSize;
+    }
+    
+    /**
+     * 新たに作成したフォーマッタで、値ごとのフォーマット結果をキャッシュする件数の上限を設定する。
+     * <p>設定以降に{@link #createFormatter(String)}で作成したフォーマッタに適用されます。
+     *    日時の書式などキャッシュできないフォーマッタや、標準の書式{@link CustomFormatter#DEFAULT_FORMATTER}には適用されません。</p>
+     * <p>同じ値を含む大量のセルをフォーマットする場合に有効です。
+     *    キャッシュの統計情報は{@link CustomFormatter#getMemo()}で取得できます。</p>
+     * @since 0.13
+     * @param memoSize キャッシュする件数の上限。0以下の場合はキャッシュしない。
+     */
+    public void setMemoSize(int memoSize) {
+        this.memoSize = memoSize;
     }
     
     /**
@@ -226,6 +447,98 @@ public class FormatterResolver {
         return patternFormatterMap.put(formatPattern, cellFormatter);
     }
     
+    /**
+     * 書式パターンを事前に解析し、キャッシュに登録する。
+     * <p>解析は{@link ForkJoinPool#commonPool()}を使用して並列に行う。
+     * @since 0.13
+     * @param formatPatterns 解析対象の書式パターン。
+     * @return 新たにキャッシュに登録したフォーマッタの個数。
+     * @throws IllegalArgumentException formatPatterns is null.
+     */
+    public int precompile(final Collection<String> formatPatterns) {
+        return precompile(formatPatterns, ForkJoinPool.commonPool());
+    }
+    
+    /**
+     * 書式パターンを事前に解析し、キャッシュに登録する。
+     * <p>書式パターンの解析は指定したExecutorで並列に行い、全ての解析が終了した後に一括してキャッシュに登録する。
+     * <p>既にキャッシュに登録されている書式パターンや、解析に失敗した書式パターンは登録しない。
+     * 
+     * @since 0.13
+     * @param formatPatterns 解析対象の書式パターン。
+     * @param executor 解析を行うExecutor。
+     * @return 新たにキャッシュに登録したフォーマッタの個数。
+     * @throws IllegalArgumentException formatPatterns or executor is null.
+     */
+    public int precompile(final Collection<String> formatPatterns, final Executor executor) {
+        ArgUtils.notNull(formatPatterns, "formatPatterns");
+        ArgUtils.notNull(executor, "executor");
+        
+        // 未登録の書式のみを対象とする
+        final Set<String> targets = new LinkedHashSet<>();
+        for(String formatPattern : formatPatterns) {
+            final String key = (formatPattern == null ? "" : formatPattern);
+            if(!canResolve(key)) {
+                targets.add(key);
+            }
+        }
+        
+        if(targets.isEmpty()) {
+            return 0;
+        }
+        
+        final List<CompletableFuture<CellFormatter>> futures = new ArrayList<>(targets.size());
+        for(final String formatPattern : targets) {
+            futures.add(CompletableFuture.supplyAsync(() -> compileQuietly(formatPattern), executor));
+        }
+        
+        final Map<String, CellFormatter> compiled = new LinkedHashMap<>();
+        int index = 0;
+        for(String formatPattern : targets) {
+            final CellFormatter formatter = futures.get(index++).join();
+            if(formatter != null) {
+                compiled.put(formatPattern, formatter);
+            }
+        }
+        
+        return registerFormatters(compiled);
+    }
+    
+    /**
+     * 書式パターンを解析する。
+     * @param formatPattern 書式パターン
+     * @return 解析に失敗した場合はnullを返す。
+     */
+    private CellFormatter compileQuietly(final String formatPattern) {
+        
+        try {
+            return createFormatter(formatPattern);
+            
+        } catch(CustomFormatterParseException e) {
+            logger.warn("fail precompile format pattern '{}' : {}", formatPattern, e.getMessage());
+            return null;
+        }
+        
+    }
+    
+    /**
+     * 書式パターンとフォーマッタを一括してキャッシュに登録する。
+     * <p>既に登録されている書式パターンは上書きしない。
+     * @param formatters 書式パターンとフォーマッタのマップ
+     * @return 新たに登録したフォーマッタの個数
+     */
+    private synchronized int registerFormatters(final Map<String, CellFormatter> formatters) {
+        
+        int count = 0;
+        for(Map.Entry<String, CellFormatter> entry : formatters.entrySet()) {
+            if(patternFormatterMap.putIfAbsent(entry.getKey(), entry.getValue()) == null) {
+                count++;
+            }
+        }
+        
+        return count;
+    }
+    
     /**
      * 書式パターンを解析して、{@link CellFormatter}のインスタンスを作成するクラスの取得。
      * @return デフォルトは標準のクラスが設定されています。
@@ -241,5 +554,9 @@ public class FormatterResolver {
      */
     public void setCustomFormatterFactory(CustomFormatterFactory customFormatterFactory) {
         this.customFormatterFactory = customFormatterFactory;
+        
+        // 解析の結果が変わるため、正規化した書式と失敗した書式の記録を初期化する
+        canonicalFormatterMap.clear();
+        failedPatternMap.clear();
     }
 }
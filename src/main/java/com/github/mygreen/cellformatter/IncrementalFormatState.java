@@ -0,0 +1,468 @@
+package com.github.mygreen.cellformatter;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.MSColor;
+
+
+/**
+ * シートを差分のみフォーマットするための、前回の実行結果を保持するクラス。
+ * <p>{@link POICellFormatter#formatSheet(org.apache.poi.ss.usermodel.Sheet, Locale, IncrementalFormatState)}に渡すと、
+ *    行ごとに、セルの値とスタイルのインデックス番号からフィンガープリントを算出し、
+ *    前回の実行時と一致する行は、保持しているフォーマット結果を使用します。
+ *    一致しない行のみフォーマットし、実行後は今回の結果で置き換えます。</p>
+ * <p>{@link #save(Path)}でファイルに保存し、{@link #load(Path)}で読み込むことで、
+ *    同じワークブックの新しい版を、別のプロセスで処理する場合にも使用できます。
+ *    <br>1つのインスタンスは、1つのシートに対して使用します。</p>
+ * <p>状態を持つため、スレッドセーフではありません。</p>
+ *
+ * <pre class="highlight"><code class="java">
+ * POICellFormatter cellFormatter = new POICellFormatter();
+ * Path stateFile = Paths.get("sales.state");
+ *
+ * IncrementalFormatState state = IncrementalFormatState.load(stateFile);
+ * CellFormatGrid grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE, state);
+ * state.save(stateFile);
+ *
+ * System.out.printf("reused=%d, formatted=%d%n", state.getReusedRowCount(), state.getFormattedRowCount());
+ * </code></pre>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class IncrementalFormatState {
+
+    /** ファイルの識別子 */
+    private static final int MAGIC = 0x43464953;
+
+    /** ファイルの形式のバージョン */
+    private static final int VERSION = 1;
+
+    /** 値の種類 - null */
+    private static final byte VALUE_NULL = 0;
+
+    /** 値の種類 - 数値 */
+    private static final byte VALUE_DOUBLE = 1;
+
+    /** 値の種類 - 日時 */
+    private static final byte VALUE_DATE = 2;
+
+    /** 値の種類 - 文字列 */
+    private static final byte VALUE_STRING = 3;
+
+    /** 値の種類 - ブール値 */
+    private static final byte VALUE_BOOLEAN = 4;
+
+    /** 値の種類 - エラーコード */
+    private static final byte VALUE_BYTE = 5;
+
+    /** 値の種類 - 整数。JExcelAPIのエラーコードなど */
+    private static final byte VALUE_INT = 6;
+
+    /** 値の種類 - 長整数 */
+    private static final byte VALUE_LONG = 7;
+
+    /** 値の種類 - 短整数 */
+    private static final byte VALUE_SHORT = 8;
+
+    /** 値の種類 - 単精度の数値 */
+    private static final byte VALUE_FLOAT = 9;
+
+    /**
+     * フォーマットしたロケール。一度も実行していない場合はnull。
+     */
+    private Locale locale;
+
+    /**
+     * シート全体に影響する情報のフィンガープリント
+     */
+    private long sheetFingerprint;
+
+    /**
+     * 行のインデックス番号をキーとした、行ごとの結果
+     */
+    private Map<Integer, RowRecord> rows = new HashMap<>();
+
+    /**
+     * 前回の実行で、保持している結果を使用した行数
+     */
+    private int reusedRowCount;
+
+    /**
+     * 前回の実行で、フォーマットした行数
+     */
+    private int formattedRowCount;
+
+    /**
+     * 結果を保持していない状態のインスタンスを作成する。
+     */
+    public IncrementalFormatState() {
+    }
+
+    /**
+     * ファイルから読み込む。
+     * @param file 読み込むファイル。
+     * @return ファイルが存在しない場合は、結果を保持していない状態のインスタンスを返す。
+     * @throws IllegalArgumentException {@literal file == null.}
+     * @throws IOException ファイルの読み込みに失敗した場合や、形式が異なる場合。
+     */
+    public static IncrementalFormatState load(final Path file) throws IOException {
+        ArgUtils.notNull(file, "file");
+
+        if(!Files.exists(file)) {
+            return new IncrementalFormatState();
+        }
+
+        try(InputStream in = Files.newInputStream(file)) {
+            return read(in);
+        }
+    }
+
+    /**
+     * ストリームから読み込む。
+     * @param in 読み込むストリーム。クローズはしません。
+     * @return 読み込んだインスタンス
+     * @throws IllegalArgumentException {@literal in == null.}
+     * @throws IOException 読み込みに失敗した場合や、形式が異なる場合。
+     */
+    public static IncrementalFormatState read(final InputStream in) throws IOException {
+        ArgUtils.notNull(in, "in");
+
+        final DataInputStream input = new DataInputStream(new BufferedInputStream(in));
+        if(input.readInt() != MAGIC) {
+            throw new IOException("not incremental format state.");
+        }
+
+        final int version = input.readInt();
+        if(version != VERSION) {
+            throw new IOException(String.format("unsupported version %d.", version));
+        }
+
+        final IncrementalFormatState state = new IncrementalFormatState();
+        final String languageTag = readString(input);
+        state.locale = languageTag != null ? Locale.forLanguageTag(languageTag) : null;
+        state.sheetFingerprint = input.readLong();
+
+        final int rowCount = input.readInt();
+        for(int i=0; i < rowCount; i++) {
+            final int rowIndex = input.readInt();
+            final long fingerprint = input.readLong();
+            final int firstColumn = input.readInt();
+            final CellFormatResult[] results = new CellFormatResult[input.readInt()];
+            for(int j=0; j < results.length; j++) {
+                results[j] = readResult(input);
+            }
+            state.rows.put(rowIndex, new RowRecord(fingerprint, firstColumn, results));
+        }
+
+        return state;
+    }
+
+    /**
+     * ファイルに保存する。
+     * @param file 保存先のファイル。既に存在する場合は上書きします。
+     * @throws IllegalArgumentException {@literal file == null.}
+     * @throws IOException 書き込みに失敗した場合。
+     */
+    public void save(final Path file) throws IOException {
+        ArgUtils.notNull(file, "file");
+
+        try(OutputStream out = Files.newOutputStream(file)) {
+            write(out);
+        }
+    }
+
+    /**
+     * ストリームに書き込む。
+     * @param out 書き込み先のストリーム。クローズはしません。
+     * @throws IllegalArgumentException {@literal out == null.}
+     * @throws IOException 書き込みに失敗した場合。
+     */
+    public void write(final OutputStream out) throws IOException {
+        ArgUtils.notNull(out, "out");
+
+        final DataOutputStream output = new DataOutputStream(new BufferedOutputStream(out));
+        output.writeInt(MAGIC);
+        output.writeInt(VERSION);
+        writeString(output, locale != null ? locale.toLanguageTag() : null);
+        output.writeLong(sheetFingerprint);
+
+        output.writeInt(rows.size());
+        for(Map.Entry<Integer, RowRecord> entry : rows.entrySet()) {
+            final RowRecord record = entry.getValue();
+            output.writeInt(entry.getKey());
+            output.writeLong(record.fingerprint);
+            output.writeInt(record.firstColumn);
+            output.writeInt(record.results.length);
+            for(CellFormatResult result : record.results) {
+                writeResult(output, result);
+            }
+        }
+
+        output.flush();
+    }
+
+    /**
+     * 保持している結果を破棄する。
+     */
+    public void clear() {
+        this.locale = null;
+        this.sheetFingerprint = 0L;
+        this.rows = new HashMap<>();
+        this.reusedRowCount = 0;
+        this.formattedRowCount = 0;
+    }
+
+    /**
+     * 保持している結果の行数を取得する。
+     * @return 行数
+     */
+    public int getRowCount() {
+        return rows.size();
+    }
+
+    /**
+     * 前回の実行で、保持している結果を使用した行数を取得する。
+     * @return 行数
+     */
+    public int getReusedRowCount() {
+        return reusedRowCount;
+    }
+
+    /**
+     * 前回の実行で、フォーマットした行数を取得する。
+     * <p>値やスタイルが変わった行と、追加された行の合計です。
+     * @return 行数
+     */
+    public int getFormattedRowCount() {
+        return formattedRowCount;
+    }
+
+    /**
+     * 保持している結果が、シートとロケールに対して使用できるかどうか。
+     * @param locale フォーマットするロケール
+     * @param sheetFingerprint シート全体に影響する情報のフィンガープリント
+     * @return true:使用できる場合。
+     */
+    boolean isCompatible(final Locale locale, final long sheetFingerprint) {
+        return locale.equals(this.locale) && this.sheetFingerprint == sheetFingerprint;
+    }
+
+    /**
+     * 行の結果を取得する。
+     * @param rowIndex 行のインデックス番号
+     * @param fingerprint 現在の行のフィンガープリント
+     * @return フィンガープリントが一致する場合は、保持している結果。それ以外はnull。
+     */
+    RowRecord getRow(final int rowIndex, final long fingerprint) {
+        final RowRecord record = rows.get(rowIndex);
+        return record != null && record.fingerprint == fingerprint ? record : null;
+    }
+
+    /**
+     * 今回の実行結果で置き換える。
+     * @param locale フォーマットしたロケール
+     * @param sheetFingerprint シート全体に影響する情報のフィンガープリント
+     * @param rows 行ごとの結果
+     * @param reusedRowCount 保持している結果を使用した行数
+     * @param formattedRowCount フォーマットした行数
+     */
+    void update(final Locale locale, final long sheetFingerprint, final Map<Integer, RowRecord> rows,
+            final int reusedRowCount, final int formattedRowCount) {
+        this.locale = locale;
+        this.sheetFingerprint = sheetFingerprint;
+        this.rows = rows;
+        this.reusedRowCount = reusedRowCount;
+        this.formattedRowCount = formattedRowCount;
+    }
+
+    private static void writeString(final DataOutputStream output, final String value) throws IOException {
+        if(value == null) {
+            output.writeInt(-1);
+            return;
+        }
+
+        // writeUTFは64KBまでのため、長さとバイト列で書き込む。
+        final byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    private static String readString(final DataInputStream input) throws IOException {
+        final int length = input.readInt();
+        if(length < 0) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+        input.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeResult(final DataOutputStream output, final CellFormatResult result) throws IOException {
+        if(result == null) {
+            output.writeByte(-1);
+            return;
+        }
+
+        output.writeByte(result.getCellType().ordinal());
+        writeString(output, result.getText());
+        writeString(output, result.getSectionPattern());
+        output.writeShort(result.getTextColor() != null ? result.getTextColor().getIndex() : -1);
+
+        // 値は、実際の型ごとに書き込み、読み込んだときに同じ型となるようにする。
+        final Object value = result.getValue();
+        if(value == null) {
+            output.writeByte(VALUE_NULL);
+
+        } else if(value instanceof Integer) {
+            output.writeByte(VALUE_INT);
+            output.writeInt((Integer) value);
+
+        } else if(value instanceof Long) {
+            output.writeByte(VALUE_LONG);
+            output.writeLong((Long) value);
+
+        } else if(value instanceof Short) {
+            output.writeByte(VALUE_SHORT);
+            output.writeShort((Short) value);
+
+        } else if(value instanceof Float) {
+            output.writeByte(VALUE_FLOAT);
+            output.writeFloat((Float) value);
+
+        } else if(value instanceof Number && !(value instanceof Byte)) {
+            // POIのセルの値はDoubleのため、その他の数値は数値として保持する。
+            output.writeByte(VALUE_DOUBLE);
+            output.writeDouble(((Number) value).doubleValue());
+
+        } else if(value instanceof Date) {
+            output.writeByte(VALUE_DATE);
+            output.writeLong(((Date) value).getTime());
+
+        } else if(value instanceof Boolean) {
+            output.writeByte(VALUE_BOOLEAN);
+            output.writeBoolean((Boolean) value);
+
+        } else if(value instanceof Byte) {
+            output.writeByte(VALUE_BYTE);
+            output.writeByte((Byte) value);
+
+        } else {
+            output.writeByte(VALUE_STRING);
+            writeString(output, value.toString());
+        }
+    }
+
+    private static CellFormatResult readResult(final DataInputStream input) throws IOException {
+        final int type = input.readByte();
+        if(type < 0) {
+            return null;
+        }
+
+        final FormatCellType[] cellTypes = FormatCellType.values();
+        if(type >= cellTypes.length) {
+            throw new IOException(String.format("unknown cell type %d.", type));
+        }
+
+        final CellFormatResult result = new CellFormatResult();
+        result.setCellType(cellTypes[type]);
+        result.setText(readString(input));
+        result.setSectionPattern(readString(input));
+
+        final short colorIndex = input.readShort();
+        if(colorIndex >= 0) {
+            result.setTextColor(toColor(colorIndex));
+        }
+
+        final byte valueType = input.readByte();
+        switch(valueType) {
+            case VALUE_NULL:
+                break;
+            case VALUE_DOUBLE:
+                result.setValue(input.readDouble());
+                break;
+            case VALUE_DATE:
+                result.setValue(new Date(input.readLong()));
+                break;
+            case VALUE_STRING:
+                result.setValue(readString(input));
+                break;
+            case VALUE_BOOLEAN:
+                result.setValue(input.readBoolean());
+                break;
+            case VALUE_BYTE:
+                result.setValue(input.readByte());
+                break;
+            case VALUE_INT:
+                result.setValue(input.readInt());
+                break;
+            case VALUE_LONG:
+                result.setValue(input.readLong());
+                break;
+            case VALUE_SHORT:
+                result.setValue(input.readShort());
+                break;
+            case VALUE_FLOAT:
+                result.setValue(input.readFloat());
+                break;
+            default:
+                throw new IOException(String.format("unknown value type %d.", valueType));
+        }
+
+        return CellFormatResult.unmodifiable(result);
+    }
+
+    private static MSColor toColor(final short index) {
+        for(MSColor color : MSColor.KNOWN_COLORS) {
+            if(color.getIndex() == index) {
+                return color;
+            }
+        }
+        return new MSColor(index);
+    }
+
+    /**
+     * 行ごとの結果。
+     */
+    static final class RowRecord {
+
+        /**
+         * 行のフィンガープリント
+         */
+        final long fingerprint;
+
+        /**
+         * 結果の先頭の列のインデックス番号
+         */
+        final int firstColumn;
+
+        /**
+         * 変更不可のフォーマット結果。物理的に存在しないセルはnull。
+         */
+        final CellFormatResult[] results;
+
+        RowRecord(final long fingerprint, final int firstColumn, final CellFormatResult[] results) {
+            this.fingerprint = fingerprint;
+            this.firstColumn = firstColumn;
+            this.results = results;
+        }
+
+    }
+
+}
@@ -26,7 +26,7 @@ import jxl.format.Format;
 /**
  * JExcel APIのラッパークラス。
  * 
- * @version 0.6
+ * @version 0.13
  * @since 0.4
  * @author T.TSUCHIE
  *
@@ -34,7 +34,7 @@ import jxl.format.Format;
 public class JXLCell implements CommonCell {
     
     /** 日付の始まりが1904年開始かどうか */
-    private final boolean dateStart1904;
+    private boolean dateStart1904;
     
     /**
      * 変換対象の組み込みフォーマット
@@ -68,7 +68,7 @@ public class JXLCell implements CommonCell {
         BUILT_IN_FORMATS.put((short)46, "[h]:mm:ss");
     }
     
-    private final Cell cell;
+    private Cell cell;
     
     /**
      * セルを渡してインスタンスを作成する。
@@ -83,6 +83,27 @@ public class JXLCell implements CommonCell {
         this.dateStart1904 = dateStart1904;
     }
     
+    /**
+     * セルを指定せずにインスタンスを作成する。
+     * <p>対象のセルを入れ替えて使い回すサブクラス用。
+     * @since 0.13
+     */
+    protected JXLCell() {
+    }
+    
+    /**
+     * フォーマット対象のセルを入れ替える。
+     * @since 0.13
+     * @param cell フォーマット対象のセルのインスタンス。
+     * @param dateStart1904 日付の開始が1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    protected void setCell(final Cell cell, final boolean dateStart1904) {
+        ArgUtils.notNull(cell, "cell");
+        this.cell = cell;
+        this.dateStart1904 = dateStart1904;
+    }
+    
     /**
      * JExcelAPIの元々のセルのインスタンスを取得する。
      * @return
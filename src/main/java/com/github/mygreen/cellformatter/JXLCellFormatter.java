@@ -1,6 +1,9 @@
 package com.github.mygreen.cellformatter;
 
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.Locale;
+import java.util.Map;
 
 import com.github.mygreen.cellformatter.lang.ArgUtils;
 import com.github.mygreen.cellformatter.lang.JXLUtils;
@@ -64,13 +67,33 @@ import jxl.ErrorCell;
  *   </li>
  * </ul> 
  * 
- * @version 0.6
+ * @version 0.13
  * @since 0.4
  * @author T.TSUCHIE
  *
  */
 public class JXLCellFormatter {
     
+    /**
+     * Excelのエラーコード。
+     * <p>エラーコードについては、POIクラスを参照。
+     * <ul>
+     *  <li>org.apache.poi.ss.usermodel.FormulaError</li>
+     *  <li>org.apache.poi.ss.usermodel.ErrorConstants</li>
+     * </ul>
+     */
+    private static final int[] ERROR_CODES = {7, 42, 29, 0, 36, 23, 15};
+    
+    /**
+     * エラーコードごとの共有の結果。値はエラーの文字列表現。
+     */
+    private static final Map<Integer, CellFormatResult> ERROR_RESULTS = createErrorResults(false);
+    
+    /**
+     * エラーコードごとの共有の結果。値は空文字。
+     */
+    private static final Map<Integer, CellFormatResult> EMPTY_ERROR_RESULTS = createErrorResults(true);
+    
     private FormatterResolver formatterResolver = new FormatterResolver();
     
     /**
@@ -83,6 +106,11 @@ public class JXLCellFormatter {
      */
     private boolean errorCellAsEmpty = false;
     
+    /**
+     * フォーマットした文字列の作成を遅延させるかどうか。
+     */
+    private boolean lazyText = false;
+    
     /**
      * セルの値をフォーマットし、文字列として取得する
      * @param cell フォーマット対象のセル
@@ -139,36 +167,125 @@ public class JXLCellFormatter {
      */
     public CellFormatResult format(final Cell cell, final Locale locale, final boolean isStartDate1904) {        
         ArgUtils.notNull(cell, "cell");
+        return formatCell(cell, locale, isStartDate1904, null, null, false);
+    }
+    
+    /**
+     * 使い回すセルのラッパーを指定して、セルの値をフォーマットし、文字列として取得する
+     * @since 0.13
+     * @param cell フォーマット対象のセル
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param isStartDate1904 ファイルの設定が1904年始まりかどうか。
+     *        {@link JXLUtils#isDateStart1904(jxl.Sheet)}で値を調べます。
+     * @param adapter フォーマット中に使用するセルのラッパー。呼び出し元で保持しているインスタンスを指定します。
+     * @return フォーマットしたセルの値。
+     * @throws IllegalArgumentException cell or adapter is null.
+     */
+    public String formatAsString(final Cell cell, final Locale locale, final boolean isStartDate1904, final ReusableJXLCell adapter) {
+        return format(cell, locale, isStartDate1904, adapter).getText();
+    }
+    
+    /**
+     * 使い回すセルのラッパーを指定して、セルの値をフォーマットする。
+     * <p>セルごとにラッパーのインスタンスを作成しないため、大量のセルを処理する場合に利用します。
+     * <p>ラッパーはスレッドセーフではないため、スレッドごとに異なるインスタンスを指定する必要があります。
+     * @since 0.13
+     * @param cell フォーマット対象のセル
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param isStartDate1904 ファイルの設定が1904年始まりかどうか。
+     *        {@link JXLUtils#isDateStart1904(jxl.Sheet)}で値を調べます。
+     * @param adapter フォーマット中に使用するセルのラッパー。呼び出し元で保持しているインスタンスを指定します。
+     * @return フォーマットしたセルの値。
+     * @throws IllegalArgumentException cell or adapter is null.
+     */
+    public CellFormatResult format(final Cell cell, final Locale locale, final boolean isStartDate1904, final ReusableJXLCell adapter) {
+        ArgUtils.notNull(cell, "cell");
+        ArgUtils.notNull(adapter, "adapter");
+        return formatCell(cell, locale, isStartDate1904, adapter, null, false);
+    }
+    
+    /**
+     * セルの値をフォーマットし、呼び出し元が保持する結果に格納する。
+     * <p>格納先のインスタンスを使い回すことで、セルごとに{@link CellFormatResult}を作成せずにフォーマットします。
+     * @since 0.13
+     * @param cell フォーマット対象のセル
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param isStartDate1904 ファイルの設定が1904年始まりかどうか。
+     *        {@link JXLUtils#isDateStart1904(jxl.Sheet)}で値を調べます。
+     * @param target フォーマット結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。
+     * @throws IllegalArgumentException cell or target is null.
+     */
+    public CellFormatResult format(final Cell cell, final Locale locale, final boolean isStartDate1904, final CellFormatResult target) {
+        ArgUtils.notNull(cell, "cell");
+        ArgUtils.notNull(target, "target");
+        
+        final CellFormatResult result = formatCell(cell, locale, isStartDate1904, null, target, false);
+        if(result == target) {
+            return target;
+        }
+        
+        // 空セルやエラーセルなどの共有の結果の場合
+        return target.copyFrom(result);
+    }
+    
+    /**
+     * セルの値を分類する。
+     * <p>セルの種類や値、一致したセクションの書式、文字色のみを決定し、フォーマットした文字列は作成しません。
+     *    <br>書式の色で負の数を判定する場合や、日付の列を判定する場合など、文字列が不要な場合に利用します。</p>
+     * @since 0.13
+     * @param cell 分類対象のセル
+     * @param locale 分類するロケール。nullでも可能。
+     * @param isStartDate1904 ファイルの設定が1904年始まりかどうか。
+     *        {@link JXLUtils#isDateStart1904(jxl.Sheet)}で値を調べます。
+     * @return 分類した結果。{@link CellFormatResult#getText()}はnullを返します。
+     *         ただし、空セルやエラーセルの場合は、共有の結果を返します。
+     * @throws IllegalArgumentException cell is null.
+     */
+    public CellFormatResult classify(final Cell cell, final Locale locale, final boolean isStartDate1904) {
+        ArgUtils.notNull(cell, "cell");
+        return formatCell(cell, locale, isStartDate1904, null, null, true);
+    }
+    
+    /**
+     * セルの値をフォーマットする。
+     * @param cell フォーマット対象のセル
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @param isStartDate1904 ファイルの設定が1904年始まりかどうか。
+     * @param adapter 使い回すセルのラッパー。nullの場合は、インスタンスを作成する。
+     * @param target フォーマット結果の格納先。nullの場合は、インスタンスを作成する。
+     * @param classify 文字列を作成せずに分類のみを行うかどうか。
+     * @return フォーマットしたセルの値。空セルやエラーセルの場合は、格納先に関わらず共有の結果を返す。
+     */
+    private CellFormatResult formatCell(final Cell cell, final Locale locale, final boolean isStartDate1904,
+            final ReusableJXLCell adapter, final CellFormatResult target, final boolean classify) {
         
         final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
         final CellType cellType = cell.getType();
         
         if(cellType == CellType.EMPTY) {
-            final CellFormatResult result = new CellFormatResult();
-            result.setCellType(FormatCellType.Blank);
-            result.setText("");
-            return result;
+            return CellFormatResult.BLANK;
             
         } else if(cellType == CellType.LABEL || cellType == CellType.STRING_FORMULA) {
-            return getCellValue(cell, runtimeLocale, isStartDate1904);
+            return getCellValue(cell, runtimeLocale, isStartDate1904, adapter, target, classify);
             
         } else if(cellType == CellType.BOOLEAN || cellType == CellType.BOOLEAN_FORMULA) {
-            return getCellValue(cell, runtimeLocale, isStartDate1904);
+            return getCellValue(cell, runtimeLocale, isStartDate1904, adapter, target, classify);
         
         } else if(cellType == CellType.ERROR || cellType == CellType.FORMULA_ERROR) {
             return getErrorCellValue(cell, runtimeLocale, isStartDate1904);
             
         } else if(cellType == CellType.DATE || cellType == CellType.DATE_FORMULA) {
-            return getCellValue(cell, runtimeLocale, isStartDate1904);
+            return getCellValue(cell, runtimeLocale, isStartDate1904, adapter, target, classify);
             
         } else if(cellType == CellType.NUMBER || cellType == CellType.NUMBER_FORMULA) {
-            return getCellValue(cell, runtimeLocale, isStartDate1904);
+            return getCellValue(cell, runtimeLocale, isStartDate1904, adapter, target, classify);
             
         } else {
-            final CellFormatResult result = new CellFormatResult();
-            result.setCellType(FormatCellType.Unknown);
-            result.setText("");
-            return result;
+            return CellFormatResult.UNKNOWN;
         }
         
     }
@@ -184,66 +301,78 @@ public class JXLCellFormatter {
      */
     private CellFormatResult getErrorCellValue(final Cell cell, final Locale locale, final boolean isStartDate1904) {
         
-        final CellFormatResult result = new CellFormatResult();
-        result.setCellType(FormatCellType.Error);
-        
         final ErrorCell errorCell = (ErrorCell) cell;
         final int errorCode = errorCell.getErrorCode();
-        result.setValue(errorCode);
         
-        if(isErrorCellAsEmpty()) {
-            result.setText("");
-            
-        } else {
-            /*
-             * エラーコードについては、POIクラスを参照。
-             * ・org.apache.poi.ss.usermodel.FormulaError
-             * ・org.apache.poi.ss.usermodel.ErrorConstants
-             */
-            switch(errorCode) {
-                case 7:
-                    // 0除算
-                    result.setText("#DIV/0!");
-                    break;
-                    
-                case 42:
-                    // 関数や数式に使用できる値がない
-                    result.setText("#N/A");
-                    break;
-                    
-                case 29:
-                    // 数式が参照している名称がない
-                    result.setText("#NAME?");
-                    break;
-                    
-                case 0:
-                    // 正しくない参照演算子または正しくないセル参照を使っている
-                    result.setText("#NULL!");
-                    break;
-                    
-                case 36:
-                    // 数式または関数の数値が不適切
-                    result.setText("#NUM!");
-                    break;
-                    
-                case 23:
-                    // 数式が参照しているセルがない
-                    result.setText("#REF!");
-                    break;
-                    
-                case 15:
-                    // 文字列が正しいデータ型に変換されない
-                    result.setText("#VALUE!");
-                    break;
-                    
-                default:
-                    result.setText("");
-                    break;
-            }
-            
+        // 0.13から、エラーコードごとに共有の結果を返す。
+        final Map<Integer, CellFormatResult> results = isErrorCellAsEmpty() ? EMPTY_ERROR_RESULTS : ERROR_RESULTS;
+        final CellFormatResult result = results.get(errorCode);
+        if(result != null) {
+            return result;
         }
         
-        return result;
+        // 未知のエラーコードの場合
+        return CellFormatResult.unmodifiable(FormatCellType.Error, errorCode, "");
+        
+    }
+    
+    /**
+     * エラーコードごとの共有の結果を作成する。
+     * @since 0.13
+     * @param asEmpty 空文字として結果を作成するかどうか。
+     * @return エラーコードをキーとした結果。
+     */
+    private static Map<Integer, CellFormatResult> createErrorResults(final boolean asEmpty) {
+        
+        final Map<Integer, CellFormatResult> results = new HashMap<>();
+        for(int errorCode : ERROR_CODES) {
+            results.put(errorCode, CellFormatResult.unmodifiable(
+                    FormatCellType.Error, errorCode, asEmpty ? "" : getErrorText(errorCode)));
+        }
+        
+        return Collections.unmodifiableMap(results);
+    }
+    
+    /**
+     * エラーコードに対する文字列表現を取得する。
+     * @since 0.13
+     * @param errorCode エラーコード
+     * @return 未知のエラーコードの場合は空文字を返す。
+     */
+    private static String getErrorText(final int errorCode) {
+        
+        switch(errorCode) {
+            case 7:
+                // 0除算
+                return "#DIV/0!";
+                
+            case 42:
+                // 関数や数式に使用できる値がない
+                return "#N/A";
+                
+            case 29:
+                // 数式が参照している名称がない
+                return "#NAME?";
+                
+            case 0:
+                // 正しくない参照演算子または正しくないセル参照を使っている
+                return "#NULL!";
+                
+            case 36:
+                // 数式または関数の数値が不適切
+                return "#NUM!";
+                
+            case 23:
+                // 数式が参照しているセルがない
+                return "#REF!";
+                
+            case 15:
+                // 文字列が正しいデータ型に変換されない
+                return "#VALUE!";
+                
+            default:
+                return "";
+        }
         
     }
     
@@ -252,21 +381,25 @@ public class JXLCellFormatter {
      * @param cell フォーマット対象のセル
      * @param locale ロケール
      * @param isStartDate1904 1904年始まりかどうか。
+     * @param adapter 使い回すセルのラッパー。nullの場合は、インスタンスを作成する。
+     * @param target フォーマット結果の格納先。nullの場合は、インスタンスを作成する。
+     * @param classify 文字列を作成せずに分類のみを行うかどうか。
      * @return
      */
-    private CellFormatResult getCellValue(final Cell cell, final Locale locale, final boolean isStartDate1904) {
+    private CellFormatResult getCellValue(final Cell cell, final Locale locale, final boolean isStartDate1904,
+            final ReusableJXLCell adapter, final CellFormatResult target, final boolean classify) {
         
-        final JXLCell jxlCell = new JXLCell(cell, isStartDate1904);
+        final JXLCell jxlCell = adapter != null ? adapter.bind(cell, isStartDate1904) : new JXLCell(cell, isStartDate1904);
         final short formatIndex = jxlCell.getFormatIndex();
         final String formatPattern = jxlCell.getFormatPattern();
         
         if(formatterResolver.canResolve(formatIndex)) {
             final CellFormatter cellFormatter = formatterResolver.getFormatter(formatIndex);
-            return cellFormatter.format(jxlCell, locale);
+            return format(cellFormatter, jxlCell, locale, target, classify);
             
         } else if(formatterResolver.canResolve(formatPattern)) {
             final CellFormatter cellFormatter = formatterResolver.getFormatter(formatPattern);
-            return cellFormatter.format(jxlCell, locale);
+            return format(cellFormatter, jxlCell, locale, target, classify);
             
         } else {
             // キャッシュに登録する。
@@ -274,12 +407,37 @@ public class JXLCellFormatter {
             if(isCache()) {
                 formatterResolver.registerFormatter(formatPattern, cellFormatter);
             }
-            return cellFormatter.format(jxlCell, locale);
+            return format(cellFormatter, jxlCell, locale, target, classify);
             
         }
         
     }
     
+    /**
+     * フォーマッタでセルの値をフォーマットする。
+     * @param cellFormatter フォーマッタ
+     * @param cell フォーマット対象のセル
+     * @param locale ロケール
+     * @param target フォーマット結果の格納先。nullの場合は、インスタンスを作成する。
+     * @param classify 文字列を作成せずに分類のみを行うかどうか。
+     * @return フォーマットした結果
+     */
+    private CellFormatResult format(final CellFormatter cellFormatter, final CommonCell cell, final Locale locale,
+            final CellFormatResult target, final boolean classify) {
+        
+        if(classify) {
+            return cellFormatter.classify(cell, locale, target != null ? target : new CellFormatResult());
+            
+        } else if(isLazyText()) {
+            return cellFormatter.formatLazily(cell, locale, target != null ? target : new CellFormatResult());
+            
+        } else if(target != null) {
+            return cellFormatter.format(cell, locale, target);
+        }
+        
+        return cellFormatter.format(cell, locale);
+    }
+    
     /**
      * {@link FormatterResolver}を取得する。
      * @return
@@ -333,4 +491,25 @@ public class JXLCellFormatter {
         this.errorCellAsEmpty = errorCellAsEmpty;
     }
     
+    /**
+     * フォーマットした文字列の作成を遅延させるかどうか。
+     * <p>初期値はfalseで、フォーマット時に文字列を作成します。
+     * @since 0.13
+     * @return true: 文字列の作成を{@link CellFormatResult#getText()}の呼び出し時まで遅延させる。
+     */
+    public boolean isLazyText() {
+        return lazyText;
+    }
+    
+    /**
+     * フォーマットした文字列の作成を遅延させるかどうか設定する。
+     * <p>遅延させた場合でも、セクションの書式と文字色はフォーマット時に決定します。
+     *    文字列のみを{@link CellFormatResult#getText()}の最初の呼び出し時に作成します。</p>
+     * @since 0.13
+     * @param lazyText true: 文字列の作成を遅延させる。
+     */
+    public void setLazyText(boolean lazyText) {
+        this.lazyText = lazyText;
+    }
+    
 }
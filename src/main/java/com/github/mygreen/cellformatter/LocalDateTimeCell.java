@@ -0,0 +1,124 @@
+package com.github.mygreen.cellformatter;
+
+import java.time.LocalDateTime;
+import java.util.Date;
+
+import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
+
+/**
+ * タイムゾーンを持たない日時型{@link LocalDateTime}の値を直接扱うための仮想的なセル。
+ * <p>{@link DateCell}と異なり、{@link java.util.TimeZone}を参照せずに、日時の各項目をそのままExcelの日時として扱います。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class LocalDateTimeCell extends ObjectCell<LocalDateTime> {
+    
+    /** 日付の始まりが1904年開始かどうか */
+    private final boolean dateStart1904;
+    
+    /**
+     * 値と書式のインデックス番号を指定するコンストラクタ。
+     * <p>フォーマットの書式は、{@literal null}になります。
+     * @param value フォーマット対象の日時。
+     * @param formatIndex 書式のインデックス番号。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     */
+    public LocalDateTimeCell(final LocalDateTime value, final short formatIndex) {
+        this(value, formatIndex, false);
+    }
+    
+    /**
+     * 値とその書式を指定するコンストラクタ。
+     * <p>フォーマットのインデックス番号は、存在しないことを示す{@literal -1}となります。
+     * @param value フォーマット対象の日時。
+     * @param formatPattern Excelの書式。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public LocalDateTimeCell(final LocalDateTime value, final String formatPattern) {
+        this(value, formatPattern, false);
+    }
+    
+    /**
+     * 値と、書式のインデックス番号、書式を指定するコンストラクタ。
+     * @param value フォーマット対象の日時。
+     * @param formatIndex フォーマットのインデックス番号。
+     * @param formatPattern Excelの書式。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public LocalDateTimeCell(final LocalDateTime value, final short formatIndex, final String formatPattern) {
+        this(value, formatIndex, formatPattern, false);
+    }
+    
+    /**
+     * 値と書式のインデックス番号を指定するコンストラクタ。
+     * <p>フォーマットの書式は、{@literal null}になります。
+     * @param value フォーマット対象の日時。
+     * @param formatIndex 書式のインデックス番号。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     */
+    public LocalDateTimeCell(final LocalDateTime value, final short formatIndex, final boolean dateStart1904) {
+        super(value, formatIndex);
+        this.dateStart1904 = dateStart1904;
+    }
+    
+    /**
+     * 値とその書式を指定するコンストラクタ。
+     * <p>フォーマットのインデックス番号は、存在しないことを示す{@literal -1}となります。
+     * @param value フォーマット対象の日時。
+     * @param formatPattern Excelの書式。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public LocalDateTimeCell(final LocalDateTime value, final String formatPattern, final boolean dateStart1904) {
+        super(value, formatPattern);
+        this.dateStart1904 = dateStart1904;
+    }
+    
+    /**
+     * 値と、書式のインデックス番号、書式を指定するコンストラクタ。
+     * @param value フォーマット対象の日時。
+     * @param formatIndex フォーマットのインデックス番号。
+     * @param formatPattern Excelの書式。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public LocalDateTimeCell(final LocalDateTime value, final short formatIndex, final String formatPattern, final boolean dateStart1904) {
+        super(value, formatIndex, formatPattern);
+        this.dateStart1904 = dateStart1904;
+    }
+    
+    @Override
+    public boolean isNumber() {
+        return true;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>日時の各項目をそのままUTC上の日時とします。
+     */
+    @Override
+    public Date getDateCellValue() {
+        return ExcelDateUtils.convertJavaDate(getValue());
+    }
+    
+    @Override
+    public double getNumberCellValue() {
+        return ExcelDateUtils.convertExcelNumber(getValue(), isDateStart1904());
+    }
+    
+    @Override
+    public boolean isDateStart1904() {
+        return dateStart1904;
+    }
+}
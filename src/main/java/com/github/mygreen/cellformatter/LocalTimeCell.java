@@ -0,0 +1,132 @@
+package com.github.mygreen.cellformatter;
+
+import java.time.LocalTime;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
+
+/**
+ * タイムゾーンを持たない時刻型{@link LocalTime}の値を直接扱うための仮想的なセル。
+ * <p>Excelの時刻のみの値と同様に、日付の部分は基準日（数値の{@literal 0}）として扱います。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class LocalTimeCell extends ObjectCell<LocalTime> {
+    
+    /** 日付の始まりが1904年開始かどうか */
+    private final boolean dateStart1904;
+    
+    /**
+     * 値と書式のインデックス番号を指定するコンストラクタ。
+     * <p>フォーマットの書式は、{@literal null}になります。
+     * @param value フォーマット対象の時刻。
+     * @param formatIndex 書式のインデックス番号。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     */
+    public LocalTimeCell(final LocalTime value, final short formatIndex) {
+        this(value, formatIndex, false);
+    }
+    
+    /**
+     * 値とその書式を指定するコンストラクタ。
+     * <p>フォーマットのインデックス番号は、存在しないことを示す{@literal -1}となります。
+     * @param value フォーマット対象の時刻。
+     * @param formatPattern Excelの書式。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public LocalTimeCell(final LocalTime value, final String formatPattern) {
+        this(value, formatPattern, false);
+    }
+    
+    /**
+     * 値と、書式のインデックス番号、書式を指定するコンストラクタ。
+     * @param value フォーマット対象の時刻。
+     * @param formatIndex フォーマットのインデックス番号。
+     * @param formatPattern Excelの書式。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public LocalTimeCell(final LocalTime value, final short formatIndex, final String formatPattern) {
+        this(value, formatIndex, formatPattern, false);
+    }
+    
+    /**
+     * 値と書式のインデックス番号を指定するコンストラクタ。
+     * <p>フォーマットの書式は、{@literal null}になります。
+     * @param value フォーマット対象の時刻。
+     * @param formatIndex 書式のインデックス番号。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     */
+    public LocalTimeCell(final LocalTime value, final short formatIndex, final boolean dateStart1904) {
+        super(value, formatIndex);
+        this.dateStart1904 = dateStart1904;
+    }
+    
+    /**
+     * 値とその書式を指定するコンストラクタ。
+     * <p>フォーマットのインデックス番号は、存在しないことを示す{@literal -1}となります。
+     * @param value フォーマット対象の時刻。
+     * @param formatPattern Excelの書式。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public LocalTimeCell(final LocalTime value, final String formatPattern, final boolean dateStart1904) {
+        super(value, formatPattern);
+        this.dateStart1904 = dateStart1904;
+    }
+    
+    /**
+     * 値と、書式のインデックス番号、書式を指定するコンストラクタ。
+     * @param value フォーマット対象の時刻。
+     * @param formatIndex フォーマットのインデックス番号。
+     * @param formatPattern Excelの書式。
+     * @param dateStart1904 1904年始まりかどうか。
+     * @throws IllegalArgumentException {@literal value == null}
+     * @throws IllegalArgumentException {@literal formatIndex < 0}
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    public LocalTimeCell(final LocalTime value, final short formatIndex, final String formatPattern, final boolean dateStart1904) {
+        super(value, formatIndex, formatPattern);
+        this.dateStart1904 = dateStart1904;
+    }
+    
+    @Override
+    public boolean isNumber() {
+        return true;
+    }
+    
+    /**
+     * {@inheritDoc}
+     * <p>基準日の時刻として、UTC上の日時とします。
+     */
+    @Override
+    public Date getDateCellValue() {
+        return ExcelDateUtils.convertJavaDate(getMillisOfDay(), isDateStart1904());
+    }
+    
+    @Override
+    public double getNumberCellValue() {
+        return (double) getMillisOfDay() / TimeUnit.DAYS.toMillis(1);
+    }
+    
+    /**
+     * 時刻をミリ秒で取得する。ミリ秒未満の値は切り捨てる。
+     */
+    private long getMillisOfDay() {
+        return getValue().toNanoOfDay() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+    
+    @Override
+    public boolean isDateStart1904() {
+        return dateStart1904;
+    }
+}
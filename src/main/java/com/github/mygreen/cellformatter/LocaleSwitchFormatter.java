@@ -5,13 +5,14 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
 
 
 /**
  * ロケールによって、フォーマッタを切り替えるフォーマッタ。
  * <p>該当するロケールがない場合、標準のフォーマッタを返す。
  *
- * @version 0.10
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
@@ -39,12 +40,45 @@ public class LocaleSwitchFormatter extends CellFormatter {
         return getCellFormatter(locale).format(cell, locale);
     }
 
+    @Override
+    public CellFormatResult format(final CommonCell cell, final Locale locale, final CellFormatResult target) {
+
+        ArgUtils.notNull(cell, "cell");
+
+        return getCellFormatter(locale).format(cell, locale, target);
+    }
+
+    @Override
+    public CellFormatResult classify(final CommonCell cell, final Locale locale, final CellFormatResult target) {
+
+        ArgUtils.notNull(cell, "cell");
+
+        return getCellFormatter(locale).classify(cell, locale, target);
+    }
+
+    @Override
+    public CellFormatResult formatLazily(final CommonCell cell, final Locale locale, final CellFormatResult target) {
+
+        ArgUtils.notNull(cell, "cell");
+
+        return getCellFormatter(locale).formatLazily(cell, locale, target);
+    }
+
+    @Override
+    public void formatTo(final CommonCell cell, final Locale locale, final Utf8Sink sink) {
+
+        ArgUtils.notNull(cell, "cell");
+
+        getCellFormatter(locale).formatTo(cell, locale, sink);
+    }
+
     /**
      * ロケールに対応するセルフォーマットを取得する
+     * @since 0.13
      * @param locale ロケール
      * @return ロケールに対応するセルフォーマッタ。ロケールがnullの場合は、デフォルトのフォーマッタを返す。
      */
-    private CellFormatter getCellFormatter(final Locale locale) {
+    public CellFormatter getCellFormatter(final Locale locale) {
         if(locale == null) {
             return defaultFormatter;
 
@@ -17,6 +17,7 @@ import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
  *  <li>その他：AtomicInteger/AtomicLong/BigDecimal/BigInteger</li>
  * </ul>
  * 
+ * @version 0.13
  * @since 0.6
  * @param <T> Javaの数値クラス。
  * @author T.TSUCHIE
@@ -119,43 +120,20 @@ public class NumberCell<T extends Number> extends ObjectCell<T> {
         this.dateStart1904 = dateStart1904;
     }
     
-    private double toDouble(final Object value) {
+    private double toDouble(final Number value) {
         
-        final Class<?> clazz = value.getClass();
-        if(clazz.isPrimitive()) {
-            if(clazz.equals(Byte.TYPE)) {
-                return new BigDecimal((byte) value).doubleValue();
-            } else if(clazz.equals(Short.TYPE)) {
-                return new BigDecimal((short) value).doubleValue();
-            } else if(clazz.equals(Integer.TYPE)) {
-                return new BigDecimal((int) value).doubleValue();
-            } else if(clazz.equals(Long.TYPE)) {
-                return new BigDecimal((long) value).doubleValue();
-            } else if(clazz.equals(Float.TYPE)) {
-                return new BigDecimal((float) value).doubleValue();
-            } else if(clazz.equals(Double.TYPE)) {
-                return new BigDecimal((double) value).doubleValue();
-            } 
+        /*
+         * 整数と浮動小数点数は、doubleへの変換（拡大変換）がBigDecimalを経由した場合と同じ値となるため、
+         * BigDecimalのインスタンスを作成せずに直接変換する。
+         */
+        if(value instanceof Double || value instanceof Float
+                || value instanceof Integer || value instanceof Long
+                || value instanceof Short || value instanceof Byte) {
+            return value.doubleValue();
         }
         
-        if(value instanceof Byte) {
-            return new BigDecimal((byte) value).doubleValue();
-        } else if(value instanceof Short) {
-            return new BigDecimal((short) value).doubleValue();
-        } else if(value instanceof Integer) {
-            return new BigDecimal((int) value).doubleValue();
-        } else if(value instanceof Long) {
-            return new BigDecimal((long) value).doubleValue();
-        } else if(value instanceof Float) {
-            return new BigDecimal((float) value).doubleValue();
-        } else if(value instanceof Double) {
-            return new BigDecimal((double) value).doubleValue();
-        }
-        
-        if(value instanceof AtomicInteger) {
-            return new BigDecimal(((AtomicInteger) value).get()).doubleValue();
-        } else if(value instanceof AtomicLong) {
-            return new BigDecimal(((AtomicLong) value).get()).doubleValue();
+        if(value instanceof AtomicInteger || value instanceof AtomicLong) {
+            return value.doubleValue();
         }
         
         if(value instanceof BigDecimal) {
@@ -164,7 +142,7 @@ public class NumberCell<T extends Number> extends ObjectCell<T> {
             return ((BigInteger) value).doubleValue();
         }
         
-        throw new IllegalArgumentException("not support type class : " + clazz.getName());
+        throw new IllegalArgumentException("not support type class : " + value.getClass().getName());
     }
     
     /**
@@ -1,8 +1,15 @@
 package com.github.mygreen.cellformatter;
 
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Date;
 import java.util.Locale;
 
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.TextPool;
+
 /**
  * Javaのオブジェクト型を直接フォーマットするクラス。
  * <p>Excelの基本型である「文字列型」「ブール型」「数値型」「日付型」の4つをサポートします。</p>
@@ -12,6 +19,7 @@ import java.util.Locale;
  *  <li>ラッパークラス：Byte/Short/Integer/Long/Float/Double</li>
  *  <li>その他：AtomicInteger/AtomicLong/BigDecimal/BigInteger</li>
  * </ul>
+ * <p>日付型については、{@link Date}の他に、Java8の日時APIのLocalDateTime/LocalDate/LocalTime/Durationに対応しています。</p>
  * 
  * <pre class="highlight"><code class="java">
  * // 基本的な使い方。
@@ -30,6 +38,7 @@ import java.util.Locale;
  * </code></pre>
  * 
  * 
+ * @version 0.13
  * @since 0.6
  * @author T.TSUCHIE
  *
@@ -43,6 +52,16 @@ public class ObjectCellFormatter {
      */
     private boolean cache = true;
     
+    /**
+     * フォーマットした文字列の作成を遅延させるかどうか。
+     */
+    private boolean lazyText = false;
+    
+    /**
+     * フォーマットした文字列を共有するためのプール。
+     */
+    private TextPool textPool;
+    
     /**
      * 文字列型をフォーマットし、結果を直接文字列として取得する。
      * @param formatPattern フォーマットの書式。
@@ -165,6 +184,104 @@ public class ObjectCellFormatter {
         return format(formatPattern, value, Locale.getDefault());
     }
     
+    /**
+     * プリミティブ型のdouble型の数値をフォーマットし、結果を直接文字列として取得する。
+     * <p>ラッパークラスに変換せずにフォーマットします。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final double value, final Locale locale) {
+        return format(formatPattern, value, locale).getText();
+    }
+    
+    /**
+     * プリミティブ型のdouble型の数値をフォーマットする。
+     * <p>ラッパークラスに変換せずにフォーマットします。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final double value, final Locale locale) {
+        return formatNumber(formatPattern, value, locale);
+    }
+    
+    /**
+     * プリミティブ型のdouble型の数値をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final double value) {
+        return format(formatPattern, value).getText();
+    }
+    
+    /**
+     * プリミティブ型のdouble型の数値をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final double value) {
+        return format(formatPattern, value, Locale.getDefault());
+    }
+    
+    /**
+     * プリミティブ型のlong型の数値をフォーマットし、結果を直接文字列として取得する。
+     * <p>ラッパークラスに変換せずにフォーマットします。
+     * <p>Excelの数値と同様に、double型に変換した値をフォーマットします。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final long value, final Locale locale) {
+        return format(formatPattern, value, locale).getText();
+    }
+    
+    /**
+     * プリミティブ型のlong型の数値をフォーマットする。
+     * <p>ラッパークラスに変換せずにフォーマットします。
+     * <p>Excelの数値と同様に、double型に変換した値をフォーマットします。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final long value, final Locale locale) {
+        return formatNumber(formatPattern, (double) value, locale);
+    }
+    
+    /**
+     * プリミティブ型のlong型の数値をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final long value) {
+        return format(formatPattern, value).getText();
+    }
+    
+    /**
+     * プリミティブ型のlong型の数値をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final long value) {
+        return format(formatPattern, value, Locale.getDefault());
+    }
+    
     /**
      * 日付型をフォーマットし、結果を直接文字列として取得する。
      * @param formatPattern フォーマットの書式。
@@ -177,6 +294,8 @@ public class ObjectCellFormatter {
     
     /**
      * 日付型をフォーマットする。
+     * <p>一致するセクションによって、数値と日時のどちらとしても参照されるため、
+     *    プリミティブ型の数値と異なり、仮想的なセル{@link DateCell}を作成してフォーマットします。</p>
      * @param formatPattern フォーマットの書式。
      * @param value フォーマット対象の値。タイムゾーンを含んだ値を指定します。
      * @return フォーマットした結果。
@@ -205,6 +324,190 @@ public class ObjectCellFormatter {
         return format(formatPattern, value, Locale.getDefault());
     }
     
+    /**
+     * ロケールを指定して、日時型{@link LocalDateTime}をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。タイムゾーンを持たない値を指定します。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final LocalDateTime value, final Locale locale) {
+        return format(formatPattern, value, locale).getText();
+    }
+    
+    /**
+     * ロケールを指定して、日時型{@link LocalDateTime}をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。タイムゾーンを持たない値を指定します。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final LocalDateTime value, final Locale locale) {
+        return format(new LocalDateTimeCell(value, formatPattern), locale);
+    }
+    
+    /**
+     * 日時型{@link LocalDateTime}をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。タイムゾーンを持たない値を指定します。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final LocalDateTime value) {
+        return format(formatPattern, value).getText();
+    }
+    
+    /**
+     * 日時型{@link LocalDateTime}をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。タイムゾーンを持たない値を指定します。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final LocalDateTime value) {
+        return format(formatPattern, value, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、日付型{@link LocalDate}をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。時刻は{@literal 0:00:00}として扱います。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final LocalDate value, final Locale locale) {
+        return format(formatPattern, value, locale).getText();
+    }
+    
+    /**
+     * ロケールを指定して、日付型{@link LocalDate}をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。時刻は{@literal 0:00:00}として扱います。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final LocalDate value, final Locale locale) {
+        return format(new LocalDateCell(value, formatPattern), locale);
+    }
+    
+    /**
+     * 日付型{@link LocalDate}をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。時刻は{@literal 0:00:00}として扱います。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final LocalDate value) {
+        return format(formatPattern, value).getText();
+    }
+    
+    /**
+     * 日付型{@link LocalDate}をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。時刻は{@literal 0:00:00}として扱います。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final LocalDate value) {
+        return format(formatPattern, value, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、時刻型{@link LocalTime}をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。日付は基準日として扱います。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final LocalTime value, final Locale locale) {
+        return format(formatPattern, value, locale).getText();
+    }
+    
+    /**
+     * ロケールを指定して、時刻型{@link LocalTime}をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。日付は基準日として扱います。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final LocalTime value, final Locale locale) {
+        return format(new LocalTimeCell(value, formatPattern), locale);
+    }
+    
+    /**
+     * 時刻型{@link LocalTime}をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。日付は基準日として扱います。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final LocalTime value) {
+        return format(formatPattern, value).getText();
+    }
+    
+    /**
+     * 時刻型{@link LocalTime}をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。日付は基準日として扱います。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final LocalTime value) {
+        return format(formatPattern, value, Locale.getDefault());
+    }
+    
+    /**
+     * ロケールを指定して、経過時間{@link Duration}をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。{@literal [h]:mm}などの経過時間の書式を想定しています。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final Duration value, final Locale locale) {
+        return format(formatPattern, value, locale).getText();
+    }
+    
+    /**
+     * ロケールを指定して、経過時間{@link Duration}をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。{@literal [h]:mm}などの経過時間の書式を想定しています。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final Duration value, final Locale locale) {
+        return format(new DurationCell(value, formatPattern), locale);
+    }
+    
+    /**
+     * 経過時間{@link Duration}をフォーマットし、結果を直接文字列として取得する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。{@literal [h]:mm}などの経過時間の書式を想定しています。
+     * @return フォーマットした結果の文字列。
+     */
+    public String formatAsString(final String formatPattern, final Duration value) {
+        return format(formatPattern, value).getText();
+    }
+    
+    /**
+     * 経過時間{@link Duration}をフォーマットする。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。{@literal [h]:mm}などの経過時間の書式を想定しています。
+     * @return フォーマットした結果。
+     */
+    public CellFormatResult format(final String formatPattern, final Duration value) {
+        return format(formatPattern, value, Locale.getDefault());
+    }
+    
     /**
      * セルの値を文字列として取得する。
      * @param cell Javaの仮想的なオブジェクトを表現するセル。
@@ -242,26 +545,158 @@ public class ObjectCellFormatter {
      * @return フォーマット結果。cellがnullの場合、空セルとして値を返す。
      */
     public CellFormatResult format(final ObjectCell<?> cell, final Locale locale) {
+        return formatCell(cell, locale);
+    }
+    
+    /**
+     * 値をフォーマットし、呼び出し元が保持する結果に格納する。
+     * <p>格納先のインスタンスを使い回すことで、値ごとに{@link CellFormatResult}を作成せずにフォーマットします。</p>
+     * @since 0.13
+     * @param cell Javaの仮想的なオブジェクトを表現するセル。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     *        ロケールに依存する場合、指定したロケールにより自動的に切り替わります。
+     * @param target フォーマット結果の格納先。
+     * @return 引数で指定した格納先のインスタンス。cellがnullの場合、空セルとして値を格納する。
+     * @throws IllegalArgumentException {@literal target == null}
+     */
+    public CellFormatResult format(final ObjectCell<?> cell, final Locale locale, final CellFormatResult target) {
+        ArgUtils.notNull(target, "target");
+        
+        if(cell == null) {
+            return target.copyFrom(CellFormatResult.BLANK);
+        }
+        
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        
+        final CellFormatter cellFormatter = resolveFormatter(cell.getFormatIndex(), cell.getFormatPattern());
+        if(isLazyText()) {
+            return cellFormatter.formatLazily(cell, runtimeLocale, target);
+        }
+        return internText(cellFormatter.format(cell, runtimeLocale, target));
+    }
+    
+    /**
+     * 値を分類する。
+     * <p>セルの種類や値、一致したセクションの書式、文字色のみを決定し、フォーマットした文字列は作成しません。</p>
+     * @since 0.13
+     * @param cell Javaの仮想的なオブジェクトを表現するセル。
+     * @param locale 分類するロケール。nullでも可能。
+     * @return 分類した結果。{@link CellFormatResult#getText()}はnullを返します。
+     *         cellがnullの場合、共有の空セルの結果{@link CellFormatResult#BLANK}を返す。
+     */
+    public CellFormatResult classify(final ObjectCell<?> cell, final Locale locale) {
         
         if(cell == null) {
-            final CellFormatResult result = new CellFormatResult();
-            result.setCellType(FormatCellType.Blank);
-            result.setText("");
-            return result;
+            return CellFormatResult.BLANK;
         }
         
         final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
         
-        final short formatIndex = cell.getFormatIndex();
-        final String formatPattern = cell.getFormatPattern();
+        final CellFormatter cellFormatter = resolveFormatter(cell.getFormatIndex(), cell.getFormatPattern());
+        return cellFormatter.classify(cell, runtimeLocale);
+    }
+    
+    /**
+     * 書式を解析し、ロケールに対応するフォーマッタを結びつけた{@link CompiledFormat}を作成する。
+     * <p>同じ書式で繰り返しフォーマットする場合に、フォーマッタの解決を毎回行う必要がなくなります。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @param locale フォーマットしたロケール。nullの場合は、実行環境のロケールとなります。
+     * @return 解析した書式。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     * @throws CustomFormatterParseException 書式が不正な場合にスローされる。
+     */
+    public CompiledFormat compile(final String formatPattern, final Locale locale) {
+        ArgUtils.notEmpty(formatPattern, "formatPattern");
+        
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        
+        CellFormatter cellFormatter = resolveFormatter((short)-1, formatPattern);
+        while(cellFormatter instanceof LocaleSwitchFormatter) {
+            // ロケールによって切り替わる場合は、切り替え先のフォーマッタを結びつける
+            cellFormatter = ((LocaleSwitchFormatter) cellFormatter).getCellFormatter(runtimeLocale);
+        }
+        
+        return new CompiledFormat(formatPattern, cellFormatter, runtimeLocale);
+    }
+    
+    /**
+     * 実行環境のロケールで、書式を解析した{@link CompiledFormat}を作成する。
+     * @since 0.13
+     * @param formatPattern フォーマットの書式。
+     * @return 解析した書式。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     * @throws CustomFormatterParseException 書式が不正な場合にスローされる。
+     */
+    public CompiledFormat compile(final String formatPattern) {
+        return compile(formatPattern, Locale.getDefault());
+    }
+    
+    /**
+     * 値をフォーマットする。
+     * <p>{@link ObjectCell}と{@link DoubleCell}の共通の処理。
+     * @param cell フォーマット対象のセル。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマット結果。cellがnullの場合、共有の空セルの結果{@link CellFormatResult#BLANK}を返す。
+     */
+    private CellFormatResult formatCell(final CommonCell cell, final Locale locale) {
+        
+        if(cell == null) {
+            return CellFormatResult.BLANK;
+        }
+        
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        
+        final CellFormatter cellFormatter = resolveFormatter(cell.getFormatIndex(), cell.getFormatPattern());
+        if(isLazyText()) {
+            return cellFormatter.formatLazily(cell, runtimeLocale, new CellFormatResult());
+        }
+        return internText(cellFormatter.format(cell, runtimeLocale));
+    }
+    
+    /**
+     * プリミティブ型の数値をフォーマットする。
+     * <p>ユーザ定義のフォーマッタの場合は、セルのインスタンスを作成せずに、数値を直接渡します。
+     * @param formatPattern フォーマットの書式。
+     * @param value フォーマット対象の値。
+     * @param locale フォーマットしたロケール。nullでも可能。
+     * @return フォーマット結果。
+     * @throws IllegalArgumentException {@literal formatPattern == null || formatPatter.length() == 0}.
+     */
+    private CellFormatResult formatNumber(final String formatPattern, final double value, final Locale locale) {
+        ArgUtils.notEmpty(formatPattern, "formatPattern");
+        
+        final Locale runtimeLocale = locale != null ? locale : Locale.getDefault();
+        
+        CellFormatter cellFormatter = resolveFormatter((short)-1, formatPattern);
+        while(cellFormatter instanceof LocaleSwitchFormatter) {
+            cellFormatter = ((LocaleSwitchFormatter) cellFormatter).getCellFormatter(runtimeLocale);
+        }
+        
+        if(!(cellFormatter instanceof CustomFormatter)) {
+            return formatCell(new DoubleCell(value, formatPattern), runtimeLocale);
+        }
+        
+        final CustomFormatter customFormatter = (CustomFormatter) cellFormatter;
+        if(isLazyText()) {
+            return customFormatter.formatNumberLazily(value, runtimeLocale, new CellFormatResult());
+        }
+        return internText(customFormatter.formatNumber(value, runtimeLocale, new CellFormatResult()));
+    }
+    
+    /**
+     * 書式に対するフォーマッタを取得する。
+     * @param formatIndex 書式のインデックス番号
+     * @param formatPattern 書式
+     * @return フォーマッタ
+     */
+    private CellFormatter resolveFormatter(final short formatIndex, final String formatPattern) {
         
         if(formatterResolver.canResolve(formatIndex)) {
-            final CellFormatter cellFormatter = formatterResolver.getFormatter(formatIndex);
-            return cellFormatter.format(cell, runtimeLocale);
+            return formatterResolver.getFormatter(formatIndex);
             
         } else if(formatterResolver.canResolve(formatPattern)) {
-            final CellFormatter cellFormatter = formatterResolver.getFormatter(formatPattern);
-            return cellFormatter.format(cell, runtimeLocale);
+            return formatterResolver.getFormatter(formatPattern);
             
         } else {
             // キャッシュに存在しない場合
@@ -269,7 +704,7 @@ public class ObjectCellFormatter {
             if(isCache()) {
                 formatterResolver.registerFormatter(formatPattern, cellFormatter);
             }
-            return cellFormatter.format(cell, runtimeLocale);
+            return cellFormatter;
             
         }
     }
@@ -310,5 +745,60 @@ public class ObjectCellFormatter {
         this.cache = cache;
     }
     
+    /**
+     * フォーマットした文字列の作成を遅延させるかどうか。
+     * <p>初期値はfalseで、フォーマット時に文字列を作成します。
+     * @since 0.13
+     * @return true: 文字列の作成を{@link CellFormatResult#getText()}の呼び出し時まで遅延させる。
+     */
+    public boolean isLazyText() {
+        return lazyText;
+    }
+    
+    /**
+     * フォーマットした文字列の作成を遅延させるかどうか設定する。
+     * <p>遅延させた場合でも、セクションの書式と文字色はフォーマット時に決定します。
+     *    文字列のみを{@link CellFormatResult#getText()}の最初の呼び出し時に作成します。</p>
+     * @since 0.13
+     * @param lazyText true: 文字列の作成を遅延させる。
+     */
+    public void setLazyText(boolean lazyText) {
+        this.lazyText = lazyText;
+    }
+    
+    /**
+     * フォーマットした文字列を共有するためのプールを取得する。
+     * @since 0.13
+     * @return 設定していない場合はnullを返す。
+     */
+    public TextPool getTextPool() {
+        return textPool;
+    }
+    
+    /**
+     * フォーマットした文字列を共有するためのプールを設定する。
+     * <p>設定した場合、フォーマットした結果の文字列は、同じ内容であれば同一のインスタンスになります。
+     *    大量のセルをフォーマットして結果を保持する場合に、保持するメモリを削減できます。</p>
+     * <p>文字列の作成を遅延させる場合や、{@link #classify(ObjectCell, Locale)}の結果には適用されません。</p>
+     * @since 0.13
+     * @param textPool 文字列のプール。nullの場合は共有しない。
+     */
+    public void setTextPool(TextPool textPool) {
+        this.textPool = textPool;
+    }
+    
+    /**
+     * 結果の文字列を、プールで共有するインスタンスに置き換える。
+     * @param result フォーマットした結果
+     * @return 引数で指定した結果
+     */
+    private CellFormatResult internText(final CellFormatResult result) {
+        final TextPool pool = this.textPool;
+        if(pool != null && result.isModifiable() && !result.isTextDeferred()) {
+            result.setText(pool.intern(result.getText()));
+        }
+        return result;
+    }
+    
     
 }
@@ -10,6 +10,7 @@ import org.apache.poi.hssf.usermodel.HSSFWorkbook;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.util.CellReference;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
@@ -22,7 +23,7 @@ import com.github.mygreen.cellformatter.lang.ArgUtils;
 /**
  * POIのセルのラッパークラス。
  *
- * @version 0.10
+ * @version 0.13
  * @since 0.4
  * @author T.TSUCHIE
  *
@@ -31,7 +32,7 @@ public class POICell implements CommonCell {
 
     private static Logger logger = LoggerFactory.getLogger(POICell.class);
 
-    private final Cell cell;
+    private Cell cell;
 
     /**
      * セルを渡してインスタンスを作成する。
@@ -43,6 +44,25 @@ public class POICell implements CommonCell {
         this.cell = cell;
     }
 
+    /**
+     * セルを指定せずにインスタンスを作成する。
+     * <p>対象のセルを入れ替えて使い回すサブクラス用。
+     * @since 0.13
+     */
+    protected POICell() {
+    }
+
+    /**
+     * フォーマット対象のセルを入れ替える。
+     * @since 0.13
+     * @param cell フォーマット対象のセルのインスタンス。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    protected void setCell(final Cell cell) {
+        ArgUtils.notNull(cell, "cell");
+        this.cell = cell;
+    }
+
     /**
      * POIの元々のセルのインスタンスを取得する。
      * @return
@@ -103,16 +123,50 @@ public class POICell implements CommonCell {
 
     @Override
     public Date getDateCellValue() {
-        final Date date = cell.getDateCellValue();
+        return adjustTimeZone(cell.getDateCellValue());
+    }
+
+    /**
+     * POIのシリアル値から、フォーマットに使用する日時を作成する。
+     * <p>スナップショットなど、POIのセルを参照しない場合も、このメソッドで同じ変換を行います。
+     * @since 0.13
+     * @param value Excelのシリアル値
+     * @param dateStart1904 1904年始まりかどうか
+     * @return 日時。POIが日時として扱えない値の場合はnull。
+     */
+    static Date toJavaDate(final double value, final boolean dateStart1904) {
+        return adjustTimeZone(DateUtil.getJavaDate(value, dateStart1904));
+    }
 
-        // タイムゾーン分、引かれているので調整する。
-        return new Date(date.getTime() + TimeZone.getDefault().getRawOffset());
+    /**
+     * POIが作成した日時を、GMTとして扱える日時に調整する。
+     * <p>POIはデフォルトのタイムゾーンの日時として作成するため、タイムゾーン分、引かれている。
+     *    <br>夏時間の期間の日時も正しく戻すため、その日時のオフセットを使用する。</p>
+     * @since 0.13
+     * @param date POIが作成した日時
+     * @return 調整した日時。dateがnullの場合はnull。
+     */
+    static Date adjustTimeZone(final Date date) {
+        if(date == null) {
+            return null;
+        }
+        return new Date(date.getTime() + TimeZone.getDefault().getOffset(date.getTime()));
     }
 
     @Override
     public boolean isDateStart1904() {
+        return isDateStart1904(cell.getSheet().getWorkbook());
+    }
+
+    /**
+     * ワークブックの日付の始まりが1904年開始かどうか。
+     * <p>POIの内部の値をリフレクションで取得する。
+     * @since 0.13
+     * @param workbook 判定対象のワークブック
+     * @return true:1904年始まりの場合。
+     */
+    static boolean isDateStart1904(final Workbook workbook) {
 
-        final Workbook workbook = cell.getSheet().getWorkbook();
         if(workbook instanceof HSSFWorkbook) {
             try {
                 Method method = HSSFWorkbook.class.getDeclaredMethod("getWorkbook");
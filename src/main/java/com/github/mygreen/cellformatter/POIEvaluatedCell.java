@@ -6,8 +6,6 @@ import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellType;
 import org.apache.poi.ss.usermodel.CellValue;
 
-import com.github.mygreen.cellformatter.lang.ExcelDateUtils;
-
 /**
  * POI用の数式の値を評価したセルのラッパークラス。
  *
@@ -71,7 +69,7 @@ public class POIEvaluatedCell extends POICell {
 
     @Override
     public Date getDateCellValue() {
-        return ExcelDateUtils.convertJavaDate(getNumberCellValue(), isDateStart1904());
+        return toJavaDate(getNumberCellValue(), isDateStart1904());
 
     }
 
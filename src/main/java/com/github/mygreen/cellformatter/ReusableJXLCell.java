@@ -0,0 +1,38 @@
+package com.github.mygreen.cellformatter;
+
+import jxl.Cell;
+
+
+/**
+ * 対象のセルを入れ替えて使い回すことができる、JExcelAPIのセルのラッパークラス。
+ * <p>{@link JXLCellFormatter#format(Cell, java.util.Locale, boolean, ReusableJXLCell)}に渡すことで、
+ *    セルごとにラッパークラスのインスタンスを作成せずにフォーマットします。</p>
+ * <p>状態を持つため、スレッドセーフではありません。スレッドごとに1つのインスタンスを保持して利用してください。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class ReusableJXLCell extends JXLCell {
+
+    /**
+     * セルを指定せずにインスタンスを作成する。
+     * <p>{@link #bind(Cell, boolean)}でセルを設定してから利用します。
+     */
+    public ReusableJXLCell() {
+        super();
+    }
+
+    /**
+     * フォーマット対象のセルを設定する。
+     * @param cell フォーマット対象のセル。
+     * @param dateStart1904 日付の開始が1904年始まりかどうか。
+     * @return 自身のインスタンス。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    public ReusableJXLCell bind(final Cell cell, final boolean dateStart1904) {
+        setCell(cell, dateStart1904);
+        return this;
+    }
+
+}
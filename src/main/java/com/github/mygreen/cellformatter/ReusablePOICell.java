@@ -0,0 +1,315 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Date;
+import java.util.List;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.CellValue;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.FormulaEvaluator;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+
+/**
+ * 対象のセルを入れ替えて使い回すことができる、POIのセルのラッパークラス。
+ * <p>{@link POICellFormatter#format(Cell, java.util.Locale, ReusablePOICell)}に渡すことで、
+ *    セルごとにラッパークラスのインスタンスを作成せずにフォーマットします。</p>
+ * <p>状態を持つため、スレッドセーフではありません。スレッドごとに1つのインスタンスを保持して利用してください。</p>
+ * <p>日付の始まりが1904年開始かどうか、書式の情報、数式の評価器、スタイルの表は、ワークブックが変わるまで保持します。
+ *    <br>結合セルの情報は、シートが変わるまで保持します。
+ *    <br>フォーマットの途中でセルの値や結合を変更した場合は、{@link #reset()}で保持している情報を破棄してください。</p>
+ *
+ * <pre class="highlight"><code class="java">
+ * POICellFormatter cellFormatter = new POICellFormatter();
+ * ReusablePOICell adapter = new ReusablePOICell();
+ *
+ * for(Row row : sheet) {
+ *     for(Cell cell : row) {
+ *         String text = cellFormatter.formatAsString(cell, Locale.JAPANESE, adapter);
+ *     }
+ * }
+ * </code></pre>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class ReusablePOICell extends POICell {
+
+    /**
+     * 数式を評価した結果。数式のセルでない場合はnull。
+     */
+    private CellValue value;
+
+    /**
+     * 日付の始まりを判定したワークブック
+     */
+    private Workbook workbook;
+
+    /**
+     * 日付の始まりが1904年開始かどうか
+     */
+    private boolean dateStart1904;
+
+    /**
+     * ワークブックの書式の情報
+     */
+    private DataFormat dataFormat;
+
+    /**
+     * ワークブックの数式の評価器
+     */
+    private FormulaEvaluator formulaEvaluator;
+
+    /**
+     * ワークブックのスタイルごとの書式とフォーマッタの表
+     */
+    private StyleTable styleTable;
+
+    /**
+     * 結合セルの情報を取得したシート
+     */
+    private Sheet sheet;
+
+    /**
+     * シートの結合セルの範囲
+     */
+    private List<CellRangeAddress> mergedRegions;
+
+    /**
+     * セルを指定せずにインスタンスを作成する。
+     * <p>{@link #bind(Cell)}でセルを設定してから利用します。
+     */
+    public ReusablePOICell() {
+        super();
+    }
+
+    /**
+     * フォーマット対象のセルを設定する。
+     * @param cell フォーマット対象のセル。
+     * @return 自身のインスタンス。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    public ReusablePOICell bind(final Cell cell) {
+        setCell(cell);
+        this.value = null;
+        return this;
+    }
+
+    /**
+     * 数式を評価した結果と共に、フォーマット対象のセルを設定する。
+     * @param cell タイプが数式のセル。
+     * @param value 数式を評価した結果。
+     * @return 自身のインスタンス。
+     * @throws IllegalArgumentException {@literal cell == null.}
+     */
+    public ReusablePOICell bind(final Cell cell, final CellValue value) {
+        setCell(cell);
+        this.value = value;
+        return this;
+    }
+
+    /**
+     * 式を評価したセルの値を取得する。
+     * @return 数式のセルとして設定していない場合はnullを返す。
+     */
+    public CellValue getCellValue() {
+        return value;
+    }
+
+    @Override
+    public boolean isText() {
+        if(value != null) {
+            return value.getCellType() == CellType.STRING;
+        }
+        return super.isText();
+    }
+
+    @Override
+    public String getTextCellValue() {
+        if(value != null) {
+            return value.getStringValue();
+        }
+        return super.getTextCellValue();
+    }
+
+    @Override
+    public boolean isBoolean() {
+        if(value != null) {
+            return value.getCellType() == CellType.BOOLEAN;
+        }
+        return super.isBoolean();
+    }
+
+    @Override
+    public boolean getBooleanCellValue() {
+        if(value != null) {
+            return value.getBooleanValue();
+        }
+        return super.getBooleanCellValue();
+    }
+
+    @Override
+    public boolean isNumber() {
+        if(value != null) {
+            return value.getCellType() == CellType.NUMERIC;
+        }
+        return super.isNumber();
+    }
+
+    @Override
+    public double getNumberCellValue() {
+        if(value != null) {
+            return value.getNumberValue();
+        }
+        return super.getNumberCellValue();
+    }
+
+    @Override
+    public Date getDateCellValue() {
+        if(value != null) {
+            return toJavaDate(getNumberCellValue(), isDateStart1904());
+        }
+        return super.getDateCellValue();
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>同じワークブックのセルの場合は、前回取得した書式の情報を使用します。
+     *    <br>スタイルの表が設定されている場合は、表の書式を返します。</p>
+     */
+    @Override
+    public String getFormatPattern() {
+
+        updateWorkbook(getCell().getSheet().getWorkbook());
+        if(styleTable != null) {
+            final int styleIndex = getStyleIndex();
+            if(styleTable.contains(styleIndex)) {
+                return styleTable.getFormatPattern(styleIndex);
+            }
+        }
+
+        if(dataFormat == null) {
+            this.dataFormat = workbook.createDataFormat();
+        }
+
+        final String formatPattern = dataFormat.getFormat(getFormatIndex());
+        return formatPattern == null ? "" : formatPattern;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>同じワークブックのセルの場合は、前回判定した結果を返します。
+     */
+    @Override
+    public boolean isDateStart1904() {
+
+        updateWorkbook(getCell().getSheet().getWorkbook());
+        return dateStart1904;
+    }
+
+    /**
+     * ワークブックの日付の始まりが1904年開始かどうか。
+     * <p>同じワークブックの場合は、前回判定した結果を返します。
+     * @param current 対象のワークブック
+     * @return true:1904年始まりの場合。
+     */
+    boolean resolveDateStart1904(final Workbook current) {
+
+        updateWorkbook(current);
+        return dateStart1904;
+    }
+
+    /**
+     * ワークブックの数式の評価器を取得する。
+     * <p>同じワークブックの場合は、前回作成した評価器を返します。
+     * @param current 対象のワークブック
+     * @return 数式の評価器
+     */
+    FormulaEvaluator getFormulaEvaluator(final Workbook current) {
+
+        updateWorkbook(current);
+        if(formulaEvaluator == null) {
+            this.formulaEvaluator = current.getCreationHelper().createFormulaEvaluator();
+        }
+
+        return formulaEvaluator;
+    }
+
+    /**
+     * セルのスタイルのインデックス番号を取得する。
+     * @return ワークブックのスタイルのインデックス番号
+     */
+    int getStyleIndex() {
+        return getCell().getCellStyle().getIndex() & 0xFFFF;
+    }
+
+    /**
+     * セルのワークブックに設定されている、スタイルの表を取得する。
+     * @return ワークブックが変わった場合や、設定していない場合はnull。
+     */
+    StyleTable getStyleTable() {
+
+        updateWorkbook(getCell().getSheet().getWorkbook());
+        return styleTable;
+    }
+
+    /**
+     * セルのワークブックのスタイルの表を設定する。
+     * <p>ワークブックが変わるまで保持します。
+     * @param styleTable スタイルの表
+     */
+    void setStyleTable(final StyleTable styleTable) {
+
+        updateWorkbook(getCell().getSheet().getWorkbook());
+        this.styleTable = styleTable;
+    }
+
+    /**
+     * シートの結合セルの範囲を取得する。
+     * <p>同じシートの場合は、前回取得した範囲を返します。
+     * @param current 対象のシート
+     * @return 結合セルの範囲
+     */
+    List<CellRangeAddress> getMergedRegions(final Sheet current) {
+
+        if(sheet != current) {
+            this.mergedRegions = current.getMergedRegions();
+            this.sheet = current;
+        }
+
+        return mergedRegions;
+    }
+
+    /**
+     * 対象のワークブックが変わった場合に、ワークブックの情報を更新する。
+     * @param current 対象のワークブック
+     */
+    private void updateWorkbook(final Workbook current) {
+
+        if(workbook != current) {
+            this.dateStart1904 = isDateStart1904(current);
+            this.dataFormat = null;
+            this.formulaEvaluator = null;
+            this.styleTable = null;
+            this.workbook = current;
+        }
+    }
+
+    /**
+     * 保持しているワークブックとシートの情報を破棄する。
+     * <p>セルの値や結合を変更した後に、同じワークブックのセルをフォーマットする場合に利用します。
+     */
+    public void reset() {
+        this.workbook = null;
+        this.dataFormat = null;
+        this.formulaEvaluator = null;
+        this.styleTable = null;
+        this.sheet = null;
+        this.mergedRegions = null;
+    }
+
+}
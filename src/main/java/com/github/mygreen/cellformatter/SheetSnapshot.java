@@ -0,0 +1,423 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+
+/**
+ * シートのセルの値を、フォーマットに必要な情報のみ抽出した、変更不可能なスナップショット。
+ * <p>POIのシートやセルは、複数のスレッドから同時に参照することができないため、
+ *    事前に値を抽出しておくことで、並列にフォーマットすることができます。
+ *    <br>{@link POICellFormatter#snapshot(org.apache.poi.ss.usermodel.Sheet)}で作成し、
+ *    {@link POICellFormatter#formatSnapshot(SheetSnapshot, java.util.Locale)}でフォーマットします。</p>
+ * <p>セルの情報は、列ごとに一定の行数で区切ったブロック単位で、連続した配列として保持します。
+ *    <br>列ごとのブロックの表とブロックは、セルが存在する場合のみ作成するため、疎なシートでも、
+ *    保持するメモリは行数と列数の積ではなく、セルが存在する列とブロックの数に比例します。
+ *    <br>また、行ごとにセルが存在する列の範囲を保持し、フォーマット時には範囲外の列を走査しません。</p>
+ * <ul>
+ *   <li>セルの種類は、{@code byte}の配列で保持します。</li>
+ *   <li>数値やブール値、エラーコードは、{@code double}の配列で保持します。
+ *       文字列は、共有する文字列の表のインデックス番号を保持します。</li>
+ *   <li>セルのスタイルは、スナップショット内のスタイルの表のインデックス番号を{@code int}の配列で保持します。</li>
+ * </ul>
+ * <p>数式は作成時に評価した結果を保持し、結合されたセルは作成時に値を持つセルの情報で置き換えます。</p>
+ * <p>変更不可能なため、スレッドセーフです。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class SheetSnapshot {
+
+    /** セルの種類 - 物理的に存在しないセル */
+    static final byte TYPE_NONE = 0;
+
+    /** セルの種類 - 空セル */
+    static final byte TYPE_BLANK = 1;
+
+    /** セルの種類 - 数値 */
+    static final byte TYPE_NUMBER = 2;
+
+    /** セルの種類 - 文字列 */
+    static final byte TYPE_TEXT = 3;
+
+    /** セルの種類 - ブール値 */
+    static final byte TYPE_BOOLEAN = 4;
+
+    /** セルの種類 - エラー */
+    static final byte TYPE_ERROR = 5;
+
+    /** セルの種類 - 不明 */
+    static final byte TYPE_UNKNOWN = 6;
+
+    /** ブロックの行数のビット数 */
+    static final int BLOCK_SHIFT = 8;
+
+    /** ブロックの行数 */
+    static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+
+    /** ブロック内の位置を取得するためのマスク */
+    static final int BLOCK_MASK = BLOCK_SIZE - 1;
+
+    /**
+     * シート名
+     */
+    private final String sheetName;
+
+    /**
+     * 先頭の行のインデックス番号
+     */
+    private final int firstRow;
+
+    /**
+     * 先頭の列のインデックス番号
+     */
+    private final int firstColumn;
+
+    /**
+     * 行数
+     */
+    private final int rowCount;
+
+    /**
+     * 列数
+     */
+    private final int columnCount;
+
+    /**
+     * 日付の始まりが1904年開始かどうか
+     */
+    private final boolean dateStart1904;
+
+    /**
+     * 列ごとのブロックの表。セルが存在しない列や、ブロックはnull。
+     */
+    private final Block[][] blocks;
+
+    /**
+     * 行ごとの、先頭のセルの列の位置。セルが存在しない行は-1。
+     */
+    private final int[] firstColumnOffsets;
+
+    /**
+     * 行ごとの、最後のセルの列の位置。セルが存在しない行は-1。
+     */
+    private final int[] lastColumnOffsets;
+
+    /**
+     * 共有する文字列の表
+     */
+    private final String[] strings;
+
+    /**
+     * スタイルごとの書式のインデックス番号
+     */
+    private final short[] formatIndexes;
+
+    /**
+     * スタイルごとの書式
+     */
+    private final String[] formatPatterns;
+
+    private SheetSnapshot(final Builder builder) {
+        this.sheetName = builder.sheetName;
+        this.firstRow = builder.firstRow;
+        this.firstColumn = builder.firstColumn;
+        this.rowCount = builder.rowCount;
+        this.columnCount = builder.columnCount;
+        this.dateStart1904 = builder.dateStart1904;
+        this.blocks = builder.blocks;
+        this.firstColumnOffsets = builder.firstColumnOffsets;
+        this.lastColumnOffsets = builder.lastColumnOffsets;
+        this.strings = new String[builder.strings.size()];
+        for(Map.Entry<String, Integer> entry : builder.strings.entrySet()) {
+            strings[entry.getValue()] = entry.getKey();
+        }
+        this.formatIndexes = Arrays.copyOf(builder.formatIndexes, builder.styleCount);
+        this.formatPatterns = Arrays.copyOf(builder.formatPatterns, builder.styleCount);
+    }
+
+    /**
+     * セルの位置から、セルの情報を保持するブロックを取得する。
+     * <p>ブロック内の位置は、{@literal rowOffset & BLOCK_MASK}となります。
+     * @param rowOffset 先頭の行からの位置
+     * @param columnOffset 先頭の列からの位置
+     * @return セルが1つも存在しないブロックの場合はnullを返す。
+     */
+    Block getBlock(final int rowOffset, final int columnOffset) {
+        final Block[] column = blocks[columnOffset];
+        return column != null ? column[rowOffset >>> BLOCK_SHIFT] : null;
+    }
+
+    /**
+     * 行内の先頭のセルの、先頭の列からの位置を取得する。
+     * @param rowOffset 先頭の行からの位置
+     * @return セルが存在しない行の場合は-1を返す。
+     */
+    int getFirstColumnOffset(final int rowOffset) {
+        return firstColumnOffsets[rowOffset];
+    }
+
+    /**
+     * 行内の最後のセルの、先頭の列からの位置を取得する。
+     * @param rowOffset 先頭の行からの位置
+     * @return セルが存在しない行の場合は-1を返す。
+     */
+    int getLastColumnOffset(final int rowOffset) {
+        return lastColumnOffsets[rowOffset];
+    }
+
+    /**
+     * 共有する文字列の表から文字列を取得する。
+     * @param stringIndex 表のインデックス番号
+     * @return 文字列
+     */
+    String getString(final int stringIndex) {
+        return strings[stringIndex];
+    }
+
+    /**
+     * スタイルの書式のインデックス番号を取得する。
+     * @param styleIndex スナップショット内のスタイルのインデックス番号
+     * @return 書式のインデックス番号
+     */
+    short getFormatIndex(final int styleIndex) {
+        return formatIndexes[styleIndex];
+    }
+
+    /**
+     * スタイルの書式を取得する。
+     * @param styleIndex スナップショット内のスタイルのインデックス番号
+     * @return 書式
+     */
+    String getFormatPattern(final int styleIndex) {
+        return formatPatterns[styleIndex];
+    }
+
+    /**
+     * シート名を取得する。
+     * @return シート名
+     */
+    public String getSheetName() {
+        return sheetName;
+    }
+
+    /**
+     * 先頭の行のインデックス番号を取得する。
+     * @return 先頭の行のインデックス番号（0から始まる）。
+     */
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    /**
+     * 最後の行のインデックス番号を取得する。
+     * @return 最後の行のインデックス番号（0から始まる）。行が存在しない場合は、{@link #getFirstRow()}-1を返す。
+     */
+    public int getLastRow() {
+        return firstRow + rowCount - 1;
+    }
+
+    /**
+     * 先頭の列のインデックス番号を取得する。
+     * @return 先頭の列のインデックス番号（0から始まる）。
+     */
+    public int getFirstColumn() {
+        return firstColumn;
+    }
+
+    /**
+     * 最後の列のインデックス番号を取得する。
+     * @return 最後の列のインデックス番号（0から始まる）。列が存在しない場合は、{@link #getFirstColumn()}-1を返す。
+     */
+    public int getLastColumn() {
+        return firstColumn + columnCount - 1;
+    }
+
+    /**
+     * 行数を取得する。
+     * @return 物理的に存在しない行も含めた行数。
+     */
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    /**
+     * 列数を取得する。
+     * @return 物理的に存在しない列も含めた列数。
+     */
+    public int getColumnCount() {
+        return columnCount;
+    }
+
+    /**
+     * 日付の始まりが1904年開始かどうか。
+     * @return true:1904年始まりの場合。
+     */
+    public boolean isDateStart1904() {
+        return dateStart1904;
+    }
+
+    /**
+     * 共有する文字列の表の件数を取得する。
+     * @return 重複を除いた文字列の件数
+     */
+    public int getStringCount() {
+        return strings.length;
+    }
+
+    /**
+     * スタイルの表の件数を取得する。
+     * @return スナップショット内で使用しているスタイルの件数
+     */
+    public int getStyleCount() {
+        return formatIndexes.length;
+    }
+
+    /**
+     * 1列の連続した行のセルの情報を保持するブロック。
+     */
+    static final class Block {
+
+        /** セルの種類 */
+        final byte[] types = new byte[BLOCK_SIZE];
+
+        /** セルの値。文字列の場合は、共有する文字列の表のインデックス番号。 */
+        final double[] values = new double[BLOCK_SIZE];
+
+        /** セルのスタイルのインデックス番号 */
+        final int[] styleIndexes = new int[BLOCK_SIZE];
+
+    }
+
+    /**
+     * スナップショットを組み立てるためのクラス。
+     */
+    static final class Builder {
+
+        private final String sheetName;
+
+        private final int firstRow;
+
+        private final int firstColumn;
+
+        private final int rowCount;
+
+        private final int columnCount;
+
+        private final boolean dateStart1904;
+
+        private final Block[][] blocks;
+
+        private final int[] firstColumnOffsets;
+
+        private final int[] lastColumnOffsets;
+
+        /** 文字列と、表のインデックス番号 */
+        private final Map<String, Integer> strings = new HashMap<>();
+
+        /** ワークブックのスタイルのインデックス番号と、スナップショット内のインデックス番号 */
+        private final Map<Integer, Integer> styleMap = new HashMap<>();
+
+        private short[] formatIndexes = new short[16];
+
+        private String[] formatPatterns = new String[16];
+
+        private int styleCount;
+
+        Builder(final String sheetName, final int firstRow, final int firstColumn, final int rowCount, final int columnCount,
+                final boolean dateStart1904) {
+            this.sheetName = sheetName;
+            this.firstRow = firstRow;
+            this.firstColumn = firstColumn;
+            this.rowCount = rowCount;
+            this.columnCount = columnCount;
+            this.dateStart1904 = dateStart1904;
+            this.blocks = new Block[columnCount][];
+            this.firstColumnOffsets = new int[rowCount];
+            this.lastColumnOffsets = new int[rowCount];
+            Arrays.fill(firstColumnOffsets, -1);
+            Arrays.fill(lastColumnOffsets, -1);
+        }
+
+        /**
+         * スタイルを登録する。
+         * @param styleIndex ワークブックのスタイルのインデックス番号
+         * @param formatIndex 書式のインデックス番号
+         * @param formatPattern 書式
+         * @return スナップショット内のスタイルのインデックス番号
+         */
+        int addStyle(final int styleIndex, final short formatIndex, final String formatPattern) {
+
+            final Integer registered = styleMap.get(styleIndex);
+            if(registered != null) {
+                return registered;
+            }
+
+            if(styleCount == formatIndexes.length) {
+                this.formatIndexes = Arrays.copyOf(formatIndexes, styleCount * 2);
+                this.formatPatterns = Arrays.copyOf(formatPatterns, styleCount * 2);
+            }
+
+            formatIndexes[styleCount] = formatIndex;
+            formatPatterns[styleCount] = formatPattern;
+            styleMap.put(styleIndex, styleCount);
+            return styleCount++;
+        }
+
+        /**
+         * 登録済みのスタイルかどうか。
+         * @param styleIndex ワークブックのスタイルのインデックス番号
+         * @return スナップショット内のスタイルのインデックス番号。登録されていない場合は-1を返す。
+         */
+        int findStyle(final int styleIndex) {
+            final Integer registered = styleMap.get(styleIndex);
+            return registered != null ? registered : -1;
+        }
+
+        void set(final int row, final int column, final byte type, final double value, final int style) {
+            final int rowOffset = row - firstRow;
+            final int columnOffset = column - firstColumn;
+
+            if(firstColumnOffsets[rowOffset] < 0 || columnOffset < firstColumnOffsets[rowOffset]) {
+                firstColumnOffsets[rowOffset] = columnOffset;
+            }
+            if(columnOffset > lastColumnOffsets[rowOffset]) {
+                lastColumnOffsets[rowOffset] = columnOffset;
+            }
+
+            Block[] columnBlocks = blocks[columnOffset];
+            if(columnBlocks == null) {
+                columnBlocks = new Block[(rowCount + BLOCK_MASK) >>> BLOCK_SHIFT];
+                blocks[columnOffset] = columnBlocks;
+            }
+
+            Block block = columnBlocks[rowOffset >>> BLOCK_SHIFT];
+            if(block == null) {
+                block = new Block();
+                columnBlocks[rowOffset >>> BLOCK_SHIFT] = block;
+            }
+
+            final int position = rowOffset & BLOCK_MASK;
+            block.types[position] = type;
+            block.values[position] = value;
+            block.styleIndexes[position] = style;
+        }
+
+        void setText(final int row, final int column, final String value, final int style) {
+            Integer stringIndex = strings.get(value);
+            if(stringIndex == null) {
+                stringIndex = strings.size();
+                strings.put(value, stringIndex);
+            }
+            set(row, column, TYPE_TEXT, stringIndex, style);
+        }
+
+        SheetSnapshot build() {
+            return new SheetSnapshot(this);
+        }
+
+    }
+
+}
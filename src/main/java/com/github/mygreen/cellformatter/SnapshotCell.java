@@ -0,0 +1,123 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Date;
+
+import org.apache.poi.ss.util.CellReference;
+
+
+/**
+ * {@link SheetSnapshot}のセルのラッパークラス。
+ * <p>対象のセルを入れ替えて使い回します。状態を持つため、スレッドごとにインスタンスを作成します。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+class SnapshotCell implements CommonCell {
+
+    private final SheetSnapshot snapshot;
+
+    /** セルを含むブロック。セルが存在しない場合はnull。 */
+    private SheetSnapshot.Block block;
+
+    /** ブロック内の位置 */
+    private int position;
+
+    /** 先頭の行からの位置 */
+    private int rowOffset;
+
+    /** 先頭の列からの位置 */
+    private int columnOffset;
+
+    SnapshotCell(final SheetSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    /**
+     * フォーマット対象のセルを設定する。
+     * @param rowOffset 先頭の行からの位置
+     * @param columnOffset 先頭の列からの位置
+     * @return 自身のインスタンス。
+     */
+    SnapshotCell bind(final int rowOffset, final int columnOffset) {
+        this.rowOffset = rowOffset;
+        this.columnOffset = columnOffset;
+        this.block = snapshot.getBlock(rowOffset, columnOffset);
+        this.position = rowOffset & SheetSnapshot.BLOCK_MASK;
+        return this;
+    }
+
+    /**
+     * セルの種類を取得する。
+     * @return {@link SheetSnapshot}で定義したセルの種類
+     */
+    byte getType() {
+        return block != null ? block.types[position] : SheetSnapshot.TYPE_NONE;
+    }
+
+    /**
+     * スナップショット内のスタイルのインデックス番号を取得する。
+     * @return スタイルのインデックス番号
+     */
+    int getStyleIndex() {
+        return block.styleIndexes[position];
+    }
+
+    @Override
+    public short getFormatIndex() {
+        return snapshot.getFormatIndex(getStyleIndex());
+    }
+
+    @Override
+    public String getFormatPattern() {
+        return snapshot.getFormatPattern(getStyleIndex());
+    }
+
+    @Override
+    public boolean isText() {
+        return getType() == SheetSnapshot.TYPE_TEXT;
+    }
+
+    @Override
+    public boolean isBoolean() {
+        return getType() == SheetSnapshot.TYPE_BOOLEAN;
+    }
+
+    @Override
+    public boolean isNumber() {
+        return getType() == SheetSnapshot.TYPE_NUMBER;
+    }
+
+    @Override
+    public String getTextCellValue() {
+        return snapshot.getString((int) block.values[position]);
+    }
+
+    @Override
+    public boolean getBooleanCellValue() {
+        return block.values[position] != 0.0d;
+    }
+
+    @Override
+    public double getNumberCellValue() {
+        return block.values[position];
+    }
+
+    @Override
+    public Date getDateCellValue() {
+        // POIのセルと同じ変換を行う。
+        return POICell.toJavaDate(getNumberCellValue(), isDateStart1904());
+    }
+
+    @Override
+    public boolean isDateStart1904() {
+        return snapshot.isDateStart1904();
+    }
+
+    @Override
+    public String getCellAddress() {
+        return CellReference.convertNumToColString(snapshot.getFirstColumn() + columnOffset)
+                + String.valueOf(snapshot.getFirstRow() + rowOffset + 1);
+    }
+
+}
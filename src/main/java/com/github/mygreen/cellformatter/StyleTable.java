@@ -0,0 +1,185 @@
+package com.github.mygreen.cellformatter;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Workbook;
+
+
+/**
+ * ワークブックのスタイルごとの書式と、対応するフォーマッタの表。
+ * <p>同じテンプレートから作成したワークブックは、書式の表が一致するため、
+ *    {@link POICellFormatter}でキャッシュして、ワークブックをまたいで使い回します。</p>
+ * <p>比較は、スタイルごとの書式のインデックス番号と書式の組み合わせで行い、フォーマッタは比較の対象外です。
+ *    <br>フォーマッタは、スタイルのセルを初めてフォーマットするときに解決して設定します。
+ *    使用されないスタイルの書式は解析しないため、不正な書式のスタイルがあっても、他のスタイルのセルはフォーマットできます。</p>
+ * <p>書式の表は変更不可能で、フォーマッタの設定は{@link AtomicReferenceArray}で行うため、スレッドセーフです。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+final class StyleTable {
+
+    /**
+     * スタイルごとの書式のインデックス番号
+     */
+    private final short[] formatIndexes;
+
+    /**
+     * スタイルごとの書式
+     */
+    private final String[] formatPatterns;
+
+    /**
+     * スタイルごとのフォーマッタ。未解決のスタイルの要素はnull。比較用のインスタンスの場合はnull。
+     */
+    private final AtomicReferenceArray<CellFormatter> formatters;
+
+    /**
+     * 書式の表のフィンガープリント
+     */
+    private final long fingerprint;
+
+    private StyleTable(final short[] formatIndexes, final String[] formatPatterns, final AtomicReferenceArray<CellFormatter> formatters,
+            final long fingerprint) {
+        this.formatIndexes = formatIndexes;
+        this.formatPatterns = formatPatterns;
+        this.formatters = formatters;
+        this.fingerprint = fingerprint;
+    }
+
+    /**
+     * ワークブックのスタイルの書式を読み込み、フォーマッタを持たない比較用のインスタンスを作成する。
+     * @param workbook 対象のワークブック
+     * @return 比較用の表
+     */
+    static StyleTable read(final Workbook workbook) {
+
+        final DataFormat dataFormat = workbook.createDataFormat();
+        final int styleCount = workbook.getNumCellStyles();
+
+        final short[] formatIndexes = new short[styleCount];
+        final String[] formatPatterns = new String[styleCount];
+
+        // FNV-1a
+        long hash = 0xcbf29ce484222325L;
+        for(int i=0; i < styleCount; i++) {
+            final CellStyle style = workbook.getCellStyleAt(i);
+            final short formatIndex = style == null ? 0 : style.getDataFormat();
+            final String formatPattern = dataFormat.getFormat(formatIndex);
+
+            formatIndexes[i] = formatIndex;
+            formatPatterns[i] = formatPattern == null ? "" : formatPattern;
+
+            hash = (hash ^ formatIndex) * 0x100000001b3L;
+            final String pattern = formatPatterns[i];
+            for(int j=0; j < pattern.length(); j++) {
+                hash = (hash ^ pattern.charAt(j)) * 0x100000001b3L;
+            }
+            hash = (hash ^ 0xFFFF) * 0x100000001b3L;
+        }
+
+        return new StyleTable(formatIndexes, formatPatterns, null, hash);
+    }
+
+    /**
+     * フォーマッタを保持できるインスタンスを作成する。
+     * <p>全てのスタイルのフォーマッタは未解決の状態です。
+     * @return 新たなインスタンス
+     */
+    StyleTable withFormatterSlots() {
+        return new StyleTable(formatIndexes, formatPatterns,
+                new AtomicReferenceArray<CellFormatter>(formatIndexes.length), fingerprint);
+    }
+
+    /**
+     * スタイルの数を取得する。
+     * @return スタイルの数
+     */
+    int getStyleCount() {
+        return formatIndexes.length;
+    }
+
+    /**
+     * スタイルが表に含まれるかどうか。
+     * <p>表を作成した後にワークブックに追加したスタイルは含まれません。
+     * @param styleIndex ワークブックのスタイルのインデックス番号
+     * @return true:含まれる場合。
+     */
+    boolean contains(final int styleIndex) {
+        return styleIndex >= 0 && styleIndex < formatIndexes.length;
+    }
+
+    /**
+     * スタイルの書式のインデックス番号を取得する。
+     * @param styleIndex ワークブックのスタイルのインデックス番号
+     * @return 書式のインデックス番号
+     */
+    short getFormatIndex(final int styleIndex) {
+        return formatIndexes[styleIndex];
+    }
+
+    /**
+     * スタイルの書式を取得する。
+     * @param styleIndex ワークブックのスタイルのインデックス番号
+     * @return 書式。定義されていない場合は空文字。
+     */
+    String getFormatPattern(final int styleIndex) {
+        return formatPatterns[styleIndex];
+    }
+
+    /**
+     * スタイルのフォーマッタを取得する。
+     * @param styleIndex ワークブックのスタイルのインデックス番号
+     * @return フォーマッタ。未解決の場合はnull。
+     */
+    CellFormatter getFormatter(final int styleIndex) {
+        return formatters.get(styleIndex);
+    }
+
+    /**
+     * スタイルのフォーマッタを設定する。
+     * <p>既に他のスレッドが設定している場合は、設定済みのフォーマッタを返します。
+     * @param styleIndex ワークブックのスタイルのインデックス番号
+     * @param formatter 解決したフォーマッタ
+     * @return 表に設定されているフォーマッタ
+     */
+    CellFormatter setFormatter(final int styleIndex, final CellFormatter formatter) {
+        if(formatters.compareAndSet(styleIndex, null, formatter)) {
+            return formatter;
+        }
+        return formatters.get(styleIndex);
+    }
+
+    /**
+     * 書式の表のフィンガープリントを取得する。
+     * @return スタイルごとの書式のインデックス番号と書式から算出した値
+     */
+    long getFingerprint() {
+        return fingerprint;
+    }
+
+    @Override
+    public int hashCode() {
+        return (int) (fingerprint ^ (fingerprint >>> 32));
+    }
+
+    @Override
+    public boolean equals(final Object obj) {
+        if(this == obj) {
+            return true;
+        }
+        if(!(obj instanceof StyleTable)) {
+            return false;
+        }
+
+        final StyleTable other = (StyleTable) obj;
+        return fingerprint == other.fingerprint
+                && Arrays.equals(formatIndexes, other.formatIndexes)
+                && Arrays.equals(formatPatterns, other.formatPatterns);
+    }
+
+}
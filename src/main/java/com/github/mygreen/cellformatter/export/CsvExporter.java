@@ -0,0 +1,160 @@
+package com.github.mygreen.cellformatter.export;
+
+import com.github.mygreen.cellformatter.CellFormatResult;
+import com.github.mygreen.cellformatter.POICellFormatter;
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
+
+
+/**
+ * シートのセルの値を、CSV形式で出力するクラス。
+ * <p><a href="https://tools.ietf.org/html/rfc4180" target="_blank">RFC 4180</a>に従い、
+ *    区切り文字、ダブルクォート、改行を含む値は、ダブルクォートで囲み、値の中のダブルクォートは2つ重ねます。
+ *    <br>行の区切りは、初期状態では{@literal CRLF}です。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class CsvExporter extends SheetExporter {
+
+    /**
+     * ダブルクォートで囲んだ値の中の置換
+     */
+    private static final byte[][] QUOTED_ESCAPES = new byte[128][];
+    static {
+        QUOTED_ESCAPES['"'] = Utf8Sink.encode("\"\"");
+    }
+
+    /**
+     * 値の区切り文字
+     */
+    private char delimiter = ',';
+
+    /**
+     * 全ての値をダブルクォートで囲むかどうか。
+     */
+    private boolean quoteAll = false;
+
+    /**
+     * 行の区切り
+     */
+    private String lineSeparator = "\r\n";
+
+    /**
+     * 行の区切りのUTF-8のバイト列
+     */
+    private byte[] lineSeparatorBytes = Utf8Sink.encode(lineSeparator);
+
+    /**
+     * フォーマットに使用する{@link POICellFormatter}を指定してインスタンスを作成する。
+     * @param cellFormatter セルのフォーマッタ
+     * @throws IllegalArgumentException {@literal cellFormatter == null.}
+     */
+    public CsvExporter(final POICellFormatter cellFormatter) {
+        super(cellFormatter);
+    }
+
+    @Override
+    protected void writeRow(final Utf8Sink sink, final int rowIndex, final int firstColumn, final CellFormatResult[] results) {
+
+        for(int i=0; i < results.length; i++) {
+            if(i > 0) {
+                sink.append(delimiter);
+            }
+            appendValue(sink, getText(results[i]));
+        }
+
+        sink.append(lineSeparatorBytes);
+    }
+
+    /**
+     * 1つの値を書き込む。
+     * @param sink 書き込み先
+     * @param text 値
+     */
+    private void appendValue(final Utf8Sink sink, final String text) {
+
+        if(quoteAll || requiresQuote(text)) {
+            sink.append('"');
+            appendEscaped(sink, text, QUOTED_ESCAPES);
+            sink.append('"');
+        } else {
+            sink.append(text);
+        }
+    }
+
+    /**
+     * ダブルクォートで囲む必要があるかどうか。
+     * @param text 値
+     * @return true:区切り文字、ダブルクォート、改行を含む場合。
+     */
+    private boolean requiresQuote(final String text) {
+
+        final int length = text.length();
+        for(int i=0; i < length; i++) {
+            final char c = text.charAt(i);
+            if(c == delimiter || c == '"' || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 値の区切り文字を取得する。
+     * @return 初期値は{@literal ','}。
+     */
+    public char getDelimiter() {
+        return delimiter;
+    }
+
+    /**
+     * 値の区切り文字を設定する。
+     * @param delimiter 区切り文字。{@literal ';'}などを指定します。
+     * @throws IllegalArgumentException 区切り文字がダブルクォートまたは改行の場合。
+     */
+    public void setDelimiter(char delimiter) {
+        if(delimiter == '"' || delimiter == '\r' || delimiter == '\n') {
+            throw new IllegalArgumentException(String.format("delimiter cannot be '%s'.", delimiter));
+        }
+        this.delimiter = delimiter;
+    }
+
+    /**
+     * 全ての値をダブルクォートで囲むかどうか。
+     * @return true:全ての値を囲む場合。初期値はfalse。
+     */
+    public boolean isQuoteAll() {
+        return quoteAll;
+    }
+
+    /**
+     * 全ての値をダブルクォートで囲むかどうか設定する。
+     * @param quoteAll true:全ての値を囲む場合。falseの場合は、必要な値のみを囲みます。
+     */
+    public void setQuoteAll(boolean quoteAll) {
+        this.quoteAll = quoteAll;
+    }
+
+    /**
+     * 行の区切りを取得する。
+     * @return 初期値は{@literal CRLF}。
+     */
+    public String getLineSeparator() {
+        return lineSeparator;
+    }
+
+    /**
+     * 行の区切りを設定する。
+     * @param lineSeparator 行の区切り
+     * @throws IllegalArgumentException {@literal lineSeparator == null || lineSeparator.isEmpty()}
+     */
+    public void setLineSeparator(String lineSeparator) {
+        ArgUtils.notEmpty(lineSeparator, "lineSeparator");
+        this.lineSeparator = lineSeparator;
+        this.lineSeparatorBytes = Utf8Sink.encode(lineSeparator);
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.github.mygreen.cellformatter.export;
+
+import com.github.mygreen.cellformatter.CellFormatResult;
+import com.github.mygreen.cellformatter.POICellFormatter;
+import com.github.mygreen.cellformatter.lang.MSColor;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
+
+
+/**
+ * シートのセルの値を、HTMLの表（{@literal <table>}要素）として出力するクラス。
+ * <p>値の中の{@literal & < > " '}は、文字参照にエスケープします。</p>
+ * <p>{@link #isColorOutput()}がtrueの場合、書式で文字色が指定されたセルは、
+ *    {@link MSColor#getHtmlColor()}の値をstyle属性として出力します。</p>
+ * <pre class="highlight"><code class="html">
+ * &lt;table&gt;
+ * &lt;tr&gt;&lt;td&gt;1,234&lt;/td&gt;&lt;td style="color:#FF0000"&gt;-1,234&lt;/td&gt;&lt;/tr&gt;
+ * &lt;/table&gt;
+ * </code></pre>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class HtmlExporter extends SheetExporter {
+
+    /**
+     * 値の中の置換
+     */
+    private static final byte[][] ESCAPES = new byte[128][];
+    static {
+        ESCAPES['&'] = Utf8Sink.encode("&amp;");
+        ESCAPES['<'] = Utf8Sink.encode("&lt;");
+        ESCAPES['>'] = Utf8Sink.encode("&gt;");
+        ESCAPES['"'] = Utf8Sink.encode("&quot;");
+        ESCAPES['\''] = Utf8Sink.encode("&#39;");
+    }
+
+    private static final byte[] TABLE_START = Utf8Sink.encode("<table>\n");
+
+    private static final byte[] TABLE_END = Utf8Sink.encode("</table>\n");
+
+    private static final byte[] ROW_START = Utf8Sink.encode("<tr>");
+
+    private static final byte[] ROW_END = Utf8Sink.encode("</tr>\n");
+
+    private static final byte[] CELL_START = Utf8Sink.encode("<td>");
+
+    private static final byte[] CELL_START_COLOR = Utf8Sink.encode("<td style=\"color:");
+
+    private static final byte[] CELL_END = Utf8Sink.encode("</td>");
+
+    /**
+     * 文字色を出力するかどうか。
+     */
+    private boolean colorOutput = false;
+
+    /**
+     * フォーマットに使用する{@link POICellFormatter}を指定してインスタンスを作成する。
+     * @param cellFormatter セルのフォーマッタ
+     * @throws IllegalArgumentException {@literal cellFormatter == null.}
+     */
+    public HtmlExporter(final POICellFormatter cellFormatter) {
+        super(cellFormatter);
+    }
+
+    @Override
+    protected void writeHeader(final Utf8Sink sink) {
+        sink.append(TABLE_START);
+    }
+
+    @Override
+    protected void writeRow(final Utf8Sink sink, final int rowIndex, final int firstColumn, final CellFormatResult[] results) {
+
+        sink.append(ROW_START);
+        for(CellFormatResult result : results) {
+            final MSColor textColor = (colorOutput && result != null) ? result.getTextColor() : null;
+            if(textColor != null) {
+                sink.append(CELL_START_COLOR);
+                appendEscaped(sink, textColor.getHtmlColor(), ESCAPES);
+                sink.append('"').append('>');
+            } else {
+                sink.append(CELL_START);
+            }
+
+            appendEscaped(sink, getText(result), ESCAPES);
+            sink.append(CELL_END);
+        }
+        sink.append(ROW_END);
+    }
+
+    @Override
+    protected void writeFooter(final Utf8Sink sink) {
+        sink.append(TABLE_END);
+    }
+
+    /**
+     * 文字色を出力するかどうか。
+     * @return true:出力する場合。初期値はfalse。
+     */
+    public boolean isColorOutput() {
+        return colorOutput;
+    }
+
+    /**
+     * 文字色を出力するかどうか設定する。
+     * @param colorOutput true:書式で文字色が指定されたセルに、style属性を出力する場合。
+     */
+    public void setColorOutput(boolean colorOutput) {
+        this.colorOutput = colorOutput;
+    }
+
+}
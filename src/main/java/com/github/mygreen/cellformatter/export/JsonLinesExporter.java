@@ -0,0 +1,104 @@
+package com.github.mygreen.cellformatter.export;
+
+import com.github.mygreen.cellformatter.CellFormatResult;
+import com.github.mygreen.cellformatter.POICellFormatter;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
+
+
+/**
+ * シートのセルの値を、<a href="https://jsonlines.org/" target="_blank">JSON Lines</a>形式で出力するクラス。
+ * <p>1行を、フォーマットした文字列の配列として1行に出力します。</p>
+ * <pre class="highlight"><code class="json">
+ * ["2017/1/2","1,234","あいう"]
+ * </code></pre>
+ * <p>{@link #isRowIndexIncluded()}がtrueの場合は、行のインデックス番号を含めたオブジェクトとして出力します。</p>
+ * <pre class="highlight"><code class="json">
+ * {"row":3,"cells":["2017/1/2","1,234","あいう"]}
+ * </code></pre>
+ * <p>ダブルクォート、バックスラッシュ、制御文字はエスケープし、それ以外の文字はUTF-8のまま出力します。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class JsonLinesExporter extends SheetExporter {
+
+    /**
+     * 文字列の中の置換
+     */
+    private static final byte[][] ESCAPES = new byte[128][];
+    static {
+        for(int c=0; c < 0x20; c++) {
+            ESCAPES[c] = Utf8Sink.encode(String.format("\\u%04x", c));
+        }
+        ESCAPES['\b'] = Utf8Sink.encode("\\b");
+        ESCAPES['\f'] = Utf8Sink.encode("\\f");
+        ESCAPES['\n'] = Utf8Sink.encode("\\n");
+        ESCAPES['\r'] = Utf8Sink.encode("\\r");
+        ESCAPES['\t'] = Utf8Sink.encode("\\t");
+        ESCAPES['"'] = Utf8Sink.encode("\\\"");
+        ESCAPES['\\'] = Utf8Sink.encode("\\\\");
+        ESCAPES[0x7F] = Utf8Sink.encode("\\u007f");
+    }
+
+    private static final byte[] ROW_PREFIX = Utf8Sink.encode("{\"row\":");
+
+    private static final byte[] CELLS_PREFIX = Utf8Sink.encode(",\"cells\":");
+
+    /**
+     * 行のインデックス番号を含めるかどうか。
+     */
+    private boolean rowIndexIncluded = false;
+
+    /**
+     * フォーマットに使用する{@link POICellFormatter}を指定してインスタンスを作成する。
+     * @param cellFormatter セルのフォーマッタ
+     * @throws IllegalArgumentException {@literal cellFormatter == null.}
+     */
+    public JsonLinesExporter(final POICellFormatter cellFormatter) {
+        super(cellFormatter);
+    }
+
+    @Override
+    protected void writeRow(final Utf8Sink sink, final int rowIndex, final int firstColumn, final CellFormatResult[] results) {
+
+        if(rowIndexIncluded) {
+            sink.append(ROW_PREFIX).append(Integer.toString(rowIndex)).append(CELLS_PREFIX);
+        }
+
+        sink.append('[');
+        for(int i=0; i < results.length; i++) {
+            if(i > 0) {
+                sink.append(',');
+            }
+            sink.append('"');
+            appendEscaped(sink, getText(results[i]), ESCAPES);
+            sink.append('"');
+        }
+        sink.append(']');
+
+        if(rowIndexIncluded) {
+            sink.append('}');
+        }
+
+        sink.append('\n');
+    }
+
+    /**
+     * 行のインデックス番号を含めるかどうか。
+     * @return true:含める場合。初期値はfalse。
+     */
+    public boolean isRowIndexIncluded() {
+        return rowIndexIncluded;
+    }
+
+    /**
+     * 行のインデックス番号を含めるかどうか設定する。
+     * <p>{@link #setSkipMissingRows(boolean)}でtrueを設定し、存在しない行を出力しない場合などに利用します。
+     * @param rowIndexIncluded true:含める場合。
+     */
+    public void setRowIndexIncluded(boolean rowIndexIncluded) {
+        this.rowIndexIncluded = rowIndexIncluded;
+    }
+
+}
@@ -0,0 +1,723 @@
+package com.github.mygreen.cellformatter.export;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Locale;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.util.CellRangeAddress;
+
+import com.github.mygreen.cellformatter.CellFormatGrid;
+import com.github.mygreen.cellformatter.CellFormatResult;
+import com.github.mygreen.cellformatter.CellFormatRowHandler;
+import com.github.mygreen.cellformatter.CellProjection;
+import com.github.mygreen.cellformatter.POICellFormatter;
+import com.github.mygreen.cellformatter.lang.ArgUtils;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
+
+
+/**
+ * シートのセルの値を、Excelの表示どおりにフォーマットしたテキストとして出力するための抽象クラス。
+ * <p>{@link POICellFormatter#formatRange(Sheet, CellRangeAddress, Locale, CellFormatRowHandler)}で行ごとにフォーマットし、
+ *    UTF-8に変換したバイト列を{@link WritableByteChannel}に書き込みます。</p>
+ * <ul>
+ *   <li>全ての結果を保持せずに行ごとに書き込むため、シートの大きさに関わらず使用するメモリはほぼ一定です。</li>
+ *   <li>変換したバイト列は{@link #getBufferSize()}ごとにまとめて、ダイレクトバッファを経由してチャネルに書き込みます。</li>
+ *   <li>{@link #setPipelined(boolean)}でtrueを設定すると、シートの読み込みとフォーマットを呼び出し元のスレッドで、
+ *       変換と書き込みを別のスレッドで行います。スレッド間は、{@link #getQueueCapacity()}の容量の待ち行列で受け渡します。</li>
+ *   <li>物理的に存在しない行は、{@link #isSkipMissingRows()}がfalseの場合、空の行として出力します。
+ *       物理的に存在しないセルは、空文字として出力します。</li>
+ * </ul>
+ *
+ * <pre class="highlight"><code class="java">
+ * POICellFormatter cellFormatter = new POICellFormatter();
+ *
+ * CsvExporter exporter = new CsvExporter(cellFormatter);
+ * exporter.setLocale(Locale.JAPANESE);
+ * exporter.export(sheet, Paths.get("sheet.csv"));
+ * </code></pre>
+ *
+ * <p>設定を変更しない限り、インスタンスは複数のスレッドで共有できます。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public abstract class SheetExporter {
+
+    /**
+     * 書き込み用のバッファの容量の初期値
+     */
+    public static final int DEFAULT_BUFFER_SIZE = 256 * 1024;
+
+    /**
+     * パイプライン処理時の待ち行列の容量の初期値
+     */
+    public static final int DEFAULT_QUEUE_CAPACITY = 16;
+
+    /**
+     * パイプライン処理時に、1回で受け渡す行数
+     */
+    private static final int BATCH_ROWS = 256;
+
+    /**
+     * 書き込みスレッドの終了を確認する間隔（ミリ秒）
+     */
+    private static final long OFFER_TIMEOUT_MILLIS = 100L;
+
+    private final POICellFormatter cellFormatter;
+
+    /**
+     * フォーマットする際のロケール
+     */
+    private Locale locale = Locale.getDefault();
+
+    /**
+     * 書き込み用のバッファの容量
+     */
+    private int bufferSize = DEFAULT_BUFFER_SIZE;
+
+    /**
+     * 読み込みと書き込みを別のスレッドで行うかどうか。
+     */
+    private boolean pipelined = false;
+
+    /**
+     * パイプライン処理時の待ち行列の容量
+     */
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+
+    /**
+     * 物理的に存在しない行を出力しないかどうか。
+     */
+    private boolean skipMissingRows = false;
+
+    /**
+     * 出力対象の列と行
+     */
+    private CellProjection projection;
+
+    /**
+     * フォーマットに使用する{@link POICellFormatter}を指定してインスタンスを作成する。
+     * @param cellFormatter セルのフォーマッタ
+     * @throws IllegalArgumentException {@literal cellFormatter == null.}
+     */
+    protected SheetExporter(final POICellFormatter cellFormatter) {
+        ArgUtils.notNull(cellFormatter, "cellFormatter");
+        this.cellFormatter = cellFormatter;
+    }
+
+    /**
+     * シートの物理的に存在するセルを出力する。
+     * <p>{@link #getProjection()}が設定されている場合は、射影の対象の列と行のみを出力します。</p>
+     * <p>チャネルは閉じません。</p>
+     * @param sheet 出力対象のシート
+     * @param channel 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     * @throws IllegalArgumentException {@literal sheet == null || channel == null.}
+     */
+    public void export(final Sheet sheet, final WritableByteChannel channel) throws IOException {
+        ArgUtils.notNull(sheet, "sheet");
+        ArgUtils.notNull(channel, "channel");
+
+        if(projection == null) {
+            export(handler -> cellFormatter.formatSheet(sheet, locale, handler), channel);
+            return;
+        }
+
+        // 射影で指定した列のみを、指定した順番で出力する。
+        final int[] columns = cellFormatter.resolveColumns(sheet, projection, locale);
+        export(handler -> cellFormatter.formatSheet(sheet, projection, locale,
+                columns != null ? new ProjectedRowHandler(columns, handler) : handler), projection.getStride(), channel);
+    }
+
+    /**
+     * 範囲を指定して、シートのセルを出力する。
+     * <p>{@link #getProjection()}は使用しません。</p>
+     * <p>チャネルは閉じません。</p>
+     * @param sheet 出力対象のシート
+     * @param range 出力対象の範囲
+     * @param channel 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     * @throws IllegalArgumentException {@literal sheet == null || range == null || channel == null.}
+     */
+    public void export(final Sheet sheet, final CellRangeAddress range, final WritableByteChannel channel) throws IOException {
+        ArgUtils.notNull(sheet, "sheet");
+        ArgUtils.notNull(range, "range");
+        ArgUtils.notNull(channel, "channel");
+
+        export(handler -> cellFormatter.formatRange(sheet, range, locale, handler), channel);
+    }
+
+    /**
+     * シートの物理的に存在するセルを、ファイルに出力する。
+     * <p>ファイルが既に存在する場合は、上書きします。</p>
+     * @param sheet 出力対象のシート
+     * @param path 出力先のファイル
+     * @throws IOException 書き込みに失敗した場合
+     * @throws IllegalArgumentException {@literal sheet == null || path == null.}
+     */
+    public void export(final Sheet sheet, final Path path) throws IOException {
+        ArgUtils.notNull(sheet, "sheet");
+        ArgUtils.notNull(path, "path");
+
+        try(FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            export(sheet, channel);
+        }
+    }
+
+    /**
+     * まとめてフォーマットした結果を出力する。
+     * <p>{@link POICellFormatter#formatSnapshot(com.github.mygreen.cellformatter.SheetSnapshot, Locale)}などで
+     *    並列にフォーマットした結果を出力する場合に利用します。{@link #getLocale()}は使用しません。</p>
+     * <p>チャネルは閉じません。</p>
+     * @param grid フォーマットした結果
+     * @param channel 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     * @throws IllegalArgumentException {@literal grid == null || channel == null.}
+     */
+    public void export(final CellFormatGrid grid, final WritableByteChannel channel) throws IOException {
+        ArgUtils.notNull(grid, "grid");
+        ArgUtils.notNull(channel, "channel");
+
+        export(grid::forEachRow, channel);
+    }
+
+    /**
+     * 行ごとの結果を読み込み、出力する。
+     * @param reader 行ごとの結果をハンドラに渡す処理
+     * @param channel 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     */
+    void export(final Consumer<CellFormatRowHandler> reader, final WritableByteChannel channel) throws IOException {
+        export(reader, 1, channel);
+    }
+
+    /**
+     * 行ごとの結果を読み込み、出力する。
+     * @param reader 行ごとの結果をハンドラに渡す処理
+     * @param rowStride 行を間引く間隔。存在しない行を補完する際に使用する。
+     * @param channel 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     */
+    void export(final Consumer<CellFormatRowHandler> reader, final int rowStride, final WritableByteChannel channel)
+            throws IOException {
+        if(pipelined) {
+            exportPipelined(reader, new RowWriter(channel, rowStride));
+        } else {
+            exportSequential(reader, new RowWriter(channel, rowStride));
+        }
+    }
+
+    /**
+     * 読み込みと書き込みを、呼び出し元のスレッドで行う。
+     * @param reader 行ごとの結果をハンドラに渡す処理
+     * @param writer 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private void exportSequential(final Consumer<CellFormatRowHandler> reader, final RowWriter writer)
+            throws IOException {
+
+        writer.start();
+
+        try {
+            reader.accept((rowIndex, firstColumn, results) -> {
+                try {
+                    writer.write(rowIndex, firstColumn, results);
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch(UncheckedIOException e) {
+            throw e.getCause();
+        }
+
+        writer.finish();
+    }
+
+    /**
+     * 読み込みとフォーマットを呼び出し元のスレッドで、変換と書き込みを別のスレッドで行う。
+     * @param reader 行ごとの結果をハンドラに渡す処理
+     * @param writer 書き込み先
+     * @throws IOException 書き込みに失敗した場合
+     */
+    private void exportPipelined(final Consumer<CellFormatRowHandler> reader, final RowWriter writer)
+            throws IOException {
+
+        final Pipeline pipeline = new Pipeline(writer, queueCapacity);
+        pipeline.start();
+
+        try {
+            reader.accept(pipeline);
+            pipeline.flush();
+        } catch(UncheckedIOException e) {
+            throw e.getCause();
+        } finally {
+            pipeline.close();
+        }
+
+        pipeline.checkFailure();
+    }
+
+    /**
+     * 出力の先頭に書き込む内容を変換する。
+     * <p>初期状態では何も書き込みません。</p>
+     * @param sink 書き込み先
+     */
+    protected void writeHeader(final Utf8Sink sink) {
+        // 何もしない
+    }
+
+    /**
+     * 1行分の結果を変換する。
+     * @param sink 書き込み先
+     * @param rowIndex 行のインデックス番号（0から始まる）。
+     * @param firstColumn 結果の配列の先頭に対応する列のインデックス番号（0から始まる）。
+     * @param results 列ごとのフォーマット結果。物理的に存在しないセルの要素はnullとなる。
+     */
+    protected abstract void writeRow(Utf8Sink sink, int rowIndex, int firstColumn, CellFormatResult[] results);
+
+    /**
+     * 出力の末尾に書き込む内容を変換する。
+     * <p>初期状態では何も書き込みません。</p>
+     * @param sink 書き込み先
+     */
+    protected void writeFooter(final Utf8Sink sink) {
+        // 何もしない
+    }
+
+    /**
+     * フォーマット結果の文字列を取得する。
+     * @param result フォーマット結果。
+     * @return 結果がnullの場合は、空文字を返す。
+     */
+    protected static String getText(final CellFormatResult result) {
+        if(result == null) {
+            return "";
+        }
+
+        final String text = result.getText();
+        return text != null ? text : "";
+    }
+
+    /**
+     * 文字列をエスケープしながら書き込む。
+     * <p>エスケープが必要な文字が連続しない区間は、まとめて書き込みます。</p>
+     * @param sink 書き込み先
+     * @param text 書き込む文字列
+     * @param escapes ASCII文字ごとの置換後のバイト列。置換しない文字の要素はnull。
+     */
+    protected static void appendEscaped(final Utf8Sink sink, final String text, final byte[][] escapes) {
+
+        final int length = text.length();
+        int start = 0;
+        for(int i=0; i < length; i++) {
+            final char c = text.charAt(i);
+            if(c < escapes.length && escapes[c] != null) {
+                sink.append(text, start, i);
+                sink.append(escapes[c]);
+                start = i + 1;
+            }
+        }
+
+        sink.append(text, start, length);
+    }
+
+    /**
+     * 行ごとの結果を変換し、チャネルに書き込むクラス。
+     * <p>物理的に存在しない行を補完し、変換したバイト列がバッファの容量に達した時点で書き込む。
+     */
+    private class RowWriter {
+
+        private final WritableByteChannel channel;
+
+        private final Utf8Sink sink;
+
+        private final ByteBuffer buffer;
+
+        /** 行を間引く間隔 */
+        private final int rowStride;
+
+        /** 次に書き込む行のインデックス番号。最初の行を書き込む前は-1。 */
+        private int nextRow = -1;
+
+        /** 物理的に存在しない行の結果 */
+        private CellFormatResult[] emptyRow = new CellFormatResult[0];
+
+        RowWriter(final WritableByteChannel channel, final int rowStride) {
+            this.channel = channel;
+            this.rowStride = rowStride;
+            this.sink = new Utf8Sink(Math.min(bufferSize, 8192));
+            this.buffer = ByteBuffer.allocateDirect(bufferSize);
+        }
+
+        void start() {
+            writeHeader(sink);
+        }
+
+        void write(final int rowIndex, final int firstColumn, final CellFormatResult[] results) throws IOException {
+
+            if(!skipMissingRows && nextRow >= 0) {
+                if(emptyRow.length != results.length) {
+                    this.emptyRow = new CellFormatResult[results.length];
+                }
+
+                for(int r=nextRow; r < rowIndex; r += rowStride) {
+                    writeRow(sink, r, firstColumn, emptyRow);
+                }
+            }
+
+            writeRow(sink, rowIndex, firstColumn, results);
+            this.nextRow = rowIndex + rowStride;
+
+            if(sink.size() >= bufferSize) {
+                flush();
+            }
+        }
+
+        void finish() throws IOException {
+            writeFooter(sink);
+            flush();
+        }
+
+        private void flush() throws IOException {
+            sink.writeTo(channel, buffer);
+            sink.clear();
+        }
+
+    }
+
+    /**
+     * 読み込みと書き込みを別のスレッドで行うための待ち行列を管理するクラス。
+     */
+    private static class Pipeline implements CellFormatRowHandler, Runnable {
+
+        /** 終了を表す要素 */
+        private static final RowBatch END = new RowBatch(0);
+
+        private final RowWriter writer;
+
+        private final BlockingQueue<RowBatch> queue;
+
+        private final Thread thread;
+
+        private RowBatch batch = new RowBatch(BATCH_ROWS);
+
+        /** 書き込みスレッドで発生した例外 */
+        private volatile Throwable failure;
+
+        Pipeline(final RowWriter writer, final int queueCapacity) {
+            this.writer = writer;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "cellformatter-export-writer");
+            thread.setDaemon(true);
+        }
+
+        void start() {
+            thread.start();
+        }
+
+        @Override
+        public void handleRow(final int rowIndex, final int firstColumn, final CellFormatResult[] results) {
+
+            // 配列は次の行で使い回されるため、コピーして渡す
+            batch.add(rowIndex, firstColumn, results.clone());
+            if(batch.isFull()) {
+                try {
+                    flush();
+                } catch(IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+
+        /**
+         * 溜まっている行を書き込みスレッドに渡す。
+         * @throws IOException 書き込みスレッドが失敗した場合、または待機中に割り込まれた場合
+         */
+        void flush() throws IOException {
+            if(batch.size == 0) {
+                return;
+            }
+
+            send(batch);
+            this.batch = new RowBatch(BATCH_ROWS);
+        }
+
+        /**
+         * 書き込みスレッドに終了を通知し、終了するまで待機する。
+         * @throws IOException 待機中に割り込まれた場合
+         */
+        void close() throws IOException {
+            try {
+                while(!queue.offer(END, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if(!thread.isAlive()) {
+                        // 書き込みスレッドが既に終了している場合
+                        break;
+                    }
+                }
+                thread.join();
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while waiting for the writer thread.");
+            }
+        }
+
+        /**
+         * 書き込みスレッドで発生した例外を再スローする。
+         * @throws IOException 書き込みに失敗した場合
+         */
+        void checkFailure() throws IOException {
+            final Throwable e = failure;
+            if(e == null) {
+                return;
+            }
+
+            if(e instanceof IOException) {
+                throw (IOException) e;
+            } else if(e instanceof RuntimeException) {
+                throw (RuntimeException) e;
+            } else if(e instanceof Error) {
+                throw (Error) e;
+            }
+            throw new IOException(e);
+        }
+
+        /**
+         * 待ち行列に要素を追加する。
+         * <p>書き込みスレッドが終了している場合は、待機せずに失敗とする。
+         */
+        private void send(final RowBatch item) throws IOException {
+            try {
+                while(!queue.offer(item, OFFER_TIMEOUT_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if(!thread.isAlive()) {
+                        break;
+                    }
+                }
+            } catch(InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("interrupted while passing rows to the writer thread.");
+            }
+
+            if(failure != null || !thread.isAlive()) {
+                checkFailure();
+                throw new IOException("the writer thread has terminated.");
+            }
+        }
+
+        /**
+         * 書き込みスレッドの処理。
+         */
+        @Override
+        public void run() {
+            try {
+                writer.start();
+                while(true) {
+                    final RowBatch item = queue.take();
+                    if(item == END) {
+                        break;
+                    }
+
+                    for(int i=0; i < item.size; i++) {
+                        writer.write(item.rowIndexes[i], item.firstColumns[i], item.rows[i]);
+                    }
+                }
+                writer.finish();
+
+            } catch(Throwable e) {
+                this.failure = e;
+            }
+        }
+
+    }
+
+    /**
+     * 射影で指定した列のみを、指定した順番に並べ替えて渡すハンドラ。
+     */
+    private static class ProjectedRowHandler implements CellFormatRowHandler {
+
+        private final int[] columns;
+
+        private final CellFormatRowHandler handler;
+
+        private final CellFormatResult[] projected;
+
+        ProjectedRowHandler(final int[] columns, final CellFormatRowHandler handler) {
+            this.columns = columns;
+            this.handler = handler;
+            this.projected = new CellFormatResult[columns.length];
+        }
+
+        @Override
+        public void handleRow(final int rowIndex, final int firstColumn, final CellFormatResult[] results) {
+            for(int i=0; i < columns.length; i++) {
+                final int index = columns[i] - firstColumn;
+                projected[i] = (index >= 0 && index < results.length) ? results[index] : null;
+            }
+
+            handler.handleRow(rowIndex, columns[0], projected);
+        }
+
+    }
+
+    /**
+     * 書き込みスレッドにまとめて渡す行。
+     */
+    private static class RowBatch {
+
+        private final int[] rowIndexes;
+
+        private final int[] firstColumns;
+
+        private final CellFormatResult[][] rows;
+
+        private int size;
+
+        RowBatch(final int capacity) {
+            this.rowIndexes = new int[capacity];
+            this.firstColumns = new int[capacity];
+            this.rows = new CellFormatResult[capacity][];
+        }
+
+        void add(final int rowIndex, final int firstColumn, final CellFormatResult[] results) {
+            rowIndexes[size] = rowIndex;
+            firstColumns[size] = firstColumn;
+            rows[size] = results;
+            size++;
+        }
+
+        boolean isFull() {
+            return size == rows.length;
+        }
+
+    }
+
+    /**
+     * フォーマットに使用する{@link POICellFormatter}を取得する。
+     * @return セルのフォーマッタ
+     */
+    public POICellFormatter getCellFormatter() {
+        return cellFormatter;
+    }
+
+    /**
+     * フォーマットする際のロケールを取得する。
+     * @return 初期値は{@link Locale#getDefault()}。
+     */
+    public Locale getLocale() {
+        return locale;
+    }
+
+    /**
+     * フォーマットする際のロケールを設定する。
+     * @param locale ロケール。nullの場合は、{@link POICellFormatter}の既定の動作となる。
+     */
+    public void setLocale(Locale locale) {
+        this.locale = locale;
+    }
+
+    /**
+     * 書き込み用のバッファの容量を取得する。
+     * @return 初期値は{@value #DEFAULT_BUFFER_SIZE}バイト。
+     */
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * 書き込み用のバッファの容量を設定する。
+     * <p>変換したバイト列がこの容量に達するごとに、チャネルに書き込みます。
+     * @param bufferSize バイト数
+     * @throws IllegalArgumentException {@literal bufferSize < 1}
+     */
+    public void setBufferSize(int bufferSize) {
+        ArgUtils.notMin(bufferSize, 1, "bufferSize");
+        this.bufferSize = bufferSize;
+    }
+
+    /**
+     * 読み込みと書き込みを別のスレッドで行うかどうか。
+     * @return true:別のスレッドで行う場合。初期値はfalse。
+     */
+    public boolean isPipelined() {
+        return pipelined;
+    }
+
+    /**
+     * 読み込みと書き込みを別のスレッドで行うかどうか設定する。
+     * <p>trueの場合、出力ごとに書き込み用のスレッドを作成します。
+     *    シートの読み込みとフォーマットは、呼び出し元のスレッドで行います。</p>
+     * @param pipelined true:別のスレッドで行う場合。
+     */
+    public void setPipelined(boolean pipelined) {
+        this.pipelined = pipelined;
+    }
+
+    /**
+     * パイプライン処理時の待ち行列の容量を取得する。
+     * @return 初期値は{@value #DEFAULT_QUEUE_CAPACITY}。
+     */
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    /**
+     * パイプライン処理時の待ち行列の容量を設定する。
+     * <p>待ち行列の1つの要素は、最大256行分の結果です。
+     *    待ち行列が一杯の場合、読み込み側のスレッドは書き込みが進むまで待機します。</p>
+     * @param queueCapacity 待ち行列の容量
+     * @throws IllegalArgumentException {@literal queueCapacity < 1}
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        ArgUtils.notMin(queueCapacity, 1, "queueCapacity");
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * 物理的に存在しない行を出力しないかどうか。
+     * @return true:出力しない場合。初期値はfalse。
+     */
+    public boolean isSkipMissingRows() {
+        return skipMissingRows;
+    }
+
+    /**
+     * 物理的に存在しない行を出力しないかどうか設定する。
+     * <p>falseの場合、出力した行の間にある存在しない行を、空の行として出力します。
+     *    最初に出力する行より前の行は出力しません。</p>
+     * @param skipMissingRows true:出力しない場合。
+     */
+    public void setSkipMissingRows(boolean skipMissingRows) {
+        this.skipMissingRows = skipMissingRows;
+    }
+
+    /**
+     * 出力対象の列と行を取得する。
+     * @return 設定していない場合はnull。
+     */
+    public CellProjection getProjection() {
+        return projection;
+    }
+
+    /**
+     * 出力対象の列と行を設定する。
+     * <p>列を指定した場合は、指定した順番で出力します。
+     *    間引いた行や範囲外の行は、{@link #isSkipMissingRows()}に関わらず出力しません。</p>
+     * @param projection 射影。nullの場合は、全ての列と行を出力します。
+     */
+    public void setProjection(CellProjection projection) {
+        this.projection = projection;
+    }
+
+}
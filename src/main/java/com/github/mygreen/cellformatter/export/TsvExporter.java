@@ -0,0 +1,53 @@
+package com.github.mygreen.cellformatter.export;
+
+import com.github.mygreen.cellformatter.CellFormatResult;
+import com.github.mygreen.cellformatter.POICellFormatter;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
+
+
+/**
+ * シートのセルの値を、タブ区切り（TSV）形式で出力するクラス。
+ * <p>値をクォートで囲まずに、値の中のタブ、改行、バックスラッシュを、
+ *    {@literal \t}、{@literal \n}、{@literal \r}、{@literal \\}にエスケープします。
+ *    <br>行の区切りは{@literal LF}です。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class TsvExporter extends SheetExporter {
+
+    /**
+     * 値の中の置換
+     */
+    private static final byte[][] ESCAPES = new byte[128][];
+    static {
+        ESCAPES['\t'] = Utf8Sink.encode("\\t");
+        ESCAPES['\n'] = Utf8Sink.encode("\\n");
+        ESCAPES['\r'] = Utf8Sink.encode("\\r");
+        ESCAPES['\\'] = Utf8Sink.encode("\\\\");
+    }
+
+    /**
+     * フォーマットに使用する{@link POICellFormatter}を指定してインスタンスを作成する。
+     * @param cellFormatter セルのフォーマッタ
+     * @throws IllegalArgumentException {@literal cellFormatter == null.}
+     */
+    public TsvExporter(final POICellFormatter cellFormatter) {
+        super(cellFormatter);
+    }
+
+    @Override
+    protected void writeRow(final Utf8Sink sink, final int rowIndex, final int firstColumn, final CellFormatResult[] results) {
+
+        for(int i=0; i < results.length; i++) {
+            if(i > 0) {
+                sink.append('\t');
+            }
+            appendEscaped(sink, getText(results[i]), ESCAPES);
+        }
+
+        sink.append('\n');
+    }
+
+}
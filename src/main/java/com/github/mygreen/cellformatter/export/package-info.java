@@ -0,0 +1,7 @@
+/**
+ * シートのセルの値を、フォーマットしたテキストとして出力する機能を提供する。
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+package com.github.mygreen.cellformatter.export;
@@ -3,6 +3,7 @@ package com.github.mygreen.cellformatter.lang;
 import java.math.BigDecimal;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.LocalDateTime;
 import java.util.Date;
 import java.util.TimeZone;
 import java.util.concurrent.TimeUnit;
@@ -14,6 +15,7 @@ import java.util.concurrent.TimeUnit;
  *  <li>Javaの形式に変換したときは、1900年3月1日扱いとする。</li>
  * </ul>
  *
+ * @version 0.13
  * @since 0.6
  * @author T.TSUCHIE
  *
@@ -62,6 +64,11 @@ public class ExcelDateUtils {
         OFFSET_DAYS_1904 = (int) offsetDay1904;
     }
     
+    /**
+     * 24時間のミリ秒。
+     */
+    private static final long MILLISECONDS_IN_DAYS = TimeUnit.DAYS.toMillis(1);
+    
     /**
      * 1900年開始の場合、3月1日の経過日数。
      * <p>1900年は閏年ではないが、Excelの場合は閏年扱いのため、
@@ -136,7 +143,7 @@ public class ExcelDateUtils {
      * @param value 変換対象のJava表現上の日時。タイムゾーンを排除した（GMT-00:00）日時。
      * @param startDate1904 基準日が1904年始まりかどうか。
      * @return Excel表現上に変換した数値。
-     * @throws IllegalArgumentException {@literal value == nulll.}
+     * @throws IllegalArgumentException {@literal value == null.}
      */
     public static double convertExcelNumber(final Date value, final boolean startDate1904) {
         
@@ -168,6 +175,84 @@ public class ExcelDateUtils {
         
     }
     
+    /**
+     * Excel表現上の経過時間（単位はミリ秒）を、Javaの{@link Date}型(UTC形式)に変換する。
+     * <p>{@link #convertJavaDate(double, boolean)}と同様に、1900年始まりの場合の閏日の補正を行います。
+     *    <br>ただし、秒単位への丸めは行わず、ミリ秒の値をそのまま保持します。</p>
+     * @since 0.13
+     * @param millis 基準日からの経過時間（単位はミリ秒）。Excel表現上の数値に1日のミリ秒を掛けた値。
+     * @param startDate1904 基準日が1904年始まりかどうか。
+     * @return Java表現上に変換した日時。タイムゾーンは考慮されていない（=GMT-00:00）。
+     */
+    public static Date convertJavaDate(final long millis, final boolean startDate1904) {
+        
+        if(startDate1904) {
+            return new Date(millis + OFFSET_DAYS_1904 * MILLISECONDS_IN_DAYS);
+        }
+        
+        long utcTime = millis + OFFSET_DAYS_1900 * MILLISECONDS_IN_DAYS;
+        if(millis >= NON_LEAP_DAY * MILLISECONDS_IN_DAYS) {
+            // 1900年3月1日（Excel上は1900年2月29日）以降の場合の補正。
+            utcTime -= MILLISECONDS_IN_DAYS;
+        }
+        return new Date(utcTime);
+        
+    }
+    
+    /**
+     * タイムゾーンを持たない{@link LocalDateTime}を、Javaの{@link Date}型(UTC形式)に変換する。
+     * <p>{@link TimeZone}を参照せずに、日時の各項目をそのままUTC上の日時とします。
+     * @since 0.13
+     * @param value 変換対象の日時。
+     * @return Java表現上に変換した日時。タイムゾーンは考慮されていない（=GMT-00:00）。
+     * @throws IllegalArgumentException {@literal value == null.}
+     */
+    public static Date convertJavaDate(final LocalDateTime value) {
+        
+        ArgUtils.notNull(value, "value");
+        
+        return new Date(value.toLocalDate().toEpochDay() * MILLISECONDS_IN_DAYS + getMillisOfDay(value));
+    }
+    
+    /**
+     * タイムゾーンを持たない{@link LocalDateTime}を、Excelの内部表現の数値に変換する。
+     * <p>{@link BigDecimal}を使用せずに、ミリ秒単位の整数で計算してから、1回の除算で数値に変換します。
+     *    <br>ミリ秒未満の値は切り捨てます。</p>
+     * <p>1900年始まりの場合は、{@link #convertExcelNumber(Date, boolean)}と同様に、{@literal 60.0}への変換はできません。</p>
+     * @since 0.13
+     * @param value 変換対象の日時。
+     * @param startDate1904 基準日が1904年始まりかどうか。
+     * @return Excel表現上に変換した数値。
+     * @throws IllegalArgumentException {@literal value == null.}
+     */
+    public static double convertExcelNumber(final LocalDateTime value, final boolean startDate1904) {
+        
+        ArgUtils.notNull(value, "value");
+        
+        final long epochDay = value.toLocalDate().toEpochDay();
+        long millis;
+        if(startDate1904) {
+            millis = (epochDay - OFFSET_DAYS_1904) * MILLISECONDS_IN_DAYS + getMillisOfDay(value);
+            
+        } else {
+            millis = (epochDay - OFFSET_DAYS_1900) * MILLISECONDS_IN_DAYS + getMillisOfDay(value);
+            
+            if(millis >= (NON_LEAP_DAY - 1) * MILLISECONDS_IN_DAYS) {
+                millis += MILLISECONDS_IN_DAYS;
+            }
+        }
+        
+        return (double) millis / MILLISECONDS_IN_DAYS;
+        
+    }
+    
+    /**
+     * 日時の時刻部分をミリ秒で取得する。
+     */
+    private static long getMillisOfDay(final LocalDateTime value) {
+        return value.toLocalTime().toNanoOfDay() / TimeUnit.MILLISECONDS.toNanos(1);
+    }
+    
     /**
      * 日時形式を{@literal yyyy-MM-dd HH:mm:ss.SSS}の書式でフォーマットする。
      * <p>ただし、タイムゾーンは、標準時間の{@literal GMT-00:00}で処理する。
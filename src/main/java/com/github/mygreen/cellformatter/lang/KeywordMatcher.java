@@ -0,0 +1,182 @@
+package com.github.mygreen.cellformatter.lang;
+
+
+/**
+ * 書式のキーワードを、トライ木を使用して照合するクラス。
+ * <p>文字列の位置ごとに全てのキーワードを比較する代わりに、1文字ずつ木を辿ることで、
+ *    キーワードの長さ分の比較のみで一致するキーワードを判定する。
+ * <p>キーワードはASCII文字のみで構成されている必要がある。
+ * <p>大文字・小文字を無視する場合は、{@link String#regionMatches(boolean, int, String, int, int)}と同じ規則で比較する。
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class KeywordMatcher {
+
+    /**
+     * キーワードとして扱える文字の範囲
+     */
+    private static final int CHAR_RANGE = 128;
+
+    /**
+     * 大文字・小文字を無視するかどうか。
+     */
+    private final boolean ignoreCase;
+
+    /**
+     * トライ木の根
+     */
+    private final Node root = new Node();
+
+    /**
+     * キーワードを指定してインスタンスを作成する。
+     * @param keywords 照合するキーワード。
+     * @param ignoreCase 大文字・小文字を無視するかどうか。
+     * @throws IllegalArgumentException keywords is empty.
+     * @throws IllegalArgumentException keywords contains empty or non ascii keyword.
+     */
+    public KeywordMatcher(final String[] keywords, final boolean ignoreCase) {
+        ArgUtils.notEmpty(keywords, "keywords");
+
+        this.ignoreCase = ignoreCase;
+
+        for(String keyword : keywords) {
+            ArgUtils.notEmpty(keyword, "keyword");
+            add(keyword);
+        }
+    }
+
+    private void add(final String keyword) {
+
+        Node node = root;
+        final int length = keyword.length();
+        for(int i=0; i < length; i++) {
+            final int key = toKey(keyword.charAt(i));
+            if(key >= CHAR_RANGE) {
+                throw new IllegalArgumentException(String.format("keyword '%s' should be ascii characters.", keyword));
+            }
+
+            node = node.getOrCreateChild(key);
+        }
+
+        node.terminal = true;
+    }
+
+    /**
+     * 比較用の文字に変換する。
+     * @param c 変換対象の文字
+     * @return 大文字・小文字を無視する場合は、大文字を小文字にした値。
+     */
+    private int toKey(final char c) {
+        if(ignoreCase) {
+            return Character.toLowerCase(Character.toUpperCase(c));
+        }
+        return c;
+    }
+
+    /**
+     * 指定した位置から始まる、最も長いキーワードの長さを取得する。
+     * @param str 照合対象の文字列
+     * @param offset 照合を開始する位置
+     * @return 一致するキーワードがない場合は0を返す。
+     */
+    public int matchLength(final String str, final int offset) {
+
+        int matchLength = 0;
+
+        Node node = root;
+        final int length = str.length();
+        for(int i=offset; i < length; i++) {
+            node = node.getChild(toKey(str.charAt(i)));
+            if(node == null) {
+                break;
+            }
+
+            if(node.terminal) {
+                matchLength = i - offset + 1;
+            }
+        }
+
+        return matchLength;
+    }
+
+    /**
+     * 指定した位置から始まるキーワードがあるかどうか。
+     * @param str 照合対象の文字列
+     * @param offset 照合を開始する位置
+     * @return true:何れかのキーワードと一致する場合。
+     */
+    public boolean startsWithAny(final String str, final int offset) {
+
+        Node node = root;
+        final int length = str.length();
+        for(int i=offset; i < length; i++) {
+            node = node.getChild(toKey(str.charAt(i)));
+            if(node == null) {
+                return false;
+            }
+
+            if(node.terminal) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * 文字列中に何れかのキーワードを含むかどうか。
+     * @param str 照合対象の文字列
+     * @return true:何れかのキーワードを含む場合。引数がnullの場合はfalseを返す。
+     */
+    public boolean containsAny(final String str) {
+
+        if(str == null) {
+            return false;
+        }
+
+        final int length = str.length();
+        for(int i=0; i < length; i++) {
+            if(startsWithAny(str, i)) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * トライ木の節
+     */
+    private static class Node {
+
+        /** 子の節。子がない場合はnull。 */
+        private Node[] children;
+
+        /** キーワードの終端かどうか。 */
+        private boolean terminal;
+
+        Node getChild(final int key) {
+            if(children == null || key >= CHAR_RANGE) {
+                return null;
+            }
+            return children[key];
+        }
+
+        Node getOrCreateChild(final int key) {
+            if(children == null) {
+                children = new Node[CHAR_RANGE];
+            }
+
+            Node child = children[key];
+            if(child == null) {
+                child = new Node();
+                children[key] = child;
+            }
+            return child;
+        }
+
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.github.mygreen.cellformatter.lang;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+
+/**
+ * フォーマットした文字列を共有するためのプール。
+ * <p>大量のセルをフォーマットして結果を保持する場合に、「0」「-」や同じ日付など、
+ *    同じ内容の文字列を同一のインスタンスにまとめることで、保持するメモリを削減します。</p>
+ * <p>保持する件数には上限があり、上限に達した後は新たな文字列は登録せずに、そのまま返します。
+ *    また、長い文字列は重複する可能性が低いため、登録しません。</p>
+ * <p>シート単位や列単位で共有する場合は、それぞれでインスタンスを作成します。
+ *    <br>スレッドセーフです。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class TextPool {
+
+    /** 登録する文字列の最大の長さの初期値 */
+    private static final int DEFAULT_MAX_LENGTH = 64;
+
+    /**
+     * 保持する件数の上限
+     */
+    private final int maxSize;
+
+    /**
+     * 登録する文字列の最大の長さ
+     */
+    private final int maxLength;
+
+    /**
+     * 保持している文字列
+     */
+    private final Map<String, String> pool;
+
+    /**
+     * 保持している文字列を返した回数
+     */
+    private final LongAdder hitCount = new LongAdder();
+
+    /**
+     * 登録する文字列の最大の長さを64文字として、インスタンスを作成する。
+     * @param maxSize 保持する件数の上限。
+     * @throws IllegalArgumentException {@literal maxSize < 1}
+     */
+    public TextPool(final int maxSize) {
+        this(maxSize, DEFAULT_MAX_LENGTH);
+    }
+
+    /**
+     * 保持する件数の上限と、登録する文字列の最大の長さを指定して、インスタンスを作成する。
+     * @param maxSize 保持する件数の上限。
+     * @param maxLength 登録する文字列の最大の長さ。
+     * @throws IllegalArgumentException {@literal maxSize < 1 or maxLength < 0}
+     */
+    public TextPool(final int maxSize, final int maxLength) {
+        ArgUtils.notMin(maxSize, 1, "maxSize");
+        ArgUtils.notMin(maxLength, 0, "maxLength");
+
+        this.maxSize = maxSize;
+        this.maxLength = maxLength;
+        this.pool = new ConcurrentHashMap<>(Math.min(maxSize, 1024));
+    }
+
+    /**
+     * 同じ内容の文字列を保持している場合は、そのインスタンスを返す。
+     * <p>保持していない場合は、上限に達していなければ登録して、引数の文字列をそのまま返します。
+     * @param text 対象の文字列。
+     * @return 共有する文字列のインスタンス。textがnullの場合は、nullを返す。
+     */
+    public String intern(final String text) {
+        if(text == null || text.length() > maxLength) {
+            return text;
+        }
+
+        final String pooled = pool.get(text);
+        if(pooled != null) {
+            hitCount.increment();
+            return pooled;
+        }
+
+        if(pool.size() >= maxSize) {
+            return text;
+        }
+
+        final String registered = pool.putIfAbsent(text, text);
+        if(registered != null) {
+            hitCount.increment();
+            return registered;
+        }
+
+        return text;
+    }
+
+    /**
+     * 保持している文字列を全て破棄する。
+     */
+    public void clear() {
+        pool.clear();
+    }
+
+    /**
+     * 保持している件数を取得する。
+     * @return 保持している件数
+     */
+    public int size() {
+        return pool.size();
+    }
+
+    /**
+     * 保持する件数の上限を取得する。
+     * @return 保持する件数の上限
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * 登録する文字列の最大の長さを取得する。
+     * @return 登録する文字列の最大の長さ
+     */
+    public int getMaxLength() {
+        return maxLength;
+    }
+
+    /**
+     * 保持している文字列を返した回数を取得する。
+     * @return 保持している文字列を返した回数
+     */
+    public long getHitCount() {
+        return hitCount.sum();
+    }
+
+}
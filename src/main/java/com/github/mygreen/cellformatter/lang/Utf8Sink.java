@@ -0,0 +1,284 @@
+package com.github.mygreen.cellformatter.lang;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+
+/**
+ * フォーマットした文字列を、UTF-8のバイト列として直接書き込むための可変長のバッファ。
+ * <p>セルごとに文字列を作成せずに、CSVなどの出力用のバイト列を作成する場合に利用します。</p>
+ * <p>数値や日時のフォーマット結果の多くはASCII文字のみで構成されるため、ASCII文字はそのまま1バイトとして書き込みます。
+ *    <br>「円」「年」や漢数字などの非ASCII文字は、UTF-8のマルチバイト文字として書き込みます。
+ *    対になっていないサロゲート文字は、{@literal '?'}として書き込みます。</p>
+ * <p>状態を持つため、スレッドセーフではありません。</p>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class Utf8Sink {
+
+    /** 初期の容量 */
+    private static final int DEFAULT_CAPACITY = 256;
+
+    /** 書き込んだバイト列 */
+    private byte[] buffer;
+
+    /** 書き込んだバイト数 */
+    private int size;
+
+    /**
+     * 初期の容量を256バイトとしてインスタンスを作成する。
+     */
+    public Utf8Sink() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * 初期の容量を指定してインスタンスを作成する。
+     * @param capacity 初期の容量。
+     * @throws IllegalArgumentException {@literal capacity < 0}
+     */
+    public Utf8Sink(final int capacity) {
+        ArgUtils.notMin(capacity, 0, "capacity");
+        this.buffer = new byte[capacity];
+    }
+
+    /**
+     * 文字列を、UTF-8のバイト列に変換して書き込む。
+     * @param str 書き込む文字列。nullの場合は何もしない。
+     * @return 自身のインスタンス。
+     */
+    public Utf8Sink append(final CharSequence str) {
+        if(str == null) {
+            return this;
+        }
+
+        return append(str, 0, str.length());
+    }
+
+    /**
+     * 文字列の一部を、UTF-8のバイト列に変換して書き込む。
+     * <p>エスケープが必要な文字の前後など、文字列を分割して書き込む場合に利用します。
+     * @param str 書き込む文字列。
+     * @param start 書き込みを開始する位置
+     * @param end 書き込みを終了する位置（この位置の文字は含まない）
+     * @return 自身のインスタンス。
+     * @throws IllegalArgumentException {@literal str == null}
+     * @throws IndexOutOfBoundsException {@literal start < 0 || start > end || end > str.length()}
+     */
+    public Utf8Sink append(final CharSequence str, final int start, final int end) {
+        ArgUtils.notNull(str, "str");
+        if(start < 0 || start > end || end > str.length()) {
+            throw new IndexOutOfBoundsException("start : " + start + ", end : " + end + ", length : " + str.length());
+        }
+
+        ensureCapacity(size + (end - start));
+
+        // ASCII文字が続く間は、そのまま書き込む
+        int index = start;
+        for(; index < end; index++) {
+            final char c = str.charAt(index);
+            if(c >= 0x80) {
+                break;
+            }
+            buffer[size++] = (byte) c;
+        }
+
+        if(index < end) {
+            appendNonAscii(str, index, end);
+        }
+
+        return this;
+    }
+
+    /**
+     * 1文字を、UTF-8のバイト列に変換して書き込む。
+     * <p>サロゲート文字は、対にならないため{@literal '?'}として書き込みます。
+     * @param c 書き込む文字。
+     * @return 自身のインスタンス。
+     */
+    public Utf8Sink append(final char c) {
+        if(c < 0x80) {
+            ensureCapacity(size + 1);
+            buffer[size++] = (byte) c;
+        } else {
+            appendNonAscii(String.valueOf(c), 0, 1);
+        }
+        return this;
+    }
+
+    /**
+     * UTF-8のバイト列をそのまま書き込む。
+     * <p>{@link #encode(CharSequence)}で事前に変換した固定の文字列を書き込む場合に利用します。
+     * @param bytes UTF-8のバイト列。
+     * @return 自身のインスタンス。
+     * @throws IllegalArgumentException {@literal bytes == null}
+     */
+    public Utf8Sink append(final byte[] bytes) {
+        ArgUtils.notNull(bytes, "bytes");
+
+        ensureCapacity(size + bytes.length);
+        System.arraycopy(bytes, 0, buffer, size, bytes.length);
+        size += bytes.length;
+        return this;
+    }
+
+    /**
+     * 非ASCII文字を含む文字列を書き込む。
+     * @param str 書き込む文字列
+     * @param start 書き込みを開始する位置
+     * @param end 書き込みを終了する位置
+     */
+    private void appendNonAscii(final CharSequence str, final int start, final int end) {
+
+        // 1文字あたり最大3バイト。サロゲートペアは2文字で4バイト。
+        ensureCapacity(size + (end - start) * 3);
+
+        for(int i=start; i < end; i++) {
+            final char c = str.charAt(i);
+
+            if(c < 0x80) {
+                buffer[size++] = (byte) c;
+
+            } else if(c < 0x800) {
+                buffer[size++] = (byte) (0xC0 | (c >> 6));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+
+            } else if(Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(str.charAt(i + 1))) {
+                final int codePoint = Character.toCodePoint(c, str.charAt(++i));
+                buffer[size++] = (byte) (0xF0 | (codePoint >> 18));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 12) & 0x3F));
+                buffer[size++] = (byte) (0x80 | ((codePoint >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (codePoint & 0x3F));
+
+            } else if(Character.isSurrogate(c)) {
+                // 対になっていないサロゲート文字
+                buffer[size++] = (byte) '?';
+
+            } else {
+                buffer[size++] = (byte) (0xE0 | (c >> 12));
+                buffer[size++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+                buffer[size++] = (byte) (0x80 | (c & 0x3F));
+            }
+        }
+
+    }
+
+    /**
+     * 容量を確保する。
+     * @param minCapacity 必要な容量
+     */
+    private void ensureCapacity(final int minCapacity) {
+        if(minCapacity <= buffer.length) {
+            return;
+        }
+
+        final int newCapacity = Math.max(buffer.length * 2, minCapacity);
+        this.buffer = Arrays.copyOf(buffer, newCapacity);
+    }
+
+    /**
+     * 書き込んだバイト数を取得する。
+     * @return 書き込んだバイト数。
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * 書き込んだ内容を破棄する。
+     * <p>確保した容量はそのまま再利用します。
+     */
+    public void clear() {
+        this.size = 0;
+    }
+
+    /**
+     * 書き込んだバイト列のコピーを取得する。
+     * @return 書き込んだバイト列。
+     */
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, size);
+    }
+
+    /**
+     * 書き込んだバイト列を{@link ByteBuffer}に書き込む。
+     * @param out 書き込み先
+     * @throws IllegalArgumentException {@literal out == null}
+     * @throws java.nio.BufferOverflowException 書き込み先の残りの容量が足りない場合。
+     */
+    public void writeTo(final ByteBuffer out) {
+        ArgUtils.notNull(out, "out");
+        out.put(buffer, 0, size);
+    }
+
+    /**
+     * 書き込んだバイト列を{@link OutputStream}に書き込む。
+     * @param out 書き込み先
+     * @throws IOException 書き込みに失敗した場合。
+     * @throws IllegalArgumentException {@literal out == null}
+     */
+    public void writeTo(final OutputStream out) throws IOException {
+        ArgUtils.notNull(out, "out");
+        out.write(buffer, 0, size);
+    }
+
+    /**
+     * 書き込んだバイト列を、中継用の{@link ByteBuffer}を経由して{@link WritableByteChannel}に書き込む。
+     * <p>中継用のバッファの容量ごとに分割して、全てのバイト列を書き込みます。
+     *    <br>ダイレクトバッファを指定すると、チャネルへの書き込み時のコピーを省略できます。</p>
+     * <p>書き込んだ内容は破棄しないため、必要に応じて{@link #clear()}を呼び出してください。</p>
+     * @param channel 書き込み先
+     * @param buffer 中継用のバッファ。書き込む前にクリアします。
+     * @throws IOException 書き込みに失敗した場合。
+     * @throws IllegalArgumentException {@literal channel == null || buffer == null || buffer.capacity() == 0}
+     */
+    public void writeTo(final WritableByteChannel channel, final ByteBuffer buffer) throws IOException {
+        ArgUtils.notNull(channel, "channel");
+        ArgUtils.notNull(buffer, "buffer");
+        ArgUtils.notMin(buffer.capacity(), 1, "buffer.capacity");
+
+        int offset = 0;
+        while(offset < size) {
+            buffer.clear();
+            final int length = Math.min(buffer.remaining(), size - offset);
+            buffer.put(this.buffer, offset, length);
+            buffer.flip();
+
+            while(buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            offset += length;
+        }
+    }
+
+    /**
+     * 書き込んだバイト列を文字列に変換して取得する。
+     * @return UTF-8としてデコードした文字列。
+     */
+    @Override
+    public String toString() {
+        return new String(buffer, 0, size, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * 文字列をUTF-8のバイト列に変換する。
+     * <p>{@link #append(CharSequence)}と同じく、対になっていないサロゲート文字は{@literal '?'}に変換します。
+     * @param str 変換対象の文字列。
+     * @return UTF-8のバイト列。
+     * @throws IllegalArgumentException {@literal str == null}
+     */
+    public static byte[] encode(final CharSequence str) {
+        ArgUtils.notNull(str, "str");
+
+        final Utf8Sink sink = new Utf8Sink(str.length());
+        sink.append(str);
+        return sink.toByteArray();
+    }
+
+}
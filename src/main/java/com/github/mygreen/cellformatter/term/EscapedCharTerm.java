@@ -4,6 +4,7 @@ import java.util.Locale;
 
 import com.github.mygreen.cellformatter.lang.ArgUtils;
 import com.github.mygreen.cellformatter.lang.MSLocale;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
 import com.github.mygreen.cellformatter.tokenizer.Token;
 
 
@@ -16,9 +17,13 @@ public class EscapedCharTerm<T> implements Term<T> {
     
     private final Token.EscapedChar token;
     
+    /** 出力する文字列をUTF-8に変換したバイト列 */
+    private final byte[] utf8;
+    
     public EscapedCharTerm(final Token.EscapedChar token) {
         ArgUtils.notNull(token, "token");
         this.token = token;
+        this.utf8 = Utf8Sink.encode(token.getChar());
     }
     
     @Override
@@ -26,6 +31,16 @@ public class EscapedCharTerm<T> implements Term<T> {
         return token.getChar();
     }
     
+    /**
+     * {@inheritDoc}
+     * <p>事前に変換したバイト列を書き込みます。</p>
+     * @since 0.13
+     */
+    @Override
+    public void formatTo(final T value, final MSLocale formatLocale, final Locale runtimeLocale, final Utf8Sink sink) {
+        sink.append(utf8);
+    }
+    
     public Token.EscapedChar getToken() {
         return token;
     }
@@ -3,10 +3,12 @@ package com.github.mygreen.cellformatter.term;
 import java.util.Locale;
 
 import com.github.mygreen.cellformatter.lang.MSLocale;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
 
 
 /**
  * フォーマッタ中の項を表現するインタフェース。
+ * @version 0.13
  * @author T.TSUCHIE
  * @param <T> フォーマットするオブジェクトのタイプ。
  */
@@ -21,4 +23,18 @@ public interface Term<T> {
      */
     String format(T value, MSLocale formatLocale, Locale runtimeLocale);
     
+    /**
+     * 値をフォーマットし、UTF-8のバイト列として書き込む。
+     * <p>標準の実装は、{@link #format(Object, MSLocale, Locale)}の結果を書き込みます。
+     *    固定の文字列を出力する項は、事前に変換したバイト列を書き込むよう上書きします。</p>
+     * @since 0.13
+     * @param value
+     * @param formatLocale 書式上のロケール。nullである場合がある。
+     * @param runtimeLocale 実行環境のロケール。
+     * @param sink 書き込み先。
+     */
+    default void formatTo(T value, MSLocale formatLocale, Locale runtimeLocale, Utf8Sink sink) {
+        sink.append(format(value, formatLocale, runtimeLocale));
+    }
+    
 }
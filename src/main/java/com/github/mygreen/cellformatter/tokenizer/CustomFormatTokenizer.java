@@ -1,201 +1,215 @@
 package com.github.mygreen.cellformatter.tokenizer;
 
-import java.util.LinkedList;
-
 import com.github.mygreen.cellformatter.lang.Utils;
 
 
 /**
  * カスタム定義の書式をトークンに分割する。
+ * <p>書式の文字列に対するインデックスのみを保持し、1回の走査でトークンを切り出す。
+ *
+ * @version 0.13
  * @author T.TSUCHIE
  *
  */
 public class CustomFormatTokenizer {
-    
+
+    /**
+     * 切り出し中のトークンの状態。
+     * <p>切り出し中の文字列の先頭の文字によって決まる。
+     */
+    private enum State {
+        /** 切り出し中の文字がない状態 */
+        EMPTY,
+        /** ダブルクウォート'"'で始まる文字列の中 */
+        WORD,
+        /** 括弧'['で始まる条件の中 */
+        CONDITION,
+        /** それ以外の因子の中 */
+        FACTOR,
+        ;
+    }
+
     /**
      * 書式をトークンに分割する。
      * @param pattern Excelの書式
      * @return
      */
     public TokenStore parse(final String pattern) {
-        
+
         final TokenStore store = new TokenStore();
         if(Utils.isEmpty(pattern)) {
             return store;
         }
-        
+
         splitToken(store, pattern);
         return store;
     }
-    
+
     private void splitToken(final TokenStore store, final String pattern) {
-        
-        // 解析時の途中の文字を一時的に補完しておく。
-        final LinkedList<String> stack = new LinkedList<String>();
-        
+
         final int length = pattern.length();
+
+        // 切り出し中のトークンの開始位置と状態
+        int start = 0;
+        State state = State.EMPTY;
+
         for(int i=0; i < length; i++) {
             final char c = pattern.charAt(i);
-            
-            if(StackUtils.equalsAnyTopElement(stack, Token.STR_ESCAPES)) {
-                
-                // スタックの一番上がエスケープの文字だが、文字列の囲み文字(")の終了の場合は、文字列として追加する
-                if(c == '"' && StackUtils.equalsBottomElement(stack, "\"")) {
-                    store.add(Token.word(StackUtils.popupAndConcat(stack) + c));
+
+            if(state != State.EMPTY && isEscapeChar(pattern.charAt(i-1))) {
+
+                // 直前の文字がエスケープ文字だが、文字列の囲み文字(")の終了の場合は、文字列として追加する
+                if(c == '"' && state == State.WORD) {
+                    store.add(Token.word(pattern.substring(start, i+1)));
+                    state = State.EMPTY;
                     continue;
                 }
-                // スタックの一番上がエスケープ文字の場合でかつ、括弧や文字列などの囲み文字の中の場合は、通常の文字として扱う。
-                if(StackUtils.equalsAnyBottomElement(stack, new String[]{"[", "\""})) {
-                    stack.push(String.valueOf(c));
-                    
-                } else {
-                    // エスケープ文字として分割する。
-                    final String escapedChar = StackUtils.popup(stack);
-                    final String concatStr = StackUtils.popupAndConcat(stack);
-                    if(concatStr.length() >= 1) {
-                        // エスケープ文字以前の文字を追加する。
-                        store.add(Token.factor(concatStr));
-                    }
-                    
-                    store.add(Token.escapedChar(escapedChar + c));
-                    
-                }
-                
-                continue;
-            }
-            
-            if(c == '"') {
-                
-                if(StackUtils.equalsBottomElement(stack, "\"")) {
-                    // 文字列の囲み文字'"'の終わりの場合、文字列として追加する。
-                    store.add(Token.word(StackUtils.popupAndConcat(stack) + c));
-                    
-                } else if(!stack.isEmpty()) {
-                    // 文字列の引用符で始まらず、既に文字が入っている場合は、既存のものを取り出し分割する。
-                    // 既存のものはFactorとする。
-                    store.add(Token.factor(StackUtils.popupAndConcat(stack)));
-                    stack.push(String.valueOf(c));
-                    
-                } else {
-                    // 文字列の開始の場合
-                    stack.push(String.valueOf(c));
-                    
-                }
-                
-            } else if(c == '[') {
-                if(!stack.isEmpty() && !StackUtils.equalsBottomElement(stack, "\"")) {
-                    // 文字列の引用符の中ではなく、既に文字が入っている場合は、既存のものを取り出し分割する。
-                    // 既存のものはFactorとする。
-                    store.add(Token.factor(StackUtils.popupAndConcat(stack)));
-                }
-                
-                stack.push(String.valueOf(c));
-                
-            } else if(c == ']') {
-                
-                if(StackUtils.equalsBottomElement(stack, "[")) {
-                    // 条件の終わりの場合
-                    store.add(Token.condition(StackUtils.popupAndConcat(stack) + c));
-                    
-                } else {
-                    stack.push(String.valueOf(c));
-                }
-                
-            } else if(c == ';') {
-                
-                if(!stack.isEmpty()) {
-                    // 既に文字が入っている場合は、既存のものを取り出し分割する。
-                    store.add(Token.factor(StackUtils.popupAndConcat(stack)));
-                }
-                
-                store.add(Token.SYMBOL_SEMI_COLON);
-                
-            } else if(c == '_') {
-                if(StackUtils.equalsBottomElement(stack, "\"")) {
-                    // 文字列の中の場合の場合は、文字列として処理する。
-                    stack.push(String.valueOf(c));
-                    
+
+                // 直前の文字がエスケープ文字の場合でかつ、括弧や文字列などの囲み文字の中の場合は、通常の文字として扱う。
+                if(state == State.WORD || state == State.CONDITION) {
                     continue;
                 }
-                
-                // スタックに文字がある場合、既存のものを取り出し分割する。
-                if(!stack.isEmpty()) {
-                    store.add(Token.factor(StackUtils.popupAndConcat(stack)));
-                    
+
+                // エスケープ文字として分割する。エスケープ文字以前の文字は因子として追加する。
+                if(start < i-1) {
+                    store.add(Token.factor(pattern.substring(start, i-1)));
                 }
-                
-                // 次に続く１文字を取得する
-                StringBuilder next = new StringBuilder();
-                if(i + 1 < length) {
-                    i++;
-                    final char c2 = pattern.charAt(i);
-                    next.append(c2);
-                    
-                    if(c2 == '\\') {
-                        if(i + 1 < length) {
-                            i++;
-                            i++;
-                            final char c3 = pattern.charAt(i);
-                            next.append(c3);
+
+                store.add(Token.escapedChar(pattern.substring(i-1, i+1)));
+                state = State.EMPTY;
+                continue;
+            }
+
+            switch(c) {
+                case '"':
+                    if(state == State.WORD) {
+                        // 文字列の囲み文字'"'の終わりの場合、文字列として追加する。
+                        store.add(Token.word(pattern.substring(start, i+1)));
+                        state = State.EMPTY;
+
+                    } else {
+                        // 既に文字が入っている場合は、既存のものを因子として分割し、文字列を開始する。
+                        if(state != State.EMPTY) {
+                            store.add(Token.factor(pattern.substring(start, i)));
                         }
+                        start = i;
+                        state = State.WORD;
                     }
-                    
-                    store.add(Token.underscore(c + next.toString()));
-                    
-                } else {
-                    store.add(Token.factor(String.valueOf(c)));
-                }
-                
-                
-            } else if(c == '*') {
-                
-                if(StackUtils.equalsBottomElement(stack, "\"")) {
-                    // 文字列の中の場合の場合は、文字列として処理する。
-                    stack.push(String.valueOf(c));
-                    
-                    continue;
-                }
-                
-                // スタックに文字がある場合、既存のものを取り出し分割する。
-                if(!stack.isEmpty()) {
-                    store.add(Token.factor(StackUtils.popupAndConcat(stack)));
-                    
-                }
-                
-                // 次に続く１文字を取得する
-                StringBuilder next = new StringBuilder();
-                if(i + 1 < length) {
-                    i++;
-                    final char c2 = pattern.charAt(i);
-                    next.append(c2);
-                    
-                    if(c2 == '\\') {
-                        if(i + 1 < length) {
-                            i++;
-                            i++;
-                            final char c3 = pattern.charAt(i);
-                            next.append(c3);
-                        }
+                    break;
+
+                case '[':
+                    if(state == State.WORD) {
+                        // 文字列の引用符の中の場合は、通常の文字として扱う。
+                        break;
                     }
-                    
-                    store.add(Token.asterisk(c + next.toString()));
-                    
-                } else {
-                    store.add(Token.factor(String.valueOf(c)));
-                }
-                
-            } else {
-                
-                stack.push(String.valueOf(c));
+
+                    // 既に文字が入っている場合は、既存のものを因子として分割する。
+                    if(state != State.EMPTY) {
+                        store.add(Token.factor(pattern.substring(start, i)));
+                    }
+                    start = i;
+                    state = State.CONDITION;
+                    break;
+
+                case ']':
+                    if(state == State.CONDITION) {
+                        // 条件の終わりの場合
+                        store.add(Token.condition(pattern.substring(start, i+1)));
+                        state = State.EMPTY;
+
+                    } else if(state == State.EMPTY) {
+                        start = i;
+                        state = State.FACTOR;
+                    }
+                    break;
+
+                case ';':
+                    // 既に文字が入っている場合は、既存のものを因子として分割する。
+                    if(state != State.EMPTY) {
+                        store.add(Token.factor(pattern.substring(start, i)));
+                        state = State.EMPTY;
+                    }
+
+                    store.add(Token.SYMBOL_SEMI_COLON);
+                    break;
+
+                case '_':
+                case '*':
+                    if(state == State.WORD) {
+                        // 文字列の中の場合は、文字列として処理する。
+                        break;
+                    }
+
+                    // 既に文字が入っている場合は、既存のものを因子として分割する。
+                    if(state != State.EMPTY) {
+                        store.add(Token.factor(pattern.substring(start, i)));
+                        state = State.EMPTY;
+                    }
+
+                    i = splitAttachedChar(store, pattern, i);
+                    break;
+
+                default:
+                    if(state == State.EMPTY) {
+                        start = i;
+                        state = State.FACTOR;
+                    }
+                    break;
             }
-            
-            
+
         }
-        
-        if(!stack.isEmpty()) {
-            store.add(Token.factor(StackUtils.popupAndConcat(stack)));
+
+        if(state != State.EMPTY) {
+            store.add(Token.factor(pattern.substring(start, length)));
         }
-        
+
     }
-    
+
+    /**
+     * アンダースコア'_'、アスタリスク'*'とそれに続く次の1文字を切り出す。
+     * @param store 追加先のトークン
+     * @param pattern Excelの書式
+     * @param index 記号'_'または'*'の位置
+     * @return 最後に処理した文字の位置
+     */
+    private int splitAttachedChar(final TokenStore store, final String pattern, final int index) {
+
+        final char c = pattern.charAt(index);
+        final int length = pattern.length();
+
+        if(index + 1 >= length) {
+            // 続く文字がない場合は、因子とする。
+            store.add(Token.factor(pattern.substring(index, index+1)));
+            return index;
+        }
+
+        final String value;
+        int last = index + 1;
+        if(pattern.charAt(last) == '\\' && last + 1 < length) {
+            // エスケープ文字の場合は、2文字先の文字を付随する文字とする。
+            last += 2;
+            value = pattern.substring(index, index+2) + pattern.charAt(last);
+
+        } else {
+            value = pattern.substring(index, last+1);
+        }
+
+        if(c == '_') {
+            store.add(Token.underscore(value));
+        } else {
+            store.add(Token.asterisk(value));
+        }
+
+        return last;
+    }
+
+    /**
+     * エスケープ文字かどうか。
+     * @param c 判定対象の文字
+     * @return {@link Token#STR_ESCAPES}の何れかの場合trueを返す。
+     */
+    private static boolean isEscapeChar(final char c) {
+        return c == '\\' || c == '!';
+    }
+
 }
@@ -0,0 +1,248 @@
+package com.github.mygreen.cellformatter;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.IOException;
+import java.util.Locale;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.util.CellRangeAddress;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.Test;
+
+/**
+ * {@link CellResultCache}のテスタ
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class CellResultCacheTest {
+
+    @Test
+    public void testFormat() throws IOException {
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Row row = sheet.createRow(0);
+            final Cell cell = row.createCell(1);
+            cell.setCellValue(1234.5);
+
+            final CellResultCache cache = new CellResultCache(new POICellFormatter(), sheet);
+
+            final CellFormatResult result = cache.format(0, 1, Locale.JAPANESE);
+            assertThat(result.getText(), is("1234.5"));
+            assertThat(result.isModifiable(), is(false));
+
+            // 2回目以降は同じ結果
+            assertThat(cache.format(cell, Locale.JAPANESE), is(sameInstance(result)));
+            assertThat(cache.getHitCount(), is(1L));
+            assertThat(cache.getMissCount(), is(1L));
+
+            // ロケールごとに保持する
+            cache.format(0, 1, Locale.ENGLISH);
+            assertThat(cache.size(), is(2));
+
+            // 存在しないセル
+            assertThat(cache.format(5, 5, Locale.JAPANESE), is(sameInstance(CellFormatResult.BLANK)));
+            assertThat(cache.size(), is(2));
+        }
+    }
+
+    /**
+     * セルの値やスタイルを変更した場合は、フォーマットし直すこと。
+     */
+    @Test
+    public void testFormat_changed() throws IOException {
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Cell cell = sheet.createRow(0).createCell(0);
+            cell.setCellValue(1234.5);
+
+            final CellResultCache cache = new CellResultCache(new POICellFormatter(), sheet);
+            assertThat(cache.formatAsString(0, 0, Locale.JAPANESE), is("1234.5"));
+
+            // 値の変更
+            cell.setCellValue(10);
+            assertThat(cache.formatAsString(0, 0, Locale.JAPANESE), is("10"));
+
+            // スタイルの変更
+            final CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat("#,##0.00"));
+            cell.setCellStyle(style);
+            assertThat(cache.formatAsString(0, 0, Locale.JAPANESE), is("10.00"));
+
+            // 種類の変更
+            cell.setCellValue("abc");
+            assertThat(cache.formatAsString(0, 0, Locale.JAPANESE), is("abc"));
+
+            assertThat(cache.getMissCount(), is(4L));
+            assertThat(cache.size(), is(1));
+        }
+    }
+
+    /**
+     * 結合セルの場合は、値を持つセルの変更も検知すること。
+     */
+    @Test
+    public void testFormat_mergedCell() throws IOException {
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Row row = sheet.createRow(1);
+            final Cell valueCell = row.createCell(1);
+            valueCell.setCellValue("ABC");
+            row.createCell(2);
+            sheet.addMergedRegion(CellRangeAddress.valueOf("B2:C2"));
+
+            final CellResultCache cache = new CellResultCache(new POICellFormatter(), sheet);
+            assertThat(cache.formatAsString(1, 2, Locale.JAPANESE), is("ABC"));
+            assertThat(cache.formatAsString(1, 2, Locale.JAPANESE), is("ABC"));
+            assertThat(cache.getMissCount(), is(1L));
+
+            // 種類の変更
+            valueCell.setCellValue(12.5);
+            assertThat(cache.formatAsString(1, 2, Locale.JAPANESE), is("12.5"));
+            assertThat(cache.getMissCount(), is(2L));
+
+            // 数値の変更
+            valueCell.setCellValue(100);
+            assertThat(cache.formatAsString(1, 2, Locale.JAPANESE), is("100"));
+            assertThat(cache.getMissCount(), is(3L));
+        }
+    }
+
+    /**
+     * 文字列や数式の文字列の変更は検知せず、明示的に破棄したときにフォーマットし直すこと。
+     */
+    @Test
+    public void testFormat_invalidateText() throws IOException {
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Row row = sheet.createRow(0);
+            final Cell textCell = row.createCell(0);
+            textCell.setCellValue("ABC");
+            final Cell formulaCell = row.createCell(1);
+            formulaCell.setCellFormula("1+2");
+
+            final CellResultCache cache = new CellResultCache(new POICellFormatter(), sheet);
+            assertThat(cache.formatAsString(0, 0, Locale.JAPANESE), is("ABC"));
+            assertThat(cache.formatAsString(0, 1, Locale.JAPANESE), is("3"));
+
+            textCell.setCellValue("DEF");
+            formulaCell.setCellFormula("2+3");
+            assertThat(cache.formatAsString(0, 0, Locale.JAPANESE), is("ABC"));
+            assertThat(cache.formatAsString(0, 1, Locale.JAPANESE), is("3"));
+            assertThat(cache.getHitCount(), is(2L));
+
+            cache.invalidate(0, 0);
+            cache.invalidate(0, 1);
+            assertThat(cache.formatAsString(0, 0, Locale.JAPANESE), is("DEF"));
+            assertThat(cache.formatAsString(0, 1, Locale.JAPANESE), is("5"));
+        }
+    }
+
+    /**
+     * 値を持つセルがない結合セルの場合は、空セルの結果を保持すること。
+     */
+    @Test
+    public void testFormat_mergedBlank() throws IOException {
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Row row = sheet.createRow(1);
+            row.createCell(1);
+            row.createCell(2);
+            sheet.addMergedRegion(CellRangeAddress.valueOf("B2:C2"));
+
+            final CellResultCache cache = new CellResultCache(new POICellFormatter(), sheet);
+            assertThat(cache.format(1, 2, Locale.JAPANESE), is(sameInstance(CellFormatResult.BLANK)));
+            assertThat(cache.format(1, 2, Locale.JAPANESE), is(sameInstance(CellFormatResult.BLANK)));
+            assertThat(cache.getHitCount(), is(1L));
+            assertThat(cache.getMissCount(), is(1L));
+
+            // 後から値を設定した場合は、フォーマットし直す。
+            row.getCell(1).setCellValue("ABC");
+            cache.invalidate(1, 2);
+            assertThat(cache.formatAsString(1, 2, Locale.JAPANESE), is("ABC"));
+        }
+    }
+
+    /**
+     * 行と列のインデックス番号が大きいセルも、位置ごとに区別して保持すること。
+     */
+    @Test
+    public void testInvalidate_largeIndex() throws IOException {
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            sheet.createRow(0).createCell(16383).setCellValue(1);
+            sheet.createRow(1048575).createCell(16383).setCellValue(2);
+            sheet.getRow(1048575).createCell(0).setCellValue(3);
+
+            final CellResultCache cache = new CellResultCache(new POICellFormatter(), sheet);
+            assertThat(cache.formatAsString(0, 16383, Locale.JAPANESE), is("1"));
+            assertThat(cache.formatAsString(1048575, 16383, Locale.JAPANESE), is("2"));
+            assertThat(cache.formatAsString(1048575, 0, Locale.JAPANESE), is("3"));
+            assertThat(cache.size(), is(3));
+
+            cache.invalidateRow(1048575);
+            assertThat(cache.size(), is(1));
+            assertThat(cache.formatAsString(0, 16383, Locale.JAPANESE), is("1"));
+            assertThat(cache.getHitCount(), is(1L));
+        }
+    }
+
+    @Test
+    public void testInvalidate() throws IOException {
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            for(int r=0; r < 2; r++) {
+                final Row row = sheet.createRow(r);
+                for(int c=0; c < 3; c++) {
+                    row.createCell(c).setCellValue(r * 10 + c);
+                }
+            }
+
+            final CellResultCache cache = new CellResultCache(new POICellFormatter(), sheet);
+            for(int r=0; r < 2; r++) {
+                for(int c=0; c < 3; c++) {
+                    cache.format(r, c, Locale.JAPANESE);
+                    cache.format(r, c, Locale.ENGLISH);
+                }
+            }
+            assertThat(cache.size(), is(12));
+
+            cache.invalidate(0, 0);
+            assertThat(cache.size(), is(10));
+
+            cache.invalidateRow(1);
+            assertThat(cache.size(), is(4));
+
+            cache.invalidateAll();
+            assertThat(cache.size(), is(0));
+
+            assertThat(cache.formatAsString(1, 2, Locale.JAPANESE), is("12"));
+        }
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testFormat_otherSheet() throws IOException {
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = workbook.createSheet("test");
+            final Cell cell = workbook.createSheet("other").createRow(0).createCell(0);
+
+            new CellResultCache(new POICellFormatter(), sheet).format(cell, Locale.JAPANESE);
+        }
+    }
+
+}
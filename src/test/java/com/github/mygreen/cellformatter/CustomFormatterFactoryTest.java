@@ -11,7 +11,7 @@ import com.github.mygreen.cellformatter.lang.MSColor;
 /**
  * {@link CustomFormatterFactory}のテスタ
  * 
- * @version 0.9.2
+ * @version 0.13
  * @since 0.3
  * @author T.TSUCHIE
  *
@@ -142,4 +142,40 @@ public class CustomFormatterFactoryTest {
         assertThat(actual.getCellType(), is(FormatCellType.Number));
         
     }
+    
+    /**
+     * 書式の正規化のテスト
+     * @since 0.13
+     */
+    @Test
+    public void testCreateCanonicalKey() {
+        
+        // 文字列の表記の違い
+        assertThat(factory.createCanonicalKey("#,##0\\-0"), is(factory.createCanonicalKey("#,##0\"-\"0")));
+        assertThat(factory.createCanonicalKey("#,##0\\-0"), is(factory.createCanonicalKey("#,##0!-0")));
+        assertThat(factory.createCanonicalKey("yyyy\"年\"\"\"m\"月\""), is(factory.createCanonicalKey("yyyy\\年m\"月\"")));
+        assertThat(factory.createCanonicalKey("\"ab\"0"), is(factory.createCanonicalKey("\"a\"\"b\"0")));
+        
+        // 条件式の表記の違い
+        assertThat(factory.createCanonicalKey("[RED]0.0"), is(factory.createCanonicalKey("[Red]0.0")));
+        assertThat(factory.createCanonicalKey("[赤]0.0"), is(factory.createCanonicalKey("[Red]0.0")));
+        assertThat(factory.createCanonicalKey("[色10]0.0"), is(factory.createCanonicalKey("[Color10]0.0")));
+        assertThat(factory.createCanonicalKey("[$-0411]ge.m.d"), is(factory.createCanonicalKey("[$-411]ge.m.d")));
+        assertThat(factory.createCanonicalKey("[$€-0c07]0.0"), is(factory.createCanonicalKey("[$€-C07]0.0")));
+        assertThat(factory.createCanonicalKey("[>=100.0]0;0"), is(factory.createCanonicalKey("[>=100]0;0")));
+        
+        // 標準の書式
+        assertThat(factory.createCanonicalKey("general"), is(factory.createCanonicalKey("General")));
+        
+        // 異なる書式
+        assertThat(factory.createCanonicalKey("[Red]0.0"), is(not(factory.createCanonicalKey("[Blue]0.0"))));
+        assertThat(factory.createCanonicalKey("[Red]0.0"), is(not(factory.createCanonicalKey("[Color3]0.0"))));
+        assertThat(factory.createCanonicalKey("[>=100]0;0"), is(not(factory.createCanonicalKey("[>100]0;0"))));
+        assertThat(factory.createCanonicalKey("h:mm AM/PM"), is(not(factory.createCanonicalKey("h:mm am/pm"))));
+        assertThat(factory.createCanonicalKey("0\\"), is(not(factory.createCanonicalKey("0\\\\"))));
+        
+        // 解釈できない条件式はそのまま
+        assertThat(factory.createCanonicalKey("[$-41G]0.0"), is("[$-41G]0.0"));
+        
+    }
 }
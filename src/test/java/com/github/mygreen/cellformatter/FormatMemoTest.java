@@ -0,0 +1,169 @@
+package com.github.mygreen.cellformatter;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+/**
+ * {@link FormatMemo}のテスタ
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class FormatMemoTest {
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructor_invalidSize() {
+        new FormatMemo(0);
+    }
+
+    /**
+     * 取得できた回数と割合
+     */
+    @Test
+    public void testHitRatio() {
+
+        final FormatMemo memo = new FormatMemo(10);
+        assertThat(memo.getMaxSize(), is(10));
+        assertThat(memo.getHitRatio(), is(0.0d));
+
+        assertThat(memo.get(1.5, Locale.JAPANESE), is(nullValue()));
+        memo.put(1.5, Locale.JAPANESE, null, "1.50");
+
+        assertThat(memo.get(1.5, Locale.JAPANESE).text, is("1.50"));
+        assertThat(memo.get(1.5, Locale.JAPANESE).text, is("1.50"));
+        assertThat(memo.getHitCount(), is(2L));
+        assertThat(memo.getMissCount(), is(1L));
+        assertThat(memo.getHitRatio(), is(2.0d / 3.0d));
+
+        // ロケールや値の種類が異なる場合は、別の結果
+        assertThat(memo.get(1.5, Locale.ENGLISH), is(nullValue()));
+        assertThat(memo.get("1.5", Locale.JAPANESE), is(nullValue()));
+        memo.put("1.5", Locale.JAPANESE, null, "<1.5>");
+        assertThat(memo.get("1.5", Locale.JAPANESE).text, is("<1.5>"));
+        assertThat(memo.size(), is(2));
+        assertThat(memo.getHitRatio(), is(3.0d / 6.0d));
+
+        // 破棄しても統計情報は残す
+        memo.clear();
+        assertThat(memo.size(), is(0));
+        assertThat(memo.getHitCount(), is(3L));
+        assertThat(memo.getMissCount(), is(3L));
+    }
+
+    /**
+     * 上限に達した場合は、参照された頻度の低いものから破棄すること。
+     */
+    @Test
+    public void testEvict() {
+
+        final FormatMemo memo = new FormatMemo(8);
+        for(int i=0; i < 8; i++) {
+            memo.put(i, Locale.JAPANESE, null, String.valueOf(i));
+        }
+        assertThat(memo.size(), is(8));
+
+        // 0～3は頻繁に参照する
+        for(int n=0; n < 3; n++) {
+            for(int i=0; i < 4; i++) {
+                assertThat(memo.get(i, Locale.JAPANESE), is(notNullValue()));
+            }
+        }
+
+        // 上限を超えると、上限の3/4になるまで頻度の低いものから破棄する。
+        // 頻度が同じ場合は、先に保持したものから破棄する。
+        memo.put(8, Locale.JAPANESE, null, "8");
+        assertThat(memo.size(), is(7));
+        for(int i=0; i < 4; i++) {
+            assertThat(memo.get(i, Locale.JAPANESE).text, is(String.valueOf(i)));
+        }
+        for(int i=4; i < 6; i++) {
+            assertThat(memo.get(i, Locale.JAPANESE), is(nullValue()));
+        }
+        for(int i=6; i < 9; i++) {
+            assertThat(memo.get(i, Locale.JAPANESE).text, is(String.valueOf(i)));
+        }
+
+        // 参照されなくなった値も、破棄を繰り返すといずれ破棄される。
+        for(int i=100; i < 140; i++) {
+            memo.put(i, Locale.JAPANESE, null, String.valueOf(i));
+            assertTrue(memo.size() <= 8);
+        }
+        for(int i=0; i < 4; i++) {
+            assertThat(memo.get(i, Locale.JAPANESE), is(nullValue()));
+        }
+    }
+
+    /**
+     * 一度も参照されていない場合でも、上限の3/4までは残すこと。
+     */
+    @Test
+    public void testEvict_unreferenced() {
+
+        final FormatMemo memo = new FormatMemo(100);
+        for(int i=0; i < 100; i++) {
+            memo.put(i, Locale.JAPANESE, null, String.valueOf(i));
+        }
+
+        memo.put(100, Locale.JAPANESE, null, "100");
+        assertThat(memo.size(), is(76));
+
+        // 先に保持したものから破棄する
+        for(int i=0; i < 25; i++) {
+            assertThat(memo.get(i, Locale.JAPANESE), is(nullValue()));
+        }
+        for(int i=25; i <= 100; i++) {
+            assertThat(memo.get(i, Locale.JAPANESE).text, is(String.valueOf(i)));
+        }
+    }
+
+    /**
+     * 複数のスレッドから追加しても、上限を超えないこと。
+     */
+    @Test
+    public void testEvict_concurrent() throws Exception {
+
+        final FormatMemo memo = new FormatMemo(64);
+        final int threadCount = 4;
+        final ExecutorService executor = Executors.newFixedThreadPool(threadCount);
+        try {
+            final CountDownLatch start = new CountDownLatch(1);
+            final List<Future<Integer>> futures = new ArrayList<>();
+            for(int t=0; t < threadCount; t++) {
+                final int base = t * 10000;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    int maxObserved = 0;
+                    for(int i=0; i < 5000; i++) {
+                        memo.put(base + i, Locale.JAPANESE, null, "text");
+                        memo.get(base + (i / 2), Locale.JAPANESE);
+                        maxObserved = Math.max(maxObserved, memo.size());
+                    }
+                    return maxObserved;
+                }));
+            }
+            start.countDown();
+
+            for(Future<Integer> future : futures) {
+                assertThat(future.get() <= 64, is(true));
+            }
+            assertThat(memo.size() <= 64, is(true));
+
+        } finally {
+            executor.shutdown();
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        }
+    }
+
+}
@@ -0,0 +1,211 @@
+package com.github.mygreen.cellformatter;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Test;
+
+/**
+ * {@link FormatterResolver}のテスタ
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class FormatterResolverTest {
+
+    @Test
+    public void testPrecompile() {
+
+        final FormatterResolver resolver = new FormatterResolver();
+        final List<String> patterns = Arrays.asList(
+                "#,##0.0_);[Red]\\(#,##0.0\\)",
+                "yyyy\"年\"m\"月\"d\"日\";@",
+                "[h]:mm:ss",
+                "#,##0.0_);[Red]\\(#,##0.0\\)",  // 重複
+                "0;0;0;0;0"  // 不正な書式
+                );
+
+        assertThat(resolver.precompile(patterns), is(3));
+
+        assertThat(resolver.canResolve("#,##0.0_);[Red]\\(#,##0.0\\)"), is(true));
+        assertThat(resolver.canResolve("yyyy\"年\"m\"月\"d\"日\";@"), is(true));
+        assertThat(resolver.canResolve("[h]:mm:ss"), is(true));
+        assertThat(resolver.canResolve("0;0;0;0;0"), is(false));
+
+        // 登録済みのものは、再度登録しない
+        assertThat(resolver.precompile(patterns), is(0));
+
+    }
+
+    @Test
+    public void testPrecompile_executor() {
+
+        final FormatterResolver resolver = new FormatterResolver();
+        final CellFormatter registered = resolver.createFormatter("0.00");
+        resolver.registerFormatter("0.00", registered);
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            assertThat(resolver.precompile(Arrays.asList("0.00", "0.000", "0.0000"), executor), is(2));
+
+            // 登録済みのものは上書きしない
+            assertThat(resolver.getFormatter("0.00"), is(sameInstance(registered)));
+            assertThat(resolver.getFormatter("0.000").getPattern(), is("0.000"));
+
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
+    /**
+     * 解析に失敗した書式の記録
+     */
+    @Test
+    public void testCreateFormatter_failed() {
+
+        final FormatterResolver resolver = new FormatterResolver();
+        final String pattern = "0;0;0;0;0";
+
+        try {
+            resolver.createFormatter(pattern);
+            fail();
+        } catch(CustomFormatterParseException e) {
+            assertThat(e.getPattern(), is(pattern));
+            assertThat(e.getStackTrace().length, is(not(0)));
+        }
+
+        assertThat(resolver.isFailedPattern(pattern), is(true));
+        assertThat(resolver.getParseFailureCount(), is(1L));
+        assertThat(resolver.getFailedPatternHitCount(), is(0L));
+
+        // 2回目以降は解析しない
+        try {
+            resolver.createFormatter(pattern);
+            fail();
+        } catch(CustomFormatterParseException e) {
+            assertThat(e.getPattern(), is(pattern));
+            assertThat(e.getStackTrace().length, is(0));
+        }
+
+        assertThat(resolver.getParseFailureCount(), is(1L));
+        assertThat(resolver.getFailedPatternHitCount(), is(1L));
+
+        // 初期化
+        resolver.clearFormat();
+        assertThat(resolver.isFailedPattern(pattern), is(false));
+
+    }
+
+    /**
+     * 解析に失敗した書式を標準の書式で代替する
+     */
+    @Test
+    public void testCreateFormatter_fallbackToGeneral() {
+
+        final FormatterResolver resolver = new FormatterResolver();
+        resolver.setFallbackToGeneral(true);
+        final String pattern = "0;0;0;0;0";
+
+        assertThat(resolver.createFormatter(pattern), is(sameInstance((CellFormatter)CustomFormatter.DEFAULT_FORMATTER)));
+        assertThat(resolver.createFormatter(pattern), is(sameInstance((CellFormatter)CustomFormatter.DEFAULT_FORMATTER)));
+
+        assertThat(resolver.getParseFailureCount(), is(1L));
+        assertThat(resolver.getFailedPatternHitCount(), is(1L));
+
+        // フォーマッタ経由
+        final ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        cellFormatter.setFormatterResolver(resolver);
+        assertThat(cellFormatter.formatAsString("0;0;0;0;0;0", 12.5), is("12.5"));
+
+    }
+
+    /**
+     * 正規化すると同じになる書式のフォーマッタの共有
+     */
+    @Test
+    public void testCreateFormatter_shareEquivalentFormatter() {
+
+        final FormatterResolver resolver = new FormatterResolver();
+        assertThat(resolver.isShareEquivalentFormatter(), is(true));
+        final long sharedCount = resolver.getSharedFormatterCount();
+
+        final CustomFormatter formatter1 = (CustomFormatter) resolver.createFormatter("#,##0\\-0;[RED]\\(#,##0\\)");
+        final CustomFormatter formatter2 = (CustomFormatter) resolver.createFormatter("#,##0\"-\"0;[Red]\\(#,##0\\)");
+        final CustomFormatter formatter3 = (CustomFormatter) resolver.createFormatter("#,##0\"-\"0;[Blue]\\(#,##0\\)");
+
+        // 解析済みのセクションを共有する
+        assertThat(formatter2, is(not(sameInstance(formatter1))));
+        assertThat(formatter2.getConditionFormatters(), is(sameInstance(formatter1.getConditionFormatters())));
+        assertThat(formatter3.getConditionFormatters(), is(not(sameInstance(formatter1.getConditionFormatters()))));
+        assertThat(resolver.getSharedFormatterCount(), is(sharedCount + 1L));
+
+        // 書式は元の値
+        assertThat(formatter1.getPattern(), is("#,##0\\-0;[RED]\\(#,##0\\)"));
+        assertThat(formatter2.getPattern(), is("#,##0\"-\"0;[Red]\\(#,##0\\)"));
+
+        final CellFormatResult result1 = formatter1.format(new TestNumberCell(-12.0, (short)0, ""), null);
+        final CellFormatResult result2 = formatter2.format(new TestNumberCell(-12.0, (short)0, ""), null);
+        assertThat(result2.getText(), is(result1.getText()));
+        assertThat(result2.getTextColor(), is(result1.getTextColor()));
+        assertThat(result1.getSectionPattern(), is("[RED]\\(#,##0\\)"));
+        assertThat(result2.getSectionPattern(), is("[Red]\\(#,##0\\)"));
+        assertThat(formatter2.formatNumber(123.0, null, new CellFormatResult()).getSectionPattern(), is("#,##0\"-\"0"));
+
+        // 共有しない場合
+        resolver.setShareEquivalentFormatter(false);
+        final CustomFormatter formatter4 = (CustomFormatter) resolver.createFormatter("#,##0\\-0;[RED]\\(#,##0\\)");
+        assertThat(formatter4.getConditionFormatters(), is(not(sameInstance(formatter1.getConditionFormatters()))));
+        assertThat(formatter4.getPattern(), is("#,##0\\-0;[RED]\\(#,##0\\)"));
+
+    }
+
+    /**
+     * 値ごとのフォーマット結果のキャッシュ
+     */
+    @Test
+    public void testCreateFormatter_memoSize() {
+
+        final FormatterResolver resolver = new FormatterResolver();
+        resolver.setMemoSize(4);
+
+        final CustomFormatter formatter = (CustomFormatter) resolver.createFormatter("#,##0;[Red]\\-#,##0");
+        final FormatMemo memo = formatter.getMemo();
+        assertThat(memo, is(notNullValue()));
+
+        final CellFormatResult result1 = formatter.format(new TestNumberCell(-1234.0, (short)0, ""), null);
+        final CellFormatResult result2 = formatter.format(new TestNumberCell(-1234.0, (short)0, ""), null);
+
+        assertThat(result1.getText(), is("-1,234"));
+        assertThat(result2.getText(), is("-1,234"));
+        assertThat(result2.getCellType(), is(FormatCellType.Number));
+        assertThat(result2.getTextColor(), is(result1.getTextColor()));
+        assertThat(result2.getSectionPattern(), is("[Red]\\-#,##0"));
+        assertThat(memo.getHitCount(), is(1L));
+        assertThat(memo.getMissCount(), is(1L));
+
+        // 上限を超えない
+        for(int i=0; i < 20; i++) {
+            assertThat(formatter.format(new TestNumberCell(i, (short)0, ""), null).getText(), is(String.valueOf(i)));
+            assertTrue(memo.size() <= 4);
+        }
+
+        // 日時の書式はキャッシュしない
+        final CustomFormatter dateFormatter = (CustomFormatter) resolver.createFormatter("yyyy/m/d");
+        assertThat(dateFormatter.isMemoizable(), is(false));
+        assertThat(dateFormatter.getMemo(), is(nullValue()));
+
+        // 設定しない場合
+        resolver.setMemoSize(0);
+        final CustomFormatter formatter2 = (CustomFormatter) resolver.createFormatter("0.00");
+        assertThat(formatter2.getMemo(), is(nullValue()));
+
+    }
+
+}
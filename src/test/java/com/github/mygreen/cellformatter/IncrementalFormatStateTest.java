@@ -0,0 +1,94 @@
+package com.github.mygreen.cellformatter;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.github.mygreen.cellformatter.lang.MSColor;
+
+/**
+ * {@link IncrementalFormatState}のテスタ
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class IncrementalFormatStateTest {
+
+    /**
+     * 保存して読み込んだ結果の値が、同じ型と値であること。
+     */
+    @Test
+    public void testWriteAndRead() throws IOException {
+
+        final Object[] values = {
+                null,
+                1234.5d,
+                7,          // JExcelAPIのエラーコード
+                (byte) 0x07, // POIのエラーコード
+                Long.MAX_VALUE,
+                (short) 12,
+                1.5f,
+                new Date(1234567890000L),
+                Boolean.TRUE,
+                "abc",
+        };
+
+        final CellFormatResult[] results = new CellFormatResult[values.length + 2];
+        for(int i=0; i < values.length; i++) {
+            results[i] = CellFormatResult.unmodifiable(
+                    i == 2 || i == 3 ? FormatCellType.Error : FormatCellType.Number, values[i], "text" + i);
+        }
+
+        final CellFormatResult colored = new CellFormatResult();
+        colored.setCellType(FormatCellType.Number);
+        colored.setValue(-1.0d);
+        colored.setText("-1");
+        colored.setTextColor(MSColor.RED);
+        results[values.length] = CellFormatResult.unmodifiable(colored);
+
+        final Map<Integer, IncrementalFormatState.RowRecord> rows = new HashMap<>();
+        rows.put(3, new IncrementalFormatState.RowRecord(123L, 2, results));
+
+        final IncrementalFormatState state = new IncrementalFormatState();
+        state.update(Locale.JAPANESE, 456L, rows, 0, 1);
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        state.write(out);
+        final IncrementalFormatState read = IncrementalFormatState.read(new ByteArrayInputStream(out.toByteArray()));
+
+        assertThat(read.getRowCount(), is(1));
+        assertThat(read.isCompatible(Locale.JAPANESE, 456L), is(true));
+        assertThat(read.getRow(3, 124L), is(nullValue()));
+
+        final IncrementalFormatState.RowRecord record = read.getRow(3, 123L);
+        assertThat(record.firstColumn, is(2));
+        assertThat(record.results.length, is(results.length));
+        assertThat(record.results[results.length - 1], is(nullValue()));
+
+        for(int i=0; i < values.length; i++) {
+            final CellFormatResult expected = results[i];
+            final CellFormatResult actual = record.results[i];
+            assertThat(actual.getCellType(), is(expected.getCellType()));
+            assertThat(actual.getText(), is(expected.getText()));
+            assertThat(actual.getValue(), is(expected.getValue()));
+            if(expected.getValue() != null) {
+                assertThat(actual.getValue().getClass(), is((Object) expected.getValue().getClass()));
+            }
+            assertThat(actual.isModifiable(), is(false));
+        }
+
+        assertThat(record.results[values.length].getText(), is("-1"));
+        assertThat(record.results[values.length].getTextColor(), is(MSColor.RED));
+    }
+
+}
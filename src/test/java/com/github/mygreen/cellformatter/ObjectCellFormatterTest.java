@@ -4,16 +4,25 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 import static com.github.mygreen.cellformatter.lang.TestUtils.*;
 
+import java.nio.charset.StandardCharsets;
 import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Date;
+import java.util.Locale;
 
 import org.junit.Test;
 
 import com.github.mygreen.cellformatter.lang.MSColor;
+import com.github.mygreen.cellformatter.lang.TextPool;
+import com.github.mygreen.cellformatter.lang.Utf8Sink;
 
 /**
  * {@link ObjectCellFormatter}のテスタ
  *
+ * @version 0.13
  * @since 0.6
  * @author T.TSUCHIE
  *
@@ -82,7 +91,369 @@ public class ObjectCellFormatterTest {
         
     }
     
+    /**
+     * プリミティブ型の数値のフォーマット
+     * @since 0.13
+     */
+    @Test
+    public void test_format_numeric_primitive() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        
+        // double型
+        CellFormatResult result = cellFormatter.format("#,##0.0_);[Red]\\(#,##0.0\\)", -1234.5d);
+        
+        assertThat(result.getCellType(), is(FormatCellType.Number));
+        assertThat(result.getText(), is("(1,234.5)"));
+        assertThat(result.getTextColor(), is(MSColor.RED));
+        assertThat(result.getSectionPattern(), is("[Red]\\(#,##0.0\\)"));
+        assertThat(result.getValueAsDoulbe(), is(-1234.5));
+        
+        // long型
+        result = cellFormatter.format("#,##0.0_);[Red]\\(#,##0.0\\)", -12345L);
+        
+        assertThat(result.getCellType(), is(FormatCellType.Number));
+        assertThat(result.getText(), is("(12,345.0)"));
+        assertThat(result.getValueAsDoulbe(), is(-12345.0));
+        
+        // ラッパークラスと同じ結果
+        assertThat(cellFormatter.formatAsString("0.00%", 0.125d), is(cellFormatter.formatAsString("0.00%", Double.valueOf(0.125d))));
+        assertThat(cellFormatter.formatAsString("#,##0", 12345678901L), is(cellFormatter.formatAsString("#,##0", Long.valueOf(12345678901L))));
+        assertThat(cellFormatter.formatAsString("yyyy/m/d", 41000.5d), is("2012/4/1"));
+        
+        // 日時の書式、一致するセクションがない書式、値ごとのキャッシュ
+        result = cellFormatter.format("yyyy/m/d", 41000.5d);
+        assertThat(result.getCellType(), is(FormatCellType.Date));
+        assertThat(result.getValue(), is(instanceOf(Date.class)));
+        
+        assertThat(cellFormatter.formatAsString("@", 12.5d), is(cellFormatter.formatAsString("@", Double.valueOf(12.5d))));
+        
+        cellFormatter.getFormatterResolver().setMemoSize(16);
+        assertThat(cellFormatter.formatAsString("#,##0.00", 1234.5d), is("1,234.50"));
+        result = cellFormatter.format("#,##0.00", 1234.5d);
+        assertThat(result.getText(), is("1,234.50"));
+        assertThat(result.getCellType(), is(FormatCellType.Number));
+        assertThat(((CustomFormatter) cellFormatter.getFormatterResolver().getFormatter("#,##0.00")).getMemo().getHitCount(), is(1L));
+        
+        // 遅延させる場合
+        cellFormatter.setLazyText(true);
+        result = cellFormatter.format("[Blue]0.0", 3L);
+        assertThat(result.isTextDeferred(), is(true));
+        assertThat(result.getTextColor(), is(MSColor.BLUE));
+        assertThat(result.getText(), is("3.0"));
+        
+    }
+    
+    @Test
+    public void test_format_javaTime() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        
+        // LocalDateTime型
+        LocalDateTime dateTime = LocalDateTime.of(2012, 4, 1, 12, 34, 56);
+        Date date = Timestamp.valueOf("2012-04-01 12:34:56.000");
+        
+        CellFormatResult result = cellFormatter.format("yyyy/m/d h:mm:ss", dateTime);
+        assertThat(result.getCellType(), is(FormatCellType.Date));
+        assertThat(result.getText(), is("2012/4/1 12:34:56"));
+        assertThat(cellFormatter.formatAsString("yyyy\"年\"m\"月\"d\"日\" AM/PM h:mm", dateTime),
+                is(cellFormatter.formatAsString("yyyy\"年\"m\"月\"d\"日\" AM/PM h:mm", date)));
+        assertThat(cellFormatter.formatAsString("0.00000", dateTime), is(cellFormatter.formatAsString("0.00000", date)));
+        
+        // LocalDate型
+        assertThat(cellFormatter.formatAsString("yyyy/mm/dd (aaa)", LocalDate.of(2012, 4, 1), Locale.JAPANESE), is("2012/04/01 (日)"));
+        assertThat(cellFormatter.formatAsString("0", LocalDate.of(1900, 3, 1)), is("61"));
+        
+        // LocalTime型
+        assertThat(cellFormatter.formatAsString("h:mm:ss AM/PM", LocalTime.of(13, 5, 9)), is("1:05:09 PM"));
+        assertThat(cellFormatter.formatAsString("0.000", LocalTime.NOON), is("0.500"));
+        
+        // Duration型
+        assertThat(cellFormatter.formatAsString("[h]:mm", Duration.ofMinutes(30 * 60 + 15)), is("30:15"));
+        assertThat(cellFormatter.formatAsString("[h]:mm:ss", Duration.ofDays(100).plusSeconds(1)), is("2400:00:01"));
+        assertThat(cellFormatter.formatAsString("[mm]:ss", Duration.ofSeconds(125)), is("02:05"));
+        assertThat(cellFormatter.formatAsString("[h]:mm", Duration.ofDays(100)),
+                is(cellFormatter.formatAsString("[h]:mm", 100.0d)));
+        
+        // コンパイル済みの書式
+        CompiledFormat format = cellFormatter.compile("[h]:mm", Locale.JAPANESE);
+        assertThat(format.formatAsString(Duration.ofHours(25)), is("25:00"));
+        
+    }
+    
+    @Test
+    public void test_format_target() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        CellFormatResult target = new CellFormatResult();
+        
+        CellFormatResult result = cellFormatter.format(new NumberCell<Double>(-1234.5d, "#,##0.0_);[Red]\\(#,##0.0\\)"), Locale.JAPANESE, target);
+        assertThat(result, is(sameInstance(target)));
+        assertThat(result.getCellType(), is(FormatCellType.Number));
+        assertThat(result.getText(), is("(1,234.5)"));
+        assertThat(result.getTextColor(), is(MSColor.RED));
+        
+        // 同じ格納先を使い回す
+        result = cellFormatter.format(new TextCell("abc", "@"), Locale.JAPANESE, target);
+        assertThat(result, is(sameInstance(target)));
+        assertThat(result.getCellType(), is(FormatCellType.Text));
+        assertThat(result.getText(), is("abc"));
+        assertThat(result.getTextColor(), is(nullValue()));
+        assertThat(result.getSectionPattern(), is("@"));
+        
+        result = cellFormatter.format(null, Locale.JAPANESE, target);
+        assertThat(result, is(sameInstance(target)));
+        assertThat(result.getCellType(), is(FormatCellType.Blank));
+        assertThat(result.getText(), is(""));
+        assertThat(result.getValue(), is(nullValue()));
+        
+    }
+    
+    @Test
+    public void test_format_sharedBlank() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        
+        // 空セルの場合は、共有の結果を返す
+        CellFormatResult result = cellFormatter.format(null, Locale.JAPANESE);
+        assertThat(result, is(sameInstance(CellFormatResult.BLANK)));
+        assertThat(result.isModifiable(), is(false));
+        assertThat(result.getText(), is(""));
+        
+        try {
+            result.setText("abc");
+            fail();
+        } catch(UnsupportedOperationException e) {
+            // 共有の結果は変更できない
+        }
+        
+        assertThat(new CellFormatResult().copyFrom(result).isModifiable(), is(true));
+        
+    }
+    
+    @Test
+    public void test_classify() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        String pattern = "[Blue][>=1000]#,##0;[Red][<0]\\(#,##0.0\\);0.00";
+        
+        CellFormatResult result = cellFormatter.classify(new NumberCell<Double>(-1234.5d, pattern), Locale.JAPANESE);
+        assertThat(result.getCellType(), is(FormatCellType.Number));
+        assertThat(result.getValue(), is((Object)(-1234.5d)));
+        assertThat(result.getTextColor(), is(MSColor.RED));
+        assertThat(result.getSectionPattern(), is("[Red][<0]\\(#,##0.0\\)"));
+        assertThat(result.getText(), is(nullValue()));
+        
+        result = cellFormatter.classify(new NumberCell<Double>(1234.5d, pattern), Locale.JAPANESE);
+        assertThat(result.getTextColor(), is(MSColor.BLUE));
+        assertThat(result.getText(), is(nullValue()));
+        
+        result = cellFormatter.classify(new DateCell(Timestamp.valueOf("2012-04-01 12:00:00.000"), "yyyy/m/d"), Locale.JAPANESE);
+        assertThat(result.getCellType(), is(FormatCellType.Date));
+        assertThat(result.getText(), is(nullValue()));
+        
+        assertThat(cellFormatter.classify(null, Locale.JAPANESE), is(sameInstance(CellFormatResult.BLANK)));
+        
+    }
+    
+    @Test
+    public void test_format_lazyText() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        cellFormatter.setLazyText(true);
+        
+        String pattern = "#,##0.0_);[Red]\\(#,##0.0\\)";
+        
+        CellFormatResult result = cellFormatter.format(pattern, -1234.5d, Locale.JAPANESE);
+        assertThat(result.isTextDeferred(), is(true));
+        assertThat(result.getTextColor(), is(MSColor.RED));
+        assertThat(result.getCellType(), is(FormatCellType.Number));
+        
+        // 最初の呼び出し時に文字列を作成する
+        assertThat(result.getText(), is("(1,234.5)"));
+        assertThat(result.isTextDeferred(), is(false));
+        
+        // 遅延させた処理もコピーする
+        CellFormatResult lazy = cellFormatter.format(pattern, "abc", Locale.JAPANESE);
+        CellFormatResult copy = new CellFormatResult().copyFrom(lazy);
+        assertThat(copy.isTextDeferred(), is(true));
+        assertThat(copy.getText(), is("abc"));
+        
+        // 変更不可の結果は、コピー時に文字列を作成する
+        CellFormatResult shared = CellFormatResult.unmodifiable(cellFormatter.format(pattern, 12.5d, Locale.JAPANESE));
+        assertThat(shared.isTextDeferred(), is(false));
+        assertThat(shared.getText(), is("12.5 "));
+        
+        // 格納先を使い回しても、作成する文字列は変わらない
+        CellFormatResult target = new CellFormatResult();
+        cellFormatter.format(new BooleanCell(true, "General"), Locale.JAPANESE, target);
+        assertThat(target.getCellType(), is(FormatCellType.Boolean));
+        assertThat(target.getText(), is("TRUE"));
+        
+        assertThat(cellFormatter.formatAsString(pattern, 1234.5d, Locale.JAPANESE), is("1,234.5 "));
+        
+    }
+    
+    @Test
+    public void test_compile() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        
+        CompiledFormat format = cellFormatter.compile("#,##0.0_);[Red]\\(#,##0.0\\)", Locale.JAPANESE);
+        
+        CellFormatResult result = format.format(-1234.5d);
+        assertThat(result.getCellType(), is(FormatCellType.Number));
+        assertThat(result.getText(), is("(1,234.5)"));
+        assertThat(result.getTextColor(), is(MSColor.RED));
+        
+        // 書式を指定した場合と同じ結果
+        assertThat(format.formatAsString(-12345L), is(cellFormatter.formatAsString("#,##0.0_);[Red]\\(#,##0.0\\)", -12345L)));
+        assertThat(format.formatAsString("abc"), is(cellFormatter.formatAsString("#,##0.0_);[Red]\\(#,##0.0\\)", "abc")));
+        assertThat(cellFormatter.compile("General").formatAsString(true), is(cellFormatter.formatAsString("General", true)));
+        
+        // ロケールによって切り替わる書式は、作成時のロケールに結びつく
+        CompiledFormat jaFormat = cellFormatter.compile("[$-F800]dddd\\,\\ mmmm\\ dd\\,\\ yyyy", Locale.JAPANESE);
+        CompiledFormat usFormat = cellFormatter.compile("[$-F800]dddd\\,\\ mmmm\\ dd\\,\\ yyyy", Locale.US);
+        
+        assertThat(jaFormat.getFormatter(), is(not(instanceOf(LocaleSwitchFormatter.class))));
+        assertThat(jaFormat.formatAsString(41000.5d), is("2012年4月1日"));
+        assertThat(usFormat.formatAsString(41000.5d), is("Sunday, April 01, 2012"));
+        assertThat(jaFormat.getLocale(), is(Locale.JAPANESE));
+        
+        Date date = Timestamp.valueOf("2012-04-01 12:00:00.000");
+        assertThat(jaFormat.formatAsString(date), is("2012年4月1日"));
+        
+    }
+    
+    @Test
+    public void test_compile_batch() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        
+        final String pattern = "[Blue][>=1000]#,##0;[Red][<0]\\(#,##0.0\\);0.00";
+        CompiledFormat format = cellFormatter.compile(pattern, Locale.JAPANESE);
+        
+        // double型
+        double[] values = new double[]{999.0, 1234.5, -1.25, 0.125, 5000, 12.5};
+        String[] results = new String[4];
+        short[] colors = new short[4];
+        format.format(values, 1, 4, results, colors);
+        
+        for(int i=0; i < 4; i++) {
+            CellFormatResult expected = cellFormatter.format(pattern, values[i+1], Locale.JAPANESE);
+            assertThat(results[i], is(expected.getText()));
+            assertThat(colors[i], is(expected.getTextColor() == null ? (short)-1 : expected.getTextColor().getIndex()));
+        }
+        assertThat(results[0], is("1,235"));
+        assertThat(colors[0], is(MSColor.BLUE.getIndex()));
+        assertThat(colors[2], is((short)-1));
+        
+        // long型
+        long[] longValues = new long[]{-12L, 12345L};
+        format.format(longValues, 0, 2, results, null);
+        assertThat(results[0], is(cellFormatter.formatAsString(pattern, -12L)));
+        assertThat(results[1], is("12,345"));
+        
+        // 連結したバッファ
+        StringBuilder buffer = new StringBuilder("#");
+        int[] ends = new int[values.length];
+        format.format(values, 0, values.length, buffer, ends, null);
+        assertThat(buffer.substring(1, ends[0]), is(cellFormatter.formatAsString(pattern, 999.0d)));
+        assertThat(buffer.substring(ends[1], ends[2]), is("(1.3)"));
+        assertThat(buffer.substring(ends[4], ends[5]), is(cellFormatter.formatAsString(pattern, 12.5d)));
+        
+        // 日時型
+        CompiledFormat dateFormat = cellFormatter.compile("yyyy/m/d h:mm", Locale.JAPANESE);
+        Date[] dates = new Date[]{Timestamp.valueOf("2012-04-01 12:34:00.000"), null};
+        dateFormat.format(dates, 0, 2, results, colors);
+        assertThat(results[0], is("2012/4/1 12:34"));
+        assertThat(results[1], is(""));
+        assertThat(colors[1], is((short)-1));
+        
+    }
+    
+    @Test(expected=IllegalArgumentException.class)
+    public void test_compile_batch_outOfRange() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        CompiledFormat format = cellFormatter.compile("0.00", Locale.JAPANESE);
+        
+        format.format(new double[]{1.0, 2.0}, 1, 2, new String[2], null);
+        
+    }
+    
+    @Test
+    public void test_compile_formatTo() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        Utf8Sink sink = new Utf8Sink();
+        
+        String[] patterns = {
+                "#,##0.00_);[Red]\\(#,##0.00\\)",
+                "#,##0\"円\"",
+                "\\#,##0;\\-#,##0",
+                "[DBNum1][$-411]General",
+                "0.00%",
+                "General",
+        };
+        
+        for(String pattern : patterns) {
+            CompiledFormat format = cellFormatter.compile(pattern, Locale.JAPANESE);
+            for(double value : new double[]{0.0, 1234.5, -98765.4321, 0.125}) {
+                sink.clear();
+                format.formatTo(value, sink);
+                assertThat(pattern, sink.toByteArray(), is(format.formatAsString(value).getBytes(StandardCharsets.UTF_8)));
+            }
+        }
+        
+        Date date = Timestamp.valueOf("2012-04-01 12:34:56.000");
+        for(String pattern : new String[]{"yyyy\"年\"m\"月\"d\"日\"", "[$-411]ggge\"年\"m\"月\"d\"日\"", "yyyy/mm/dd hh:mm:ss", "[$-F800]dddd\\,\\ mmmm\\ dd\\,\\ yyyy"}) {
+            CompiledFormat format = cellFormatter.compile(pattern, Locale.JAPANESE);
+            sink.clear();
+            format.formatTo(date, sink);
+            assertThat(pattern, sink.toString(), is(format.formatAsString(date)));
+        }
+        
+        CompiledFormat format = cellFormatter.compile("\"【\"@\"】\"", Locale.JAPANESE);
+        sink.clear();
+        format.formatTo("テスト", sink);
+        assertThat(sink.toString(), is("【テスト】"));
+        
+    }
+    
     // Java8の場合、丸め誤差により結果が 1.234E-05 となるため注意が必要
+    /**
+     * 文字列のプールによる共有
+     */
+    @Test
+    public void test_format_textPool() {
+        
+        ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        TextPool textPool = new TextPool(2);
+        cellFormatter.setTextPool(textPool);
+        
+        String text1 = cellFormatter.format("#,##0", 1234).getText();
+        String text2 = cellFormatter.format("#,##0", 1234).getText();
+        assertThat(text1, is("1,234"));
+        assertThat(text2, is(sameInstance(text1)));
+        
+        // 格納先を指定した場合
+        CellFormatResult target = new CellFormatResult();
+        cellFormatter.format(new TextCell("今日", "@"), Locale.JAPANESE, target);
+        String text3 = target.getText();
+        cellFormatter.format(new TextCell(new String("今日"), "@"), Locale.JAPANESE, target);
+        assertThat(target.getText(), is(sameInstance(text3)));
+        assertThat(textPool.getHitCount(), is(2L));
+        
+        // 上限を超えた場合は、登録しない
+        String text4 = cellFormatter.format("0.00", 1.5).getText();
+        String text5 = cellFormatter.format("0.00", 1.5).getText();
+        assertThat(text5, is("1.50"));
+        assertThat(text5, is(not(sameInstance(text4))));
+        assertThat(textPool.size(), is(2));
+        
+    }
+    
     @Test
     public void test_format_num() {
         
@@ -4,37 +4,58 @@ import static com.github.mygreen.cellformatter.lang.TestUtils.*;
 import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.lang.reflect.Proxy;
 import java.sql.Timestamp;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.Collections;
 import java.util.Date;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
 
 import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
 import org.apache.poi.ss.usermodel.BorderStyle;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.CellStyle;
 import org.apache.poi.ss.usermodel.CellType;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.FormulaError;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.Test;
 
 import com.github.mygreen.cellformatter.lang.MSColor;
+import com.github.mygreen.cellformatter.lang.TextPool;
 
 /**
  * POIによるテスト
  *
- * @version 0.10
+ * @version 0.13
  * @since 0.1
  * @author T.TSUCHIE
  *
@@ -806,6 +827,889 @@ public class POICellFormatterTest {
 
     }
 
+    /**
+     * 書式の事前解析のテスト
+     * @since 0.13
+     */
+    @Test
+    public void testWarmUp() {
+
+        File file = new File("src/test/data/cell_format_2010_custom.xlsx");
+        POICellFormatter cellFormatter = new POICellFormatter();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try(InputStream in = new FileInputStream(file)) {
+            Workbook workbook = WorkbookFactory.create(in);
+
+            assertThat(cellFormatter.warmUp(workbook, executor), is(not(0)));
+
+            // 2回目は全て登録済み
+            assertThat(cellFormatter.warmUp(workbook), is(0));
+
+            // ユーザ定義の書式は全て解決できる
+            final int styleNum = workbook.getNumCellStyles();
+            for(int i=0; i < styleNum; i++) {
+                final short formatIndex = workbook.getCellStyleAt(i).getDataFormat();
+                final String formatPattern = workbook.createDataFormat().getFormat(formatIndex);
+                assertThat(formatPattern,
+                        cellFormatter.getFormatterResolver().canResolve(formatIndex)
+                        || cellFormatter.getFormatterResolver().canResolve(formatPattern), is(true));
+            }
+
+            // 事前解析したフォーマッタで、同じ結果になること
+            cellFormatter.setCache(false);
+            for(Sheet sheet : workbook) {
+                if(sheet.getSheetName().startsWith("書式")) {
+                    assertSheet(sheet, cellFormatter, null);
+                }
+            }
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+
+        } finally {
+            executor.shutdown();
+        }
+
+    }
+
+    /**
+     * 使い回すセルのラッパーを指定したときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormat_reusableCell() {
+
+        File file = new File("src/test/data/cell_format_2010.xlsx");
+        POICellFormatter cellFormatter = new POICellFormatter();
+        ReusablePOICell adapter = new ReusablePOICell();
+        try {
+            List<Sheet> sheetList = loadSheetForFormat(file);
+            for(Sheet sheet : sheetList) {
+                for(Row row : sheet) {
+                    for(Cell cell : row) {
+                        CellFormatResult expected = cellFormatter.format(cell, Locale.JAPANESE);
+                        CellFormatResult result = cellFormatter.format(cell, Locale.JAPANESE, adapter);
+
+                        assertThat(result.getText(), is(expected.getText()));
+                        assertThat(result.getCellType(), is(expected.getCellType()));
+                        assertThat(result.getTextColor(), is(expected.getTextColor()));
+                    }
+                }
+            }
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+
+        // 1904年始まりのファイル
+        file = new File("src/test/data/cell_format_date1904.xls");
+        try(InputStream in = new FileInputStream(file)) {
+            Workbook workbook = WorkbookFactory.create(in);
+            for(Sheet sheet : workbook) {
+                for(Row row : sheet) {
+                    for(Cell cell : row) {
+                        assertThat(cellFormatter.formatAsString(cell, Locale.JAPANESE, adapter),
+                                is(cellFormatter.formatAsString(cell, Locale.JAPANESE)));
+                    }
+                }
+            }
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+
+    }
+
+    /**
+     * 文字列のプールによる共有のテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormat_textPool() throws IOException {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        TextPool textPool = new TextPool(10);
+        cellFormatter.setTextPool(textPool);
+        assertThat(cellFormatter.getTextPool(), is(sameInstance(textPool)));
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat("#,##0"));
+
+            Sheet sheet = workbook.createSheet("test");
+            Row numberRow = sheet.createRow(0);
+            Row textRow = sheet.createRow(1);
+            for(int c=0; c < 3; c++) {
+                Cell cell = numberRow.createCell(c);
+                cell.setCellValue(1234);
+                cell.setCellStyle(style);
+
+                textRow.createCell(c).setCellValue(new String("今日"));
+            }
+
+            String text1 = cellFormatter.format(numberRow.getCell(0), Locale.JAPANESE).getText();
+            String text2 = cellFormatter.format(numberRow.getCell(1), Locale.JAPANESE).getText();
+            assertThat(text1, is("1,234"));
+            assertThat(text2, is(sameInstance(text1)));
+
+            // 格納先を指定した場合
+            CellFormatResult target = new CellFormatResult();
+            cellFormatter.format(numberRow.getCell(2), Locale.JAPANESE, target);
+            assertThat(target.getText(), is(sameInstance(text1)));
+
+            // シートをまとめてフォーマットした場合
+            CellFormatGrid grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE);
+            assertThat(grid.getText(0, 2), is(sameInstance(text1)));
+            assertThat(grid.getText(1, 0), is("今日"));
+            assertThat(grid.getText(1, 1), is(sameInstance(grid.getText(1, 0))));
+            assertThat(grid.getText(1, 2), is(sameInstance(grid.getText(1, 0))));
+
+            assertThat(textPool.size(), is(2));
+
+            // 呼び出しごとにプールを指定した場合
+            TextPool callPool = new TextPool(10);
+            CellFormatGrid grid2 = cellFormatter.formatSheet(sheet, Locale.JAPANESE, callPool);
+            assertThat(grid2.getText(0, 0), is(not(sameInstance(text1))));
+            assertThat(grid2.getText(0, 1), is(sameInstance(grid2.getText(0, 0))));
+            assertThat(callPool.size(), is(2));
+
+            CellFormatGrid grid3 = cellFormatter.formatRange(sheet, CellRangeAddress.valueOf("A1:C1"), Locale.JAPANESE, callPool);
+            assertThat(grid3.getText(0, 2), is(sameInstance(grid2.getText(0, 0))));
+
+            ForkJoinPool pool = new ForkJoinPool(2);
+            try {
+                CellFormatGrid grid4 = cellFormatter.formatSnapshot(cellFormatter.snapshot(sheet), Locale.JAPANESE, pool, callPool);
+                assertThat(grid4.getText(1, 2), is(sameInstance(grid2.getText(1, 0))));
+
+                Map<String, CellFormatGrid> grids = cellFormatter.formatWorkbook(workbook, Locale.JAPANESE, pool, callPool);
+                assertThat(grids.get("test").getText(0, 1), is(sameInstance(grid2.getText(0, 0))));
+            } finally {
+                pool.shutdown();
+            }
+
+            // プールを指定しない場合
+            CellFormatGrid grid5 = cellFormatter.formatSheet(sheet, Locale.JAPANESE, (TextPool) null);
+            assertThat(grid5.getText(0, 0), is(not(sameInstance(text1))));
+            assertThat(grid5.getText(0, 1), is(not(sameInstance(grid5.getText(0, 0)))));
+
+            // 設定したプールには登録されない
+            assertThat(textPool.size(), is(2));
+            assertThat(callPool.size(), is(2));
+        }
+
+    }
+
+    /**
+     * シートや範囲をまとめてフォーマットしたときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSheet() {
+
+        File file = new File("src/test/data/cell_format_2010.xlsx");
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try {
+            List<Sheet> sheetList = loadSheetForFormat(file);
+            for(Sheet sheet : sheetList) {
+                CellFormatGrid grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE);
+                assertThat(grid.getFirstRow(), is(sheet.getFirstRowNum()));
+                assertThat(grid.getLastRow(), is(sheet.getLastRowNum()));
+                for(Row row : sheet) {
+                    assertThat(grid.hasRow(row.getRowNum()), is(true));
+                }
+                assertGridEquals(grid, sheet, cellFormatter);
+            }
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+
+        // 結合セルを含む範囲
+        file = new File("src/test/data/cell_format_2010_custom_compatible.xls");
+        try {
+            Sheet sheet = loadSheetByName(file, "結合セル");
+            CellFormatGrid grid = cellFormatter.formatRange(sheet, CellRangeAddress.valueOf("B8:C21"));
+
+            assertThat(grid.getText(8, 2), is("ABC"));
+            assertThat(grid.getText(12, 2), is("2014年10月23日"));
+            assertThat(grid.getText(15, 1), is("ABC"));
+            assertThat(grid.getText(20, 2), is("2014年10月23日"));
+
+            // 範囲外
+            assertThat(grid.get(0, 0), is(sameInstance(CellFormatResult.BLANK)));
+
+            // 行ごとに取得する
+            final List<String> texts = new ArrayList<>();
+            cellFormatter.formatRange(sheet, CellRangeAddress.valueOf("B8:C9"), Locale.JAPANESE,
+                    (rowIndex, firstColumn, results) -> {
+                        assertThat(firstColumn, is(1));
+                        for(CellFormatResult result : results) {
+                            texts.add(result == null ? null : result.getText());
+                        }
+                    });
+            assertThat(texts.contains("ABC"), is(true));
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+
+    }
+
+    /**
+     * 列ごとに結果を取得したときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSheetAsColumns() {
+
+        File file = new File("src/test/data/cell_format_2010.xlsx");
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try {
+            List<Sheet> sheetList = loadSheetForFormat(file);
+            for(Sheet sheet : sheetList) {
+                CellFormatColumns columns = cellFormatter.formatSheetAsColumns(sheet, Locale.JAPANESE);
+                CellFormatGrid grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE);
+                assertGridEquals(grid, sheet, cellFormatter);
+
+                // 行ごとの結果と同じ
+                for(Row row : sheet) {
+                    for(Cell cell : row) {
+                        CellFormatResult expected = grid.get(cell.getRowIndex(), cell.getColumnIndex());
+                        FormattedColumn column = columns.getColumn(cell.getColumnIndex());
+                        int rowIndex = cell.getRowIndex();
+
+                        assertThat(column.getText(rowIndex), is(expected.getText()));
+                        assertThat(column.getCellType(rowIndex), is(expected.getCellType()));
+                        assertThat(column.getTextColor(rowIndex), is(expected.getTextColor()));
+                        assertThat(column.isValid(rowIndex), is(!expected.isBlank()));
+
+                        if(expected.isNumber()) {
+                            assertThat(column.getValue(rowIndex), is(expected.getValueAsDoulbe()));
+                        } else if(expected.isDate()) {
+                            assertThat(column.getValue(rowIndex), is((double)expected.getValueAsDate().getTime()));
+                        }
+                    }
+                }
+            }
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+
+    }
+
+    /**
+     * 疎なシートを列ごとにフォーマットしたときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSheetAsColumns_sparse() throws IOException {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try(Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("sparse");
+            sheet.createRow(0).createCell(0).setCellValue("first");
+            sheet.createRow(500_000).createCell(3).setCellValue(12.5);
+            sheet.createRow(1_000_000).createCell(0).setCellValue("last");
+
+            CellFormatColumns columns = cellFormatter.formatSheetAsColumns(sheet, Locale.JAPANESE);
+            assertThat(columns.getRowCount(), is(1_000_001));
+            assertThat(columns.getColumnCount(), is(4));
+
+            FormattedColumn column0 = columns.getColumn(0);
+            assertThat(column0.getText(0), is("first"));
+            assertThat(column0.getText(1_000_000), is("last"));
+            assertThat(column0.getValidCount(), is(2));
+            assertThat(column0.isValid(500_000), is(false));
+
+            // 値を設定した行の範囲外
+            FormattedColumn column3 = columns.getColumn(3);
+            assertThat(column3.getValue(500_000), is(12.5d));
+            assertThat(column3.getText(0), is(""));
+            assertThat(column3.getValue(1_000_000), is(Double.NaN));
+            assertThat(column3.getCellType(1_000_000), is(FormatCellType.Blank));
+            assertThat(column3.getColorIndex(0), is((short)-1));
+
+            // セルが存在しない列
+            FormattedColumn column1 = columns.getColumn(1);
+            assertThat(column1.getColumnIndex(), is(1));
+            assertThat(column1.getValidCount(), is(0));
+            assertThat(column1.getText(500_000), is(""));
+            assertThat(column1.isValid(500_000), is(false));
+        }
+
+    }
+
+    /**
+     * 射影を指定してフォーマットしたときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSheet_projection() {
+
+        File file = new File("src/test/data/cell_format_2010.xlsx");
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try {
+            List<Sheet> sheetList = loadSheetForFormat(file);
+            for(Sheet sheet : sheetList) {
+                final CellProjection projection = new CellProjection().columns(2, 0).rows(1, 20).stride(3);
+                final CellFormatGrid grid = cellFormatter.formatSheet(sheet, projection, Locale.JAPANESE);
+
+                for(Row row : sheet) {
+                    for(Cell cell : row) {
+                        final int rowIndex = cell.getRowIndex();
+                        final int colIndex = cell.getColumnIndex();
+                        final boolean selected = rowIndex >= 1 && rowIndex <= 20 && (rowIndex - 1) % 3 == 0
+                                && (colIndex == 0 || colIndex == 2);
+
+                        if(selected) {
+                            assertThat(grid.getText(rowIndex, colIndex), is(cellFormatter.formatAsString(cell, Locale.JAPANESE)));
+                        } else {
+                            assertThat(grid.get(rowIndex, colIndex), is(CellFormatResult.BLANK));
+                        }
+                    }
+                }
+
+                // 見出しの指定
+                final Row headerRow = sheet.getRow(0);
+                if(headerRow != null && headerRow.getCell(1) != null) {
+                    final String header = cellFormatter.formatAsString(headerRow.getCell(1), Locale.JAPANESE);
+                    final int[] columns = cellFormatter.resolveColumns(sheet, new CellProjection().headers(header), Locale.JAPANESE);
+                    assertThat(cellFormatter.formatAsString(headerRow.getCell(columns[0]), Locale.JAPANESE).trim(), is(header.trim()));
+                }
+            }
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+
+    }
+
+    /**
+     * 射影の見出しが存在しない場合のテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSheet_projection_missingHeader() throws IOException {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try(Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("test");
+            Row headerRow = sheet.createRow(0);
+            headerRow.createCell(0).setCellValue("日付");
+            headerRow.createCell(1).setCellValue(" 金額 ");
+            sheet.createRow(1).createCell(1).setCellValue(100);
+
+            // 前後の空白は除いて比較する。
+            int[] columns = cellFormatter.resolveColumns(sheet, new CellProjection().headers("金額", "日付"), Locale.JAPANESE);
+            assertThat(columns[0], is(1));
+            assertThat(columns[1], is(0));
+
+            CellProjection projection = new CellProjection().headers("日付", "数量");
+            try {
+                cellFormatter.formatSheet(sheet, projection, Locale.JAPANESE);
+                fail();
+            } catch(IllegalArgumentException e) {
+                assertThat(e.getMessage().contains("数量"), is(true));
+            }
+
+            // 見出しの行が存在しない場合
+            try {
+                cellFormatter.resolveColumns(sheet, new CellProjection().headers("日付").headerRow(5), Locale.JAPANESE);
+                fail();
+            } catch(IllegalArgumentException e) {
+                assertThat(e.getMessage().contains("日付"), is(true));
+            }
+        }
+
+    }
+
+    /**
+     * 射影の行の範囲と間隔のテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSheet_projection_rows() throws IOException {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try(Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("test");
+            sheet.createRow(0).createCell(0).setCellValue("番号");
+            for(int r=1; r < 10; r++) {
+                Row row = sheet.createRow(r);
+                row.createCell(0).setCellValue(r);
+                row.createCell(1).setCellValue("v" + r);
+            }
+
+            // 範囲の先頭の行から、間隔ごとの行のみ
+            CellFormatGrid grid = cellFormatter.formatSheet(sheet, new CellProjection().columns(0).rows(2, 7).stride(2),
+                    Locale.JAPANESE);
+            assertThat(grid.getFirstRow(), is(2));
+            assertThat(grid.getLastRow(), is(7));
+            assertThat(grid.getFirstColumn(), is(0));
+            assertThat(grid.getLastColumn(), is(0));
+            for(int r=2; r <= 7; r++) {
+                assertThat(grid.hasRow(r), is(r % 2 == 0));
+                assertThat(grid.getText(r, 0), is(r % 2 == 0 ? String.valueOf(r) : ""));
+            }
+            assertThat(grid.get(8, 0), is(sameInstance(CellFormatResult.BLANK)));
+            assertThat(grid.get(2, 1), is(sameInstance(CellFormatResult.BLANK)));
+
+            // 最後の行がシートの範囲外の場合は、シートの最後の行まで。
+            final List<Integer> rowIndexes = new ArrayList<>();
+            cellFormatter.formatSheet(sheet, new CellProjection().rows(5, 100).stride(3), Locale.JAPANESE,
+                    (rowIndex, firstColumn, results) -> rowIndexes.add(rowIndex));
+            assertThat(rowIndexes, is(Arrays.asList(5, 8)));
+
+            // 見出しを指定した場合は、見出しの次の行から
+            grid = cellFormatter.formatSheet(sheet, new CellProjection().headers("番号").stride(4), Locale.JAPANESE);
+            assertThat(grid.getPhysicalRowCount(), is(3));
+            assertThat(grid.getText(1, 0), is("1"));
+            assertThat(grid.getText(5, 0), is("5"));
+            assertThat(grid.getText(9, 0), is("9"));
+            assertThat(grid.hasRow(0), is(false));
+
+            // シートの範囲外の行のみの場合
+            grid = cellFormatter.formatSheet(sheet, new CellProjection().rows(20, 30), Locale.JAPANESE);
+            assertThat(grid.getPhysicalRowCount(), is(0));
+        }
+
+    }
+
+    /**
+     * スナップショットを並列にフォーマットしたときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSnapshot() {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Sheet> sheetList = new ArrayList<>();
+            sheetList.addAll(loadSheetForFormat(new File("src/test/data/cell_format_2010.xlsx")));
+            sheetList.addAll(loadSheetForFormat(new File("src/test/data/cell_format_date1904.xls")));
+            sheetList.add(loadSheetByName(new File("src/test/data/cell_format_2010_custom_compatible.xls"), "結合セル"));
+
+            for(Sheet sheet : sheetList) {
+                SheetSnapshot snapshot = cellFormatter.snapshot(sheet);
+                assertThat(snapshot.getSheetName(), is(sheet.getSheetName()));
+
+                CellFormatGrid grid = cellFormatter.formatSnapshot(snapshot, Locale.JAPANESE, pool);
+                assertGridEquals(grid, sheet, cellFormatter);
+            }
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            pool.shutdown();
+        }
+
+    }
+
+    /**
+     * スタイルごとにまとめてフォーマットしたときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSnapshot_groupByStyle() {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<Sheet> sheetList = new ArrayList<>();
+            sheetList.addAll(loadSheetForFormat(new File("src/test/data/cell_format_2010.xlsx")));
+            sheetList.add(loadSheetByName(new File("src/test/data/cell_format_2010_custom_compatible.xls"), "結合セル"));
+
+            for(Sheet sheet : sheetList) {
+                SheetSnapshot snapshot = cellFormatter.snapshot(sheet);
+
+                cellFormatter.setGroupByStyle(false);
+                CellFormatGrid expected = cellFormatter.formatSnapshot(snapshot, Locale.JAPANESE, pool);
+
+                cellFormatter.setGroupByStyle(true);
+                CellFormatGrid grid = cellFormatter.formatSnapshot(snapshot, Locale.JAPANESE, pool);
+
+                // 行の順番にフォーマットした結果と同じ
+                assertThat(grid.getPhysicalRowCount(), is(expected.getPhysicalRowCount()));
+                assertGridEquals(grid, expected);
+            }
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        } finally {
+            pool.shutdown();
+        }
+
+    }
+
+    /**
+     * 行数と列数が大きい、疎なシートのスナップショットのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSnapshot_sparse() throws IOException {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        ForkJoinPool pool = new ForkJoinPool(2);
+        try(Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("sparse");
+            sheet.createRow(0).createCell(0).setCellValue("first");
+            sheet.createRow(1_000_000).createCell(16_000).setCellValue(12.5);
+
+            SheetSnapshot snapshot = cellFormatter.snapshot(sheet);
+            assertThat(snapshot.getRowCount(), is(1_000_001));
+            assertThat(snapshot.getColumnCount(), is(16_001));
+
+            CellFormatGrid grid = cellFormatter.formatSnapshot(snapshot, Locale.JAPANESE, pool);
+            assertThat(grid.getText(0, 0), is("first"));
+            assertThat(grid.getText(1_000_000, 16_000), is("12.5"));
+            assertThat(grid.get(500_000, 8_000), is(sameInstance(CellFormatResult.BLANK)));
+            assertThat(grid.getPhysicalRowCount(), is(2));
+
+        } finally {
+            pool.shutdown();
+        }
+
+    }
+
+    /**
+     * 夏時間のあるタイムゾーンで、スナップショットとセルの日時の変換が同じになるかのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSnapshot_daylightSavingTime() throws IOException {
+
+        final TimeZone defaultTimeZone = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try(Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("dst");
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat("yyyy/m/d h:mm"));
+
+            // 夏時間の期間の日時
+            Cell cell = sheet.createRow(0).createCell(0);
+            cell.setCellValue(44013.4375);
+            cell.setCellStyle(style);
+
+            assertThat(cellFormatter.formatAsString(cell, Locale.JAPANESE), is("2020/7/1 10:30"));
+
+            CellFormatGrid sheetGrid = cellFormatter.formatSheet(sheet, Locale.JAPANESE);
+            assertThat(sheetGrid.getText(0, 0), is("2020/7/1 10:30"));
+
+            CellFormatGrid snapshotGrid = cellFormatter.formatSnapshot(cellFormatter.snapshot(sheet), Locale.JAPANESE);
+            assertThat(snapshotGrid.getText(0, 0), is("2020/7/1 10:30"));
+            assertGridEquals(snapshotGrid, sheetGrid);
+
+            // 元の日時に戻せる
+            Calendar expected = Calendar.getInstance();
+            expected.clear();
+            expected.set(2020, Calendar.JULY, 1, 10, 30);
+            assertThat(snapshotGrid.get(0, 0).getValueAsDate(), is(expected.getTime()));
+
+        } finally {
+            TimeZone.setDefault(defaultTimeZone);
+        }
+
+    }
+
+    /**
+     * ワークブックのシートを並列にフォーマットしたときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatWorkbook() {
+
+        File file = new File("src/test/data/cell_format_2010.xlsx");
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try(InputStream in = new FileInputStream(file)) {
+            Workbook workbook = WorkbookFactory.create(in);
+
+            Map<String, CellFormatGrid> results = cellFormatter.formatWorkbook(workbook, Locale.JAPANESE, 4);
+
+            // シートの順番
+            List<String> sheetNames = new ArrayList<>();
+            for(Sheet sheet : workbook) {
+                sheetNames.add(sheet.getSheetName());
+            }
+            assertThat(new ArrayList<>(results.keySet()), is(sheetNames));
+
+            // 1つずつフォーマットした結果と同じ
+            for(Sheet sheet : workbook) {
+                assertGridEquals(results.get(sheet.getSheetName()), sheet, cellFormatter);
+            }
+
+            // 並列度が異なる場合も同じ
+            Map<String, CellFormatGrid> results2 = cellFormatter.formatWorkbook(workbook, Locale.JAPANESE, 1);
+            assertThat(new ArrayList<>(results2.keySet()), is(sheetNames));
+            for(Sheet sheet : workbook) {
+                CellFormatGrid grid1 = results.get(sheet.getSheetName());
+                CellFormatGrid grid2 = results2.get(sheet.getSheetName());
+                assertThat(grid2.getPhysicalRowCount(), is(grid1.getPhysicalRowCount()));
+                assertGridEquals(grid2, grid1);
+            }
+
+            // POIのオブジェクトは、呼び出し元のスレッドのみで参照する。
+            POIAccessRecorder recorder = new POIAccessRecorder();
+            Map<String, CellFormatGrid> results3 = new POICellFormatter().formatWorkbook(recorder.wrap(workbook), Locale.JAPANESE, 4);
+            assertThat(recorder.getThreads(), is(Collections.singleton(Thread.currentThread())));
+            assertThat(new ArrayList<>(results3.keySet()), is(sheetNames));
+            for(Sheet sheet : workbook) {
+                assertGridEquals(results3.get(sheet.getSheetName()), results.get(sheet.getSheetName()));
+            }
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+
+    }
+
+    /**
+     * ワークブックをまたいでスタイルの表をキャッシュしたときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testStyleTableCache() {
+
+        File file = new File("src/test/data/cell_format_2010.xlsx");
+        POICellFormatter cellFormatter = new POICellFormatter();
+        cellFormatter.setStyleTableCacheSize(10);
+        assertThat(cellFormatter.getStyleTableCacheSize(), is(10));
+
+        POICellFormatter expectedFormatter = new POICellFormatter();
+        try {
+            // 同じファイルを2回読み込み、異なるワークブックとしてフォーマットする。
+            for(int i=0; i < 2; i++) {
+                List<Sheet> sheetList = loadSheetForFormat(file);
+                for(Sheet sheet : sheetList) {
+                    CellFormatGrid grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE);
+                    assertGridEquals(grid, sheet, expectedFormatter);
+                }
+
+                // 書式の表が同じため、1件のみ
+                assertThat(cellFormatter.getStyleTableCount(), is(1));
+            }
+
+            // 書式の表が異なるワークブック
+            Sheet sheet = loadSheetByName(new File("src/test/data/cell_format_2010_custom_compatible.xls"), "結合セル");
+            CellFormatGrid grid = cellFormatter.formatRange(sheet, CellRangeAddress.valueOf("B8:C21"));
+            assertThat(grid.getText(12, 2), is("2014年10月23日"));
+            assertThat(cellFormatter.getStyleTableCount(), is(2));
+
+            // フォーマッタの解決方法を入れ替えた場合は破棄する。
+            cellFormatter.setFormatterResolver(new FormatterResolver());
+            assertThat(cellFormatter.getStyleTableCount(), is(0));
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+
+    }
+
+    /**
+     * 使用されていないスタイルに不正な書式があっても、スタイルの表を使用してフォーマットできること。
+     * @since 0.13
+     */
+    @Test
+    public void testStyleTableCache_unusedInvalidStyle() throws IOException {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        cellFormatter.setStyleTableCacheSize(10);
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            DataFormat dataFormat = workbook.createDataFormat();
+
+            // セクションの数が多い不正な書式
+            CellStyle invalidStyle = workbook.createCellStyle();
+            invalidStyle.setDataFormat(dataFormat.getFormat("0;0;0;0;0"));
+
+            CellStyle style = workbook.createCellStyle();
+            style.setDataFormat(dataFormat.getFormat("0.00"));
+
+            Sheet sheet = workbook.createSheet("test");
+            Cell cell = sheet.createRow(0).createCell(0);
+            cell.setCellValue(1.5);
+            cell.setCellStyle(style);
+
+            CellFormatGrid grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE);
+            assertThat(grid.getText(0, 0), is("1.50"));
+            assertThat(cellFormatter.getStyleTableCount(), is(1));
+
+            // キャッシュした表を使用しても同じ結果
+            grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE);
+            assertThat(grid.getText(0, 0), is("1.50"));
+        }
+
+    }
+
+    /**
+     * 変更された行のみフォーマットしたときのテスト
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSheet_incremental() {
+
+        File file = new File("src/test/data/cell_format_2010.xlsx");
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try {
+            Sheet sheet = loadSheetForFormat(file).get(0);
+            CellFormatGrid expected = cellFormatter.formatSheet(sheet, Locale.JAPANESE);
+
+            // 初回は全ての行をフォーマットする。
+            IncrementalFormatState state = new IncrementalFormatState();
+            CellFormatGrid grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE, state);
+            assertThat(state.getReusedRowCount(), is(0));
+            assertThat(state.getFormattedRowCount(), is(expected.getPhysicalRowCount()));
+            assertThat(state.getRowCount(), is(expected.getPhysicalRowCount()));
+            assertGridEquals(grid, expected);
+
+            // 保存して読み込んだ結果を、同じファイルの別のワークブックに使用する。
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            state.write(out);
+            state = IncrementalFormatState.read(new ByteArrayInputStream(out.toByteArray()));
+
+            sheet = loadSheetForFormat(file).get(0);
+            grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE, state);
+            assertThat(state.getReusedRowCount(), is(expected.getPhysicalRowCount()));
+            assertThat(state.getFormattedRowCount(), is(0));
+            assertGridEquals(grid, expected);
+
+            // 値を変更した行のみフォーマットする。
+            Cell changed = null;
+            for(Row row : sheet) {
+                for(Cell cell : row) {
+                    if(cell.getCellType() == CellType.NUMERIC) {
+                        changed = cell;
+                        break;
+                    }
+                }
+                if(changed != null) {
+                    break;
+                }
+            }
+            changed.setCellValue(changed.getNumericCellValue() + 1.0);
+
+            grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE, state);
+            assertThat(state.getReusedRowCount(), is(expected.getPhysicalRowCount() - 1));
+            assertThat(state.getFormattedRowCount(), is(1));
+            assertThat(grid.getText(changed.getRowIndex(), changed.getColumnIndex()),
+                    is(cellFormatter.formatAsString(changed, Locale.JAPANESE)));
+
+            // ロケールが異なる場合は、全ての行をフォーマットする。
+            cellFormatter.formatSheet(sheet, Locale.ENGLISH, state);
+            assertThat(state.getReusedRowCount(), is(0));
+
+        } catch(Exception e) {
+            e.printStackTrace();
+            fail();
+        }
+
+    }
+
+    /**
+     * 数式のセルを含む行は、数式自体が変わらなくても、常にフォーマットすること。
+     * @since 0.13
+     */
+    @Test
+    public void testFormatSheet_incremental_formula() throws IOException {
+
+        POICellFormatter cellFormatter = new POICellFormatter();
+        try(Workbook workbook = new XSSFWorkbook()) {
+            Sheet sheet = workbook.createSheet("test");
+            Cell source = sheet.createRow(0).createCell(0);
+            source.setCellValue(1);
+
+            Row formulaRow = sheet.createRow(1);
+            formulaRow.createCell(0).setCellValue("total");
+            formulaRow.createCell(1).setCellFormula("A1*2");
+
+            Row errorRow = sheet.createRow(2);
+            errorRow.createCell(0).setCellErrorValue(FormulaError.DIV0.getCode());
+            errorRow.createCell(1).setCellValue(10);
+
+            IncrementalFormatState state = new IncrementalFormatState();
+            CellFormatGrid grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE, state);
+            assertThat(grid.getText(1, 1), is("2"));
+            assertThat(state.getFormattedRowCount(), is(3));
+
+            // 参照先の行のみ変更した場合も、数式の行はフォーマットし直す。
+            source.setCellValue(3);
+            grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE, state);
+            assertThat(grid.getText(1, 1), is("6"));
+            assertThat(state.getReusedRowCount(), is(1));
+            assertThat(state.getFormattedRowCount(), is(2));
+
+            // 保存して読み込んだ、エラーセルの行の結果を使用する。
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            state.write(out);
+            state = IncrementalFormatState.read(new ByteArrayInputStream(out.toByteArray()));
+
+            CellFormatGrid expected = cellFormatter.formatSheet(sheet, Locale.JAPANESE);
+            grid = cellFormatter.formatSheet(sheet, Locale.JAPANESE, state);
+            assertThat(state.getReusedRowCount(), is(2));
+            assertGridEquals(grid, expected);
+            assertThat(grid.get(2, 0).getValue(), is(expected.get(2, 0).getValue()));
+            assertThat(grid.get(2, 1).getValue(), is(expected.get(2, 1).getValue()));
+        }
+
+    }
+
+    /**
+     * 2つのフォーマット結果の範囲と、各セルの結果が一致することを検証する。
+     * @param actual 検証対象の結果
+     * @param expected 期待値の結果
+     */
+    private static void assertGridEquals(final CellFormatGrid actual, final CellFormatGrid expected) {
+        assertThat(actual.getFirstRow(), is(expected.getFirstRow()));
+        assertThat(actual.getLastRow(), is(expected.getLastRow()));
+        assertThat(actual.getFirstColumn(), is(expected.getFirstColumn()));
+        assertThat(actual.getLastColumn(), is(expected.getLastColumn()));
+
+        for(int r=expected.getFirstRow(); r <= expected.getLastRow(); r++) {
+            assertThat(actual.hasRow(r), is(expected.hasRow(r)));
+            for(int c=expected.getFirstColumn(); c <= expected.getLastColumn(); c++) {
+                assertThat(actual.getText(r, c), is(expected.getText(r, c)));
+                assertThat(actual.get(r, c).getCellType(), is(expected.get(r, c).getCellType()));
+                assertThat(actual.get(r, c).getTextColor(), is(expected.get(r, c).getTextColor()));
+            }
+        }
+    }
+
+    /**
+     * シートの全てのセルについて、フォーマット結果が1つずつフォーマットした結果と一致することを検証する。
+     * @param actual 検証対象の結果
+     * @param sheet フォーマットしたシート
+     * @param expectedFormatter 期待値をフォーマットするフォーマッタ
+     */
+    private static void assertGridEquals(final CellFormatGrid actual, final Sheet sheet,
+            final POICellFormatter expectedFormatter) {
+
+        for(Row row : sheet) {
+            for(Cell cell : row) {
+                CellFormatResult expected = expectedFormatter.format(cell, Locale.JAPANESE);
+                CellFormatResult result = actual.get(cell.getRowIndex(), cell.getColumnIndex());
+
+                assertThat(actual.hasRow(cell.getRowIndex()), is(true));
+                assertThat(result.getText(), is(expected.getText()));
+                assertThat(result.getCellType(), is(expected.getCellType()));
+                assertThat(result.getTextColor(), is(expected.getTextColor()));
+            }
+        }
+    }
+
     /**
      * 書式確認用のシートの取得
      * @param file
@@ -976,4 +1880,84 @@ public class POICellFormatterTest {
 
         return true;
     }
+
+    /**
+     * POIのオブジェクトを参照したスレッドを記録する。
+     * <p>POIのインタフェースを実装したプロキシでラップし、メソッドの戻り値のPOIのオブジェクトも同様にラップする。
+     *    <br>引数に渡されたプロキシは、元のオブジェクトに戻してから呼び出す。</p>
+     */
+    private static class POIAccessRecorder {
+
+        private final Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        private final Map<Object, Object> proxies = new IdentityHashMap<>();
+
+        private final Map<Object, Object> targets = new IdentityHashMap<>();
+
+        @SuppressWarnings("unchecked")
+        <T> T wrap(final T target) {
+            return (T) wrapObject(target);
+        }
+
+        Set<Thread> getThreads() {
+            return threads;
+        }
+
+        private synchronized Object wrapObject(final Object target) {
+
+            if(target == null || Proxy.isProxyClass(target.getClass())) {
+                return target;
+            }
+
+            Object proxy = proxies.get(target);
+            if(proxy != null) {
+                return proxy;
+            }
+
+            final Set<Class<?>> interfaces = new LinkedHashSet<>();
+            for(Class<?> clazz = target.getClass(); clazz != null; clazz = clazz.getSuperclass()) {
+                for(Class<?> type : clazz.getInterfaces()) {
+                    if(Modifier.isPublic(type.getModifiers()) && type.getName().startsWith("org.apache.poi.ss.")) {
+                        interfaces.add(type);
+                    }
+                }
+            }
+            if(interfaces.isEmpty()) {
+                return target;
+            }
+
+            proxy = Proxy.newProxyInstance(getClass().getClassLoader(), interfaces.toArray(new Class<?>[interfaces.size()]),
+                    (p, method, args) -> invoke(target, method, args));
+            proxies.put(target, proxy);
+            targets.put(proxy, target);
+            return proxy;
+        }
+
+        private synchronized Object unwrapObject(final Object value) {
+            final Object target = value == null ? null : targets.get(value);
+            return target != null ? target : value;
+        }
+
+        private Object invoke(final Object target, final Method method, final Object[] args) throws Throwable {
+
+            threads.add(Thread.currentThread());
+
+            if(args != null) {
+                for(int i=0; i < args.length; i++) {
+                    args[i] = unwrapObject(args[i]);
+                }
+            }
+
+            final Object result;
+            try {
+                result = method.invoke(target, args);
+            } catch(InvocationTargetException e) {
+                throw e.getCause();
+            }
+
+            return method.getReturnType().isInterface() ? wrapObject(result) : result;
+        }
+
+    }
+
 }
@@ -0,0 +1,194 @@
+package com.github.mygreen.cellformatter.export;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+
+import com.github.mygreen.cellformatter.CellFormatResult;
+import com.github.mygreen.cellformatter.CellFormatRowHandler;
+import com.github.mygreen.cellformatter.FormatCellType;
+import com.github.mygreen.cellformatter.POICellFormatter;
+import com.github.mygreen.cellformatter.lang.MSColor;
+
+/**
+ * {@link SheetExporter}とその実装クラスのテスタ
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class SheetExporterTest {
+
+    @Test
+    public void testCsv() throws IOException {
+
+        final CsvExporter exporter = new CsvExporter(new POICellFormatter());
+
+        final String actual = export(exporter, handler -> {
+            handler.handleRow(0, 1, row("1,234", "\"abc\"", null));
+            handler.handleRow(1, 1, row("改行\nあり", "", "2017/1/2"));
+        });
+        assertThat(actual, is("\"1,234\",\"\"\"abc\"\"\",\r\n\"改行\nあり\",,2017/1/2\r\n"));
+
+        exporter.setDelimiter(';');
+        exporter.setQuoteAll(true);
+        exporter.setLineSeparator("\n");
+        assertThat(export(exporter, handler -> handler.handleRow(0, 0, row("1,234", "a;b"))),
+                is("\"1,234\";\"a;b\"\n"));
+    }
+
+    @Test
+    public void testTsv() throws IOException {
+
+        final TsvExporter exporter = new TsvExporter(new POICellFormatter());
+
+        final String actual = export(exporter, handler -> {
+            handler.handleRow(0, 0, row("a\tb", "c:\\dir", "改行\r\nあり"));
+        });
+        assertThat(actual, is("a\\tb\tc:\\\\dir\t改行\\r\\nあり\n"));
+    }
+
+    @Test
+    public void testJsonLines() throws IOException {
+
+        final JsonLinesExporter exporter = new JsonLinesExporter(new POICellFormatter());
+
+        final Consumer<CellFormatRowHandler> reader = handler -> {
+            handler.handleRow(2, 0, row("\"引用\"", "a\\b\u0001", null));
+            handler.handleRow(4, 0, row("1", "2", "3"));
+        };
+
+        // 存在しない行は空の配列
+        assertThat(export(exporter, reader),
+                is("[\"\\\"引用\\\"\",\"a\\\\b\\u0001\",\"\"]\n[\"\",\"\",\"\"]\n[\"1\",\"2\",\"3\"]\n"));
+
+        exporter.setSkipMissingRows(true);
+        exporter.setRowIndexIncluded(true);
+        assertThat(export(exporter, reader),
+                is("{\"row\":2,\"cells\":[\"\\\"引用\\\"\",\"a\\\\b\\u0001\",\"\"]}\n{\"row\":4,\"cells\":[\"1\",\"2\",\"3\"]}\n"));
+    }
+
+    @Test
+    public void testHtml() throws IOException {
+
+        final HtmlExporter exporter = new HtmlExporter(new POICellFormatter());
+
+        final CellFormatResult[] results = row("<1,234>", "-1 & 2");
+        results[1].setTextColor(MSColor.RED);
+
+        final Consumer<CellFormatRowHandler> reader = handler -> handler.handleRow(0, 0, results);
+
+        assertThat(export(exporter, reader),
+                is("<table>\n<tr><td>&lt;1,234&gt;</td><td>-1 &amp; 2</td></tr>\n</table>\n"));
+
+        exporter.setColorOutput(true);
+        assertThat(export(exporter, reader),
+                is("<table>\n<tr><td>&lt;1,234&gt;</td><td style=\"color:" + MSColor.RED.getHtmlColor() + "\">-1 &amp; 2</td></tr>\n</table>\n"));
+    }
+
+    /**
+     * パイプライン処理の結果が、同じスレッドで処理した場合と一致すること。
+     */
+    @Test
+    public void testPipelined() throws IOException {
+
+        final CsvExporter exporter = new CsvExporter(new POICellFormatter());
+        exporter.setBufferSize(100);
+
+        final Consumer<CellFormatRowHandler> reader = handler -> {
+            // ハンドラに渡す配列は使い回す
+            final CellFormatResult[] results = new CellFormatResult[3];
+            for(int r=0; r < 2000; r++) {
+                if(r % 7 == 3) {
+                    continue;
+                }
+                results[0] = result(String.valueOf(r));
+                results[1] = result("行" + r);
+                results[2] = r % 5 == 0 ? null : result("a,\"" + r);
+                handler.handleRow(r, 0, results);
+            }
+        };
+
+        final String expected = export(exporter, reader);
+
+        exporter.setPipelined(true);
+        exporter.setQueueCapacity(2);
+        assertThat(export(exporter, reader), is(expected));
+        assertThat(expected.startsWith("0,行0,\r\n1,行1,\"a,\"\"1\"\r\n"), is(true));
+    }
+
+    /**
+     * パイプライン処理で、書き込みに失敗した場合
+     */
+    @Test
+    public void testPipelined_writeFailure() {
+
+        final CsvExporter exporter = new CsvExporter(new POICellFormatter());
+        exporter.setBufferSize(16);
+        exporter.setPipelined(true);
+        exporter.setQueueCapacity(1);
+
+        final WritableByteChannel channel = new WritableByteChannel() {
+
+            @Override
+            public boolean isOpen() {
+                return true;
+            }
+
+            @Override
+            public void close() {
+            }
+
+            @Override
+            public int write(final ByteBuffer src) throws IOException {
+                throw new IOException("disk full");
+            }
+        };
+
+        try {
+            exporter.export(handler -> {
+                for(int r=0; r < 100000; r++) {
+                    handler.handleRow(r, 0, row("abc", "def"));
+                }
+            }, channel);
+            fail();
+
+        } catch(IOException e) {
+            assertThat(e.getMessage(), is("disk full"));
+        }
+    }
+
+    private static String export(final SheetExporter exporter, final Consumer<CellFormatRowHandler> reader) throws IOException {
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(reader, Channels.newChannel(out));
+
+        return new String(out.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    private static CellFormatResult[] row(final String... texts) {
+        final CellFormatResult[] results = new CellFormatResult[texts.length];
+        for(int i=0; i < texts.length; i++) {
+            results[i] = texts[i] == null ? null : result(texts[i]);
+        }
+        return results;
+    }
+
+    private static CellFormatResult result(final String text) {
+        final CellFormatResult result = new CellFormatResult();
+        result.setCellType(FormatCellType.Text);
+        result.setValue(text);
+        result.setText(text);
+        return result;
+    }
+
+}
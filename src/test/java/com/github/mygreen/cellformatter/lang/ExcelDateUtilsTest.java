@@ -4,13 +4,16 @@ import static org.hamcrest.CoreMatchers.*;
 import static org.junit.Assert.*;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 import org.junit.Test;
 
 /**
  * {@link ExcelDateUtils}のテスタ
  *
+ * @version 0.13
  * @since 0.6
  * @author T.TSUCHIE
  *
@@ -222,6 +225,48 @@ public class ExcelDateUtilsTest {
         
     }
     
+    /**
+     * {@link ExcelDateUtils#convertExcelNumber(LocalDateTime, boolean)}のテスタ
+     * ・{@link Date}型の場合と同じ値になること
+     */
+    @Test
+    public void testConvertToExcelNumber_localDateTime() {
+        
+        final String[] values = {
+                "1899-12-31 00:00:00.000", "1900-01-01 00:00:01.000", "1900-02-28 23:59:59.999", "1900-03-01 00:00:00.000",
+                "1904-01-01 00:00:00.000", "1904-02-29 12:00:00.000", "1970-01-01 00:00:00.000", "2012-04-01 12:34:56.789",
+                "1899-12-29 00:00:00.000", "9999-12-31 23:59:59.000"};
+        
+        for(String value : values) {
+            final LocalDateTime dateTime = LocalDateTime.parse(value.replace(' ', 'T'));
+            
+            assertThat(value, ExcelDateUtils.convertExcelNumber(dateTime, false), is(ExcelDateUtils.convertExcelNumber(toDate(value), false)));
+            assertThat(value, ExcelDateUtils.convertExcelNumber(dateTime, true), is(ExcelDateUtils.convertExcelNumber(toDate(value), true)));
+            assertThat(value, ExcelDateUtils.convertJavaDate(dateTime), is(toDate(value)));
+        }
+        
+    }
+    
+    /**
+     * {@link ExcelDateUtils#convertJavaDate(long, boolean)}のテスタ
+     * ・数値の場合と同じ値になること
+     */
+    @Test
+    public void testConvertToJavaDate_millis() {
+        
+        final long day = TimeUnit.DAYS.toMillis(1);
+        final long[] values = {0L, 1000L, day, day * 59, day * 60, day * 60 + 1000L, day * 61, day * 1462 + day / 2, -day};
+        
+        for(long value : values) {
+            assertThat(String.valueOf(value), ExcelDateUtils.convertJavaDate(value, false), is(ExcelDateUtils.convertJavaDate((double)value / day, false)));
+            assertThat(String.valueOf(value), ExcelDateUtils.convertJavaDate(value, true), is(ExcelDateUtils.convertJavaDate((double)value / day, true)));
+        }
+        
+        // ミリ秒は丸めない
+        assertThat(formatDate(ExcelDateUtils.convertJavaDate(day + 1234L, false)), is("1900-01-01 00:00:01.234"));
+        
+    }
+    
     /**
      * Excel上の数値の秒に変換する
      * @param value
@@ -0,0 +1,72 @@
+package com.github.mygreen.cellformatter.lang;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import org.junit.Test;
+
+/**
+ * {@link KeywordMatcher}のテスタ
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class KeywordMatcherTest {
+
+    @Test
+    public void testMatchLength() {
+
+        final KeywordMatcher matcher = new KeywordMatcher(new String[]{"m", "mm", "mmmm", "am/pm", "a/p"}, true);
+
+        // 最も長く一致するもの
+        assertThat(matcher.matchLength("mmm", 0), is(2));
+        assertThat(matcher.matchLength("mmmm", 0), is(4));
+        assertThat(matcher.matchLength("yyyy/mm", 5), is(2));
+        assertThat(matcher.matchLength("AM/PM", 0), is(5));
+        assertThat(matcher.matchLength("A/P", 0), is(3));
+        assertThat(matcher.matchLength("am/p", 0), is(0));
+
+        // 一致しない場合
+        assertThat(matcher.matchLength("yyyy", 0), is(0));
+        assertThat(matcher.matchLength("", 0), is(0));
+        assertThat(matcher.matchLength("m", 1), is(0));
+    }
+
+    @Test
+    public void testMatchLength_caseSensitive() {
+
+        final KeywordMatcher matcher = new KeywordMatcher(new String[]{"E+", "E-", "General"}, false);
+
+        assertThat(matcher.matchLength("0.00E+00", 4), is(2));
+        assertThat(matcher.matchLength("0.00e+00", 4), is(0));
+        assertThat(matcher.matchLength("General", 0), is(7));
+        assertThat(matcher.matchLength("general", 0), is(0));
+    }
+
+    @Test
+    public void testContainsAny() {
+
+        final KeywordMatcher matcher = new KeywordMatcher(new String[]{"yy", "d", "am/pm"}, true);
+
+        assertThat(matcher.containsAny("YYYY"), is(true));
+        assertThat(matcher.containsAny("#,##0.0d"), is(true));
+        assertThat(matcher.containsAny("h:mm AM/PM"), is(true));
+        assertThat(matcher.containsAny("#,##0.0y"), is(false));
+        assertThat(matcher.containsAny(""), is(false));
+        assertThat(matcher.containsAny(null), is(false));
+
+        // String#regionMatchesの大文字・小文字を無視した比較と同じ結果になること
+        assertThat(matcher.containsAny("Kı"), is("Kı".regionMatches(true, 0, "d", 0, 1)));
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructor_nonAscii() {
+        new KeywordMatcher(new String[]{"年"}, true);
+    }
+
+    @Test(expected=IllegalArgumentException.class)
+    public void testConstructor_empty() {
+        new KeywordMatcher(new String[]{}, true);
+    }
+
+}
@@ -0,0 +1,112 @@
+package com.github.mygreen.cellformatter.lang;
+
+import static org.hamcrest.CoreMatchers.*;
+import static org.junit.Assert.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+
+/**
+ * {@link Utf8Sink}のテスタ
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class Utf8SinkTest {
+
+    @Test
+    public void testAppend() {
+
+        final Utf8Sink sink = new Utf8Sink(4);
+
+        sink.append("1,234.50");
+        assertThat(sink.size(), is(8));
+
+        // マルチバイト文字
+        sink.append("￥").append("2012年").append("一千二百三十四");
+        sink.append('円');
+
+        final String expected = "1,234.50￥2012年一千二百三十四円";
+        assertThat(sink.toByteArray(), is(expected.getBytes(StandardCharsets.UTF_8)));
+        assertThat(sink.toString(), is(expected));
+
+        // サロゲートペア
+        sink.clear();
+        sink.append("a𠮷b");
+        assertThat(sink.toByteArray(), is("a𠮷b".getBytes(StandardCharsets.UTF_8)));
+
+        // 対になっていないサロゲート文字
+        sink.clear();
+        sink.append("a\uD842b");
+        assertThat(sink.toString(), is("a?b"));
+
+        sink.clear();
+        sink.append((CharSequence) null);
+        assertThat(sink.size(), is(0));
+    }
+
+    @Test
+    public void testEncode() {
+
+        final byte[] bytes = Utf8Sink.encode("年月日");
+        assertThat(bytes, is("年月日".getBytes(StandardCharsets.UTF_8)));
+
+        final Utf8Sink sink = new Utf8Sink();
+        sink.append(bytes).append("ABC");
+        assertThat(sink.toString(), is("年月日ABC"));
+    }
+
+    @Test
+    public void testWriteTo() {
+
+        final Utf8Sink sink = new Utf8Sink();
+        sink.append("12円");
+
+        final ByteBuffer buffer = ByteBuffer.allocate(16);
+        sink.writeTo(buffer);
+
+        assertThat(buffer.position(), is(5));
+        buffer.flip();
+        assertThat(StandardCharsets.UTF_8.decode(buffer).toString(), is("12円"));
+    }
+
+    @Test
+    public void testAppend_range() {
+
+        final Utf8Sink sink = new Utf8Sink(4);
+        sink.append("\"1,234円\"", 1, 7);
+        assertThat(sink.toString(), is("1,234円"));
+
+        sink.append("abc", 1, 1);
+        assertThat(sink.toString(), is("1,234円"));
+
+        try {
+            sink.append("abc", 2, 4);
+            fail();
+        } catch(IndexOutOfBoundsException e) {
+            // 範囲外
+        }
+    }
+
+    @Test
+    public void testWriteTo_channel() throws IOException {
+
+        final Utf8Sink sink = new Utf8Sink();
+        for(int i=0; i < 100; i++) {
+            sink.append("12円,");
+        }
+
+        // バッファの容量より大きい場合は分割して書き込む
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sink.writeTo(Channels.newChannel(out), ByteBuffer.allocateDirect(64));
+
+        assertThat(out.toByteArray(), is(sink.toByteArray()));
+        assertThat(sink.size(), is(600));
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.github.mygreen.cellformatter.tokenizer;
+
+import static org.hamcrest.Matchers.*;
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * {@link CustomFormatTokenizer}のテスタ
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class CustomFormatTokenizerTest {
+
+    private CustomFormatTokenizer tokenizer;
+
+    private LegacyCustomFormatTokenizer legacyTokenizer;
+
+    @Before
+    public void setupBefore() {
+        tokenizer = new CustomFormatTokenizer();
+        legacyTokenizer = new LegacyCustomFormatTokenizer();
+    }
+
+    @Test
+    public void testParse_empty() {
+
+        assertThat(tokenizer.parse(null).getTokens(), is(empty()));
+        assertThat(tokenizer.parse("").getTokens(), is(empty()));
+    }
+
+    @Test
+    public void testParse_tokens() {
+
+        assertThat(tokenizer.parse("[Red][>=100]#,##0.0_);\\(#,##0.0\\)").toString(),
+                is("[0]Condition([Red]), [1]Condition([>=100]), [2]Factor(#,##0.0), [3]Underscore(_)), [4]Symbol(;), "
+                        + "[5]EscapedChar(\\(), [6]Factor(#,##0.0), [7]EscapedChar(\\))"));
+
+        assertThat(tokenizer.parse("yyyy\"年\"m\"月\"d\"日\";@").toString(),
+                is("[0]Factor(yyyy), [1]Word(\"年\"), [2]Factor(m), [3]Word(\"月\"), [4]Factor(d), [5]Word(\"日\"), "
+                        + "[6]Symbol(;), [7]Factor(@)"));
+
+        assertThat(tokenizer.parse("_(* #,##0_);_(* \"-\"_);_(@_)").toString(),
+                is("[0]Underscore(_(), [1]Asterisk(* ), [2]Factor(#,##0), [3]Underscore(_)), [4]Symbol(;), "
+                        + "[5]Underscore(_(), [6]Asterisk(* ), [7]Word(\"-\"), [8]Underscore(_)), [9]Symbol(;), "
+                        + "[10]Underscore(_(), [11]Factor(@), [12]Underscore(_))"));
+
+        // 囲み文字の中のエスケープ文字
+        assertThat(tokenizer.parse("\"a\\\"[$\\]-411]0").toString(),
+                is("[0]Word(\"a\\\"), [1]Condition([$\\]-411]), [2]Factor(0)"));
+
+        // 末尾のアンダースコア
+        assertThat(tokenizer.parse("0_").toString(),
+                is("[0]Factor(0), [1]Factor(_)"));
+    }
+
+    /**
+     * テスト用のファイル中の全ての書式に対して、以前の実装と同じトークンに分割されることを確認する。
+     */
+    @Test
+    public void testParse_compareLegacy() throws Exception {
+
+        final Set<String> patterns = new TreeSet<>();
+
+        final File[] files = new File("src/test/data").listFiles();
+        for(File file : files) {
+            try(InputStream in = new FileInputStream(file)) {
+                final Workbook workbook = WorkbookFactory.create(in);
+
+                final int styleNum = workbook.getNumCellStyles();
+                for(int i=0; i < styleNum; i++) {
+                    final String pattern = workbook.getCellStyleAt(i).getDataFormatString();
+                    if(pattern != null) {
+                        patterns.add(pattern);
+                    }
+                }
+            }
+        }
+
+        assertThat(patterns, is(not(empty())));
+
+        for(String pattern : patterns) {
+            final TokenStore expected = legacyTokenizer.parse(pattern);
+            final TokenStore actual = tokenizer.parse(pattern);
+
+            assertThat(pattern, actual.toString(), is(expected.toString()));
+        }
+
+    }
+
+}
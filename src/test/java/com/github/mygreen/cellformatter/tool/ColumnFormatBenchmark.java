@@ -0,0 +1,87 @@
+package com.github.mygreen.cellformatter.tool;
+
+import java.util.Locale;
+import java.util.Random;
+
+import com.github.mygreen.cellformatter.CompiledFormat;
+import com.github.mygreen.cellformatter.ObjectCellFormatter;
+
+/**
+ * 列単位のまとめてフォーマットする処理のスループットを計測するツール。
+ * <p>同じ書式の数値の列を、1セルずつフォーマットする場合と、まとめてフォーマットする場合とで、
+ *    1ミリ秒あたりの処理件数を出力する。
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class ColumnFormatBenchmark {
+
+    /** 計測の繰り返し回数 */
+    private static final int ROUND = 10;
+
+    /** 1列の値の個数 */
+    private static final int SIZE = 100_000;
+
+    /** 計測対象の書式 */
+    private static final String[] PATTERNS = {
+            "#,##0.00",
+            "#,##0_);[Red]\\(#,##0\\)",
+            "[Blue][>=1000]#,##0;[Red][<0]\\(#,##0.0\\);0.00",
+            "0.00%",
+            "yyyy/m/d h:mm",
+    };
+
+    public static void main(String[] args) throws Exception {
+
+        final ObjectCellFormatter cellFormatter = new ObjectCellFormatter();
+        final Locale locale = Locale.JAPANESE;
+
+        final Random random = new Random(1L);
+        final double[] values = new double[SIZE];
+        for(int i=0; i < SIZE; i++) {
+            values[i] = (random.nextDouble() - 0.2) * 50000.0;
+        }
+
+        final String[] results = new String[SIZE];
+        final short[] colors = new short[SIZE];
+
+        for(String pattern : PATTERNS) {
+
+            final CompiledFormat format = cellFormatter.compile(pattern, locale);
+
+            for(int round=0; round < ROUND; round++) {
+
+                long count = 0;
+
+                long start = System.nanoTime();
+                for(int i=0; i < SIZE; i++) {
+                    count += cellFormatter.format(pattern, values[i], locale).getText().length();
+                }
+                final long cellTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                for(int i=0; i < SIZE; i++) {
+                    count += format.format(values[i]).getText().length();
+                }
+                final long compiledTime = System.nanoTime() - start;
+
+                start = System.nanoTime();
+                format.format(values, 0, SIZE, results, colors);
+                for(int i=0; i < SIZE; i++) {
+                    count += results[i].length();
+                }
+                final long batchTime = System.nanoTime() - start;
+
+                System.out.printf("%s [%d] per cell=%.1f/ms, compiled=%.1f/ms, batch=%.1f/ms (%d)\n",
+                        pattern, round, throughput(cellTime), throughput(compiledTime), throughput(batchTime), count);
+            }
+        }
+
+    }
+
+    private static double throughput(final long nanoTime) {
+        return (double) SIZE / (nanoTime / 1000_000.0);
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.github.mygreen.cellformatter.tool;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.ss.usermodel.WorkbookFactory;
+
+import com.github.mygreen.cellformatter.CustomFormatterFactory;
+import com.github.mygreen.cellformatter.tokenizer.CustomFormatTokenizer;
+import com.github.mygreen.cellformatter.tokenizer.LegacyCustomFormatTokenizer;
+
+/**
+ * 書式の解析（コンパイル）のスループットを計測するツール。
+ * <p>テスト用のファイル中の全ての書式を対象に、1ミリ秒あたりの処理件数を出力する。
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class FormatCompileBenchmark {
+
+    /** 計測の繰り返し回数 */
+    private static final int ROUND = 10;
+
+    /** 1回の計測で全ての書式を処理する回数 */
+    private static final int LOOP = 1000;
+
+    public static void main(String[] args) throws Exception {
+
+        final List<String> patterns = loadPatterns(new File("src/test/data"));
+        System.out.printf("patterns : %d\n", patterns.size());
+
+        final LegacyCustomFormatTokenizer legacyTokenizer = new LegacyCustomFormatTokenizer();
+        final CustomFormatTokenizer tokenizer = new CustomFormatTokenizer();
+        final CustomFormatterFactory factory = new CustomFormatterFactory();
+
+        for(int round=0; round < ROUND; round++) {
+
+            long count = 0;
+
+            long start = System.nanoTime();
+            for(int i=0; i < LOOP; i++) {
+                for(String pattern : patterns) {
+                    count += legacyTokenizer.parse(pattern).getTokens().size();
+                }
+            }
+            final long legacyTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for(int i=0; i < LOOP; i++) {
+                for(String pattern : patterns) {
+                    count += tokenizer.parse(pattern).getTokens().size();
+                }
+            }
+            final long tokenizerTime = System.nanoTime() - start;
+
+            start = System.nanoTime();
+            for(int i=0; i < LOOP; i++) {
+                for(String pattern : patterns) {
+                    count += factory.create(pattern).getConditionFormatters().size();
+                }
+            }
+            final long factoryTime = System.nanoTime() - start;
+
+            System.out.printf("[%d] legacy tokenizer=%.1f/ms, tokenizer=%.1f/ms, formatter factory=%.1f/ms (%d)\n",
+                    round, throughput(patterns.size(), legacyTime), throughput(patterns.size(), tokenizerTime),
+                    throughput(patterns.size(), factoryTime), count);
+        }
+
+    }
+
+    private static double throughput(final int size, final long nanoTime) {
+        return (double) size * LOOP / (nanoTime / 1000_000.0);
+    }
+
+    /**
+     * ディレクトリ中の全てのExcelファイルから、書式を取得する。
+     * @param dir 読み込むディレクトリ
+     * @return 重複を除いた書式
+     */
+    private static List<String> loadPatterns(final File dir) throws Exception {
+
+        final Set<String> patterns = new LinkedHashSet<>();
+        for(File file : dir.listFiles()) {
+            try(InputStream in = new FileInputStream(file)) {
+                final Workbook workbook = WorkbookFactory.create(in);
+
+                final int styleNum = workbook.getNumCellStyles();
+                for(int i=0; i < styleNum; i++) {
+                    final String pattern = workbook.getCellStyleAt(i).getDataFormatString();
+                    if(pattern != null) {
+                        patterns.add(pattern);
+                    }
+                }
+            }
+        }
+
+        return new ArrayList<>(patterns);
+    }
+
+}
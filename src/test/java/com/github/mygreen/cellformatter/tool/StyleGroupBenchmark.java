@@ -0,0 +1,174 @@
+package com.github.mygreen.cellformatter.tool;
+
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormat;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+
+import com.github.mygreen.cellformatter.CellFormatGrid;
+import com.github.mygreen.cellformatter.POICellFormatter;
+import com.github.mygreen.cellformatter.SheetSnapshot;
+
+/**
+ * スナップショットを、行の順番にフォーマットする場合と、スタイルごとにまとめてフォーマットする場合の
+ * スループットを計測するツール。
+ * <p>日付、数値、文字列などの列が交互に並ぶ、列数の多いシートを作成して計測し、1ミリ秒あたりの処理セル数を出力する。
+ *    <br>並列処理の影響を除くため、並列度1の{@link ForkJoinPool}を使用する。</p>
+ * <p>分岐予測ミスやキャッシュミスを比較する場合は、引数で片方の処理のみを指定して、
+ *    {@code perf stat -e branches,branch-misses,L1-dcache-load-misses}などから実行する。</p>
+ * <pre>
+ * java ... StyleGroupBenchmark row     # 行の順番のみ
+ * java ... StyleGroupBenchmark group   # スタイルごとのみ
+ * </pre>
+ *
+ * @since 0.13
+ * @author T.TSUCHIE
+ *
+ */
+public class StyleGroupBenchmark {
+
+    /** 計測の繰り返し回数 */
+    private static final int ROUND = 10;
+
+    /** 行数 */
+    private static final int ROWS = 20_000;
+
+    /** 列数 */
+    private static final int COLUMNS = 60;
+
+    /** 列ごとに順番に割り当てる書式 */
+    private static final String[] PATTERNS = {
+            "yyyy/m/d",
+            "#,##0_);[Red]\\(#,##0\\)",
+            "@",
+            "0.00%",
+            "\"￥\"#,##0",
+            "h:mm:ss AM/PM",
+            "[$-411]ggge\"年\"m\"月\"d\"日\"",
+            "# ?/?",
+            "General",
+            "[Blue][>=1000]#,##0;[Red][<0]\\(#,##0.0\\);0.00",
+    };
+
+    public static void main(String[] args) throws Exception {
+
+        final String mode = args.length > 0 ? args[0] : "both";
+        final boolean runRow = !mode.equals("group");
+        final boolean runGroup = !mode.equals("row");
+
+        final POICellFormatter cellFormatter = new POICellFormatter();
+        final Locale locale = Locale.JAPANESE;
+        final ForkJoinPool pool = new ForkJoinPool(1);
+
+        try(Workbook workbook = new XSSFWorkbook()) {
+            final Sheet sheet = createSheet(workbook);
+            final SheetSnapshot snapshot = cellFormatter.snapshot(sheet);
+            final long cells = (long) snapshot.getRowCount() * snapshot.getColumnCount();
+
+            System.out.printf("rows=%d, columns=%d, styles=%d\n",
+                    snapshot.getRowCount(), snapshot.getColumnCount(), snapshot.getStyleCount());
+
+            for(int round=0; round < ROUND; round++) {
+
+                long count = 0;
+                long rowTime = 0;
+                long groupTime = 0;
+
+                if(runRow) {
+                    cellFormatter.setGroupByStyle(false);
+                    final long start = System.nanoTime();
+                    count += checksum(cellFormatter.formatSnapshot(snapshot, locale, pool));
+                    rowTime = System.nanoTime() - start;
+                }
+
+                if(runGroup) {
+                    cellFormatter.setGroupByStyle(true);
+                    final long start = System.nanoTime();
+                    count += checksum(cellFormatter.formatSnapshot(snapshot, locale, pool));
+                    groupTime = System.nanoTime() - start;
+                }
+
+                System.out.printf("[%d] row-major=%.1f/ms, grouped=%.1f/ms (%d)\n",
+                        round, throughput(cells, rowTime), throughput(cells, groupTime), count);
+            }
+
+        } finally {
+            pool.shutdown();
+        }
+
+    }
+
+    /**
+     * 計測用のシートを作成する。
+     * @param workbook ワークブック
+     * @return 列ごとに異なる書式を設定したシート
+     */
+    private static Sheet createSheet(final Workbook workbook) {
+
+        final DataFormat dataFormat = workbook.createDataFormat();
+        final CellStyle[] styles = new CellStyle[PATTERNS.length];
+        for(int i=0; i < PATTERNS.length; i++) {
+            styles[i] = workbook.createCellStyle();
+            styles[i].setDataFormat(dataFormat.getFormat(PATTERNS[i]));
+        }
+
+        final Random random = new Random(1L);
+        final Sheet sheet = workbook.createSheet("benchmark");
+        for(int r=0; r < ROWS; r++) {
+            final Row row = sheet.createRow(r);
+            for(int c=0; c < COLUMNS; c++) {
+                final int kind = c % PATTERNS.length;
+                final Cell cell = row.createCell(c);
+                cell.setCellStyle(styles[kind]);
+
+                switch(kind) {
+                    case 0:
+                    case 6:
+                        cell.setCellValue(new Date(946652400000L + random.nextInt(7000) * 86400000L));
+                        break;
+                    case 2:
+                        cell.setCellValue("item-" + random.nextInt(500));
+                        break;
+                    case 5:
+                        cell.setCellValue(random.nextDouble());
+                        break;
+                    case 8:
+                        if(random.nextInt(4) == 0) {
+                            cell.setCellValue(random.nextBoolean());
+                        } else {
+                            cell.setCellValue(random.nextInt(100000));
+                        }
+                        break;
+                    default:
+                        cell.setCellValue((random.nextDouble() - 0.2) * 50000.0);
+                        break;
+                }
+            }
+        }
+
+        return sheet;
+    }
+
+    private static long checksum(final CellFormatGrid grid) {
+        long sum = 0;
+        for(int r=grid.getFirstRow(); r <= grid.getLastRow(); r++) {
+            for(int c=grid.getFirstColumn(); c <= grid.getLastColumn(); c++) {
+                sum += grid.getText(r, c).length();
+            }
+        }
+        return sum;
+    }
+
+    private static double throughput(final long cells, final long nanoTime) {
+        return nanoTime == 0 ? 0.0 : (double) cells / (nanoTime / 1000_000.0);
+    }
+
+}